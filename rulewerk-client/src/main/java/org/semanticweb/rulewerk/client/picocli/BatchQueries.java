@@ -0,0 +1,302 @@
+package org.semanticweb.rulewerk.client.picocli;
+
+/*-
+ * #%L
+ * Rulewerk Client
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.QueryResult;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.reasoner.Correctness;
+import org.semanticweb.rulewerk.core.reasoner.QueryAnswerCount;
+import org.semanticweb.rulewerk.core.reasoner.QueryResultIterator;
+import org.semanticweb.rulewerk.core.reasoner.Reasoner;
+
+import picocli.CommandLine.Option;
+
+/**
+ * Helper class to answer a batch of queries read from a file. Queries are
+ * answered concurrently on a fixed thread pool, and their answers are either
+ * only counted or streamed to one csv file per query.
+ *
+ * @author Philipp Hanisch
+ *
+ */
+public class BatchQueries {
+
+	static final String configurationErrorMessage = "Configuration Error: @code{--query-threads} must be a positive number.";
+	static final String wrongQueriesFileErrorMessage = "Configuration Error: wrong @code{--queries-file}. Please check the path.";
+	static final String printCompleteErrorMessage = "Configuration Error: @code{--print-complete-query-result} can't be used with @code{--queries-file}. Use @code{--save-query-results} instead.";
+
+	/**
+	 * File with one query per line in rls syntax. Empty lines and lines starting
+	 * with {@code %} are ignored.
+	 *
+	 * @default null
+	 */
+	@Option(names = "--queries-file", description = "File with one positive not-ground literal per line in rls syntax. Empty lines and lines starting with % are ignored. The queries are answered concurrently and a summary of answer counts and times is printed. No queries file by default.")
+	private String queriesFile;
+
+	/**
+	 * Number of threads to answer the queries of {@code --queries-file} with.
+	 *
+	 * @default number of available processors
+	 */
+	@Option(names = "--query-threads", description = "Number of threads to answer the queries of --queries-file with. The number of available processors by default.")
+	private int queryThreads = Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * Answer count and time of a query answered in a batch.
+	 */
+	public static class Result {
+		private final PositiveLiteral query;
+		private final long count;
+		private final long milliseconds;
+		private final Correctness correctness;
+		private final String errorMessage;
+
+		Result(final PositiveLiteral query, final long count, final long milliseconds, final Correctness correctness,
+				final String errorMessage) {
+			this.query = query;
+			this.count = count;
+			this.milliseconds = milliseconds;
+			this.correctness = correctness;
+			this.errorMessage = errorMessage;
+		}
+
+		public PositiveLiteral getQuery() {
+			return this.query;
+		}
+
+		/**
+		 * @return number of answers, or -1 if answering the query failed
+		 */
+		public long getCount() {
+			return this.count;
+		}
+
+		public long getMilliseconds() {
+			return this.milliseconds;
+		}
+
+		public Correctness getCorrectness() {
+			return this.correctness;
+		}
+
+		/**
+		 * @return the reason why answering the query failed, or {@code null}
+		 */
+		public String getErrorMessage() {
+			return this.errorMessage;
+		}
+	}
+
+	public BatchQueries() {
+	}
+
+	public BatchQueries(final String queriesFile, final int queryThreads) {
+		this.queriesFile = queriesFile;
+		this.queryThreads = queryThreads;
+	}
+
+	/**
+	 * Check correct configuration of the class. {@code --query-threads} must be
+	 * positive.
+	 *
+	 * @return {@code true} if configuration is valid.
+	 */
+	public boolean isConfigurationValid() {
+		return this.queryThreads > 0;
+	}
+
+	/**
+	 * Check that {@code --queries-file}, if given, is an existing file.
+	 *
+	 * @return {@code true} if conditions are satisfied.
+	 */
+	public boolean isQueriesFileValid() {
+		return this.queriesFile == null || new File(this.queriesFile).isFile();
+	}
+
+	public boolean isBatch() {
+		return this.queriesFile != null;
+	}
+
+	public String getQueriesFile() {
+		return this.queriesFile;
+	}
+
+	public void setQueriesFile(final String queriesFile) {
+		this.queriesFile = queriesFile;
+	}
+
+	public int getQueryThreads() {
+		return this.queryThreads;
+	}
+
+	public void setQueryThreads(final int queryThreads) {
+		this.queryThreads = queryThreads;
+	}
+
+	/**
+	 * Reads the queries of {@code --queries-file}, skipping empty lines and
+	 * comments.
+	 *
+	 * @return the query strings in file order
+	 * @throws IOException if the file can't be read
+	 */
+	List<String> readQueryStrings() throws IOException {
+		final List<String> queryStrings = new ArrayList<>();
+		for (final String line : Files.readAllLines(new File(this.queriesFile).toPath(), StandardCharsets.UTF_8)) {
+			final String queryString = line.trim();
+			if (!queryString.isEmpty() && !queryString.startsWith("%")) {
+				queryStrings.add(queryString);
+			}
+		}
+		return queryStrings;
+	}
+
+	/**
+	 * Answers the given queries concurrently on {@code --query-threads} threads.
+	 * If {@code outputDirectory} is not {@code null}, the answers to each query are
+	 * written to {@code <outputDirectory>/<query>.csv}, otherwise they are only
+	 * counted. The reasoner must have completed reasoning, so that answering
+	 * queries does not change its state.
+	 *
+	 * @param reasoner        reasoner to query on
+	 * @param queries         queries to answer
+	 * @param outputDirectory directory to write the answers to, or {@code null}
+	 * @return one result per query, in the order of {@code queries}
+	 */
+	List<Result> answerQueries(final Reasoner reasoner, final List<PositiveLiteral> queries,
+			final File outputDirectory) {
+		final ExecutorService executor = Executors.newFixedThreadPool(Math.min(this.queryThreads, queries.size() + 1));
+		try {
+			final List<Future<Result>> futures = new ArrayList<>(queries.size());
+			for (final PositiveLiteral query : queries) {
+				futures.add(executor.submit(() -> answerQuery(reasoner, query, outputDirectory)));
+			}
+			final List<Result> results = new ArrayList<>(queries.size());
+			for (int i = 0; i < futures.size(); i++) {
+				results.add(getResult(queries.get(i), futures.get(i)));
+			}
+			return results;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static Result getResult(final PositiveLiteral query, final Future<Result> future) {
+		try {
+			return future.get();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return new Result(query, -1, 0, null, "interrupted");
+		} catch (final ExecutionException e) {
+			return new Result(query, -1, 0, null, String.valueOf(e.getCause()));
+		}
+	}
+
+	private static Result answerQuery(final Reasoner reasoner, final PositiveLiteral query,
+			final File outputDirectory) {
+		final long start = System.nanoTime();
+		try {
+			final long count;
+			final Correctness correctness;
+			if (outputDirectory == null) {
+				final QueryAnswerCount answerCount = reasoner.countQueryAnswers(query, true);
+				count = answerCount.getCount();
+				correctness = answerCount.getCorrectness();
+			} else {
+				final File file = new File(outputDirectory, query + ".csv");
+				try (final BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8);
+						final CSVPrinter printer = new CSVPrinter(writer, CSVFormat.DEFAULT);
+						final QueryResultIterator answers = reasoner.answerQuery(query, true)) {
+					long answerCount = 0;
+					final List<String> record = new ArrayList<>(query.getArguments().size());
+					while (answers.hasNext()) {
+						final QueryResult answer = answers.next();
+						record.clear();
+						for (final Term term : answer.getTerms()) {
+							record.add(term.getSyntacticRepresentation());
+						}
+						printer.printRecord(record);
+						answerCount++;
+					}
+					count = answerCount;
+					correctness = answers.getCorrectness();
+				}
+			}
+			return new Result(query, count, (System.nanoTime() - start) / 1000000, correctness, null);
+		} catch (final IOException | RuntimeException e) {
+			return new Result(query, -1, (System.nanoTime() - start) / 1000000, null, String.valueOf(e));
+		}
+	}
+
+	/**
+	 * Prints one line per query with its number of answers and the time it took
+	 * to answer it.
+	 *
+	 * @param results results of {@link #answerQueries}
+	 * @param out     stream to print to
+	 */
+	static void printSummary(final List<Result> results, final PrintStream out) {
+		int width = "Query".length();
+		for (final Result result : results) {
+			width = Math.max(width, result.getQuery().toString().length());
+		}
+		final String format = "%-" + width + "s  %12s  %10s%n";
+		out.printf(format, "Query", "Answers", "Time (ms)");
+		long totalCount = 0;
+		long totalMilliseconds = 0;
+		for (final Result result : results) {
+			if (result.getErrorMessage() == null) {
+				out.printf(format, result.getQuery(), result.getCount(), result.getMilliseconds());
+				totalCount += result.getCount();
+			} else {
+				out.printf(format, result.getQuery(), "failed", result.getMilliseconds());
+				System.err.println("Failed to answer query: \"\"\"" + result.getQuery() + "\"\"\".");
+				System.err.println(result.getErrorMessage());
+			}
+			totalMilliseconds += result.getMilliseconds();
+		}
+		out.printf(format, "Total (" + results.size() + " queries)", totalCount, totalMilliseconds);
+	}
+
+	void printConfiguration() {
+		System.out.println("  --queries-file: " + this.queriesFile);
+		System.out.println("  --query-threads: " + this.queryThreads);
+	}
+
+}
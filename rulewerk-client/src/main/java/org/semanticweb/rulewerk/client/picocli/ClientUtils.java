@@ -20,13 +20,14 @@ package org.semanticweb.rulewerk.client.picocli;
  * #L%
  */
 
-import java.util.Iterator;
+import java.util.List;
 
 import org.apache.log4j.ConsoleAppender;
 import org.apache.log4j.Level;
 import org.apache.log4j.Logger;
 import org.apache.log4j.PatternLayout;
 import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.Variable;
 import org.semanticweb.rulewerk.core.reasoner.QueryResultIterator;
 import org.semanticweb.rulewerk.core.reasoner.Reasoner;
 
@@ -92,33 +93,31 @@ public final class ClientUtils {
 
 	/**
 	 * Returns the number of answers returned by {@code reasoner} to the query
-	 * ({@code queryAtom}).
+	 * ({@code queryAtom}). The answers are counted by the reasoner, without
+	 * iterating over them.
 	 *
 	 * @param queryAtom query to be answered
 	 * @param reasoner  reasoner to query on
 	 *
 	 * @return number of answers to the given query
 	 */
-	public static int getQueryAnswerCount(final PositiveLiteral queryAtom, final Reasoner reasoner) {
-		try (final QueryResultIterator answers = reasoner.answerQuery(queryAtom, true)) {
-			return iteratorSize(answers);
-		}
+	public static long getQueryAnswerCount(final PositiveLiteral queryAtom, final Reasoner reasoner) {
+		return reasoner.countQueryAnswers(queryAtom, true).getCount();
 	}
 
 	/**
-	 * Returns the size of an iterator.
+	 * Returns the number of distinct projections of the answers returned by
+	 * {@code reasoner} to the query ({@code queryAtom}) onto the given variables.
 	 *
-	 * @FIXME This is an inefficient way of counting results. It should be done at a
-	 *        lower level instead
-	 * @param Iterator<T> to iterate over
-	 * @return number of elements in iterator
+	 * @param queryAtom  query to be answered
+	 * @param projection variables of {@code queryAtom} to project the answers onto
+	 * @param reasoner   reasoner to query on
+	 *
+	 * @return number of distinct projections of answers to the given query
 	 */
-	private static <T> int iteratorSize(final Iterator<T> iterator) {
-		int size = 0;
-		for (; iterator.hasNext(); ++size) {
-			iterator.next();
-		}
-		return size;
+	public static long getQueryAnswerCount(final PositiveLiteral queryAtom, final List<Variable> projection,
+			final Reasoner reasoner) {
+		return reasoner.countQueryAnswers(queryAtom, projection, true).getCount();
 	}
 
 }
@@ -0,0 +1,389 @@
+package org.semanticweb.rulewerk.client.picocli;
+
+/*-
+ * #%L
+ * Rulewerk Client
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.apache.commons.lang3.Validate;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.QueryResult;
+import org.semanticweb.rulewerk.core.model.api.Statement;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.core.reasoner.QueryResultIterator;
+import org.semanticweb.rulewerk.core.reasoner.Reasoner;
+import org.semanticweb.rulewerk.parser.ParsingException;
+import org.semanticweb.rulewerk.parser.RuleParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Serves a reasoner that has completed reasoning over a line-based protocol on
+ * a TCP socket. Each request is a line, and each response ends with a line
+ * starting with {@code OK} or {@code ERROR}:
+ * <ul>
+ * <li>{@code COUNT <literal>}: responds {@code OK <number of answers>}.</li>
+ * <li>{@code QUERY <literal>}: responds one line {@code ANSWER <terms>} per
+ * answer, followed by {@code OK <number of answers>}.</li>
+ * <li>{@code ADD <facts>}: buffers the given facts, responds
+ * {@code OK <number of buffered facts>}. Once the buffer holds
+ * {@code batchSize} facts, they are added to the knowledge base and the
+ * reasoner reasons again.</li>
+ * <li>{@code REASON}: adds the buffered facts and reasons again, responds
+ * {@code OK <number of added facts>}.</li>
+ * <li>{@code STATS}: responds {@code OK} followed by the metrics of the
+ * server.</li>
+ * <li>{@code QUIT}: closes the connection.</li>
+ * </ul>
+ * Queries are answered concurrently on a fixed thread pool. A {@code QUERY}
+ * that takes longer than the request timeout is cancelled. A {@code COUNT} is
+ * computed by the reasoner in one call that cannot be interrupted: after the
+ * timeout, the client gets an error, but the count keeps its thread until it
+ * is done, and {@code REASON} waits for it. Buffered facts are not visible to
+ * queries until they have been added. If reasoning fails, e.g., since a data
+ * source cannot be read, the error is reported and the facts stay buffered, so that a later {@code REASON} adds
+ * them again.
+ *
+ * @author Philipp Hanisch
+ *
+ */
+public class ReasonerServer implements Closeable {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ReasonerServer.class);
+
+	private final Reasoner reasoner;
+	private final long timeoutMillis;
+	private final int batchSize;
+
+	private final ExecutorService queryExecutor;
+	private final ExecutorService connectionExecutor = Executors.newCachedThreadPool();
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private final List<Fact> bufferedFacts = new ArrayList<>();
+	private ServerSocket serverSocket;
+
+	private final long startTime = System.currentTimeMillis();
+	private final AtomicLong requests = new AtomicLong();
+	private final AtomicLong queries = new AtomicLong();
+	private final AtomicLong failedRequests = new AtomicLong();
+	private final AtomicLong timedOutQueries = new AtomicLong();
+	private final AtomicLong queryNanos = new AtomicLong();
+	private final AtomicLong maxQueryNanos = new AtomicLong();
+	private final AtomicLong addedFacts = new AtomicLong();
+	private final AtomicLong reasonings = new AtomicLong();
+	private final AtomicLong reasoningNanos = new AtomicLong();
+
+	/**
+	 * Constructor.
+	 *
+	 * @param reasoner      reasoner that has completed reasoning
+	 * @param threads       number of queries that are answered concurrently
+	 * @param timeoutMillis time after which a query is answered with an error; 0
+	 *                      for no timeout
+	 * @param batchSize     number of facts that are buffered before they are added
+	 *                      to the knowledge base
+	 */
+	public ReasonerServer(final Reasoner reasoner, final int threads, final long timeoutMillis,
+			final int batchSize) {
+		Validate.notNull(reasoner, "Reasoner cannot be null!");
+		Validate.isTrue(threads > 0, "Number of threads must be positive!");
+		Validate.isTrue(timeoutMillis >= 0, "Timeout must not be negative!");
+		Validate.isTrue(batchSize > 0, "Batch size must be positive!");
+		this.reasoner = reasoner;
+		this.timeoutMillis = timeoutMillis;
+		this.batchSize = batchSize;
+		this.queryExecutor = Executors.newFixedThreadPool(threads);
+	}
+
+	/**
+	 * Starts accepting connections in the background.
+	 *
+	 * @param address address to listen on
+	 * @param port    port to listen on; 0 for any free port
+	 * @return the port the server listens on
+	 * @throws IOException if the socket could not be opened
+	 */
+	public int start(final InetAddress address, final int port) throws IOException {
+		this.serverSocket = new ServerSocket(port, 50, address);
+		this.connectionExecutor.execute(this::acceptConnections);
+		return this.serverSocket.getLocalPort();
+	}
+
+	private void acceptConnections() {
+		while (!this.serverSocket.isClosed()) {
+			try {
+				final Socket socket = this.serverSocket.accept();
+				this.connectionExecutor.execute(() -> this.serveConnection(socket));
+			} catch (final SocketException e) {
+				// the server socket was closed
+			} catch (final IOException e) {
+				LOGGER.warn("Failed to accept connection: " + e.getMessage());
+			}
+		}
+	}
+
+	private void serveConnection(final Socket socket) {
+		try (Socket s = socket;
+				BufferedReader reader = new BufferedReader(
+						new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+				Writer writer = new BufferedWriter(
+						new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null && !"QUIT".equals(line.trim())) {
+				this.handle(line, writer);
+				writer.flush();
+			}
+		} catch (final IOException e) {
+			LOGGER.debug("Connection closed: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Answers a single request.
+	 *
+	 * @param request request line
+	 * @param writer  writer to write the response to
+	 * @throws IOException if the response could not be written
+	 */
+	void handle(final String request, final Writer writer) throws IOException {
+		this.requests.incrementAndGet();
+		final String trimmed = request.trim();
+		final int space = trimmed.indexOf(' ');
+		final String command = space < 0 ? trimmed : trimmed.substring(0, space);
+		final String argument = space < 0 ? "" : trimmed.substring(space + 1).trim();
+		try {
+			switch (command) {
+			case "COUNT":
+				this.answer(RuleParser.parsePositiveLiteral(argument), false, writer);
+				break;
+			case "QUERY":
+				this.answer(RuleParser.parsePositiveLiteral(argument), true, writer);
+				break;
+			case "ADD":
+			case "REASON":
+				final int count;
+				try {
+					count = "ADD".equals(command) ? this.add(argument) : this.reason();
+				} catch (final IOException e) {
+					// reading the data of the knowledge base failed, the writer is still usable
+					LOGGER.warn("Failed to answer request " + trimmed + ": " + e);
+					this.fail(writer, e.toString());
+					break;
+				}
+				writer.write("OK " + count + "\n");
+				break;
+			case "STATS":
+				writer.write("OK " + this.getStatistics() + "\n");
+				break;
+			default:
+				this.fail(writer, "unknown command: " + command);
+			}
+		} catch (final ParsingException | IllegalArgumentException e) {
+			this.fail(writer, e.getMessage());
+		} catch (final RuntimeException e) {
+			LOGGER.warn("Failed to answer request " + trimmed + ": " + e);
+			this.fail(writer, e.toString());
+		}
+	}
+
+	private void answer(final PositiveLiteral query, final boolean withAnswers, final Writer writer)
+			throws IOException {
+		this.queries.incrementAndGet();
+		final long start = System.nanoTime();
+		final Future<String> future = this.queryExecutor.submit(() -> this.evaluate(query, withAnswers));
+		try {
+			writer.write(this.timeoutMillis > 0 ? future.get(this.timeoutMillis, TimeUnit.MILLISECONDS) : future.get());
+		} catch (final TimeoutException e) {
+			this.timedOutQueries.incrementAndGet();
+			if (withAnswers) {
+				future.cancel(true);
+				this.fail(writer, "timeout after " + this.timeoutMillis + " ms, query cancelled");
+			} else {
+				// counting cannot be interrupted, so it goes on in the background
+				this.fail(writer, "timeout after " + this.timeoutMillis + " ms, still counting");
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			this.fail(writer, "interrupted");
+		} catch (final ExecutionException e) {
+			this.fail(writer, String.valueOf(e.getCause()));
+		}
+		final long nanos = System.nanoTime() - start;
+		this.queryNanos.addAndGet(nanos);
+		this.maxQueryNanos.accumulateAndGet(nanos, Math::max);
+	}
+
+	private String evaluate(final PositiveLiteral query, final boolean withAnswers) throws InterruptedException {
+		this.lock.readLock().lock();
+		try {
+			if (!withAnswers) {
+				return "OK " + this.reasoner.countQueryAnswers(query, true).getCount() + "\n";
+			}
+			final StringBuilder response = new StringBuilder();
+			long count = 0;
+			try (QueryResultIterator answers = this.reasoner.answerQuery(query, true)) {
+				for (; answers.hasNext(); count++) {
+					if (Thread.interrupted()) {
+						throw new InterruptedException();
+					}
+					final QueryResult answer = answers.next();
+					response.append("ANSWER ");
+					final List<Term> terms = answer.getTerms();
+					for (int i = 0; i < terms.size(); i++) {
+						if (i > 0) {
+							response.append(", ");
+						}
+						response.append(terms.get(i).getSyntacticRepresentation());
+					}
+					response.append('\n');
+				}
+			}
+			return response.append("OK ").append(count).append('\n').toString();
+		} finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Buffers the facts of the given rls string, and adds the buffer to the
+	 * knowledge base once it is full.
+	 *
+	 * @return the number of buffered facts
+	 */
+	private int add(final String facts) throws ParsingException, IOException {
+		final KnowledgeBase parsed = RuleParser.parse(facts);
+		for (final Statement statement : parsed.getStatements()) {
+			if (!(statement instanceof Fact)) {
+				throw new IllegalArgumentException("not a fact: " + statement);
+			}
+		}
+		final boolean full;
+		synchronized (this.bufferedFacts) {
+			this.bufferedFacts.addAll(parsed.getFacts());
+			full = this.bufferedFacts.size() >= this.batchSize;
+		}
+		if (full) {
+			this.reason();
+		}
+		synchronized (this.bufferedFacts) {
+			return this.bufferedFacts.size();
+		}
+	}
+
+	/**
+	 * Adds the buffered facts to the knowledge base and reasons again, while no
+	 * queries are answered. If reasoning fails, the facts are buffered again.
+	 * They have already been added to the knowledge base, where adding them
+	 * once more has no effect.
+	 *
+	 * @return the number of added facts
+	 */
+	private int reason() throws IOException {
+		this.lock.writeLock().lock();
+		try {
+			final List<Fact> facts;
+			synchronized (this.bufferedFacts) {
+				facts = new ArrayList<>(this.bufferedFacts);
+				this.bufferedFacts.clear();
+			}
+			final long start = System.nanoTime();
+			try {
+				this.reasoner.getKnowledgeBase().addStatements(facts);
+				this.reasoner.reason();
+			} catch (final IOException | RuntimeException e) {
+				synchronized (this.bufferedFacts) {
+					this.bufferedFacts.addAll(0, facts);
+				}
+				throw e;
+			}
+			this.reasonings.incrementAndGet();
+			this.reasoningNanos.addAndGet(System.nanoTime() - start);
+			this.addedFacts.addAndGet(facts.size());
+			LOGGER.info("Added " + facts.size() + " facts and reasoned in "
+					+ (System.nanoTime() - start) / 1000000 + " ms.");
+			return facts.size();
+		} finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	private void fail(final Writer writer, final String message) throws IOException {
+		this.failedRequests.incrementAndGet();
+		writer.write("ERROR " + message.replace('\n', ' ') + "\n");
+	}
+
+	/**
+	 * Returns the metrics of the server as space separated {@code key=value}
+	 * pairs.
+	 *
+	 * @return the metrics of the server
+	 */
+	String getStatistics() {
+		final int buffered;
+		synchronized (this.bufferedFacts) {
+			buffered = this.bufferedFacts.size();
+		}
+		final long queryCount = this.queries.get();
+		return "uptimeSeconds=" + (System.currentTimeMillis() - this.startTime) / 1000 + " requests="
+				+ this.requests.get() + " failedRequests=" + this.failedRequests.get() + " queries=" + queryCount
+				+ " timedOutQueries=" + this.timedOutQueries.get() + " averageQueryMillis="
+				+ (queryCount == 0 ? 0 : this.queryNanos.get() / queryCount / 1000000) + " maxQueryMillis="
+				+ this.maxQueryNanos.get() / 1000000 + " addedFacts=" + this.addedFacts.get() + " bufferedFacts="
+				+ buffered + " reasonings=" + this.reasonings.get() + " reasoningMillis="
+				+ this.reasoningNanos.get() / 1000000 + " correctness=" + this.reasoner.getCorrectness().name();
+	}
+
+	/**
+	 * Stops accepting connections and answering queries. The reasoner is not
+	 * closed.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (this.serverSocket != null) {
+			this.serverSocket.close();
+		}
+		this.connectionExecutor.shutdownNow();
+		this.queryExecutor.shutdownNow();
+	}
+
+}
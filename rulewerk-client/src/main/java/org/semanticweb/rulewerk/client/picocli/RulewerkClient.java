@@ -31,7 +31,7 @@ import picocli.CommandLine.Command;
  *
  */
 @Command(name = "java -jar RulewerkClient.jar", description = "RulewerkClient: A command line client for Rulewerk.", subcommands = {
-		RulewerkClientMaterialize.class })
+		RulewerkClientMaterialize.class, RulewerkClientServe.class })
 public class RulewerkClient implements Runnable {
 
 	public static void main(String[] args) {
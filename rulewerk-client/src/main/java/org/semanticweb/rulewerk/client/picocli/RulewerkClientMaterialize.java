@@ -20,6 +20,7 @@ package org.semanticweb.rulewerk.client.picocli;
  * #L%
  */
 
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
@@ -28,9 +29,11 @@ import java.util.List;
 
 import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
 import org.semanticweb.rulewerk.core.reasoner.Algorithm;
+import org.semanticweb.rulewerk.core.reasoner.Correctness;
 import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
 import org.semanticweb.rulewerk.core.reasoner.LogLevel;
 import org.semanticweb.rulewerk.core.reasoner.Reasoner;
+import org.semanticweb.rulewerk.reasoner.vlog.MaterializationCache;
 import org.semanticweb.rulewerk.reasoner.vlog.VLogReasoner;
 import org.semanticweb.rulewerk.parser.ParsingException;
 import org.semanticweb.rulewerk.parser.RuleParser;
@@ -47,6 +50,8 @@ import picocli.CommandLine.Option;
 @Command(name = "materialize", description = "Execute the chase and store the literal's extensions")
 public class RulewerkClientMaterialize implements Runnable {
 
+	static final String missingQueriesErrorMessage = "Configuration Error: at least one @code{--query} or a @code{--queries-file} is required.";
+
 	private final KnowledgeBase kb = new KnowledgeBase();
 	private final List<PositiveLiteral> queries = new ArrayList<>();
 
@@ -70,18 +75,26 @@ public class RulewerkClientMaterialize implements Runnable {
 	@Option(names = "--timeout", description = "Timeout in seconds. Infinite by default", required = false)
 	private int timeout = 0;
 
-	@Option(names = "--query", description = "Positive not-ground Literals to query after materialization in rls syntax. RulewerkClient will print the size of its extension", required = true)
+	@Option(names = "--cache-directory", description = "Directory to cache inferences in. A later run with the same rule files, data and chase algorithm loads the cached inferences instead of executing the chase. No caching by default.", required = false)
+	private String cacheDirectory;
+
+	@Option(names = "--cache-size", description = "Maximal size of the cache directory in MB. Least recently used inferences are deleted first. 1024 by default.", required = false)
+	private long cacheSize = 1024;
+
+	@Option(names = "--query", description = "Positive not-ground Literals to query after materialization in rls syntax. RulewerkClient will print the size of its extension", required = false)
 	private List<String> queryStrings = new ArrayList<>();
 
+	@ArgGroup(exclusive = false)
+	private final BatchQueries batchQueries = new BatchQueries();
+
 	@ArgGroup(exclusive = false)
 	private final PrintQueryResults printQueryResults = new PrintQueryResults();
 
 	@ArgGroup(exclusive = false)
 	private final SaveQueryResults saveQueryResults = new SaveQueryResults();
 
-	// TODO
-	// @ArgGroup(exclusive = false)
-	// private SaveModel saveModel = new SaveModel();
+	@ArgGroup(exclusive = false)
+	private final SaveModel saveModel = new SaveModel();
 
 	@Override
 	public void run() {
@@ -99,10 +112,20 @@ public class RulewerkClientMaterialize implements Runnable {
 		/* Print configuration */
 		this.printConfiguration();
 
-		try (Reasoner reasoner = new VLogReasoner(this.kb)) {
+		/* Load cached inferences */
+		final MaterializationCache cache = this.configureCache();
+		final String fingerprint = this.getFingerprint(cache);
+		final KnowledgeBase cachedKb = this.loadCachedInferences(cache, fingerprint);
+
+		try (Reasoner reasoner = new VLogReasoner(cachedKb != null ? cachedKb : this.kb)) {
 
 			this.materialize(reasoner);
-			// TODO if (saveModel.saveModel) { this.saveModel(); }
+			if (cachedKb == null) {
+				this.cacheInferences(cache, fingerprint, reasoner);
+			}
+			if (this.saveModel.isSaveModel()) {
+				this.saveModel(reasoner);
+			}
 
 			this.answerQueries(reasoner);
 		}
@@ -119,13 +142,25 @@ public class RulewerkClientMaterialize implements Runnable {
 		if (this.saveQueryResults.isSaveResults() && !this.saveQueryResults.isDirectoryValid()) {
 			this.printErrorMessageAndExit(SaveQueryResults.wrongDirectoryErrorMessage);
 		}
-		// TODO
-		// if (!saveModel.isConfigurationValid()) {
-		// printMessageAndExit(SaveModel.configurationErrorMessage);
-		// }
-		// if (saveModel.isSaveResults() && !saveModel.isDirectoryValid()) {
-		// printMessageAndExit(SaveModel.wrongDirectoryErrorMessage);
-		// }
+		if (!this.batchQueries.isConfigurationValid()) {
+			this.printErrorMessageAndExit(BatchQueries.configurationErrorMessage);
+		}
+		if (!this.batchQueries.isQueriesFileValid()) {
+			this.printErrorMessageAndExit(BatchQueries.wrongQueriesFileErrorMessage);
+		}
+		if (this.batchQueries.isBatch() && this.printQueryResults.isComplete()) {
+			this.printErrorMessageAndExit(BatchQueries.printCompleteErrorMessage);
+		}
+		if (this.queryStrings.isEmpty() && !this.batchQueries.isBatch()) {
+			this.printErrorMessageAndExit(missingQueriesErrorMessage);
+		}
+		if (!this.saveModel.isConfigurationValid()) {
+			this.printErrorMessageAndExit(this.saveModel.getModelThreads() > 0 ? SaveModel.configurationErrorMessage
+					: SaveModel.wrongThreadsErrorMessage);
+		}
+		if (this.saveModel.isSaveModel() && !this.saveModel.isDirectoryValid()) {
+			this.printErrorMessageAndExit(SaveModel.wrongDirectoryErrorMessage);
+		}
 	}
 
 	private void configureRules() {
@@ -141,6 +176,14 @@ public class RulewerkClientMaterialize implements Runnable {
 	}
 
 	private void configureQueries() {
+		if (this.batchQueries.isBatch()) {
+			try {
+				this.queryStrings.addAll(this.batchQueries.readQueryStrings());
+			} catch (final IOException e) {
+				this.printErrorMessageAndExit(
+						"Can't read queries file: " + this.batchQueries.getQueriesFile() + "\n " + e.getMessage());
+			}
+		}
 		for (final String queryString : this.queryStrings) {
 			try {
 				final PositiveLiteral query = RuleParser.parsePositiveLiteral(queryString);
@@ -175,10 +218,80 @@ public class RulewerkClientMaterialize implements Runnable {
 
 	}
 
-	// TODO private void saveModel() {...}
+	private MaterializationCache configureCache() {
+		if (this.cacheDirectory == null) {
+			return null;
+		}
+		try {
+			return new MaterializationCache(new File(this.cacheDirectory), this.cacheSize * 1024 * 1024);
+		} catch (final IOException | IllegalArgumentException e) {
+			this.printErrorMessageAndExit("Can't use cache directory: " + this.cacheDirectory + "\n " + e.getMessage());
+			return null;
+		}
+	}
+
+	private String getFingerprint(final MaterializationCache cache) {
+		if (cache == null) {
+			return null;
+		}
+		try {
+			return MaterializationCache.getFingerprint(this.kb, this.chaseAlgorithm);
+		} catch (final IOException e) {
+			System.err.println("Can't compute the fingerprint of the knowledge base. Inferences are not cached.");
+			System.err.println(e.getMessage());
+			return null;
+		}
+	}
+
+	private KnowledgeBase loadCachedInferences(final MaterializationCache cache, final String fingerprint) {
+		if (fingerprint == null) {
+			return null;
+		}
+		try {
+			final KnowledgeBase cachedKb = cache.load(fingerprint);
+			if (cachedKb != null) {
+				System.out.println("Using cached inferences " + cache.getFile(fingerprint) + ".");
+			}
+			return cachedKb;
+		} catch (final IOException e) {
+			System.err.println("Can't load cached inferences: " + cache.getFile(fingerprint));
+			System.err.println(e.getMessage());
+			return null;
+		}
+	}
+
+	private void cacheInferences(final MaterializationCache cache, final String fingerprint, final Reasoner reasoner) {
+		if (fingerprint == null) {
+			return;
+		}
+		try {
+			if (cache.store(fingerprint, reasoner)) {
+				System.out.println("Cached inferences in " + cache.getFile(fingerprint) + ".");
+			}
+		} catch (final IOException e) {
+			System.err.println("Can't cache inferences: " + cache.getFile(fingerprint));
+			System.err.println(e.getMessage());
+		}
+	}
+
+	private void saveModel(final Reasoner reasoner) {
+		System.out.println("Saving the model into " + this.saveModel.getOutputModelDirectory() + " ...");
+		this.saveModel.mkdir();
+		try {
+			final long start = System.currentTimeMillis();
+			final Correctness correctness = this.saveModel.save(reasoner);
+			System.out.println("Model saved in " + (System.currentTimeMillis() - start) + " ms. The model is "
+					+ correctness + ".");
+		} catch (final IOException e) {
+			System.err.println("Can't save the model into " + this.saveModel.getOutputModelDirectory() + ".");
+			System.err.println(e.getMessage());
+		}
+	}
 
 	private void answerQueries(final Reasoner reasoner) {
-		if (!this.queries.isEmpty()) {
+		if (this.batchQueries.isBatch()) {
+			this.answerBatchQueries(reasoner);
+		} else if (!this.queries.isEmpty()) {
 			System.out.println("Answering queries ...");
 			for (final PositiveLiteral query : this.queries) {
 				if (this.saveQueryResults.isSaveResults()) {
@@ -197,6 +310,19 @@ public class RulewerkClientMaterialize implements Runnable {
 		}
 	}
 
+	private void answerBatchQueries(final Reasoner reasoner) {
+		System.out.println("Answering " + this.queries.size() + " queries on " + this.batchQueries.getQueryThreads()
+				+ " threads ...");
+		File outputDirectory = null;
+		if (this.saveQueryResults.isSaveResults()) {
+			this.saveQueryResults.mkdir();
+			outputDirectory = new File(this.saveQueryResults.getOutputQueryResultDirectory());
+		}
+		final List<BatchQueries.Result> results = this.batchQueries.answerQueries(reasoner, this.queries,
+				outputDirectory);
+		BatchQueries.printSummary(results, System.out);
+	}
+
 	private void printConfiguration() {
 		System.out.println("Configuration:");
 
@@ -204,19 +330,26 @@ public class RulewerkClientMaterialize implements Runnable {
 			System.out.println("  --rule-file: " + ruleFile);
 		}
 
-		for (final PositiveLiteral query : this.queries) {
-			System.out.println("  --query: " + query);
+		if (this.batchQueries.isBatch()) {
+			System.out.println("  --query: " + this.queries.size() + " queries");
+		} else {
+			for (final PositiveLiteral query : this.queries) {
+				System.out.println("  --query: " + query);
+			}
 		}
 
 		System.out.println("  --log-file: " + this.logFile);
 		System.out.println("  --log-level: " + this.logLevel);
 		System.out.println("  --chase-algorithm: " + this.chaseAlgorithm);
 		System.out.println("  --timeout: " + ((this.timeout > 0) ? this.timeout : "none"));
+		System.out.println("  --cache-directory: " + this.cacheDirectory);
+		System.out.println("  --cache-size: " + this.cacheSize);
 
 		/* Print what to do with the result */
 		this.printQueryResults.printConfiguration();
 		this.saveQueryResults.printConfiguration();
-		// TODO saveModel.printConfiguration();
+		this.batchQueries.printConfiguration();
+		this.saveModel.printConfiguration();
 	}
 
 	private void doSaveQueryResults(final Reasoner reasoner, final PositiveLiteral query) {
@@ -0,0 +1,151 @@
+package org.semanticweb.rulewerk.client.picocli;
+
+/*-
+ * #%L
+ * Rulewerk Client
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.semanticweb.rulewerk.core.reasoner.Algorithm;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.core.reasoner.LogLevel;
+import org.semanticweb.rulewerk.core.reasoner.Reasoner;
+import org.semanticweb.rulewerk.parser.ParsingException;
+import org.semanticweb.rulewerk.parser.RuleParser;
+import org.semanticweb.rulewerk.reasoner.vlog.VLogReasoner;
+
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+
+/**
+ * Class to implement a command that materializes once and then answers
+ * queries over a socket, see {@link ReasonerServer} for the protocol.
+ *
+ * @author Philipp Hanisch
+ *
+ */
+@Command(name = "serve", description = "Execute the chase once, then answer queries and add facts over a line protocol on a local socket")
+public class RulewerkClientServe implements Runnable {
+
+	private final KnowledgeBase kb = new KnowledgeBase();
+
+	@Option(names = "--rule-file", description = "Rule file(s) in {@link https://github.com/knowsys/rulewerk/wiki/Rule-syntax-grammar} syntax", required = true)
+	private final List<String> ruleFiles = new ArrayList<>();
+
+	@Option(names = "--log-level", description = "Log level of VLog (c++ library). One of: DEBUG, INFO, WARNING (default), ERROR.", required = false)
+	private LogLevel logLevel = LogLevel.WARNING;
+
+	@Option(names = "--log-file", description = "Log file of VLog (c++ library). VLog will log to the default system output by default", required = false)
+	private String logFile;
+
+	@Option(names = "--chase-algorithm", description = "Chase algorithm. RESTRICTED_CHASE (default) or SKOLEM_CHASE.", required = false)
+	private Algorithm chaseAlgorithm = Algorithm.RESTRICTED_CHASE;
+
+	@Option(names = "--host", description = "Address to listen on. \"localhost\" by default.", required = false)
+	private String host = "localhost";
+
+	@Option(names = "--port", description = "Port to listen on. 7474 by default.", required = false)
+	private int port = 7474;
+
+	@Option(names = "--threads", description = "Number of queries answered concurrently. The number of available processors by default.", required = false)
+	private int threads = Runtime.getRuntime().availableProcessors();
+
+	@Option(names = "--request-timeout", description = "Timeout of a query in seconds. 60 by default, 0 for none.", required = false)
+	private int requestTimeout = 60;
+
+	@Option(names = "--fact-batch-size", description = "Number of added facts that are buffered before they are added to the knowledge base and the chase is executed again. 1000 by default.", required = false)
+	private int factBatchSize = 1000;
+
+	@Override
+	public void run() {
+		ClientUtils.configureLogging();
+
+		/* Validate configuration */
+		if (this.threads <= 0 || this.requestTimeout < 0 || this.factBatchSize <= 0) {
+			this.printErrorMessageAndExit(
+					"Configuration Error: @code{--threads} and @code{--fact-batch-size} must be positive, and @code{--request-timeout} must not be negative.");
+		}
+
+		/* Configure rules */
+		for (final String ruleFile : this.ruleFiles) {
+			try {
+				RuleParser.parseInto(this.kb, new FileInputStream(ruleFile));
+			} catch (final FileNotFoundException e1) {
+				this.printErrorMessageAndExit("File not found: " + ruleFile + "\n " + e1.getMessage());
+			} catch (final ParsingException e2) {
+				this.printErrorMessageAndExit("Failed to parse rule file: " + ruleFile + "\n " + e2.getMessage());
+			}
+		}
+
+		/* Print configuration */
+		this.printConfiguration();
+
+		try (Reasoner reasoner = new VLogReasoner(this.kb)) {
+			reasoner.setLogFile(this.logFile);
+			reasoner.setLogLevel(this.logLevel);
+			reasoner.setAlgorithm(this.chaseAlgorithm);
+
+			System.out.println("Executing the chase ...");
+			reasoner.reason();
+
+			try (ReasonerServer server = new ReasonerServer(reasoner, this.threads, this.requestTimeout * 1000L,
+					this.factBatchSize)) {
+				final int boundPort = server.start(InetAddress.getByName(this.host), this.port);
+				System.out.println("Listening on " + this.host + ":" + boundPort + ". Press Ctrl+C to stop.");
+
+				final CountDownLatch stopped = new CountDownLatch(1);
+				Runtime.getRuntime().addShutdownHook(new Thread(stopped::countDown));
+				stopped.await();
+			}
+		} catch (final IOException e) {
+			this.printErrorMessageAndExit("Something went wrong while serving. Please check the reasoner log file.\n"
+					+ e.getMessage());
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void printConfiguration() {
+		System.out.println("Configuration:");
+		for (final String ruleFile : this.ruleFiles) {
+			System.out.println("  --rule-file: " + ruleFile);
+		}
+		System.out.println("  --log-file: " + this.logFile);
+		System.out.println("  --log-level: " + this.logLevel);
+		System.out.println("  --chase-algorithm: " + this.chaseAlgorithm);
+		System.out.println("  --host: " + this.host);
+		System.out.println("  --port: " + this.port);
+		System.out.println("  --threads: " + this.threads);
+		System.out.println("  --request-timeout: " + ((this.requestTimeout > 0) ? this.requestTimeout : "none"));
+		System.out.println("  --fact-batch-size: " + this.factBatchSize);
+	}
+
+	private void printErrorMessageAndExit(final String message) {
+		System.err.println(message);
+		System.out.println("Exiting the program.");
+		System.exit(1);
+	}
+
+}
@@ -20,12 +20,51 @@ package org.semanticweb.rulewerk.client.picocli;
  * #L%
  */
 
+import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.semanticweb.rulewerk.core.model.api.DataSourceDeclaration;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.Literal;
+import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.QueryResult;
+import org.semanticweb.rulewerk.core.model.api.Rule;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.model.implementation.StatementWriter;
+import org.semanticweb.rulewerk.core.reasoner.Correctness;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.core.reasoner.QueryResultIterator;
+import org.semanticweb.rulewerk.core.reasoner.Reasoner;
 
 import picocli.CommandLine.Option;
 
 /**
  * Helper class to save the resulting model of the materialization process.
+ * The model is sharded by predicate: the inferences of each predicate are
+ * written to a file of their own, by a pool of writer threads. The directory
+ * also contains {@value #INDEX_FILE_NAME}, which lists the file, predicate,
+ * arity and number of facts of each shard.
  *
  * @author Larry Gonzalez
  *
@@ -36,6 +75,23 @@ public class SaveModel {
 
 	static final String configurationErrorMessage = "Configuration Error: If @code{--save-model} is true, then a non empty @code{--output-model-directory} is required.";
 	static final String wrongDirectoryErrorMessage = "Configuration Error: wrong @code{--output-model-directory}. Please check the path.";
+	static final String wrongThreadsErrorMessage = "Configuration Error: @code{--model-threads} must be a positive number.";
+
+	public static final String INDEX_FILE_NAME = "predicates.csv";
+
+	/**
+	 * Layout of the files of a saved model.
+	 */
+	public enum ModelFormat {
+		/**
+		 * One file of facts in rls syntax per predicate.
+		 */
+		RLS,
+		/**
+		 * One csv file per predicate, with one row per fact.
+		 */
+		CSV
+	}
 
 	/**
 	 * If true, RulewerkClient will save the model in {@code --output-model-directory}
@@ -54,6 +110,32 @@ public class SaveModel {
 			+ DEFAULT_OUTPUT_DIR_NAME + "\" by default.")
 	private String outputModelDirectory = DEFAULT_OUTPUT_DIR_NAME;
 
+	/**
+	 * Layout of the files of the model. Used only if {@code --save-model} is true.
+	 *
+	 * @default RLS
+	 */
+	@Option(names = "--model-format", description = "Format of the files of the model: RLS (default) writes one file of facts per predicate, CSV writes one csv file per predicate. Used only if --save-model is true.")
+	private ModelFormat modelFormat = ModelFormat.RLS;
+
+	/**
+	 * If true, the files of the model are compressed with gzip. Used only if
+	 * {@code --save-model} is true.
+	 *
+	 * @default true
+	 */
+	@Option(names = "--compress-model", arity = "1", description = "Boolean. If true, the files of the model are compressed with gzip. Used only if --save-model is true. True by default.")
+	private boolean compressModel = true;
+
+	/**
+	 * Number of threads writing the files of the model. Used only if
+	 * {@code --save-model} is true.
+	 *
+	 * @default number of available processors
+	 */
+	@Option(names = "--model-threads", description = "Number of threads writing the files of the model. Used only if --save-model is true. The number of available processors by default.")
+	private int modelThreads = Runtime.getRuntime().availableProcessors();
+
 	public SaveModel() {
 	}
 
@@ -69,7 +151,8 @@ public class SaveModel {
 	 * @return {@code true} if configuration is valid.
 	 */
 	public boolean isConfigurationValid() {
-		return !this.saveModel || ((this.outputModelDirectory != null) && !this.outputModelDirectory.isEmpty());
+		return !this.saveModel || ((this.outputModelDirectory != null) && !this.outputModelDirectory.isEmpty()
+				&& (this.modelThreads > 0));
 	}
 
 	/**
@@ -94,9 +177,162 @@ public class SaveModel {
 		}
 	}
 
+	/**
+	 * Writes all inferences of the given reasoner to {@code --output-model-directory},
+	 * one file per predicate, and reports the progress on the standard output. It
+	 * assumes that configuration and directory are valid, and that the reasoner
+	 * has completed reasoning.
+	 *
+	 * @param reasoner reasoner to obtain the inferences from
+	 * @return the correctness of the saved inferences
+	 * @throws IOException if a file could not be written
+	 */
+	Correctness save(final Reasoner reasoner) throws IOException {
+		final File directory = new File(this.outputModelDirectory);
+		final KnowledgeBase knowledgeBase = reasoner.getKnowledgeBase();
+		final List<Predicate> predicates = getPredicates(knowledgeBase);
+		final List<String> fileNames = getFileNames(predicates);
+
+		final AtomicInteger done = new AtomicInteger();
+		final ExecutorService executor = Executors.newFixedThreadPool(Math.min(this.modelThreads, predicates.size() + 1));
+		final long[] counts = new long[predicates.size()];
+		try {
+			final List<Future<Long>> futures = new ArrayList<>(predicates.size());
+			for (int i = 0; i < predicates.size(); i++) {
+				final Predicate predicate = predicates.get(i);
+				final File file = new File(directory, fileNames.get(i));
+				futures.add(executor.submit(() -> {
+					final long count = this.writeShard(reasoner, knowledgeBase, predicate, file);
+					System.out.println("  [" + done.incrementAndGet() + "/" + predicates.size() + "] " + predicate
+							+ ": " + count + " facts");
+					return count;
+				}));
+			}
+			for (int i = 0; i < futures.size(); i++) {
+				counts[i] = getCount(futures.get(i));
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		try (CSVPrinter index = new CSVPrinter(
+				Files.newBufferedWriter(new File(directory, INDEX_FILE_NAME).toPath(), StandardCharsets.UTF_8),
+				CSVFormat.DEFAULT)) {
+			index.printRecord("file", "predicate", "arity", "facts");
+			for (int i = 0; i < predicates.size(); i++) {
+				index.printRecord(fileNames.get(i), predicates.get(i).getName(), predicates.get(i).getArity(),
+						counts[i]);
+			}
+		}
+		return reasoner.getCorrectness();
+	}
+
+	private static long getCount(final Future<Long> future) throws IOException {
+		try {
+			return future.get();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while saving the model.", e);
+		} catch (final ExecutionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw new IOException(e.getCause());
+		}
+	}
+
+	private long writeShard(final Reasoner reasoner, final KnowledgeBase knowledgeBase, final Predicate predicate,
+			final File file) throws IOException {
+		final List<Term> variables = new ArrayList<>(predicate.getArity());
+		for (int i = 0; i < predicate.getArity(); i++) {
+			variables.add(Expressions.makeUniversalVariable("X" + i));
+		}
+		final PositiveLiteral query = Expressions.makePositiveLiteral(predicate, variables);
+
+		long count = 0;
+		try (OutputStream stream = new FileOutputStream(file);
+				QueryResultIterator answers = reasoner.answerQuery(query, true)) {
+			if (this.modelFormat == ModelFormat.RLS) {
+				final StatementWriter writer = new StatementWriter(stream, knowledgeBase::unresolveAbsoluteIri,
+						this.compressModel);
+				writer.writeBaseAndPrefixDeclarations(knowledgeBase);
+				for (; answers.hasNext(); count++) {
+					writer.writeFact(predicate, answers.next().getTerms());
+				}
+				writer.finish();
+			} else {
+				final OutputStream output = this.compressModel ? new GZIPOutputStream(stream, 1 << 16) : stream;
+				final CSVPrinter printer = new CSVPrinter(
+						new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 1 << 16),
+						CSVFormat.DEFAULT);
+				final List<String> record = new ArrayList<>(predicate.getArity());
+				for (; answers.hasNext(); count++) {
+					final QueryResult answer = answers.next();
+					record.clear();
+					for (final Term term : answer.getTerms()) {
+						record.add(term.getSyntacticRepresentation());
+					}
+					printer.printRecord(record);
+				}
+				printer.close();
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the predicates that can have inferences: those of facts, data
+	 * sources and rule heads, ordered by name and arity.
+	 */
+	static List<Predicate> getPredicates(final KnowledgeBase knowledgeBase) {
+		final Set<Predicate> predicates = new HashSet<>();
+		for (final Rule rule : knowledgeBase.getRules()) {
+			for (final Literal literal : rule.getHead()) {
+				predicates.add(literal.getPredicate());
+			}
+		}
+		for (final DataSourceDeclaration dataSourceDeclaration : knowledgeBase.getDataSourceDeclarations()) {
+			predicates.add(dataSourceDeclaration.getPredicate());
+		}
+		for (final Fact fact : knowledgeBase.getFacts()) {
+			predicates.add(fact.getPredicate());
+		}
+		final List<Predicate> sorted = new ArrayList<>(predicates);
+		sorted.sort(Comparator.comparing(Predicate::getName).thenComparingInt(Predicate::getArity));
+		return sorted;
+	}
+
+	/**
+	 * Returns distinct file names for the given predicates, made of the predicate
+	 * name with characters other than letters, digits, {@code _} and {@code .}
+	 * replaced, and the arity.
+	 */
+	List<String> getFileNames(final List<Predicate> predicates) {
+		final String extension = (this.modelFormat == ModelFormat.RLS ? ".rls" : ".csv")
+				+ (this.compressModel ? ".gz" : "");
+		final Set<String> used = new HashSet<>();
+		final List<String> fileNames = new ArrayList<>(predicates.size());
+		for (final Predicate predicate : predicates) {
+			String name = predicate.getName().replaceAll("[^A-Za-z0-9_.]", "_");
+			if (name.length() > 100) {
+				name = name.substring(name.length() - 100);
+			}
+			final String base = name + "-" + predicate.getArity();
+			String fileName = base + extension;
+			for (int i = 2; !used.add(fileName); i++) {
+				fileName = base + "_" + i + extension;
+			}
+			fileNames.add(fileName);
+		}
+		return fileNames;
+	}
+
 	public void printConfiguration() {
 		System.out.println("  --save-model: " + this.saveModel);
 		System.out.println("  --output-model-directory: " + this.outputModelDirectory);
+		System.out.println("  --model-format: " + this.modelFormat);
+		System.out.println("  --compress-model: " + this.compressModel);
+		System.out.println("  --model-threads: " + this.modelThreads);
 	}
 
 	public boolean isSaveModel() {
@@ -115,4 +351,28 @@ public class SaveModel {
 		this.outputModelDirectory = outputModelDirectory;
 	}
 
+	public ModelFormat getModelFormat() {
+		return this.modelFormat;
+	}
+
+	public void setModelFormat(final ModelFormat modelFormat) {
+		this.modelFormat = modelFormat;
+	}
+
+	public boolean isCompressModel() {
+		return this.compressModel;
+	}
+
+	public void setCompressModel(final boolean compressModel) {
+		this.compressModel = compressModel;
+	}
+
+	public int getModelThreads() {
+		return this.modelThreads;
+	}
+
+	public void setModelThreads(final int modelThreads) {
+		this.modelThreads = modelThreads;
+	}
+
 }
@@ -0,0 +1,124 @@
+package org.semanticweb.rulewerk.client.picocli;
+
+/*-
+ * #%L
+ * Rulewerk Client
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.core.reasoner.Reasoner;
+import org.semanticweb.rulewerk.parser.ParsingException;
+import org.semanticweb.rulewerk.parser.RuleParser;
+import org.semanticweb.rulewerk.reasoner.vlog.VLogReasoner;
+
+public class BatchQueriesTest {
+
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
+	private static final String rules = "p(<http://example.org/a>) . p(<http://example.org/b>) . "
+			+ "q(<http://example.org/a>, \"1\") . r(?X) :- p(?X) . ";
+
+	private List<PositiveLiteral> queries() throws ParsingException {
+		return Arrays.asList(RuleParser.parsePositiveLiteral("p(?X)"), RuleParser.parsePositiveLiteral("q(?X, ?Y)"),
+				RuleParser.parsePositiveLiteral("r(?X)"), RuleParser.parsePositiveLiteral("s(?X)"));
+	}
+
+	@Test
+	public void isConfigurationValid_positiveThreads_valid() {
+		assertTrue(new BatchQueries().isConfigurationValid());
+		assertTrue(new BatchQueries(null, 1).isConfigurationValid());
+	}
+
+	@Test
+	public void isConfigurationValid_zeroThreads_notValid() {
+		assertFalse(new BatchQueries("queries.txt", 0).isConfigurationValid());
+	}
+
+	@Test
+	public void isQueriesFileValid_nonExistingFile_notValid() throws IOException {
+		assertTrue(new BatchQueries().isQueriesFileValid());
+		assertFalse(new BatchQueries(this.tempFolder.getRoot() + "/missing.txt", 1).isQueriesFileValid());
+		assertFalse(new BatchQueries(this.tempFolder.newFolder().getPath(), 1).isQueriesFileValid());
+	}
+
+	@Test
+	public void readQueryStrings_commentsAndEmptyLines_skipped() throws IOException {
+		final File file = this.tempFolder.newFile("queries.txt");
+		Files.write(file.toPath(), Arrays.asList("% comment", "p(?X)", "", "  q(?X, ?Y)  "), StandardCharsets.UTF_8);
+		assertEquals(Arrays.asList("p(?X)", "q(?X, ?Y)"), new BatchQueries(file.getPath(), 1).readQueryStrings());
+	}
+
+	@Test
+	public void answerQueries_countOnly_countsInQueryOrder() throws ParsingException, IOException {
+		final KnowledgeBase kb = RuleParser.parse(rules);
+		try (Reasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+			final List<BatchQueries.Result> results = new BatchQueries(null, 3).answerQueries(reasoner, queries(),
+					null);
+
+			assertEquals(4, results.size());
+			for (int i = 0; i < results.size(); i++) {
+				assertEquals(queries().get(i), results.get(i).getQuery());
+				assertNull(results.get(i).getErrorMessage());
+				assertNotNull(results.get(i).getCorrectness());
+			}
+			assertEquals(2, results.get(0).getCount());
+			assertEquals(1, results.get(1).getCount());
+			assertEquals(2, results.get(2).getCount());
+			assertEquals(0, results.get(3).getCount());
+		}
+	}
+
+	@Test
+	public void answerQueries_outputDirectory_answersWrittenToCsv() throws ParsingException, IOException {
+		final KnowledgeBase kb = RuleParser.parse(rules);
+		final File outputDirectory = this.tempFolder.newFolder();
+		try (Reasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+			final List<BatchQueries.Result> results = new BatchQueries(null, 2).answerQueries(reasoner, queries(),
+					outputDirectory);
+
+			assertEquals(2, results.get(0).getCount());
+			assertEquals(new HashSet<>(Arrays.asList("<http://example.org/a>", "<http://example.org/b>")),
+					new HashSet<>(Files.readAllLines(new File(outputDirectory, "p(?X).csv").toPath())));
+			assertEquals(Arrays.asList("<http://example.org/a>,\"\"\"1\"\"\""),
+					Files.readAllLines(new File(outputDirectory, "q(?X, ?Y).csv").toPath()));
+			assertEquals(0, Files.readAllLines(new File(outputDirectory, "s(?X).csv").toPath()).size());
+		}
+	}
+
+}
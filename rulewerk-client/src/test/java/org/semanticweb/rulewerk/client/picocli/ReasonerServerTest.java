@@ -0,0 +1,184 @@
+package org.semanticweb.rulewerk.client.picocli;
+
+/*-
+ * #%L
+ * Rulewerk Client
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.semanticweb.rulewerk.core.model.implementation.DataSourceDeclarationImpl;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.core.reasoner.Reasoner;
+import org.semanticweb.rulewerk.core.reasoner.implementation.StreamingCsvFileDataSource;
+import org.semanticweb.rulewerk.parser.ParsingException;
+import org.semanticweb.rulewerk.parser.RuleParser;
+import org.semanticweb.rulewerk.reasoner.vlog.VLogReasoner;
+
+public class ReasonerServerTest {
+
+	private static final String rules = "p(a) . p(b) . q(?X) :- p(?X) . ";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static Reasoner makeReasoner() throws ParsingException, IOException {
+		final Reasoner reasoner = new VLogReasoner(RuleParser.parse(rules));
+		reasoner.reason();
+		return reasoner;
+	}
+
+	private static String handle(final ReasonerServer server, final String request) throws IOException {
+		final StringWriter writer = new StringWriter();
+		server.handle(request, writer);
+		return writer.toString();
+	}
+
+	@Test
+	public void handle_countAndQuery_answers() throws ParsingException, IOException {
+		try (Reasoner reasoner = makeReasoner(); ReasonerServer server = new ReasonerServer(reasoner, 2, 0, 10)) {
+			assertEquals("OK 2\n", handle(server, "COUNT q(?X)"));
+			final String response = handle(server, "QUERY q(?X)");
+			assertTrue(response.contains("ANSWER a\n"));
+			assertTrue(response.contains("ANSWER b\n"));
+			assertTrue(response.endsWith("OK 2\n"));
+			assertEquals("OK 0\n", handle(server, "COUNT r(?X)"));
+		}
+	}
+
+	@Test
+	public void handle_invalidRequests_errors() throws ParsingException, IOException {
+		try (Reasoner reasoner = makeReasoner(); ReasonerServer server = new ReasonerServer(reasoner, 1, 0, 10)) {
+			assertTrue(handle(server, "COUNT q(?X").startsWith("ERROR "));
+			assertTrue(handle(server, "ADD q(?X) :- p(?X) .").startsWith("ERROR not a fact"));
+			assertTrue(handle(server, "DELETE p(a) .").startsWith("ERROR unknown command"));
+			assertTrue(server.getStatistics().contains(" failedRequests=3 "));
+		}
+	}
+
+	@Test
+	public void handle_addFacts_reasonedInBatches() throws ParsingException, IOException {
+		try (Reasoner reasoner = makeReasoner(); ReasonerServer server = new ReasonerServer(reasoner, 1, 0, 3)) {
+			assertEquals("OK 2\n", handle(server, "ADD p(c) . p(d) ."));
+			assertEquals("OK 2\n", handle(server, "COUNT q(?X)"));
+			assertTrue(server.getStatistics().contains(" bufferedFacts=2 reasonings=0 "));
+
+			assertEquals("OK 0\n", handle(server, "ADD p(e) ."));
+			assertEquals("OK 5\n", handle(server, "COUNT q(?X)"));
+			assertTrue(server.getStatistics().contains(" addedFacts=3 bufferedFacts=0 reasonings=1 "));
+
+			assertEquals("OK 1\n", handle(server, "ADD p(f) ."));
+			assertEquals("OK 1\n", handle(server, "REASON"));
+			assertEquals("OK 6\n", handle(server, "COUNT q(?X)"));
+		}
+	}
+
+	@Test
+	public void handle_reasoningFails_errorAndFactsStayBuffered() throws ParsingException, IOException {
+		final Reasoner reasoner = makeReasoner();
+		try (ReasonerServer server = new ReasonerServer(reasoner, 1, 0, 10)) {
+			assertEquals("OK 1\n", handle(server, "ADD p(c) ."));
+			reasoner.close();
+			assertTrue(handle(server, "REASON").startsWith("ERROR "));
+			assertTrue(handle(server, "ADD p(d) .").startsWith("OK 2"));
+			assertTrue(server.getStatistics().contains(" failedRequests=1 "));
+			assertTrue(server.getStatistics().contains(" addedFacts=0 bufferedFacts=2 reasonings=0 "));
+		}
+	}
+
+	@Test
+	public void handle_dataSourceUnreadable_errorAndFactsStayBuffered() throws ParsingException, IOException {
+		final File csvFile = this.folder.newFile("r.csv");
+		Files.write(csvFile.toPath(), Arrays.asList("a"), StandardCharsets.UTF_8);
+		final KnowledgeBase kb = RuleParser.parse(rules);
+		kb.addStatement(new DataSourceDeclarationImpl(Expressions.makePredicate("r", 1),
+				new StreamingCsvFileDataSource(csvFile.getPath(), 0)));
+		try (Reasoner reasoner = new VLogReasoner(kb); ReasonerServer server = new ReasonerServer(reasoner, 1, 0, 1)) {
+			reasoner.reason();
+			assertEquals("OK 1\n", handle(server, "COUNT r(?X)"));
+			assertTrue(csvFile.delete());
+
+			assertTrue(handle(server, "ADD p(c) .").startsWith("ERROR java.io."));
+			assertTrue(handle(server, "REASON").startsWith("ERROR java.io."));
+			assertTrue(server.getStatistics().contains(" failedRequests=2 "));
+			assertTrue(server.getStatistics().contains(" addedFacts=0 bufferedFacts=1 reasonings=0 "));
+		}
+	}
+
+	@Test
+	public void start_concurrentConnections_answered() throws Exception {
+		try (Reasoner reasoner = makeReasoner(); ReasonerServer server = new ReasonerServer(reasoner, 2, 10000, 10)) {
+			final int port = server.start(InetAddress.getLoopbackAddress(), 0);
+			final ExecutorService clients = Executors.newFixedThreadPool(4);
+			try {
+				final List<Future<List<String>>> responses = new ArrayList<>();
+				for (int i = 0; i < 4; i++) {
+					responses.add(clients.submit(() -> {
+						try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+								BufferedReader reader = new BufferedReader(
+										new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+								Writer writer = new OutputStreamWriter(socket.getOutputStream(),
+										StandardCharsets.UTF_8)) {
+							final List<String> lines = new ArrayList<>();
+							for (int j = 0; j < 5; j++) {
+								writer.write("COUNT p(?X)\n");
+								writer.flush();
+								lines.add(reader.readLine());
+							}
+							writer.write("QUIT\n");
+							writer.flush();
+							return lines;
+						}
+					}));
+				}
+				for (final Future<List<String>> response : responses) {
+					for (final String line : response.get()) {
+						assertEquals("OK 2", line);
+					}
+				}
+			} finally {
+				clients.shutdownNow();
+			}
+			assertTrue(server.getStatistics().contains(" queries=20 timedOutQueries=0 "));
+		}
+	}
+
+}
@@ -1,12 +1,19 @@
 package org.semanticweb.rulewerk.client.picocli;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 import org.apache.commons.lang3.StringUtils;
 import org.junit.Rule;
@@ -33,6 +40,15 @@ import org.junit.Rule;
 
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
+import org.semanticweb.rulewerk.client.picocli.SaveModel.ModelFormat;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.reasoner.Correctness;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.core.reasoner.Reasoner;
+import org.semanticweb.rulewerk.parser.ParsingException;
+import org.semanticweb.rulewerk.parser.RuleParser;
+import org.semanticweb.rulewerk.reasoner.vlog.VLogReasoner;
 
 public class SaveModelTest {
 
@@ -210,4 +226,69 @@ public class SaveModelTest {
 		assertNull(sm.getOutputModelDirectory());
 	}
 
+	@Test
+	public void isConfigurationValid_saveTrueZeroThreads_nonValid() {
+		SaveModel sm = new SaveModel();
+		sm.setSaveModel(true);
+		sm.setModelThreads(0);
+		assertFalse(sm.isConfigurationValid());
+		sm.setSaveModel(false);
+		assertTrue(sm.isConfigurationValid());
+	}
+
+	@Test
+	public void getFileNames_sanitizedAndDistinct() {
+		SaveModel sm = new SaveModel();
+		List<Predicate> predicates = Arrays.asList(Expressions.makePredicate("http://example.org/p", 1),
+				Expressions.makePredicate("http://example.org:p", 1), Expressions.makePredicate("q", 2));
+		assertEquals(Arrays.asList("http___example.org_p-1.rls.gz", "http___example.org_p-1_2.rls.gz", "q-2.rls.gz"),
+				sm.getFileNames(predicates));
+		sm.setModelFormat(ModelFormat.CSV);
+		sm.setCompressModel(false);
+		assertEquals(Arrays.asList("q-2.csv"), sm.getFileNames(Arrays.asList(Expressions.makePredicate("q", 2))));
+	}
+
+	@Test
+	public void save_rlsCompressed_oneParsableFilePerPredicate() throws IOException, ParsingException {
+		File directory = tempFolder.newFolder();
+		SaveModel sm = new SaveModel(true, directory.getAbsolutePath());
+		KnowledgeBase kb = RuleParser.parse("@prefix eg: <http://example.org/> . eg:p(eg:a) . eg:p(eg:b) . "
+				+ "q(?X, !Y) :- eg:p(?X) . r(?X) :- s(?X) .");
+		try (Reasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+			assertEquals(Correctness.SOUND_AND_COMPLETE, sm.save(reasoner));
+
+			assertEquals(new HashSet<>(Arrays.asList(SaveModel.INDEX_FILE_NAME, "http___example.org_p-1.rls.gz",
+					"q-2.rls.gz", "r-1.rls.gz")), new HashSet<>(Arrays.asList(directory.list())));
+			KnowledgeBase saved = RuleParser
+					.parse(new GZIPInputStream(new FileInputStream(new File(directory, "http___example.org_p-1.rls.gz"))));
+			assertEquals(new HashSet<>(Arrays.asList(RuleParser.parseFact("<http://example.org/p>(<http://example.org/a>) ."),
+					RuleParser.parseFact("<http://example.org/p>(<http://example.org/b>) ."))), new HashSet<>(saved.getFacts()));
+			assertEquals(2, RuleParser.parse(new GZIPInputStream(new FileInputStream(new File(directory, "q-2.rls.gz"))))
+					.getFacts().size());
+			assertEquals(Arrays.asList("file,predicate,arity,facts", "http___example.org_p-1.rls.gz,http://example.org/p,1,2",
+					"q-2.rls.gz,q,2,2", "r-1.rls.gz,r,1,0"),
+					Files.readAllLines(new File(directory, SaveModel.INDEX_FILE_NAME).toPath()));
+		}
+	}
+
+	@Test
+	public void save_csvUncompressedParallel_oneRowPerFact() throws IOException, ParsingException {
+		File directory = tempFolder.newFolder();
+		SaveModel sm = new SaveModel(true, directory.getAbsolutePath());
+		sm.setModelFormat(ModelFormat.CSV);
+		sm.setCompressModel(false);
+		sm.setModelThreads(2);
+		KnowledgeBase kb = RuleParser.parse("p(<http://example.org/a>, \"x,y\") . q(?Y) :- p(?X, ?Y) .");
+		try (Reasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+			sm.save(reasoner);
+
+			assertArrayEquals(new String[] { "<http://example.org/a>,\"\"\"x,y\"\"\"" },
+					Files.readAllLines(new File(directory, "p-2.csv").toPath()).toArray());
+			assertArrayEquals(new String[] { "\"\"\"x,y\"\"\"" },
+					Files.readAllLines(new File(directory, "q-1.csv").toPath()).toArray());
+		}
+	}
+
 }
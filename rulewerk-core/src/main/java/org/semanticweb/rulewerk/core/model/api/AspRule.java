@@ -1,13 +1,14 @@
 package org.semanticweb.rulewerk.core.model.api;
 
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.model.implementation.GroundingLayout;
 import org.semanticweb.rulewerk.core.model.implementation.PositiveLiteralImpl;
-import org.semanticweb.rulewerk.core.model.implementation.PredicateImpl;
+import org.semanticweb.rulewerk.core.model.implementation.PredicateSet;
 import org.semanticweb.rulewerk.core.model.implementation.Serializer;
 import org.semanticweb.rulewerk.core.reasoner.Reasoner;
 
 import java.io.FileWriter;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -81,20 +82,21 @@ public abstract interface AspRule extends SyntaxObject, Statement, Entity {
 	<T> T accept(AspRuleVisitor<T> aspRuleVisitor);
 
 	/**
-	 * Get the grounding of the rule for the given instance
+	 * Get the unique rule index
 	 *
-	 * @param approximatedPredicates set of approximated predicates
-	 * @param answerMap contains a term for each variable
-	 * @return the grounding of the rule
+	 * @return the rule index
 	 */
-	String ground(Set<Predicate> approximatedPredicates, Map<Variable, Term> answerMap);
+	int getRuleIdx();
 
 	/**
-	 * Get the unique rule index
+	 * Get the layout of the rule for grounding with respect to the given set of
+	 * approximated predicates. The layout is computed once and reused as long as
+	 * the same {@link PredicateSet} is passed.
 	 *
-	 * @return the rule index
+	 * @param approximatedPredicates set of approximated predicates
+	 * @return the grounding layout
 	 */
-	int getRuleIdx();
+	GroundingLayout getGroundingLayout(Set<Predicate> approximatedPredicates);
 
 	@Override
 	default String getSyntacticRepresentation() {
@@ -109,7 +111,7 @@ public abstract interface AspRule extends SyntaxObject, Statement, Entity {
 	default PositiveLiteral getHelperLiteral() {
 		String predicateName = "rule" + this.getRuleIdx();
 		List<Term> terms = this.getBody().getUniversalVariables().collect(Collectors.toList());
-		Predicate predicate = new PredicateImpl(predicateName, terms.size());
+		Predicate predicate = Expressions.makePredicate(predicateName, terms.size());
 		return new PositiveLiteralImpl(predicate, terms);
 	}
 
@@ -131,7 +133,7 @@ public abstract interface AspRule extends SyntaxObject, Statement, Entity {
 			}
 			predicateName.append(i);
 		}
-		Predicate predicate = new PredicateImpl(predicateName.toString(), terms.size());
+		Predicate predicate = Expressions.makePredicate(predicateName.toString(), terms.size());
 		return new PositiveLiteralImpl(predicate, terms);
 	}
 }
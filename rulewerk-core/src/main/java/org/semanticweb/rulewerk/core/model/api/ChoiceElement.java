@@ -2,8 +2,6 @@ package org.semanticweb.rulewerk.core.model.api;
 
 import org.semanticweb.rulewerk.core.model.implementation.Serializer;
 
-import java.util.Map;
-import java.util.Set;
 
 /*-
  * #%L
@@ -55,13 +53,4 @@ public interface ChoiceElement extends SyntaxObject, Entity {
 	default String getSyntacticRepresentation() {
 		return Serializer.getString(this);
 	}
-
-	/**
-	 * Return the instance for the choice element based on the map
-	 *
-	 * @param approximatedPredicates a set of approximated predicates
-	 * @param map contains a term for each variable
-	 * @return the grounded choice element
-	 */
-    String ground(Set<Predicate> approximatedPredicates, Map<Variable, Term> map);
 }
@@ -78,4 +78,14 @@ public interface ChoiceRule extends AspRule {
 	 * @return boolean
 	 */
 	Boolean hasLowerBound();
+
+	/**
+	 * Returns the variables of the body and of the condition of a choice element
+	 * (without duplicates), in the order used for the helper literal that grounds
+	 * the local variables of the choice element.
+	 *
+	 * @param idx the index of the choice element (in the head)
+	 * @return list of variables
+	 */
+	List<Term> getChoiceElementVariables(int idx);
 }
@@ -21,7 +21,6 @@ package org.semanticweb.rulewerk.core.model.api;
  */
 
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
 import org.semanticweb.rulewerk.core.model.implementation.Serializer;
@@ -57,8 +56,6 @@ public interface Conjunction<T extends Literal> extends Iterable<T>, SyntaxObjec
 		return Serializer.getString(this);
 	}
 
-	String ground(Set<Predicate> approximatedPredicates, Map<Variable, Term> answerMap);
-
 	/**
 	 * Count the literals that are approximated, i.e. they are relevant for an asp grounding
 	 * @param approximatedPredicates set of approximated predicates
@@ -23,8 +23,6 @@ package org.semanticweb.rulewerk.core.model.implementation;
 import java.util.Collections;
 import java.util.List;
 
-import java.util.Map;
-import java.util.Set;
 import java.util.stream.Stream;
 
 import org.apache.commons.lang3.Validate;
@@ -99,9 +97,4 @@ public class ChoiceElementImpl implements ChoiceElement {
 	public Stream<Term> getTerms() {
 		return Stream.concat(this.literal.getTerms(), this.context.getTerms()).distinct();
 	}
-
-	@Override
-	public String ground(Set<Predicate> approximatedPredicates, Map<Variable, Term> map) {
-		return this.literal.getSyntacticRepresentation(map) + " : " + this.context.ground(approximatedPredicates, map);
-	}
 }
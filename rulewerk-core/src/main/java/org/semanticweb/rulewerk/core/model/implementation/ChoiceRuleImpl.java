@@ -40,6 +40,17 @@ public class ChoiceRuleImpl implements ChoiceRule {
 	final Integer upperBound;
 	final Integer lowerBound;
 	final int ruleIdx;
+	private GroundingLayout groundingLayout;
+
+	/**
+	 * Lazily computed values. Rules are immutable, so racing threads can only
+	 * compute the same values.
+	 */
+	private volatile PositiveLiteral helperLiteral;
+	private volatile List<Term> terms;
+	private volatile Conjunction<PositiveLiteral> headLiterals;
+	private volatile List<List<Term>> choiceElementVariables;
+	private int hash;
 
 	/**
 	 * Creates a Rule with a (possibly empty) body and an non-empty head. All variables in
@@ -77,11 +88,15 @@ public class ChoiceRuleImpl implements ChoiceRule {
 
 	@Override
 	public int hashCode() {
-		final int prime = 31;
-		int result = this.body.hashCode();
-		result = prime * result + this.head.hashCode();
-		result = prime * result + lowerBound;
-		result = prime * result + upperBound;
+		int result = this.hash;
+		if (result == 0) {
+			final int prime = 31;
+			result = this.body.hashCode();
+			result = prime * result + this.head.hashCode();
+			result = prime * result + lowerBound;
+			result = prime * result + upperBound;
+			this.hash = result;
+		}
 		return result;
 	}
 
@@ -96,6 +111,9 @@ public class ChoiceRuleImpl implements ChoiceRule {
 		if (!(obj instanceof ChoiceRule)) {
 			return false;
 		}
+		if (obj instanceof ChoiceRuleImpl && hashCode() != obj.hashCode()) {
+			return false;
+		}
 		final ChoiceRule other = (ChoiceRule) obj;
 
 		return this.head.equals(other.getChoiceElements()) && this.body.equals(other.getBody())
@@ -109,8 +127,13 @@ public class ChoiceRuleImpl implements ChoiceRule {
 
 	@Override
 	public Conjunction<PositiveLiteral> getHeadLiterals() {
-		List<PositiveLiteral> literals = this.getChoiceElements().stream().map(ChoiceElement::getLiteral).collect(Collectors.toList());
-		return new ConjunctionImpl<>(literals);
+		Conjunction<PositiveLiteral> result = this.headLiterals;
+		if (result == null) {
+			List<PositiveLiteral> literals = this.getChoiceElements().stream().map(ChoiceElement::getLiteral).collect(Collectors.toList());
+			result = new ConjunctionImpl<>(Collections.unmodifiableList(literals));
+			this.headLiterals = result;
+		}
+		return result;
 	}
 
 	@Override
@@ -128,6 +151,41 @@ public class ChoiceRuleImpl implements ChoiceRule {
 		return this.ruleIdx;
 	}
 
+	@Override
+	public PositiveLiteral getHelperLiteral() {
+		PositiveLiteral result = this.helperLiteral;
+		if (result == null) {
+			result = ChoiceRule.super.getHelperLiteral();
+			this.helperLiteral = result;
+		}
+		return result;
+	}
+
+	@Override
+	public List<Term> getChoiceElementVariables(int idx) {
+		List<List<Term>> result = this.choiceElementVariables;
+		if (result == null) {
+			List<List<Term>> variables = new ArrayList<>();
+			for (ChoiceElement choiceElement : this.head) {
+				Stream<UniversalVariable> stream = Stream.concat(this.body.getUniversalVariables(), choiceElement.getContext().getUniversalVariables()).distinct();
+				variables.add(Collections.unmodifiableList(Arrays.asList(stream.toArray(Term[]::new))));
+			}
+			result = Collections.unmodifiableList(variables);
+			this.choiceElementVariables = result;
+		}
+		return result.get(idx);
+	}
+
+	@Override
+	public GroundingLayout getGroundingLayout(Set<Predicate> approximatedPredicates) {
+		GroundingLayout layout = this.groundingLayout;
+		if (layout == null || !layout.isFor(approximatedPredicates)) {
+			layout = new GroundingLayout(this, approximatedPredicates);
+			this.groundingLayout = layout;
+		}
+		return layout;
+	}
+
 	@Override
 	public Integer getUpperBound() {
 		return upperBound;
@@ -161,8 +219,7 @@ public class ChoiceRuleImpl implements ChoiceRule {
 		int i = 0;
 		for (ChoiceElement choiceElement : this.head) {
 			Conjunction<Literal> context = choiceElement.getContext();
-			List<Term> terms = Stream.concat(this.body.getUniversalVariables(), context.getUniversalVariables()).distinct().collect(Collectors.toList());
-			literal = this.getHelperLiteral(terms, this.ruleIdx, i);
+			literal = this.getHelperLiteral(getChoiceElementVariables(i), this.ruleIdx, i);
 			head = new ConjunctionImpl<>(Collections.singletonList(literal));
 
 			List<Literal> bodyLiterals = new ArrayList<>(this.body.getLiterals());
@@ -177,24 +234,6 @@ public class ChoiceRuleImpl implements ChoiceRule {
 		return list;
 	}
 
-	@Override
-	public String ground(Set<Predicate> approximatedPredicates, Map<Variable, Term> answerMap) {
-		StringBuilder builder = new StringBuilder();
-		builder.append("{ ");
-		for (int i=0; i<this.getChoiceElements().size(); i++) {
-			if (i != 0) {
-				builder.append("; ");
-			}
-			builder.append("%").append(i + 1).append("$s");
-		}
-		builder.append(" }");
-
-		builder.append(" :- ");
-		builder.append(this.body.ground(approximatedPredicates, answerMap));
-		builder.append(" .\n");
-		return builder.toString();
-	}
-
 	@Override
 	public <T> T accept(StatementVisitor<T> statementVisitor) {
 		return statementVisitor.visit(this);
@@ -202,7 +241,12 @@ public class ChoiceRuleImpl implements ChoiceRule {
 
 	@Override
 	public Stream<Term> getTerms() {
-		return Stream.concat(this.body.getTerms(), this.head.stream().flatMap(ChoiceElement::getTerms)).distinct();
+		List<Term> result = this.terms;
+		if (result == null) {
+			result = Collections.unmodifiableList(Arrays.asList(Stream.concat(this.body.getTerms(), this.head.stream().flatMap(ChoiceElement::getTerms)).distinct().toArray(Term[]::new)));
+			this.terms = result;
+		}
+		return result.stream();
 	}
 
 	@Override
@@ -35,6 +35,32 @@ public class ConjunctionImpl<T extends Literal> implements Conjunction<T> {
 
 	final List<? extends T> literals;
 
+	/**
+	 * Lazily computed values. Conjunctions are immutable, so racing threads can
+	 * only compute the same values.
+	 */
+	private volatile List<Term> terms;
+	private volatile List<UniversalVariable> universalVariables;
+	private int hash;
+
+	/**
+	 * Relevant literals with respect to the most recently used
+	 * {@link PredicateSet}; replaced as a whole, so that no locking is needed.
+	 */
+	private RelevantLiterals relevantLiterals;
+
+	private static final class RelevantLiterals {
+		final Set<Predicate> predicates;
+		final BitSet mask;
+		final int count;
+
+		RelevantLiterals(final Set<Predicate> predicates, final BitSet mask) {
+			this.predicates = predicates;
+			this.mask = mask;
+			this.count = mask.cardinality();
+		}
+	}
+
 	/**
 	 * Constructor.
 	 *
@@ -53,12 +79,34 @@ public class ConjunctionImpl<T extends Literal> implements Conjunction<T> {
 
 	@Override
 	public Stream<Term> getTerms() {
-		return this.literals.stream().flatMap(Literal::getTerms).distinct();
+		List<Term> result = this.terms;
+		if (result == null) {
+			result = Collections.unmodifiableList(
+					Arrays.asList(this.literals.stream().flatMap(Literal::getTerms).distinct().toArray(Term[]::new)));
+			this.terms = result;
+		}
+		return result.stream();
+	}
+
+	@Override
+	public Stream<UniversalVariable> getUniversalVariables() {
+		List<UniversalVariable> result = this.universalVariables;
+		if (result == null) {
+			result = Collections.unmodifiableList(
+					Arrays.asList(Terms.getUniversalVariables(getTerms()).toArray(UniversalVariable[]::new)));
+			this.universalVariables = result;
+		}
+		return result.stream();
 	}
 
 	@Override
 	public int hashCode() {
-		return this.literals.hashCode();
+		int result = this.hash;
+		if (result == 0) {
+			result = this.literals.hashCode();
+			this.hash = result;
+		}
+		return result;
 	}
 
 	@Override
@@ -72,6 +120,9 @@ public class ConjunctionImpl<T extends Literal> implements Conjunction<T> {
 		if (!(obj instanceof Conjunction<?>)) {
 			return false;
 		}
+		if (obj instanceof ConjunctionImpl<?> && hashCode() != obj.hashCode()) {
+			return false;
+		}
 		final Conjunction<?> other = (Conjunction<?>) obj;
 		return this.literals.equals(other.getLiterals());
 	}
@@ -86,32 +137,13 @@ public class ConjunctionImpl<T extends Literal> implements Conjunction<T> {
 		return getSyntacticRepresentation();
 	}
 
-	@Override
-	public String ground(Set<Predicate> approximatedPredicates, Map<Variable, Term> answerMap) {
-		StringBuilder builder = new StringBuilder();
-		boolean first = true;
-		for (Literal literal : this.getLiterals()) {
-			if (!approximatedPredicates.contains(literal.getPredicate())) {
-				continue;
-			}
-
-			if (first) {
-				first = false;
-			} else {
-				builder.append(", ");
-			}
-
-			builder.append(literal.getSyntacticRepresentation(answerMap).replace("~", "not "));
-		}
-
-		return builder.toString();
-	}
-
 	@Override
 	public Conjunction<T> getSimplifiedConjunction(Set<Predicate> predicates, boolean keepPositive) {
+		final BitSet mask = getRelevantLiterals(predicates).mask;
 		List<T> literals = new ArrayList<>();
-		for (T literal : this.getLiterals()) {
-			if ((keepPositive && !literal.isNegated()) || !predicates.contains(literal.getPredicate())) {
+		for (int i = 0; i < this.literals.size(); i++) {
+			T literal = this.literals.get(i);
+			if ((keepPositive && !literal.isNegated()) || !mask.get(i)) {
 				literals.add(literal);
 			}
 		}
@@ -120,12 +152,27 @@ public class ConjunctionImpl<T extends Literal> implements Conjunction<T> {
 
 	@Override
 	public int getRelevantLiteralCount(Set<Predicate> approximatedPredicates) {
-		int count = 0;
-		for (Literal literal : this.getLiterals()) {
-			if (approximatedPredicates.contains(literal.getPredicate())) {
-				count++;
+		return getRelevantLiterals(approximatedPredicates).count;
+	}
+
+	private RelevantLiterals getRelevantLiterals(Set<Predicate> approximatedPredicates) {
+		final RelevantLiterals cached = this.relevantLiterals;
+		if (cached != null && cached.predicates == approximatedPredicates) {
+			return cached;
+		}
+		if (approximatedPredicates instanceof PredicateSet) {
+			final RelevantLiterals computed = new RelevantLiterals(approximatedPredicates,
+					((PredicateSet) approximatedPredicates).getRelevantLiteralMask(this.literals));
+			this.relevantLiterals = computed;
+			return computed;
+		}
+		// other sets are not cached, and not copied to a PredicateSet either
+		final BitSet mask = new BitSet(this.literals.size());
+		for (int i = 0; i < this.literals.size(); i++) {
+			if (approximatedPredicates.contains(this.literals.get(i).getPredicate())) {
+				mask.set(i);
 			}
 		}
-		return count;
+		return new RelevantLiterals(approximatedPredicates, mask);
 	}
 }
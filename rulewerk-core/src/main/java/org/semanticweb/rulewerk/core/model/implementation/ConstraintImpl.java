@@ -40,8 +40,17 @@ import org.semanticweb.rulewerk.core.reasoner.QueryResultIterator;
  */
 public class ConstraintImpl implements Constraint {
 
+	private static final Conjunction<PositiveLiteral> EMPTY_HEAD = new ConjunctionImpl<>(Collections.emptyList());
+
 	final Conjunction<Literal> body;
 	final int ruleIdx;
+	private GroundingLayout groundingLayout;
+
+	/**
+	 * Lazily computed helper literal. Rules are immutable, so racing threads can
+	 * only compute the same value.
+	 */
+	private volatile PositiveLiteral helperLiteral;
 
 	/**
 	 * Creates a Rule with an empty head and an non-empty body. All variables in
@@ -92,7 +101,7 @@ public class ConstraintImpl implements Constraint {
 
 	@Override
 	public Conjunction<PositiveLiteral> getHeadLiterals() {
-		return new ConjunctionImpl<>(new ArrayList<>());
+		return EMPTY_HEAD;
 	}
 
 	@Override
@@ -105,6 +114,26 @@ public class ConstraintImpl implements Constraint {
 		return this.ruleIdx;
 	}
 
+	@Override
+	public PositiveLiteral getHelperLiteral() {
+		PositiveLiteral result = this.helperLiteral;
+		if (result == null) {
+			result = Constraint.super.getHelperLiteral();
+			this.helperLiteral = result;
+		}
+		return result;
+	}
+
+	@Override
+	public GroundingLayout getGroundingLayout(Set<Predicate> approximatedPredicates) {
+		GroundingLayout layout = this.groundingLayout;
+		if (layout == null || !layout.isFor(approximatedPredicates)) {
+			layout = new GroundingLayout(this, approximatedPredicates);
+			this.groundingLayout = layout;
+		}
+		return layout;
+	}
+
 	@Override
 	public List<Rule> getApproximation(Set<Predicate> approximatedPredicates) {
 		PositiveLiteral literal = getHelperLiteral();
@@ -122,12 +151,6 @@ public class ConstraintImpl implements Constraint {
 		return this.body.getTerms();
 	}
 
-	@Override
-	public String ground(Set<Predicate> approximatedPredicates, Map<Variable, Term> answerMap) {
-		String grounding = this.getBody().ground(approximatedPredicates, answerMap);
-		return ":- " + grounding + " .\n";
-	}
-
 	@Override
 	public <T> T accept(AspRuleVisitor<T> aspRuleVisitor) {
 		return aspRuleVisitor.visit(this);
@@ -42,6 +42,15 @@ public class DisjunctiveRuleImpl implements DisjunctiveRule {
 	final Conjunction<Literal> body;
 	final Conjunction<PositiveLiteral> head;
 	final int ruleIdx;
+	private GroundingLayout groundingLayout;
+
+	/**
+	 * Lazily computed values. Rules are immutable, so racing threads can only
+	 * compute the same values.
+	 */
+	private volatile PositiveLiteral helperLiteral;
+	private volatile List<Term> terms;
+	private int hash;
 
 	/**
 	 * Creates a Rule with a (possibly empty) body and an non-empty head. All variables in
@@ -72,14 +81,17 @@ public class DisjunctiveRuleImpl implements DisjunctiveRule {
 		this.head = head;
 		this.body = body;
 		this.ruleIdx = ruleIdx;
-		System.out.println(this);
 	}
 
 	@Override
 	public int hashCode() {
-		final int prime = 31;
-		int result = this.body.hashCode();
-		result = prime * result + this.head.hashCode();
+		int result = this.hash;
+		if (result == 0) {
+			final int prime = 31;
+			result = this.body.hashCode();
+			result = prime * result + this.head.hashCode();
+			this.hash = result;
+		}
 		return result;
 	}
 
@@ -94,6 +106,9 @@ public class DisjunctiveRuleImpl implements DisjunctiveRule {
 		if (!(obj instanceof DisjunctiveRule)) {
 			return false;
 		}
+		if (obj instanceof DisjunctiveRuleImpl && hashCode() != obj.hashCode()) {
+			return false;
+		}
 		final DisjunctiveRule other = (DisjunctiveRule) obj;
 
 		return this.head.equals(other.getHeadLiterals()) && this.body.equals(other.getBody());
@@ -119,6 +134,26 @@ public class DisjunctiveRuleImpl implements DisjunctiveRule {
 		return this.ruleIdx;
 	}
 
+	@Override
+	public PositiveLiteral getHelperLiteral() {
+		PositiveLiteral result = this.helperLiteral;
+		if (result == null) {
+			result = DisjunctiveRule.super.getHelperLiteral();
+			this.helperLiteral = result;
+		}
+		return result;
+	}
+
+	@Override
+	public GroundingLayout getGroundingLayout(Set<Predicate> approximatedPredicates) {
+		GroundingLayout layout = this.groundingLayout;
+		if (layout == null || !layout.isFor(approximatedPredicates)) {
+			layout = new GroundingLayout(this, approximatedPredicates);
+			this.groundingLayout = layout;
+		}
+		return layout;
+	}
+
 	@Override
 	public List<Rule> getApproximation(Set<Predicate> approximatedPredicates) {
 		PositiveLiteral literal = this.getHelperLiteral();
@@ -141,14 +176,12 @@ public class DisjunctiveRuleImpl implements DisjunctiveRule {
 
 	@Override
 	public Stream<Term> getTerms() {
-		return Stream.concat(this.body.getTerms(), this.head.getTerms()).distinct();
-	}
-
-	@Override
-	public String ground(Set<Predicate> approximatedPredicates, Map<Variable, Term> answerMap) {
-		String body = this.body.ground(approximatedPredicates, answerMap);
-		String head = this.head.getSyntacticRepresentation(answerMap);
-		return head + " :- " + body + " .\n";
+		List<Term> result = this.terms;
+		if (result == null) {
+			result = Collections.unmodifiableList(Arrays.asList(Stream.concat(this.body.getTerms(), this.head.getTerms()).distinct().toArray(Term[]::new)));
+			this.terms = result;
+		}
+		return result.stream();
 	}
 
 	@Override
@@ -98,14 +98,15 @@ public final class Expressions {
 	}
 
 	/**
-	 * Creates a {@link Predicate}.
+	 * Creates a {@link Predicate}. The result is the canonical instance from the
+	 * {@link SymbolTable}.
 	 *
 	 * @param name  non-blank predicate name
 	 * @param arity predicate arity, strictly greater than 0
 	 * @return a {@link Predicate} corresponding to the input.
 	 */
 	public static Predicate makePredicate(String name, int arity) {
-		return new PredicateImpl(name, arity);
+		return SymbolTable.getPredicate(name, arity);
 	}
 
 	/**
@@ -403,6 +404,6 @@ public final class Expressions {
 	 * @return a {@link ShowStatement} corresponding to the input
 	 */
 	public static ShowStatement makeShowStatement(final String predicateName, final int arity) {
-		return new ShowStatementImpl(new PredicateImpl(predicateName, arity));
+		return new ShowStatementImpl(makePredicate(predicateName, arity));
 	}
 }
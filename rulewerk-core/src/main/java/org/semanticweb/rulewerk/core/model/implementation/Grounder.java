@@ -22,30 +22,39 @@ package org.semanticweb.rulewerk.core.model.implementation;
 
 import karmaresearch.vlog.NotStartedException;
 import karmaresearch.vlog.Term.TermType;
+import org.semanticweb.rulewerk.core.exceptions.RulewerkRuntimeException;
 import org.semanticweb.rulewerk.core.model.api.*;
 import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
-import org.semanticweb.rulewerk.core.reasoner.QueryResultIterator;
 import org.semanticweb.rulewerk.core.reasoner.Reasoner;
 
 import java.io.BufferedWriter;
 import java.io.IOException;
 import java.util.*;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import it.unimi.dsi.fastutil.longs.AbstractLong2IntMap;
 import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 
 /**
  * Class for grounding asp rules and facts. The grounder uses a file writer and a reasoner that has the (asp) facts
  * materialized. Moreover, the grounder utilizes the knowledge about approximated predicates to omit facts that are
  * certainly true. The grounder creates, on-the-fly, an index containing the integers of the grounded literals.
+ *
+ * Both output formats (aspif and the human-readable text format) share the same instantiation of the rules, i.e. the
+ * same helper queries on the reasoner. They only differ in how a single instance is written. The text format decodes
+ * term ids through a term cache that is shared by all rules, and writes each instance directly to the (buffered)
+ * writer, such that no grounded rule is ever built up in memory.
  */
 public class Grounder implements AspRuleVisitor<Boolean> {
 
+	/**
+	 * Maximal number of decoded terms that are kept in the term cache.
+	 */
+	static final int TERM_CACHE_CAPACITY = 1 << 20;
+
 	final private KnowledgeBase knowledgeBase;
-	final private Set<Predicate> approximatedPredicates;
-	final private List<Predicate> approximatedPredicatesList;
+	final private PredicateSet approximatedPredicates;
 	final private Reasoner reasoner;
 	final private BufferedWriter writer;
 	final private boolean textFormat;
@@ -53,6 +62,11 @@ public class Grounder implements AspRuleVisitor<Boolean> {
 	final private int numberOfRules;
 	final private int numberOfPredicates;
 	final private AbstractLong2IntMap aspifMap;
+	final private Long2ObjectOpenHashMap<Term> termCache;
+	final private Long2ObjectOpenHashMap<String> termStringCache;
+	final private Map<Predicate, String> predicateNameCache;
+	final private Map<String, Long> constantIdCache;
+	final private int termCacheCapacity;
 	private int aspifCounter;
 
 	/**
@@ -65,16 +79,34 @@ public class Grounder implements AspRuleVisitor<Boolean> {
 	 * @param textFormat whether to ground in text format or not
 	 */
 	public Grounder(Reasoner reasoner, KnowledgeBase knowledgeBase, BufferedWriter writer, Set<Predicate> approximatedPredicates, boolean textFormat) {
+		this(reasoner, knowledgeBase, writer, approximatedPredicates, textFormat, TERM_CACHE_CAPACITY);
+	}
+
+	/**
+	 * The constructor with a given capacity of the term cache.
+	 *
+	 * @param reasoner the reasoner with the information for the grounding
+	 * @param knowledgeBase the knowledge base for which the grounder should be used
+	 * @param writer a file writer for writing the grounded rules
+	 * @param approximatedPredicates set of approximated predicates
+	 * @param textFormat whether to ground in text format or not
+	 * @param termCacheCapacity maximal number of decoded terms that are kept in the term cache
+	 */
+	Grounder(Reasoner reasoner, KnowledgeBase knowledgeBase, BufferedWriter writer, Set<Predicate> approximatedPredicates, boolean textFormat, int termCacheCapacity) {
 		this.knowledgeBase = knowledgeBase;
 		this.reasoner = reasoner;
 		this.writer = writer;
-		this.approximatedPredicates = approximatedPredicates;
-		this.approximatedPredicatesList = new LinkedList<>(approximatedPredicates);
+		this.approximatedPredicates = PredicateSet.of(approximatedPredicates);
 		this.textFormat = textFormat;
 		this.numberOfConstants = knowledgeBase.getConstants().size();
 		this.numberOfRules = knowledgeBase.getAspRules().size();
 		this.numberOfPredicates = approximatedPredicates.size();
 		this.aspifMap = new Long2IntOpenHashMap();
+		this.termCache = new Long2ObjectOpenHashMap<>();
+		this.termStringCache = new Long2ObjectOpenHashMap<>();
+		this.predicateNameCache = new HashMap<>();
+		this.constantIdCache = new HashMap<>();
+		this.termCacheCapacity = termCacheCapacity;
 		this.aspifCounter = 1;
 	}
 
@@ -82,37 +114,25 @@ public class Grounder implements AspRuleVisitor<Boolean> {
 	 * Ground the knowledge base.
 	 */
 	public void groundKnowledgeBase() {
-		if (this.textFormat) {
-			this.knowledgeBase.getFacts().forEach(fact -> {
-				try {
-					writer.write(fact.getSyntacticRepresentation() + "\n");
-				} catch (IOException e) {
-					e.printStackTrace();
-				}
-			});
+		try {
+			if (!this.textFormat) {
+				this.writer.write("asp 1 0 0");
+				this.writer.newLine();
+			}
 
+			this.knowledgeBase.getFacts().forEach(this::groundFact);
 			this.knowledgeBase.getAspRules().forEach(rule -> {
 				rule.accept(this);
 			});
+			this.knowledgeBase.getShowStatements().forEach(this::groundShowStatement);
 
-			// TODO: Ground show statements
-		} else {
-			try {
-				this.writer.write("asp 1 0 0");
-				this.writer.newLine();
-
-				this.knowledgeBase.getFacts().forEach(this::writeFactAspif);
-				this.knowledgeBase.getAspRules().forEach(rule -> {
-					rule.accept(this);
-				});
-				this.knowledgeBase.getShowStatements().forEach(this::groundShowStatement);
-
+			if (!this.textFormat) {
 				this.writer.write("0");
 				this.writer.newLine();
-			} catch (IOException e) {
-				System.out.println("An error occurred.");
-				e.printStackTrace();
 			}
+		} catch (IOException e) {
+			System.out.println("An error occurred.");
+			e.printStackTrace();
 		}
 	}
 
@@ -151,6 +171,19 @@ public class Grounder implements AspRuleVisitor<Boolean> {
 
 	// ========== General parts for all grounding formats ==========
 
+	/**
+	 * Ground the given fact. Facts whose predicate is not approximated are omitted, since they are certainly true.
+	 *
+	 * @param fact the fact to ground
+	 */
+	public void groundFact(Fact fact) {
+		if (this.textFormat) {
+			writeFactText(fact);
+		} else {
+			writeFactAspif(fact);
+		}
+	}
+
 	/**
 	 * Ground the given show statement.
 	 *
@@ -166,7 +199,11 @@ public class Grounder implements AspRuleVisitor<Boolean> {
 			while(answers.hasNext()) {
 				long[] termIds = answers.next();
 				try {
-					writeShowStatementAspif(predicate, predicateId, termIds);
+					if (this.textFormat) {
+						writeShowStatementText(predicate, termIds);
+					} else {
+						writeShowStatementAspif(predicate, predicateId, termIds);
+					}
 				} catch (IOException e) {
 					e.printStackTrace();
 				} catch (NotStartedException e) {
@@ -187,6 +224,7 @@ public class Grounder implements AspRuleVisitor<Boolean> {
 		// the rule because VLog knows already which of the grounded literals are true.
 		List<PositiveLiteral> headLiterals = rule.getHeadLiterals().getLiterals();
 		if (!(headLiterals.size() == 1 && !approximatedPredicates.contains(headLiterals.get(0).getPredicate()))) {
+			GroundingLayout layout = rule.getGroundingLayout(approximatedPredicates);
 			PositiveLiteral literal = rule.getHelperLiteral();
 			Map<Variable, Long> answerMap = new HashMap<>();
 			List<Variable> variables = literal.getUniversalVariables().collect(Collectors.toList());
@@ -203,17 +241,11 @@ public class Grounder implements AspRuleVisitor<Boolean> {
 						answerMap.put(variables.get(i), terms[i]);
 					}
 
-	//				if (this.textFormat) {
-	//					groundedRule = rule.ground(approximatedPredicates, answerMap);
-	//					try {
-	//						writer.write(groundedRule);
-	//					} catch (IOException e) {
-	//						System.out.println("An error occurred.");
-	//						e.printStackTrace();
-	//					}
-	//				} else {
-					writeRuleInstanceAspif(rule, answerMap, disjunctiveRule);
-	//				}
+					if (this.textFormat) {
+						writeRuleInstanceText(layout, answerMap, disjunctiveRule);
+					} else {
+						writeRuleInstanceAspif(layout, answerMap, disjunctiveRule);
+					}
 				}
 			}
 
@@ -234,6 +266,7 @@ public class Grounder implements AspRuleVisitor<Boolean> {
 	 * @param rule the rule to ground
 	 */
 	public void groundRule(ChoiceRule rule) throws IOException {
+		GroundingLayout layout = rule.getGroundingLayout(approximatedPredicates);
 		PositiveLiteral literal = rule.getHelperLiteral();
 		Map<Variable, Long> answerMap = new HashMap<>();
 		List<Variable> variables = literal.getUniversalVariables().collect(Collectors.toList());
@@ -248,139 +281,359 @@ public class Grounder implements AspRuleVisitor<Boolean> {
 					answerMap.put(variables.get(i), terms[i]);
 				}
 
-//				if (this.textFormat) {
-//					// ground choice with placeholder for choice elements
-//					String groundedRule = rule.ground(approximatedPredicates, answerMap);
-//
-//					Object[] choiceElements = new String[rule.getChoiceElements().size()];
-//					int idx = 0;
-//					// each choice element contributes individual grounded elements
-//					for (ChoiceElement choiceElement : rule.getChoiceElements()) {
-//						choiceElements[idx] = groundChoiceElement(choiceElement, rule, answerMap, idx);
-//						idx++;
-//					}
-//
-//					try {
-//						writer.write(String.format(groundedRule, choiceElements));
-//					} catch (IOException e) {
-//						System.out.println("An error occurred.");
-//						e.printStackTrace();
-//					}
-//				} else {
-					// helper integer for body (get and write)
-//					writer.write(rule.getSyntacticRepresentation() + "\n");
-					long[] termIds = getTermIds(literal, answerMap);
-					long bodyHelpInteger = getAspifValue(numberOfPredicates - 1 + rule.getRuleIdx(), false, termIds);
-					writer.write("1 0 1 " + bodyHelpInteger); // rule statement for disjunctive rule with a head literal
-					writeNormalBodyAspif(rule.getBody(), answerMap);
-
-					Set<Long> choiceElementToCountIntegers = new HashSet<>();
-					int idx = 0;
-					for (ChoiceElement choiceElement : rule.getChoiceElements()) {
-						choiceElementToCountIntegers.addAll(writeAndCollectChoiceElementAspif(choiceElement, rule, answerMap, idx, bodyHelpInteger));
-						idx++;
-					}
+				if (this.textFormat) {
+					writeChoiceRuleInstanceText(rule, layout, answerMap);
+				} else {
+					writeChoiceRuleInstanceAspif(rule, layout, literal, answerMap);
+				}
+			}
+		}
+		System.out.println(counter);
+	}
 
-					// if there are bounds, take care that they are satisfied
-					if (rule.hasLowerBound()) {
-						// introduce integer to check if enough elements has been chosen
-						long lowerBoundInteger = getAspifValue(numberOfPredicates - 1 + rule.getRuleIdx(), false, termIds, 1);
-						writer.write("1 0 1 " + lowerBoundInteger); // rule statement for a disjunctive rule with a single head literal
-						writer.write(" 1 " + rule.getLowerBound() + " " + choiceElementToCountIntegers.size()); // weighted body
-						for (Long choiceElementToCount : choiceElementToCountIntegers) {
-							writer.write(" " + choiceElementToCount + " 1"); // element with weight 1
-						}
-						writer.write("\n");
+	/**
+	 * Construct the helper literal whose answers are the groundings of the local variables of a choice element, given
+	 * the grounding of the global variables (i.e. the variables of the rule body). The arguments of the literal are
+	 * the variables used by the body and the condition of the choice element, where all global variables are replaced
+	 * by the term of the given grounding.
+	 *
+	 * @param rule the rule the choice element belongs to
+	 * @param globalMap a map representing the body instance
+	 * @param idx the index of the choice element (in the head)
+	 * @return the helper literal
+	 */
+	private PositiveLiteral getChoiceElementHelperLiteral(ChoiceRule rule, Map<Variable, Long> globalMap, int idx) {
+		List<Term> variables = rule.getChoiceElementVariables(idx);
+		List<Term> terms = new ArrayList<>(variables.size());
+		for (Term variable : variables) {
+			Long termId = globalMap.get(variable);
+			terms.add(termId == null ? variable : getTerm(termId));
+		}
+		return rule.getHelperLiteral(terms, rule.getRuleIdx(), idx);
+	}
 
-						writer.write("1 0 0 0 2 " + bodyHelpInteger + " -" + lowerBoundInteger);
-						writer.write("\n");
-					}
-					if (rule.hasUpperBound()) {
-						// introduce integer to check if too many elements has been chosen
-						long upperBoundInteger = getAspifValue(numberOfPredicates - 1 + rule.getRuleIdx(), false, termIds, 2);
-						writer.write("1 0 1 " + upperBoundInteger); // rule statement for a disjunctive rule with a single head literal
-						writer.write(" 1 " + (rule.getUpperBound() + 1) + " " + choiceElementToCountIntegers.size()); // weighted body
-						for (Long choiceElementToCount : choiceElementToCountIntegers) {
-							writer.write(" " + choiceElementToCount + " 1"); // element with weight 1
-						}
-						writer.write("\n");
+	/**
+	 * Extend the map of a grounding by the terms of an answer to a helper literal.
+	 *
+	 * @param helperLiteral the helper literal that has been queried
+	 * @param termIds the answer to the query
+	 * @param map the map to extend
+	 */
+	private void putLocalTermIds(PositiveLiteral helperLiteral, long[] termIds, Map<Variable, Long> map) {
+		List<Term> terms = helperLiteral.getArguments();
+		for (int i = 0; i < terms.size(); i++) {
+			Term term = terms.get(i);
+			if (term.isVariable()) {
+				map.put((Variable) term, termIds[i]);
+			}
+		}
+	}
 
-						writer.write("1 0 0 0 2 " + bodyHelpInteger + " " + upperBoundInteger);
-						writer.write("\n");
-					}
-//				}
+	/**
+	 * Get the term that is represented by a term id. Decoded terms are cached.
+	 *
+	 * @param termId the term id
+	 * @return the term
+	 */
+	private Term getTerm(long termId) {
+		Term term = this.termCache.get(termId);
+		if (term == null) {
+			try {
+				karmaresearch.vlog.Term vLogTerm;
+				String s = reasoner.getConstant(termId);
+				if (s == null) {
+					vLogTerm = new karmaresearch.vlog.Term(TermType.BLANK, "" + (termId >> 40) + "_"
+						+ ((termId >> 32) & 0377) + "_" + (termId & 0xffffffffL));
+				} else {
+					vLogTerm = new karmaresearch.vlog.Term(TermType.CONSTANT, s);
+				}
+				term = reasoner.toTerm(vLogTerm);
+			} catch (NotStartedException e) {
+				// Should not happen, we just did a query ...
+				throw new RulewerkRuntimeException(e);
+			}
+			if (this.termCache.size() < this.termCacheCapacity) {
+				this.termCache.put(termId, term);
 			}
 		}
-		System.out.println(counter);
+		return term;
 	}
 
 	// ========== Text-based grounding part ==========
 
 	/**
-	 * Returns the grounding of a single choice element
+	 * Write the given fact in text format
 	 *
-	 * @param choiceElement the element to ground
-	 * @param rule the rule the element belongs to
-	 * @param globalMap a map for the global variables
-	 * @param idx the index of the choice element
-	 * @return a string that represents all instances of the choice element
-	 */
-	public String groundChoiceElement(ChoiceElement choiceElement, ChoiceRule rule, Map<Variable, Term> globalMap, int idx) {
-		List<Term> terms = Stream.concat(rule.getBody().getUniversalVariables(), choiceElement.getContext().getUniversalVariables())
-								 .distinct()
-								 .map(variable -> globalMap.getOrDefault(variable, variable))
-								 .collect(Collectors.toList());
-
-		Map<Variable, Term> map = new HashMap<>(globalMap);
-		PositiveLiteral literal = rule.getHelperLiteral(terms, rule.getRuleIdx(), idx);
-		final QueryResultIterator answers = reasoner.answerQuery(literal, true);
-
-		StringBuilder builder = new StringBuilder();
-		boolean first = true;
-		while (answers.hasNext()) {
-			if (first) {
-				first = false;
-			} else {
-				builder.append("; ");
+	 * @param fact the fact to write
+	 */
+	public void writeFactText(Fact fact) {
+		if (approximatedPredicates.contains(fact.getPredicate())) {
+			try {
+				writer.write(Serializer.getFactString(fact));
+				writer.newLine();
+			} catch (IOException e) {
+				System.out.println("An error occurred.");
+				e.printStackTrace();
 			}
+		}
+	}
+
+	/**
+	 * Write the instance of a show statement in text format. Instances of predicates that are not approximated are
+	 * shown unconditionally, as they are certainly true.
+	 *
+	 * @param predicate the predicate
+	 * @param termIds the term ids
+	 * @throws IOException an IOException
+	 */
+	public void writeShowStatementText(Predicate predicate, long[] termIds) throws IOException {
+		writer.write("#show ");
+		writeLiteralText(predicate, false, termIds);
+		if (approximatedPredicates.contains(predicate)) {
+			writer.write(" : ");
+			writeLiteralText(predicate, false, termIds);
+		}
+		writer.write(Serializer.STATEMENT_SEPARATOR);
+		writer.newLine();
+	}
+
+	/**
+	 * Write the instance of the rule as it is specified by the answer map in text format.
+	 *
+	 * @param layout the grounding layout of the rule
+	 * @param answerMap the map representing the instance
+	 * @param disjunctiveRule whether the rule is a disjunctive rule
+	 * @throws IOException exception from writing to file
+	 */
+	private void writeRuleInstanceText(GroundingLayout layout, Map<Variable, Long> answerMap, boolean disjunctiveRule) throws IOException {
+		if (disjunctiveRule) {
+			GroundingLayout.Literals head = layout.getHead();
+			for (int i = 0; i < head.size(); i++) {
+				if (i > 0) {
+					writer.write(" | ");
+				}
+				writeLiteralText(head.getLiteral(i), answerMap);
+			}
+		}
+
+		writeBodyText(layout.getBody(), answerMap, disjunctiveRule);
+	}
 
-			List<Term> localTerms = answers.next().getTerms();
-			for (int i = 0; i < terms.size(); i++) {
-				Term globalTerm = terms.get(i);
-				if (globalTerm.isVariable()) {
-					map.put((Variable) globalTerm, localTerms.get(i));
+	/**
+	 * Write the instance of the choice rule as it is specified by the answer map (for the global variables) in text
+	 * format. The instances of the choice elements are computed with the same helper literals as for aspif.
+	 *
+	 * @param rule the choice rule
+	 * @param layout the grounding layout of the rule
+	 * @param answerMap the map representing the body instance
+	 * @throws IOException exception from writing to file
+	 */
+	private void writeChoiceRuleInstanceText(ChoiceRule rule, GroundingLayout layout, Map<Variable, Long> answerMap) throws IOException {
+		if (rule.hasLowerBound()) {
+			writer.write(rule.getLowerBound() + " ");
+		}
+		writer.write("{");
+
+		boolean first = true;
+		int idx = 0;
+		for (ChoiceElement choiceElement : rule.getChoiceElements()) {
+			Map<Variable, Long> map = new HashMap<>(answerMap);
+			PositiveLiteral literal = getChoiceElementHelperLiteral(rule, answerMap, idx);
+			GroundingLayout.Literals condition = layout.getChoiceElementCondition(idx);
+
+			try (final karmaresearch.vlog.QueryResultIterator answers = reasoner.answerQueryInNativeFormat(literal, true)) {
+				while (answers.hasNext()) {
+					putLocalTermIds(literal, answers.next(), map);
+
+					writer.write(first ? " " : "; ");
+					first = false;
+					writeLiteralText(choiceElement.getLiteral(), map);
+					if (condition.size() > 0) {
+						writer.write(" : ");
+						writeConjunctionText(condition, map);
+					}
 				}
 			}
+			idx++;
+		}
+
+		writer.write(" }");
+		if (rule.hasUpperBound()) {
+			writer.write(" " + rule.getUpperBound());
+		}
+		writeBodyText(layout.getBody(), answerMap, true);
+	}
+
+	/**
+	 * Write the body instance given by the answer map in text format, including the rule separator and the
+	 * terminating dot. The rule separator is omitted for rules with a head if no literal of the body is relevant.
+	 *
+	 * @param body the relevant body literals
+	 * @param answerMap the map representing the body instance
+	 * @param hasHead whether the rule has a head
+	 * @throws IOException possible exception due to writing to file
+	 */
+	private void writeBodyText(GroundingLayout.Literals body, Map<Variable, Long> answerMap, boolean hasHead) throws IOException {
+		if (body.size() > 0) {
+			writer.write(hasHead ? Serializer.RULE_SEPARATOR : Serializer.RULE_SEPARATOR.trim() + " ");
+			writeConjunctionText(body, answerMap);
+		} else if (!hasHead) {
+			writer.write(Serializer.RULE_SEPARATOR.trim());
+		}
+		writer.write(Serializer.STATEMENT_SEPARATOR);
+		writer.newLine();
+	}
+
+	/**
+	 * Write the relevant literals of a conjunction for the instance given by the answerMap in text format.
+	 * Literals that are not approximated are not part of the layout, as they are always true.
+	 *
+	 * @param literals the relevant literals to write
+	 * @param answerMap a map representing the instance of the conjunction
+	 * @throws IOException an exception due to writing to a file
+	 */
+	private void writeConjunctionText(GroundingLayout.Literals literals, Map<Variable, Long> answerMap) throws IOException {
+		for (int i = 0; i < literals.size(); i++) {
+			if (i > 0) {
+				writer.write(", ");
+			}
+			writeLiteralText(literals.getLiteral(i), answerMap);
+		}
+	}
 
-			builder.append(choiceElement.ground(approximatedPredicates, map));
+	/**
+	 * Write the instance of the literal given by the answer map in text format.
+	 *
+	 * @param literal the literal
+	 * @param answerMap a map representing the instance of the literal
+	 * @throws IOException an exception due to writing to a file
+	 */
+	private void writeLiteralText(Literal literal, Map<Variable, Long> answerMap) throws IOException {
+		writeLiteralText(literal.getPredicate(), literal.isNegated(), getTermIds(literal, answerMap));
+	}
+
+	/**
+	 * Write the ground literal given by predicate and term ids in text format.
+	 *
+	 * @param predicate the predicate
+	 * @param negated whether the literal is negated
+	 * @param termIds the term ids
+	 * @throws IOException an exception due to writing to a file
+	 */
+	private void writeLiteralText(Predicate predicate, boolean negated, long[] termIds) throws IOException {
+		if (negated) {
+			writer.write("not ");
+		}
+		writer.write(getPredicateName(predicate));
+		writer.write(Serializer.OPENING_PARENTHESIS);
+		for (int i = 0; i < termIds.length; i++) {
+			if (i > 0) {
+				writer.write(Serializer.COMMA);
+			}
+			writer.write(getTermString(termIds[i]));
+		}
+		writer.write(Serializer.CLOSING_PARENTHESIS);
+	}
+
+	/**
+	 * Get the serialization of the term represented by the term id. Serializations are cached.
+	 *
+	 * @param termId the term id
+	 * @return the serialization of the term
+	 */
+	private String getTermString(long termId) {
+		String termString = this.termStringCache.get(termId);
+		if (termString == null) {
+			termString = getTerm(termId).getSyntacticRepresentation();
+			if (this.termStringCache.size() < this.termCacheCapacity) {
+				this.termStringCache.put(termId, termString);
+			}
 		}
+		return termString;
+	}
 
-		return builder.toString();
+	/**
+	 * Get the serialization of the predicate name. Serializations are cached.
+	 *
+	 * @param predicate the predicate
+	 * @return the serialization of the predicate name
+	 */
+	private String getPredicateName(Predicate predicate) {
+		return this.predicateNameCache.computeIfAbsent(predicate, Serializer::getPredicateName);
 	}
 
 	// ========== Aspif-specific part ==========
 
 	/**
 	 * Write the instance of the rule as it is specified by the answer map in aspif.
-	 * @param rule the rule
+	 * @param layout the grounding layout of the rule
 	 * @param answerMap the map representing the instance
 	 * @param disjunctiveRule whether the rule is a disjunctive rule
 	 * @throws IOException exception from writing to file
 	 */
-	private void writeRuleInstanceAspif(AspRule rule, Map<Variable, Long> answerMap, boolean disjunctiveRule) throws IOException {
+	private void writeRuleInstanceAspif(GroundingLayout layout, Map<Variable, Long> answerMap, boolean disjunctiveRule) throws IOException {
 		writer.write("1 0"); // rule statement for a disjunctive rule
 		if (disjunctiveRule) {
-			writer.write(" " + rule.getHeadLiterals().getLiterals().size()); // #headLiterals
-			for (Literal literal : rule.getHeadLiterals().getLiterals()) {
-				long predicateId = getPredicateIndex(literal.getPredicate());
-				long[] termIds = getTermIds(literal, answerMap);
-				writer.write(" " + getAspifValue(predicateId, literal.isNegated(), termIds));
-			}
+			GroundingLayout.Literals head = layout.getHead();
+			writer.write(" " + head.size()); // #headLiterals
+			writeLiteralsAspif(head, answerMap);
 		} else {
 			writer.write(" 0"); // #headLiteral = 0
 		}
 
-		writeNormalBodyAspif(rule.getBody(), answerMap);
+		writeNormalBodyAspif(layout.getBody(), answerMap);
+	}
+
+	/**
+	 * Write the instance of the choice rule as it is specified by the answer map (for the global variables) in aspif.
+	 *
+	 * @param rule the choice rule
+	 * @param layout the grounding layout of the rule
+	 * @param helperLiteral the helper literal of the rule
+	 * @param answerMap the map representing the body instance
+	 * @throws IOException exception from writing to file
+	 */
+	private void writeChoiceRuleInstanceAspif(ChoiceRule rule, GroundingLayout layout, PositiveLiteral helperLiteral, Map<Variable, Long> answerMap) throws IOException {
+		// helper integer for body (get and write)
+		long[] termIds = getTermIds(helperLiteral, answerMap);
+		long bodyHelpInteger = getAspifValue(numberOfPredicates - 1 + rule.getRuleIdx(), false, termIds);
+		writer.write("1 0 1 " + bodyHelpInteger); // rule statement for disjunctive rule with a head literal
+		writeNormalBodyAspif(layout.getBody(), answerMap);
+
+		Set<Long> choiceElementToCountIntegers = new HashSet<>();
+		int idx = 0;
+		for (ChoiceElement choiceElement : rule.getChoiceElements()) {
+			choiceElementToCountIntegers.addAll(writeAndCollectChoiceElementAspif(choiceElement, rule, layout, answerMap, idx, bodyHelpInteger));
+			idx++;
+		}
+
+		// if there are bounds, take care that they are satisfied
+		if (rule.hasLowerBound()) {
+			// introduce integer to check if enough elements has been chosen
+			long lowerBoundInteger = getAspifValue(numberOfPredicates - 1 + rule.getRuleIdx(), false, termIds, 1);
+			writer.write("1 0 1 " + lowerBoundInteger); // rule statement for a disjunctive rule with a single head literal
+			writer.write(" 1 " + rule.getLowerBound() + " " + choiceElementToCountIntegers.size()); // weighted body
+			for (Long choiceElementToCount : choiceElementToCountIntegers) {
+				writer.write(" " + choiceElementToCount + " 1"); // element with weight 1
+			}
+			writer.write("\n");
+
+			writer.write("1 0 0 0 2 " + bodyHelpInteger + " -" + lowerBoundInteger);
+			writer.write("\n");
+		}
+		if (rule.hasUpperBound()) {
+			// introduce integer to check if too many elements has been chosen
+			long upperBoundInteger = getAspifValue(numberOfPredicates - 1 + rule.getRuleIdx(), false, termIds, 2);
+			writer.write("1 0 1 " + upperBoundInteger); // rule statement for a disjunctive rule with a single head literal
+			writer.write(" 1 " + (rule.getUpperBound() + 1) + " " + choiceElementToCountIntegers.size()); // weighted body
+			for (Long choiceElementToCount : choiceElementToCountIntegers) {
+				writer.write(" " + choiceElementToCount + " 1"); // element with weight 1
+			}
+			writer.write("\n");
+
+			writer.write("1 0 0 0 2 " + bodyHelpInteger + " " + upperBoundInteger);
+			writer.write("\n");
+		}
 	}
 
 	/**
@@ -392,83 +645,53 @@ public class Grounder implements AspRuleVisitor<Boolean> {
 	 *
 	 * @param choiceElement the choice element to ground
 	 * @param rule the rule the choice element belongs to
+	 * @param layout the grounding layout of the rule
 	 * @param globalMap a map representing the body instance
 	 * @param idx the index of the choice element (in the head)
 	 * @param bodyHelpInteger an integer that is true iff all literals of the body are true
 	 * @return the integer set
 	 */
-	private Set<Long> writeAndCollectChoiceElementAspif(ChoiceElement choiceElement, ChoiceRule rule, Map<Variable, Long> globalMap, int idx, long bodyHelpInteger) {
-		// Get all the variables and terms used by the body and the condition of the choice element
-		// For the variables: Replace them with the constant if they are part of the grounding of the body
-		List<Term> terms = Stream.concat(rule.getBody().getUniversalVariables(), choiceElement.getContext().getUniversalVariables())
-			.distinct()
-			.map(variable -> {
-				Long termId;
-				if ((termId = globalMap.get(variable)) != null) {
-					try {
-						karmaresearch.vlog.Term term;
-						String s = reasoner.getConstant(termId);
-						if (s == null) {
-							term = new karmaresearch.vlog.Term(TermType.BLANK, "" + (termId >> 40) + "_"
-								+ ((termId >> 32) & 0377) + "_" + (termId & 0xffffffffL));
-						} else {
-							term = new karmaresearch.vlog.Term(TermType.CONSTANT, s);
-						}
-						return reasoner.toTerm(term);
-					} catch (NotStartedException e) {
-						// Should not happen, we just did a query ...
-						return variable;
-					}
-				} else {
-					return variable;
-				}
-			})
-			.collect(Collectors.toList());
-
+	private Set<Long> writeAndCollectChoiceElementAspif(ChoiceElement choiceElement, ChoiceRule rule, GroundingLayout layout, Map<Variable, Long> globalMap, int idx, long bodyHelpInteger) {
 		Map<Variable, Long> map = new HashMap<>(globalMap);
-		PositiveLiteral literal = rule.getHelperLiteral(terms, rule.getRuleIdx(), idx);
-		final karmaresearch.vlog.QueryResultIterator answers = reasoner.answerQueryInNativeFormat(literal, true);
+		PositiveLiteral literal = getChoiceElementHelperLiteral(rule, globalMap, idx);
 
 		Set<Long> choiceElementToCountIntegerSet = new HashSet<>();
-		long predicateId = getPredicateIndex(choiceElement.getLiteral().getPredicate());
-		while (answers.hasNext()) {
-			// build the map that represents the completely (locally and globally) ground rule
-			long[] localTerms = answers.next();
-			for (int i = 0; i < terms.size(); i++) {
-				Term globalTerm = terms.get(i);
-				if (globalTerm.isVariable()) {
-					map.put((Variable) globalTerm, localTerms[i]);
-				}
-			}
+		long predicateId = layout.getHead().getPredicateIndex(idx);
+		GroundingLayout.Literals condition = layout.getChoiceElementCondition(idx);
+		try (final karmaresearch.vlog.QueryResultIterator answers = reasoner.answerQueryInNativeFormat(literal, true)) {
+			while (answers.hasNext()) {
+				// build the map that represents the completely (locally and globally) ground rule
+				putLocalTermIds(literal, answers.next(), map);
 
-			try {
-				long[] termIds = getTermIds(choiceElement.getLiteral(), map);
-				long choiceElementInteger = getAspifValue(predicateId, false, termIds);
-				// choice element integer :- body integer, condition integers
-				writer.write("1 1 1"); // rule statement for a choice rule for a single literal
-				writer.write(" " + choiceElementInteger);
-				// TODO: Consider introducing helper literal for the condition
-				writer.write(" 0 " + (choiceElement.getContext().getRelevantLiteralCount(approximatedPredicates) + 1));
-				writeConjunctionAspif(choiceElement.getContext(), map);
-				writer.write(" " + bodyHelpInteger);
-				writer.write("\n");
-
-				if (rule.hasLowerBound() || rule.hasUpperBound()) {
-					long choiceElementToCountInteger = getAspifValue(predicateId, false, termIds, rule.getRuleIdx());
-					// choice element counts integer :- choice element integer, condition integers
-					writer.write("1 0 1 " + choiceElementToCountInteger); // rule statement for a disjunctive rule with a single head literal
-					writer.write(" 0 " + (choiceElement.getContext().getRelevantLiteralCount(approximatedPredicates) + 1));
-					writeConjunctionAspif(choiceElement.getContext(), map);
+				try {
+					long[] termIds = getTermIds(choiceElement.getLiteral(), map);
+					long choiceElementInteger = getAspifValue(predicateId, false, termIds);
+					// choice element integer :- body integer, condition integers
+					writer.write("1 1 1"); // rule statement for a choice rule for a single literal
 					writer.write(" " + choiceElementInteger);
+					// TODO: Consider introducing helper literal for the condition
+					writer.write(" 0 " + (condition.size() + 1));
+					writeLiteralsAspif(condition, map);
+					writer.write(" " + bodyHelpInteger);
 					writer.write("\n");
 
-					// collect element counts integer
-					choiceElementToCountIntegerSet.add(choiceElementToCountInteger);
-				}
+					if (rule.hasLowerBound() || rule.hasUpperBound()) {
+						long choiceElementToCountInteger = getAspifValue(predicateId, false, termIds, rule.getRuleIdx());
+						// choice element counts integer :- choice element integer, condition integers
+						writer.write("1 0 1 " + choiceElementToCountInteger); // rule statement for a disjunctive rule with a single head literal
+						writer.write(" 0 " + (condition.size() + 1));
+						writeLiteralsAspif(condition, map);
+						writer.write(" " + choiceElementInteger);
+						writer.write("\n");
 
-			} catch (IOException e) {
-				System.out.println("An error occurred.");
-				e.printStackTrace();
+						// collect element counts integer
+						choiceElementToCountIntegerSet.add(choiceElementToCountInteger);
+					}
+
+				} catch (IOException e) {
+					System.out.println("An error occurred.");
+					e.printStackTrace();
+				}
 			}
 		}
 
@@ -478,31 +701,27 @@ public class Grounder implements AspRuleVisitor<Boolean> {
 	/**
 	 * Write the the body instance given by the answer map in aspif.
 	 *
-	 * @param body the conjunction of literals
+	 * @param body the relevant body literals
 	 * @param answerMap the map representing the body instance
 	 * @throws IOException possible exception due to writing to file
 	 */
-	private void writeNormalBodyAspif(Conjunction<Literal> body, Map<Variable, Long> answerMap) throws IOException {
+	private void writeNormalBodyAspif(GroundingLayout.Literals body, Map<Variable, Long> answerMap) throws IOException {
 		writer.write(" 0"); // normal body
-		writer.write(" " + body.getRelevantLiteralCount(approximatedPredicates));
-		writeConjunctionAspif(body, answerMap);
+		writer.write(" " + body.size());
+		writeLiteralsAspif(body, answerMap);
 		writer.write("\n");
 	}
 
 	/**
-	 * Write the integers representing the literals of the conjunction for the instance given by the answerMap.
-	 * Ignore literals that are not approximated, as they are always true.
-	 * @param conjunction the conjunction to get the aspif integers for
-	 * @param answerMap a map representing the instance of the conjunction
+	 * Write the integers representing the given literals for the instance given by the answerMap.
+	 * @param literals the literals to get the aspif integers for
+	 * @param answerMap a map representing the instance of the literals
 	 * @throws IOException an exception due to writing to a file
 	 */
-	private void writeConjunctionAspif(Conjunction<Literal> conjunction, Map<Variable, Long> answerMap) throws IOException {
-		for (Literal literal : conjunction.getLiterals()) {
-			if (approximatedPredicates.contains(literal.getPredicate())) {
-				long predicateId = getPredicateIndex(literal.getPredicate());
-				long[] termIds = getTermIds(literal, answerMap);
-				writer.write(" " +  getAspifValue(predicateId, literal.isNegated(), termIds));
-			}
+	private void writeLiteralsAspif(GroundingLayout.Literals literals, Map<Variable, Long> answerMap) throws IOException {
+		for (int i = 0; i < literals.size(); i++) {
+			long[] termIds = getTermIds(literals.getLiteral(i), answerMap);
+			writer.write(" " +  getAspifValue(literals.getPredicateIndex(i), literals.isNegated(i), termIds));
 		}
 	}
 
@@ -606,10 +825,30 @@ public class Grounder implements AspRuleVisitor<Boolean> {
 	 * Get the predicate index in the list of approximated predicates.
 	 *
 	 * @param predicate the predicate
-	 * @return the index
+	 * @return the index, or -1 if the predicate is not approximated
 	 */
 	private long getPredicateIndex(Predicate predicate) {
-		return this.approximatedPredicatesList.indexOf(predicate);
+		return this.approximatedPredicates.indexOf(predicate);
+	}
+
+	/**
+	 * Get the VLog id of a constant. Ids are cached, since the same (rule) constants are looked up for every
+	 * instance of a rule.
+	 *
+	 * @param constant the constant
+	 * @return the id
+	 */
+	private long getConstantId(Term constant) {
+		Long id = this.constantIdCache.get(constant.getName());
+		if (id == null) {
+			try {
+				id = this.reasoner.getConstantId(constant.getName());
+			} catch (NotStartedException e) {
+				throw new RulewerkRuntimeException(e.getMessage(), e);
+			}
+			this.constantIdCache.put(constant.getName(), id);
+		}
+		return id;
 	}
 
 	/**
@@ -626,11 +865,7 @@ public class Grounder implements AspRuleVisitor<Boolean> {
 			if (term.isVariable()) {
 				termIds[idx] = answerMap.get(term);
 			} else {
-				try {
-					termIds[idx] = this.reasoner.getConstantId(term.getName());
-				} catch (NotStartedException e) {
-					System.out.println(e.getMessage());
-				}
+				termIds[idx] = getConstantId(term);
 			}
 			idx++;
 		}
@@ -0,0 +1,171 @@
+package org.semanticweb.rulewerk.core.model.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.semanticweb.rulewerk.core.model.api.AspRule;
+import org.semanticweb.rulewerk.core.model.api.ChoiceElement;
+import org.semanticweb.rulewerk.core.model.api.ChoiceRule;
+import org.semanticweb.rulewerk.core.model.api.Literal;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+
+/**
+ * Immutable description of the parts of an {@link AspRule} that the
+ * {@link Grounder} writes for each instance of the rule, with respect to a fixed
+ * set of approximated predicates. Literals of the body and of the conditions of
+ * choice elements are only relevant if their predicate is approximated, since
+ * all other literals are certainly true. The layout depends only on the rule and
+ * the approximation, so it is computed once per rule.
+ *
+ * @author Philipp Hanisch
+ *
+ */
+public final class GroundingLayout {
+
+	/**
+	 * A selection of literals of a conjunction, with their signs and the indices
+	 * of their predicates in the set of approximated predicates (-1 if not
+	 * approximated).
+	 */
+	public static final class Literals {
+		private final Literal[] literals;
+		private final boolean[] negated;
+		private final int[] predicateIndices;
+
+		Literals(final List<? extends Literal> literals, final PredicateSet approximatedPredicates,
+				final boolean relevantOnly) {
+			int size = 0;
+			final int[] positions = new int[literals.size()];
+			for (int i = 0; i < literals.size(); i++) {
+				if (!relevantOnly || approximatedPredicates.contains(literals.get(i).getPredicate())) {
+					positions[size++] = i;
+				}
+			}
+			this.literals = new Literal[size];
+			this.negated = new boolean[size];
+			this.predicateIndices = new int[size];
+			for (int i = 0; i < size; i++) {
+				final Literal literal = literals.get(positions[i]);
+				this.literals[i] = literal;
+				this.negated[i] = literal.isNegated();
+				this.predicateIndices[i] = approximatedPredicates.indexOf(literal.getPredicate());
+			}
+		}
+
+		/**
+		 * @return the number of selected literals
+		 */
+		public int size() {
+			return this.literals.length;
+		}
+
+		/**
+		 * @param i index of the selected literal
+		 * @return the i-th selected literal
+		 */
+		public Literal getLiteral(final int i) {
+			return this.literals[i];
+		}
+
+		/**
+		 * @param i index of the selected literal
+		 * @return whether the i-th selected literal is negated
+		 */
+		public boolean isNegated(final int i) {
+			return this.negated[i];
+		}
+
+		/**
+		 * @param i index of the selected literal
+		 * @return the index of the predicate of the i-th selected literal in the set
+		 *         of approximated predicates, or -1
+		 */
+		public int getPredicateIndex(final int i) {
+			return this.predicateIndices[i];
+		}
+	}
+
+	private final PredicateSet approximatedPredicates;
+	private final Literals head;
+	private final Literals body;
+	private final List<Literals> choiceElementConditions;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param rule                   the rule
+	 * @param approximatedPredicates the set of approximated predicates
+	 */
+	public GroundingLayout(final AspRule rule, final Set<Predicate> approximatedPredicates) {
+		this.approximatedPredicates = PredicateSet.of(approximatedPredicates);
+		this.head = new Literals(rule.getHeadLiterals().getLiterals(), this.approximatedPredicates, false);
+		this.body = new Literals(rule.getBody().getLiterals(), this.approximatedPredicates, true);
+		if (rule instanceof ChoiceRule) {
+			final List<Literals> conditions = new ArrayList<>();
+			for (final ChoiceElement choiceElement : ((ChoiceRule) rule).getChoiceElements()) {
+				conditions.add(new Literals(choiceElement.getContext().getLiterals(), this.approximatedPredicates, true));
+			}
+			this.choiceElementConditions = Collections.unmodifiableList(conditions);
+		} else {
+			this.choiceElementConditions = Collections.emptyList();
+		}
+	}
+
+	/**
+	 * Returns whether this layout has been computed for the given set of
+	 * approximated predicates. Only the very same {@link PredicateSet} is
+	 * recognised.
+	 *
+	 * @param approximatedPredicates the set of approximated predicates
+	 * @return true if the layout can be reused
+	 */
+	public boolean isFor(final Set<Predicate> approximatedPredicates) {
+		return this.approximatedPredicates == approximatedPredicates;
+	}
+
+	/**
+	 * @return all head literals (for choice rules: the literals of the choice
+	 *         elements)
+	 */
+	public Literals getHead() {
+		return this.head;
+	}
+
+	/**
+	 * @return the relevant body literals
+	 */
+	public Literals getBody() {
+		return this.body;
+	}
+
+	/**
+	 * @param idx the index of the choice element (in the head)
+	 * @return the relevant literals of the condition of the choice element
+	 */
+	public Literals getChoiceElementCondition(final int idx) {
+		return this.choiceElementConditions.get(idx);
+	}
+
+}
@@ -20,11 +20,6 @@ package org.semanticweb.rulewerk.core.model.implementation;
  * #L%
  */
 
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
 import java.util.Map.Entry;
 
 import org.apache.commons.lang3.Validate;
@@ -50,6 +45,13 @@ final public class MergingPrefixDeclarationRegistry extends AbstractPrefixDeclar
 	private static final String GENERATED_PREFIX_TEMPLATE = "rulewerk_generated_%d"
 			+ PrefixDeclarationRegistry.PREFIX_NAME_SEPARATOR;
 
+	/**
+	 * Trie for abbreviating IRIs, built on first use after the declarations have
+	 * changed. The field is volatile, so that threads that abbreviate IRIs
+	 * concurrently only see completely built tries.
+	 */
+	private volatile PrefixTrie prefixTrie;
+
 	public MergingPrefixDeclarationRegistry() {
 		super();
 	}
@@ -72,6 +74,7 @@ final public class MergingPrefixDeclarationRegistry extends AbstractPrefixDeclar
 		if (baseIri == this.baseIri) {
 			return;
 		}
+		this.prefixTrie = null;
 
 		if (this.baseIri == null) {
 			this.baseIri = baseIri;
@@ -97,11 +100,13 @@ final public class MergingPrefixDeclarationRegistry extends AbstractPrefixDeclar
 	public void setPrefixIri(String prefixName, String prefixIri) {
 		String name = prefixes.containsKey(prefixName) ? getFreshPrefix() : prefixName;
 		prefixes.put(name, prefixIri);
+		this.prefixTrie = null;
 	}
 
 	/**
 	 * Turn an absolute Iri into a (possibly) prefixed name. Dual to
-	 * {@link AbstractPrefixDeclarationRegistry#resolvePrefixedName}.
+	 * {@link AbstractPrefixDeclarationRegistry#resolvePrefixedName}. The longest
+	 * matching prefix (or base Iri) is used.
 	 *
 	 * @param iri an absolute Iri to abbreviate.
 	 *
@@ -109,30 +114,19 @@ final public class MergingPrefixDeclarationRegistry extends AbstractPrefixDeclar
 	 *         or {@code iri}.
 	 */
 	public String unresolveAbsoluteIri(String iri) {
-		Map<String, Integer> matches = new HashMap<>();
-		String baseIri = getBaseIri();
-
-		if (baseIri != PrefixDeclarationRegistry.EMPTY_BASE && iri.startsWith(baseIri) && !iri.equals(baseIri)) {
-			matches.put(iri.replaceFirst(baseIri, PrefixDeclarationRegistry.EMPTY_BASE), baseIri.length());
-		}
-
-		prefixes.forEach((prefixName, prefixIri) -> {
-			// only select proper prefixes here, since `eg:` is not a valid prefixed name.
-			if (iri.startsWith(prefixIri) && !iri.equals(prefixIri)) {
-				matches.put(iri.replaceFirst(prefixIri, prefixName), prefixIri.length());
+		PrefixTrie trie = this.prefixTrie;
+		if (trie == null) {
+			trie = new PrefixTrie();
+			String baseIri = getBaseIri();
+			if (baseIri != PrefixDeclarationRegistry.EMPTY_BASE) {
+				trie.add(baseIri, PrefixDeclarationRegistry.EMPTY_BASE);
 			}
-		});
-
-		List<String> matchesByLength = new ArrayList<>(matches.keySet());
-		// reverse order, so we get the longest match first
-		matchesByLength.sort(Comparator.comparing(matches::get).reversed());
-
-		if (matchesByLength.size() > 0) {
-			return matchesByLength.get(0);
-		} else {
-			// no matching prefix
-			return iri;
+			for (Entry<String, String> prefix : prefixes.entrySet()) {
+				trie.add(prefix.getValue(), prefix.getKey());
+			}
+			this.prefixTrie = trie;
 		}
+		return trie.abbreviate(iri);
 	}
 
 	/**
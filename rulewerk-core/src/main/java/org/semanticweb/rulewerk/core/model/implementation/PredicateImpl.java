@@ -34,6 +34,8 @@ public class PredicateImpl implements Predicate {
 
 	final private String name;
 	final private int arity;
+	final private int hash;
+	final private int id;
 
 	/**
 	 * Constructor for {@link Predicate}s of arity 1 or higher.
@@ -47,6 +49,33 @@ public class PredicateImpl implements Predicate {
 
 		this.name = name;
 		this.arity = arity;
+		this.hash = 31 * arity + name.hashCode();
+		this.id = -1;
+	}
+
+	/**
+	 * Constructor for canonical {@link Predicate}s, used by {@link SymbolTable}.
+	 * Name and arity must have been validated before.
+	 *
+	 * @param name  a non-blank String
+	 * @param arity an int value strictly greater than 0
+	 * @param id    the non-negative id of the predicate in the {@link SymbolTable}
+	 */
+	PredicateImpl(final String name, final int arity, final int id) {
+		this.name = name;
+		this.arity = arity;
+		this.hash = 31 * arity + name.hashCode();
+		this.id = id;
+	}
+
+	/**
+	 * Returns the id of this predicate in the {@link SymbolTable}, or -1 if this
+	 * is not the canonical instance of the predicate.
+	 *
+	 * @return the id, or -1
+	 */
+	int getId() {
+		return this.id;
 	}
 
 	@Override
@@ -61,10 +90,7 @@ public class PredicateImpl implements Predicate {
 
 	@Override
 	public int hashCode() {
-		final int prime = 31;
-		int result = this.arity;
-		result = prime * result + this.name.hashCode();
-		return result;
+		return this.hash;
 	}
 
 	@Override
@@ -78,6 +104,13 @@ public class PredicateImpl implements Predicate {
 		if (!(obj instanceof Predicate)) {
 			return false;
 		}
+		if (obj instanceof PredicateImpl) {
+			final PredicateImpl other = (PredicateImpl) obj;
+			// distinct canonical instances always denote distinct predicates
+			if ((this.id >= 0 && other.id >= 0) || this.hash != other.hash) {
+				return false;
+			}
+		}
 		final Predicate other = (Predicate) obj;
 
 		return this.arity == other.getArity() && this.name.equals(other.getName());
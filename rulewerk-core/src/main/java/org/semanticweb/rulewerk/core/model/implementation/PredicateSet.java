@@ -0,0 +1,168 @@
+package org.semanticweb.rulewerk.core.model.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.apache.commons.lang3.Validate;
+import org.semanticweb.rulewerk.core.model.api.Literal;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+
+/**
+ * Immutable set of predicates, backed by a bit set over the dense predicate ids
+ * of the {@link SymbolTable}. Membership tests do not hash the predicate.
+ * Iteration follows the order of the collection the set was created from, and
+ * {@link #indexOf(Predicate)} returns the position of a predicate in this
+ * order.
+ *
+ * @author Philipp Hanisch
+ *
+ */
+public final class PredicateSet extends AbstractSet<Predicate> {
+
+	private final Predicate[] predicates;
+	private final BitSet ids;
+	private final int[] indices;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param predicates a non-null collection of predicates, that cannot contain
+	 *                   null elements. Duplicates are ignored.
+	 */
+	public PredicateSet(final Collection<? extends Predicate> predicates) {
+		Validate.noNullElements(predicates);
+		final Predicate[] canonical = new Predicate[predicates.size()];
+		this.ids = new BitSet();
+		int size = 0;
+		for (final Predicate predicate : predicates) {
+			final int id = SymbolTable.getPredicateId(predicate);
+			if (!this.ids.get(id)) {
+				this.ids.set(id);
+				canonical[size++] = SymbolTable.getPredicate(id);
+			}
+		}
+		this.predicates = Arrays.copyOf(canonical, size);
+		this.indices = new int[this.ids.length()];
+		Arrays.fill(this.indices, -1);
+		for (int i = 0; i < size; i++) {
+			this.indices[SymbolTable.getPredicateId(this.predicates[i])] = i;
+		}
+	}
+
+	/**
+	 * Returns the given set as a {@link PredicateSet}, copying it only if
+	 * necessary.
+	 *
+	 * @param predicates a set of predicates
+	 * @return an equal {@link PredicateSet}
+	 */
+	public static PredicateSet of(final Collection<? extends Predicate> predicates) {
+		if (predicates instanceof PredicateSet) {
+			return (PredicateSet) predicates;
+		}
+		return new PredicateSet(predicates);
+	}
+
+	/**
+	 * Returns whether the given predicate is in this set.
+	 *
+	 * @param predicate a predicate
+	 * @return true if the predicate is contained
+	 */
+	public boolean contains(final Predicate predicate) {
+		return this.ids.get(SymbolTable.getPredicateId(predicate));
+	}
+
+	@Override
+	public boolean contains(final Object object) {
+		return (object instanceof Predicate) && contains((Predicate) object);
+	}
+
+	/**
+	 * Returns the position of the given predicate in the iteration order of this
+	 * set.
+	 *
+	 * @param predicate a predicate
+	 * @return the position, or -1 if the predicate is not contained
+	 */
+	public int indexOf(final Predicate predicate) {
+		final int id = SymbolTable.getPredicateId(predicate);
+		return id < this.indices.length ? this.indices[id] : -1;
+	}
+
+	/**
+	 * Returns the positions of the literals whose predicates are contained in this
+	 * set.
+	 *
+	 * @param literals a list of literals
+	 * @return a new bit set, with bit i set if the i-th literal is relevant
+	 */
+	public BitSet getRelevantLiteralMask(final List<? extends Literal> literals) {
+		final BitSet mask = new BitSet(literals.size());
+		for (int i = 0; i < literals.size(); i++) {
+			if (contains(literals.get(i).getPredicate())) {
+				mask.set(i);
+			}
+		}
+		return mask;
+	}
+
+	@Override
+	public int size() {
+		return this.predicates.length;
+	}
+
+	@Override
+	public Iterator<Predicate> iterator() {
+		return new Iterator<Predicate>() {
+			private int next = 0;
+
+			@Override
+			public boolean hasNext() {
+				return this.next < PredicateSet.this.predicates.length;
+			}
+
+			@Override
+			public Predicate next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return PredicateSet.this.predicates[this.next++];
+			}
+		};
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (obj instanceof PredicateSet) {
+			return this.ids.equals(((PredicateSet) obj).ids);
+		}
+		return super.equals(obj);
+	}
+
+}
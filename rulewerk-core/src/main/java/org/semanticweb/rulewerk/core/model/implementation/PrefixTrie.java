@@ -0,0 +1,148 @@
+package org.semanticweb.rulewerk.core.model.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Arrays;
+
+/**
+ * Trie over prefix IRIs that abbreviates an IRI with the longest matching
+ * prefix in a single pass over the IRI. Recently abbreviated IRIs are cached.
+ * Prefixes are only added while the trie is built. Afterwards, the trie can be
+ * used by several threads, provided that it has been published safely, for
+ * example through a volatile field.
+ *
+ * @author Philipp Hanisch
+ *
+ */
+final class PrefixTrie {
+
+	/**
+	 * Number of recently abbreviated IRIs that are remembered; a power of two.
+	 */
+	static final int CACHE_SIZE = 1 << 10;
+
+	private static final char[] NO_LABELS = new char[0];
+	private static final Node[] NO_CHILDREN = new Node[0];
+
+	private static final class Node {
+		/**
+		 * Sorted characters of the outgoing edges.
+		 */
+		char[] labels = NO_LABELS;
+		Node[] children = NO_CHILDREN;
+		/**
+		 * Replacement for the IRI spelled by the path to this node, or null if no
+		 * prefix ends here.
+		 */
+		String replacement;
+
+		Node getChild(final char label) {
+			final int index = Arrays.binarySearch(this.labels, label);
+			return index >= 0 ? this.children[index] : null;
+		}
+
+		Node getOrAddChild(final char label) {
+			final int index = Arrays.binarySearch(this.labels, label);
+			if (index >= 0) {
+				return this.children[index];
+			}
+			final int insertion = -index - 1;
+			final int length = this.labels.length;
+			final char[] labels = new char[length + 1];
+			final Node[] children = new Node[length + 1];
+			System.arraycopy(this.labels, 0, labels, 0, insertion);
+			System.arraycopy(this.children, 0, children, 0, insertion);
+			System.arraycopy(this.labels, insertion, labels, insertion + 1, length - insertion);
+			System.arraycopy(this.children, insertion, children, insertion + 1, length - insertion);
+			final Node child = new Node();
+			labels[insertion] = label;
+			children[insertion] = child;
+			this.labels = labels;
+			this.children = children;
+			return child;
+		}
+	}
+
+	private static final class CacheEntry {
+		final String iri;
+		final String abbreviation;
+
+		CacheEntry(final String iri, final String abbreviation) {
+			this.iri = iri;
+			this.abbreviation = abbreviation;
+		}
+	}
+
+	private final Node root = new Node();
+	private final CacheEntry[] cache = new CacheEntry[CACHE_SIZE];
+
+	/**
+	 * Adds a prefix. If the same prefix IRI is added more than once, the shortest
+	 * replacement is used, so that abbreviations do not depend on the order in
+	 * which prefixes are added.
+	 *
+	 * @param prefixIri   the IRI of the prefix
+	 * @param replacement the string that replaces {@code prefixIri}, such as a
+	 *                    prefix name
+	 */
+	void add(final String prefixIri, final String replacement) {
+		Node node = this.root;
+		for (int i = 0; i < prefixIri.length(); i++) {
+			node = node.getOrAddChild(prefixIri.charAt(i));
+		}
+		if (node.replacement == null || replacement.length() < node.replacement.length()
+				|| (replacement.length() == node.replacement.length() && replacement.compareTo(node.replacement) < 0)) {
+			node.replacement = replacement;
+		}
+	}
+
+	/**
+	 * Abbreviates an IRI with the longest prefix that is a proper prefix of it.
+	 *
+	 * @param iri the IRI to abbreviate
+	 * @return the abbreviated IRI, or {@code iri} if no prefix matches
+	 */
+	String abbreviate(final String iri) {
+		final int slot = iri.hashCode() & (CACHE_SIZE - 1);
+		// entries are immutable, so racing threads at worst miss the cache
+		final CacheEntry entry = this.cache[slot];
+		if (entry != null && entry.iri.equals(iri)) {
+			return entry.abbreviation;
+		}
+
+		String replacement = null;
+		int matchLength = 0;
+		Node node = this.root;
+		// only proper prefixes match, since `eg:` is not a valid prefixed name
+		for (int i = 0; i < iri.length() && node != null; i++) {
+			if (node.replacement != null) {
+				replacement = node.replacement;
+				matchLength = i;
+			}
+			node = node.getChild(iri.charAt(i));
+		}
+		final String abbreviation = replacement == null ? iri : replacement.concat(iri.substring(matchLength));
+
+		this.cache[slot] = new CacheEntry(iri, abbreviation);
+		return abbreviation;
+	}
+
+}
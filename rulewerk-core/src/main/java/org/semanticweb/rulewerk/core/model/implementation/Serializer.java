@@ -399,6 +399,19 @@ public final class Serializer {
 		return predicate.getName() + OPENING_BRACKET + predicate.getArity() + CLOSING_BRACKET;
 	}
 
+	/**
+	 * Creates a String representation of the name of a given {@link Predicate},
+	 * as it is used in front of the argument list of a {@link Literal}.
+	 *
+	 * @see <a href="https://github.com/knowsys/rulewerk/wiki/Rule-syntax-grammar">Rule syntax</a>
+	 * @param predicate a {@link Predicate}
+	 * @return String representation corresponding to the name of a given
+	 *         {@link Predicate}.
+	 */
+	public static String getPredicateName(final Predicate predicate) {
+		return getIRIString(predicate.getName());
+	}
+
 	/**
 	 * Creates a String representation of a given {@link DataSourceDeclaration}.
 	 *
@@ -465,7 +478,7 @@ public final class Serializer {
 		return getIRIString(string, Function.identity());
 	}
 
-	private static String getIRIString(final String string, Function<String, String> iriTransformer) {
+	static String getIRIString(final String string, Function<String, String> iriTransformer) {
 		String transformed = iriTransformer.apply(string);
 
 		if (!transformed.equals(string)) {
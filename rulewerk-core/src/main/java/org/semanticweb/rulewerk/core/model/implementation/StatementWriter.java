@@ -0,0 +1,275 @@
+package org.semanticweb.rulewerk.core.model.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.lang3.Validate;
+import org.semanticweb.rulewerk.core.model.api.DataSourceDeclaration;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.Rule;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+
+/**
+ * Writer for statements in the syntax of {@link Serializer}, encoded in UTF-8.
+ * Facts are encoded directly into a reusable buffer, without creating a string
+ * for every fact. The encoded forms of recently written terms and of all
+ * predicates are cached, which pays off for the many repeated constants of
+ * large sets of facts. Optionally, the output is compressed with gzip, one
+ * buffer at a time.
+ *
+ * Instances are not thread-safe.
+ *
+ * @author Philipp Hanisch
+ *
+ */
+public class StatementWriter implements Closeable, Flushable {
+
+	/**
+	 * Number of bytes that are buffered before they are written.
+	 */
+	static final int BUFFER_SIZE = 1 << 16;
+
+	/**
+	 * Number of recently written terms whose encoded forms are remembered; a power
+	 * of two.
+	 */
+	static final int CACHE_SIZE = 1 << 12;
+
+	private static final byte[] OPENING_PARENTHESIS = bytes(Serializer.OPENING_PARENTHESIS);
+	private static final byte[] COMMA = bytes(Serializer.COMMA);
+	private static final byte[] FACT_END = bytes(Serializer.CLOSING_PARENTHESIS + Serializer.STATEMENT_SEPARATOR + "\n");
+	private static final byte[] NEW_LINE = bytes("\n");
+
+	private final WritableByteChannel channel;
+	private final GZIPOutputStream gzipStream;
+	private final Function<String, String> iriTransformer;
+	private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+	private final CacheEntry[] cache = new CacheEntry[CACHE_SIZE];
+	private final Map<Predicate, byte[]> predicateNames = new HashMap<>();
+
+	private static final class CacheEntry {
+		final Term term;
+		final byte[] encoded;
+
+		CacheEntry(final Term term, final byte[] encoded) {
+			this.term = term;
+			this.encoded = encoded;
+		}
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param channel        the channel to write to
+	 * @param iriTransformer a function to transform IRIs with, such as
+	 *                       {@link KnowledgeBase#unresolveAbsoluteIri}
+	 * @param compress       whether to compress the output with gzip
+	 * @throws IOException if the gzip header could not be written
+	 */
+	public StatementWriter(final WritableByteChannel channel, final Function<String, String> iriTransformer,
+			final boolean compress) throws IOException {
+		Validate.notNull(channel, "Channel cannot be null!");
+		Validate.notNull(iriTransformer, "IRI transformer cannot be null!");
+		this.channel = channel;
+		this.iriTransformer = iriTransformer;
+		this.gzipStream = compress ? new GZIPOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE) : null;
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param stream         the stream to write to
+	 * @param iriTransformer a function to transform IRIs with, such as
+	 *                       {@link KnowledgeBase#unresolveAbsoluteIri}
+	 * @param compress       whether to compress the output with gzip
+	 * @throws IOException if the gzip header could not be written
+	 */
+	public StatementWriter(final OutputStream stream, final Function<String, String> iriTransformer,
+			final boolean compress) throws IOException {
+		this(stream instanceof FileOutputStream ? ((FileOutputStream) stream).getChannel()
+				: Channels.newChannel(stream), iriTransformer, compress);
+	}
+
+	/**
+	 * Writes the base and prefix declarations of the given knowledge base.
+	 *
+	 * @param knowledgeBase a knowledge base
+	 * @throws IOException if writing failed
+	 */
+	public void writeBaseAndPrefixDeclarations(final KnowledgeBase knowledgeBase) throws IOException {
+		put(bytes(Serializer.getBaseAndPrefixDeclarations(knowledgeBase)));
+	}
+
+	/**
+	 * Writes a data source declaration, followed by a new line.
+	 *
+	 * @param dataSourceDeclaration a data source declaration
+	 * @throws IOException if writing failed
+	 */
+	public void writeDataSourceDeclaration(final DataSourceDeclaration dataSourceDeclaration) throws IOException {
+		put(bytes(Serializer.getString(dataSourceDeclaration)));
+		put(NEW_LINE);
+	}
+
+	/**
+	 * Writes a rule, followed by a new line.
+	 *
+	 * @param rule a rule
+	 * @throws IOException if writing failed
+	 */
+	public void writeRule(final Rule rule) throws IOException {
+		put(bytes(Serializer.getString(rule)));
+		put(NEW_LINE);
+	}
+
+	/**
+	 * Writes a fact, followed by a new line.
+	 *
+	 * @param fact a fact
+	 * @throws IOException if writing failed
+	 */
+	public void writeFact(final Fact fact) throws IOException {
+		writeFact(fact.getPredicate(), fact.getArguments());
+	}
+
+	/**
+	 * Writes the fact with the given predicate and terms, followed by a new line.
+	 * The result is the same as that of
+	 * {@link Serializer#getFactString(Predicate, List, Function)}.
+	 *
+	 * @param predicate the predicate of the fact
+	 * @param terms     the terms of the fact
+	 * @throws IOException if writing failed
+	 */
+	public void writeFact(final Predicate predicate, final List<Term> terms) throws IOException {
+		byte[] predicateName = this.predicateNames.get(predicate);
+		if (predicateName == null) {
+			predicateName = bytes(Serializer.getIRIString(predicate.getName(), this.iriTransformer));
+			this.predicateNames.put(predicate, predicateName);
+		}
+		put(predicateName);
+		put(OPENING_PARENTHESIS);
+		boolean first = true;
+		for (final Term term : terms) {
+			if (first) {
+				first = false;
+			} else {
+				put(COMMA);
+			}
+			put(getEncodedForm(term));
+		}
+		put(FACT_END);
+	}
+
+	private byte[] getEncodedForm(final Term term) {
+		final int slot = term.hashCode() & (CACHE_SIZE - 1);
+		final CacheEntry entry = this.cache[slot];
+		if (entry != null && entry.term.equals(term)) {
+			return entry.encoded;
+		}
+		final byte[] encoded = bytes(term.getSyntacticRepresentation(this.iriTransformer));
+		this.cache[slot] = new CacheEntry(term, encoded);
+		return encoded;
+	}
+
+	private void put(final byte[] bytes) throws IOException {
+		int offset = 0;
+		while (bytes.length - offset > this.buffer.remaining()) {
+			final int count = this.buffer.remaining();
+			this.buffer.put(bytes, offset, count);
+			offset += count;
+			drain();
+		}
+		this.buffer.put(bytes, offset, bytes.length - offset);
+	}
+
+	private void drain() throws IOException {
+		if (this.gzipStream != null) {
+			this.gzipStream.write(this.buffer.array(), 0, this.buffer.position());
+			this.buffer.clear();
+		} else {
+			this.buffer.flip();
+			while (this.buffer.hasRemaining()) {
+				this.channel.write(this.buffer);
+			}
+			this.buffer.clear();
+		}
+	}
+
+	/**
+	 * Writes all buffered statements. Compressed output is not flushed, since this
+	 * would make the compression less effective.
+	 *
+	 * @throws IOException if writing failed
+	 */
+	@Override
+	public void flush() throws IOException {
+		drain();
+	}
+
+	/**
+	 * Writes all buffered statements and completes compressed output, without
+	 * closing the underlying channel. No statements can be written afterwards.
+	 *
+	 * @throws IOException if writing failed
+	 */
+	public void finish() throws IOException {
+		drain();
+		if (this.gzipStream != null) {
+			this.gzipStream.finish();
+		}
+	}
+
+	/**
+	 * Finishes the output and closes the underlying channel.
+	 *
+	 * @throws IOException if writing failed
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			finish();
+		} finally {
+			this.channel.close();
+		}
+	}
+
+	private static byte[] bytes(final String string) {
+		return string.getBytes(StandardCharsets.UTF_8);
+	}
+
+}
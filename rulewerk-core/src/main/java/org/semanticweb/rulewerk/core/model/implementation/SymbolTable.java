@@ -0,0 +1,134 @@
+package org.semanticweb.rulewerk.core.model.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+
+/**
+ * Global table of predicate symbols. Every predicate (i.e., every combination
+ * of name and arity) is represented by exactly one canonical
+ * {@link PredicateImpl} instance, which carries a dense integer id. Ids are
+ * assigned in order of first use, starting from 0, so they can be used to index
+ * arrays and bit sets.
+ *
+ * Canonical predicates are never released. This is intended, since the number
+ * of distinct predicates is small compared to the number of statements that
+ * use them.
+ *
+ * @author Philipp Hanisch
+ *
+ */
+public final class SymbolTable {
+
+	private static final ConcurrentHashMap<Predicate, PredicateImpl> PREDICATES = new ConcurrentHashMap<>();
+	private static final List<PredicateImpl> PREDICATES_BY_ID = new ArrayList<>();
+
+	/**
+	 * Private constructor prevents this utilities class to be instantiated.
+	 */
+	private SymbolTable() {
+	}
+
+	/**
+	 * Returns the canonical {@link Predicate} for the given name and arity.
+	 *
+	 * @param name  a non-blank String (not null, nor empty or whitespace).
+	 * @param arity an int value strictly greater than 0.
+	 * @return the canonical {@link Predicate}
+	 */
+	public static Predicate getPredicate(final String name, final int arity) {
+		return intern(new PredicateImpl(name, arity));
+	}
+
+	/**
+	 * Returns the canonical {@link Predicate} that is equal to the given one.
+	 *
+	 * @param predicate a predicate
+	 * @return the canonical {@link Predicate}
+	 */
+	public static Predicate getPredicate(final Predicate predicate) {
+		return intern(predicate);
+	}
+
+	/**
+	 * Returns the dense id of the given predicate. Predicates that have not been
+	 * interned so far are added to the table.
+	 *
+	 * @param predicate a predicate
+	 * @return an id between 0 (inclusive) and {@link #getPredicateCount()}
+	 *         (exclusive)
+	 */
+	public static int getPredicateId(final Predicate predicate) {
+		if (predicate instanceof PredicateImpl) {
+			final int id = ((PredicateImpl) predicate).getId();
+			if (id >= 0) {
+				return id;
+			}
+		}
+		return intern(predicate).getId();
+	}
+
+	/**
+	 * Returns the canonical predicate with the given id.
+	 *
+	 * @param id a predicate id
+	 * @return the canonical {@link Predicate}
+	 * @throws IndexOutOfBoundsException if no predicate has the given id
+	 */
+	public static Predicate getPredicate(final int id) {
+		synchronized (PREDICATES_BY_ID) {
+			return PREDICATES_BY_ID.get(id);
+		}
+	}
+
+	/**
+	 * Returns the number of predicates interned so far. This is an upper bound
+	 * for all predicate ids handed out until now.
+	 *
+	 * @return the number of canonical predicates
+	 */
+	public static int getPredicateCount() {
+		synchronized (PREDICATES_BY_ID) {
+			return PREDICATES_BY_ID.size();
+		}
+	}
+
+	private static PredicateImpl intern(final Predicate predicate) {
+		PredicateImpl canonical = PREDICATES.get(predicate);
+		if (canonical != null) {
+			return canonical;
+		}
+		synchronized (PREDICATES_BY_ID) {
+			canonical = PREDICATES.get(predicate);
+			if (canonical == null) {
+				canonical = new PredicateImpl(predicate.getName(), predicate.getArity(), PREDICATES_BY_ID.size());
+				PREDICATES_BY_ID.add(canonical);
+				PREDICATES.put(canonical, canonical);
+			}
+			return canonical;
+		}
+	}
+
+}
@@ -26,6 +26,7 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -37,14 +38,17 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.Validate;
 import org.semanticweb.rulewerk.core.exceptions.PrefixDeclarationException;
 import org.semanticweb.rulewerk.core.exceptions.RulewerkException;
+import org.semanticweb.rulewerk.core.exceptions.RulewerkRuntimeException;
 import org.semanticweb.rulewerk.core.model.api.*;
 import org.semanticweb.rulewerk.core.model.implementation.MergingPrefixDeclarationRegistry;
-import org.semanticweb.rulewerk.core.model.implementation.Serializer;
+import org.semanticweb.rulewerk.core.model.implementation.PredicateSet;
+import org.semanticweb.rulewerk.core.model.implementation.StatementWriter;
 
 /**
  * A knowledge base with rules, facts, and declarations for loading data from
@@ -544,6 +548,39 @@ public class KnowledgeBase implements Iterable<Statement> {
 		}
 	}
 
+	/**
+	 * Interface for a method that parses the contents of a file into a
+	 * KnowledgeBase. In contrast to {@link AdditionalInputParser}, the parser is
+	 * free to choose how the file is read, e.g., by mapping it into memory.
+	 */
+	@FunctionalInterface
+	public interface AdditionalFileParser {
+		void parseInto(File file, KnowledgeBase kb) throws IOException, RulewerkException;
+	}
+
+	/**
+	 * Import rules from a file, leaving the reading of the file to the given
+	 * parse function.
+	 *
+	 * @param file          the file to import
+	 * @param parseFunction a function that transforms a {@link KnowledgeBase} using
+	 *                      the {@link File}.
+	 *
+	 * @throws IOException              when reading {@code file} fails
+	 * @throws IllegalArgumentException when {@code file} is null or has already
+	 *                                  been imported
+	 * @throws RulewerkException        when parseFunction throws RulewerkException
+	 */
+	public void importRulesFile(File file, AdditionalFileParser parseFunction)
+			throws RulewerkException, IOException, IllegalArgumentException {
+		Validate.notNull(file, "file must not be null");
+
+		boolean isNewFile = this.importedFilePaths.add(file.getCanonicalPath());
+		Validate.isTrue(isNewFile, "file \"" + file.getName() + "\" was already imported.");
+
+		parseFunction.parseInto(file, this);
+	}
+
 	/**
 	 * Merge {@link PrefixDeclarationRegistry} into this knowledge base.
 	 *
@@ -618,33 +655,47 @@ public class KnowledgeBase implements Iterable<Statement> {
 	}
 
 	/**
-	 * Serialise the KnowledgeBase to the {@link OutputStream}.
+	 * Serialise the KnowledgeBase to the {@link OutputStream}, encoded in UTF-8.
+	 * Before version 0.7.0, it was encoded in the platform's default charset.
 	 *
 	 * @param stream the {@link OutputStream} to serialise to.
 	 *
 	 * @throws IOException if an I/O error occurs while writing to given output stream
 	 */
 	public void writeKnowledgeBase(OutputStream stream) throws IOException {
-		stream.write(Serializer.getBaseAndPrefixDeclarations(this).getBytes());
+		this.writeKnowledgeBase(stream, false);
+	}
+
+	/**
+	 * Serialise the KnowledgeBase to the {@link OutputStream}, encoded in UTF-8
+	 * and optionally compressed with gzip. The stream is not closed.
+	 *
+	 * @param stream   the {@link OutputStream} to serialise to.
+	 * @param compress whether to compress the output with gzip
+	 *
+	 * @throws IOException if an I/O error occurs while writing to given output stream
+	 */
+	public void writeKnowledgeBase(OutputStream stream, boolean compress) throws IOException {
+		final StatementWriter writer = new StatementWriter(stream, Function.identity(), compress);
+		writer.writeBaseAndPrefixDeclarations(this);
 
 		for (DataSourceDeclaration dataSource : this.getDataSourceDeclarations()) {
-			stream.write(Serializer.getString(dataSource).getBytes());
-			stream.write('\n');
+			writer.writeDataSourceDeclaration(dataSource);
 		}
 
 		for (Rule rule : this.getRules()) {
-			stream.write(Serializer.getString(rule).getBytes());
-			stream.write('\n');
+			writer.writeRule(rule);
 		}
 
 		for (Fact fact : this.getFacts()) {
-			stream.write(Serializer.getFactString(fact).getBytes());
-			stream.write('\n');
+			writer.writeFact(fact);
 		}
+		writer.finish();
 	}
 
 	/**
-	 * Serialise the KnowledgeBase to the given {@link File}.
+	 * Serialise the KnowledgeBase to the given {@link File}. Files with the
+	 * extension {@code .gz} are compressed with gzip.
 	 *
 	 * @param filePath path to the file to serialise into.
 	 *
@@ -652,15 +703,61 @@ public class KnowledgeBase implements Iterable<Statement> {
 	 */
 	public void writeKnowledgeBase(String filePath) throws IOException {
 		try (OutputStream stream = new FileOutputStream(filePath)) {
-			this.writeKnowledgeBase(stream);
+			this.writeKnowledgeBase(stream, filePath.endsWith(".gz"));
 		}
 	}
 
+	/**
+	 * Save the KnowledgeBase as a binary snapshot, which can be restored with
+	 * {@link KnowledgeBase#load(Path)} much faster than a serialised knowledge base
+	 * can be parsed. Snapshots are only meant to be loaded by the same version of
+	 * Rulewerk.
+	 *
+	 * @param path path to the file to save the snapshot in.
+	 *
+	 * @throws IOException              if an I/O error occurs while writing the
+	 *                                  file
+	 * @throws RulewerkRuntimeException if the knowledge base contains a data source
+	 *                                  that cannot be saved, such as an in-memory
+	 *                                  data source
+	 */
+	public void save(Path path) throws IOException {
+		this.save(path, KnowledgeBaseSnapshot.WINDOW_SIZE);
+	}
+
+	void save(Path path, int windowSize) throws IOException {
+		Validate.notNull(path, "path must not be null");
+		KnowledgeBaseSnapshot.save(this, path, windowSize);
+	}
+
+	/**
+	 * Load a KnowledgeBase from a binary snapshot created with
+	 * {@link KnowledgeBase#save(Path)}. ASP rules keep their rule indices, and
+	 * ASP rules that are created afterwards get larger indices.
+	 *
+	 * @param path path to the snapshot file.
+	 *
+	 * @return a new knowledge base with the statements and prefix declarations of
+	 *         the snapshot
+	 *
+	 * @throws IOException if an I/O error occurs while reading the file, or if the
+	 *                     file is not a valid snapshot
+	 */
+	public static KnowledgeBase load(Path path) throws IOException {
+		return load(path, KnowledgeBaseSnapshot.WINDOW_SIZE);
+	}
+
+	static KnowledgeBase load(Path path, int windowSize) throws IOException {
+		Validate.notNull(path, "path must not be null");
+		return KnowledgeBaseSnapshot.load(path, windowSize);
+	}
+
 	/**
 	 * Analyse the KnowledgeBase to find all predicates used in asp rules
 	 * that are approximated, thereby being aware of negation.
 	 *
-	 * @return the set of predicates that are approximated
+	 * @return the set of predicates that are approximated, as an immutable
+	 *         {@link PredicateSet}
 	 */
 	public Set<Predicate> analyseAspRulesForApproximatedPredicates() {
 		Set<Predicate> approximatedPredicates = new HashSet<>(); // set of approximated predicates
@@ -733,7 +830,7 @@ public class KnowledgeBase implements Iterable<Statement> {
 			}
 		}
 
-		return approximatedPredicates;
+		return new PredicateSet(approximatedPredicates);
 	}
 
 	/**
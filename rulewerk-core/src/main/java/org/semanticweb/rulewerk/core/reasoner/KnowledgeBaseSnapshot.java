@@ -0,0 +1,781 @@
+package org.semanticweb.rulewerk.core.reasoner;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.UUID;
+
+import org.semanticweb.rulewerk.core.exceptions.RulewerkRuntimeException;
+import org.semanticweb.rulewerk.core.model.api.AspRule;
+import org.semanticweb.rulewerk.core.model.api.AspRuleVisitor;
+import org.semanticweb.rulewerk.core.model.api.ChoiceElement;
+import org.semanticweb.rulewerk.core.model.api.ChoiceRule;
+import org.semanticweb.rulewerk.core.model.api.Conjunction;
+import org.semanticweb.rulewerk.core.model.api.Constraint;
+import org.semanticweb.rulewerk.core.model.api.DataSource;
+import org.semanticweb.rulewerk.core.model.api.DataSourceDeclaration;
+import org.semanticweb.rulewerk.core.model.api.DatatypeConstant;
+import org.semanticweb.rulewerk.core.model.api.DisjunctiveRule;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.LanguageStringConstant;
+import org.semanticweb.rulewerk.core.model.api.Literal;
+import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.Rule;
+import org.semanticweb.rulewerk.core.model.api.ShowStatement;
+import org.semanticweb.rulewerk.core.model.api.Statement;
+import org.semanticweb.rulewerk.core.model.api.StatementVisitor;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.implementation.AbstractConstantImpl;
+import org.semanticweb.rulewerk.core.model.implementation.ChoiceElementImpl;
+import org.semanticweb.rulewerk.core.model.implementation.ChoiceRuleImpl;
+import org.semanticweb.rulewerk.core.model.implementation.ConjunctionImpl;
+import org.semanticweb.rulewerk.core.model.implementation.ConstraintImpl;
+import org.semanticweb.rulewerk.core.model.implementation.DataSourceDeclarationImpl;
+import org.semanticweb.rulewerk.core.model.implementation.DatatypeConstantImpl;
+import org.semanticweb.rulewerk.core.model.implementation.DisjunctiveRuleImpl;
+import org.semanticweb.rulewerk.core.model.implementation.ExistentialVariableImpl;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.model.implementation.FactImpl;
+import org.semanticweb.rulewerk.core.model.implementation.LanguageStringConstantImpl;
+import org.semanticweb.rulewerk.core.model.implementation.MergingPrefixDeclarationRegistry;
+import org.semanticweb.rulewerk.core.model.implementation.NamedNullImpl;
+import org.semanticweb.rulewerk.core.model.implementation.NegativeLiteralImpl;
+import org.semanticweb.rulewerk.core.model.implementation.PositiveLiteralImpl;
+import org.semanticweb.rulewerk.core.model.implementation.RenamedNamedNull;
+import org.semanticweb.rulewerk.core.model.implementation.RuleImpl;
+import org.semanticweb.rulewerk.core.model.implementation.ShowStatementImpl;
+import org.semanticweb.rulewerk.core.model.implementation.UniversalVariableImpl;
+import org.semanticweb.rulewerk.core.reasoner.implementation.CsvFileDataSource;
+import org.semanticweb.rulewerk.core.reasoner.implementation.RdfFileDataSource;
+import org.semanticweb.rulewerk.core.reasoner.implementation.SparqlQueryResultDataSource;
+import org.semanticweb.rulewerk.core.reasoner.implementation.StreamingCsvFileDataSource;
+import org.semanticweb.rulewerk.core.reasoner.implementation.StreamingCsvFileDataSource.ColumnType;
+
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+
+/**
+ * Binary snapshot format for {@link KnowledgeBase}s. A snapshot starts with a
+ * symbol table of all strings, predicates and terms, followed by the base IRI,
+ * the prefix declarations and the statements, which refer to symbols by their
+ * index. Indices and lengths are stored as variable-length integers. Files are
+ * written and read through memory-mapped windows, and loading a snapshot
+ * creates every predicate and term only once, without parsing.
+ *
+ * Data sources are supported if they can be restored from their declaration,
+ * which excludes in-memory data sources and streaming CSV data sources with a
+ * row filter.
+ *
+ * @author Philipp Hanisch
+ *
+ */
+final class KnowledgeBaseSnapshot {
+
+	static final int MAGIC = 0x52574b53; // "RWKS"
+	static final int VERSION = 1;
+
+	/**
+	 * Maximal number of bytes mapped at once.
+	 */
+	static final int WINDOW_SIZE = 1 << 26;
+
+	private static final byte ABSTRACT_CONSTANT = 0;
+	private static final byte DATATYPE_CONSTANT = 1;
+	private static final byte LANGUAGE_STRING_CONSTANT = 2;
+	private static final byte NAMED_NULL = 3;
+	private static final byte RENAMED_NAMED_NULL = 4;
+	private static final byte UNIVERSAL_VARIABLE = 5;
+	private static final byte EXISTENTIAL_VARIABLE = 6;
+
+	private static final byte FACT = 0;
+	private static final byte RULE = 1;
+	private static final byte DATA_SOURCE_DECLARATION = 2;
+	private static final byte DISJUNCTIVE_RULE = 3;
+	private static final byte CONSTRAINT = 4;
+	private static final byte CHOICE_RULE = 5;
+	private static final byte SHOW_STATEMENT = 6;
+
+	private static final byte CSV_FILE_DATA_SOURCE = 0;
+	private static final byte RDF_FILE_DATA_SOURCE = 1;
+	private static final byte SPARQL_QUERY_RESULT_DATA_SOURCE = 2;
+	private static final byte STREAMING_CSV_FILE_DATA_SOURCE = 3;
+
+	private KnowledgeBaseSnapshot() {
+	}
+
+	static void save(final KnowledgeBase knowledgeBase, final Path path, final int windowSize) throws IOException {
+		final Encoder encoder = new Encoder();
+		encoder.encodeKnowledgeBase(knowledgeBase);
+
+		try (MappedOutput output = new MappedOutput(path, windowSize)) {
+			encoder.output = output;
+			output.writeInt(MAGIC);
+			output.writeInt(VERSION);
+
+			output.writeVarInt(encoder.strings.size());
+			for (final String string : encoder.strings) {
+				output.writeString(string);
+			}
+			output.writeVarInt(encoder.predicates.size());
+			for (final Predicate predicate : encoder.predicates) {
+				encoder.encodeString(predicate.getName());
+				output.writeVarInt(predicate.getArity());
+			}
+			output.writeVarInt(encoder.terms.size());
+			for (final Term term : encoder.terms) {
+				encoder.encodeTermDefinition(term);
+			}
+
+			encoder.encodeKnowledgeBase(knowledgeBase);
+		}
+	}
+
+	static KnowledgeBase load(final Path path, final int windowSize) throws IOException {
+		try (MappedInput input = new MappedInput(path, windowSize)) {
+			if (input.size < 8 || input.readInt() != MAGIC) {
+				throw new IOException("File " + path + " is not a knowledge base snapshot.");
+			}
+			final int version = input.readInt();
+			if (version != VERSION) {
+				throw new IOException("Unsupported knowledge base snapshot version " + version + ".");
+			}
+			return new Decoder(input).decodeKnowledgeBase();
+		}
+	}
+
+	/**
+	 * Encodes the knowledge base in two passes. The first pass, without output,
+	 * only collects the symbols. The second pass writes the indices of the symbols.
+	 */
+	private static final class Encoder implements StatementVisitor<Void>, AspRuleVisitor<Void> {
+
+		final List<String> strings = new ArrayList<>();
+		final List<Predicate> predicates = new ArrayList<>();
+		final List<Term> terms = new ArrayList<>();
+		private final Object2IntOpenHashMap<String> stringIds = new Object2IntOpenHashMap<>();
+		private final Object2IntOpenHashMap<Predicate> predicateIds = new Object2IntOpenHashMap<>();
+		private final Object2IntOpenHashMap<Term> termIds = new Object2IntOpenHashMap<>();
+
+		MappedOutput output;
+
+		Encoder() {
+			this.stringIds.defaultReturnValue(-1);
+			this.predicateIds.defaultReturnValue(-1);
+			this.termIds.defaultReturnValue(-1);
+		}
+
+		void encodeKnowledgeBase(final KnowledgeBase knowledgeBase) throws IOException {
+			encodeString(knowledgeBase.getBaseIri());
+			final List<Entry<String, String>> prefixes = new ArrayList<>();
+			knowledgeBase.getPrefixes().forEachRemaining(prefixes::add);
+			writeVarInt(prefixes.size());
+			for (final Entry<String, String> prefix : prefixes) {
+				encodeString(prefix.getKey());
+				encodeString(prefix.getValue());
+			}
+
+			final List<Statement> statements = new ArrayList<>(knowledgeBase.getStatements());
+			writeVarInt(statements.size());
+			for (final Statement statement : statements) {
+				statement.accept(this);
+			}
+		}
+
+		void encodeString(final String string) throws IOException {
+			int id = this.stringIds.getInt(string);
+			if (id < 0) {
+				id = this.strings.size();
+				this.strings.add(string);
+				this.stringIds.put(string, id);
+			}
+			writeVarInt(id);
+		}
+
+		void encodePredicate(final Predicate predicate) throws IOException {
+			int id = this.predicateIds.getInt(predicate);
+			if (id < 0) {
+				id = this.predicates.size();
+				this.predicates.add(predicate);
+				this.predicateIds.put(predicate, id);
+				encodeString(predicate.getName());
+			}
+			writeVarInt(id);
+		}
+
+		void encodeTerm(final Term term) throws IOException {
+			int id = this.termIds.getInt(term);
+			if (id < 0) {
+				id = this.terms.size();
+				this.terms.add(term);
+				this.termIds.put(term, id);
+				encodeTermDefinition(term);
+			}
+			writeVarInt(id);
+		}
+
+		void encodeTermDefinition(final Term term) throws IOException {
+			switch (term.getType()) {
+			case ABSTRACT_CONSTANT:
+				writeByte(ABSTRACT_CONSTANT);
+				encodeString(term.getName());
+				break;
+			case DATATYPE_CONSTANT:
+				writeByte(DATATYPE_CONSTANT);
+				encodeString(((DatatypeConstant) term).getLexicalValue());
+				encodeString(((DatatypeConstant) term).getDatatype());
+				break;
+			case LANGSTRING_CONSTANT:
+				writeByte(LANGUAGE_STRING_CONSTANT);
+				encodeString(((LanguageStringConstant) term).getString());
+				encodeString(((LanguageStringConstant) term).getLanguageTag());
+				break;
+			case NAMED_NULL:
+				writeByte(term instanceof RenamedNamedNull ? RENAMED_NAMED_NULL : NAMED_NULL);
+				encodeString(term.getName());
+				break;
+			case UNIVERSAL_VARIABLE:
+				writeByte(UNIVERSAL_VARIABLE);
+				encodeString(term.getName());
+				break;
+			case EXISTENTIAL_VARIABLE:
+				writeByte(EXISTENTIAL_VARIABLE);
+				encodeString(term.getName());
+				break;
+			default:
+				throw new RulewerkRuntimeException("Unsupported term type: " + term.getType());
+			}
+		}
+
+		void encodeLiteral(final Literal literal) throws IOException {
+			encodePredicate(literal.getPredicate());
+			for (final Term term : literal.getArguments()) {
+				encodeTerm(term);
+			}
+		}
+
+		void encodeConjunction(final Conjunction<? extends Literal> conjunction) throws IOException {
+			final List<? extends Literal> literals = conjunction.getLiterals();
+			writeVarInt(literals.size());
+			for (final Literal literal : literals) {
+				writeByte(literal.isNegated() ? 1 : 0);
+				encodeLiteral(literal);
+			}
+		}
+
+		void encodeDataSource(final DataSource dataSource) throws IOException {
+			if (dataSource instanceof CsvFileDataSource) {
+				writeByte(CSV_FILE_DATA_SOURCE);
+				encodeString(((CsvFileDataSource) dataSource).getPath());
+			} else if (dataSource instanceof RdfFileDataSource) {
+				writeByte(RDF_FILE_DATA_SOURCE);
+				encodeString(((RdfFileDataSource) dataSource).getPath());
+			} else if (dataSource instanceof SparqlQueryResultDataSource) {
+				final SparqlQueryResultDataSource sparqlDataSource = (SparqlQueryResultDataSource) dataSource;
+				writeByte(SPARQL_QUERY_RESULT_DATA_SOURCE);
+				encodeString(sparqlDataSource.getEndpoint().toString());
+				encodeString(sparqlDataSource.getQueryVariables());
+				encodeString(sparqlDataSource.getQueryBody());
+			} else if (dataSource instanceof StreamingCsvFileDataSource
+					&& ((StreamingCsvFileDataSource) dataSource).getRowFilter() == null) {
+				final StreamingCsvFileDataSource csvDataSource = (StreamingCsvFileDataSource) dataSource;
+				writeByte(STREAMING_CSV_FILE_DATA_SOURCE);
+				encodeString(csvDataSource.getPath());
+				final int[] columns = csvDataSource.getColumns();
+				final ColumnType[] columnTypes = csvDataSource.getColumnTypes();
+				writeVarInt(columns.length);
+				for (int i = 0; i < columns.length; i++) {
+					writeVarInt(columns[i]);
+					writeByte(columnTypes[i].ordinal());
+				}
+			} else {
+				throw new RulewerkRuntimeException(
+						"Data source " + dataSource + " cannot be saved in a knowledge base snapshot.");
+			}
+		}
+
+		void encodeRuleIndex(final AspRule rule) throws IOException {
+			if (this.output != null) {
+				this.output.writeInt(rule.getRuleIdx());
+			}
+		}
+
+		@Override
+		public Void visit(final Fact statement) {
+			try {
+				writeByte(FACT);
+				encodeLiteral(statement);
+			} catch (final IOException e) {
+				throw new RulewerkRuntimeException(e);
+			}
+			return null;
+		}
+
+		@Override
+		public Void visit(final Rule statement) {
+			try {
+				writeByte(RULE);
+				encodeConjunction(statement.getHead());
+				encodeConjunction(statement.getBody());
+			} catch (final IOException e) {
+				throw new RulewerkRuntimeException(e);
+			}
+			return null;
+		}
+
+		@Override
+		public Void visit(final AspRule statement) {
+			return statement.accept((AspRuleVisitor<Void>) this);
+		}
+
+		@Override
+		public Void visit(final DataSourceDeclaration statement) {
+			try {
+				writeByte(DATA_SOURCE_DECLARATION);
+				encodePredicate(statement.getPredicate());
+				encodeDataSource(statement.getDataSource());
+			} catch (final IOException e) {
+				throw new RulewerkRuntimeException(e);
+			}
+			return null;
+		}
+
+		@Override
+		public Void visit(final ShowStatement statement) {
+			try {
+				writeByte(SHOW_STATEMENT);
+				encodePredicate(statement.getPredicate());
+			} catch (final IOException e) {
+				throw new RulewerkRuntimeException(e);
+			}
+			return null;
+		}
+
+		@Override
+		public Void visit(final ChoiceRule rule) {
+			try {
+				writeByte(CHOICE_RULE);
+				final List<ChoiceElement> choiceElements = rule.getChoiceElements();
+				writeVarInt(choiceElements.size());
+				for (final ChoiceElement choiceElement : choiceElements) {
+					encodeLiteral(choiceElement.getLiteral());
+					encodeConjunction(choiceElement.getContext());
+				}
+				encodeConjunction(rule.getBody());
+				encodeBound(rule.getLowerBound());
+				encodeBound(rule.getUpperBound());
+				encodeRuleIndex(rule);
+			} catch (final IOException e) {
+				throw new RulewerkRuntimeException(e);
+			}
+			return null;
+		}
+
+		private void encodeBound(final Integer bound) throws IOException {
+			writeByte(bound == null ? 0 : 1);
+			if (bound != null && this.output != null) {
+				this.output.writeInt(bound);
+			}
+		}
+
+		@Override
+		public Void visit(final Constraint rule) {
+			try {
+				writeByte(CONSTRAINT);
+				encodeConjunction(rule.getBody());
+				encodeRuleIndex(rule);
+			} catch (final IOException e) {
+				throw new RulewerkRuntimeException(e);
+			}
+			return null;
+		}
+
+		@Override
+		public Void visit(final DisjunctiveRule rule) {
+			try {
+				writeByte(DISJUNCTIVE_RULE);
+				encodeConjunction(rule.getHeadLiterals());
+				encodeConjunction(rule.getBody());
+				encodeRuleIndex(rule);
+			} catch (final IOException e) {
+				throw new RulewerkRuntimeException(e);
+			}
+			return null;
+		}
+
+		private void writeByte(final int value) throws IOException {
+			if (this.output != null) {
+				this.output.writeByte(value);
+			}
+		}
+
+		private void writeVarInt(final int value) throws IOException {
+			if (this.output != null) {
+				this.output.writeVarInt(value);
+			}
+		}
+	}
+
+	private static final class Decoder {
+
+		private final MappedInput input;
+		private String[] strings;
+		private Predicate[] predicates;
+		private Term[] terms;
+
+		Decoder(final MappedInput input) {
+			this.input = input;
+		}
+
+		KnowledgeBase decodeKnowledgeBase() throws IOException {
+			this.strings = new String[this.input.readVarInt()];
+			for (int i = 0; i < this.strings.length; i++) {
+				this.strings[i] = this.input.readString();
+			}
+			this.predicates = new Predicate[this.input.readVarInt()];
+			for (int i = 0; i < this.predicates.length; i++) {
+				this.predicates[i] = Expressions.makePredicate(decodeString(), this.input.readVarInt());
+			}
+			this.terms = new Term[this.input.readVarInt()];
+			for (int i = 0; i < this.terms.length; i++) {
+				this.terms[i] = decodeTermDefinition();
+			}
+
+			final MergingPrefixDeclarationRegistry prefixDeclarations = new MergingPrefixDeclarationRegistry();
+			final String baseIri = decodeString();
+			if (!baseIri.isEmpty()) {
+				prefixDeclarations.setBaseIri(baseIri);
+			}
+			final int prefixCount = this.input.readVarInt();
+			for (int i = 0; i < prefixCount; i++) {
+				prefixDeclarations.setPrefixIri(decodeString(), decodeString());
+			}
+
+			final int statementCount = this.input.readVarInt();
+			final List<Statement> statements = new ArrayList<>(statementCount);
+			for (int i = 0; i < statementCount; i++) {
+				statements.add(decodeStatement());
+			}
+
+			final KnowledgeBase knowledgeBase = new KnowledgeBase();
+			knowledgeBase.mergePrefixDeclarations(prefixDeclarations);
+			knowledgeBase.addStatements(statements);
+			return knowledgeBase;
+		}
+
+		private String decodeString() throws IOException {
+			return this.strings[decodeIndex(this.strings.length)];
+		}
+
+		private Predicate decodePredicate() throws IOException {
+			return this.predicates[decodeIndex(this.predicates.length)];
+		}
+
+		private int decodeIndex(final int count) throws IOException {
+			final int index = this.input.readVarInt();
+			if (index >= count) {
+				throw new IOException("Invalid symbol index " + index + " in knowledge base snapshot.");
+			}
+			return index;
+		}
+
+		private Term decodeTermDefinition() throws IOException {
+			final byte type = this.input.readByte();
+			switch (type) {
+			case ABSTRACT_CONSTANT:
+				return new AbstractConstantImpl(decodeString());
+			case DATATYPE_CONSTANT:
+				return new DatatypeConstantImpl(decodeString(), decodeString());
+			case LANGUAGE_STRING_CONSTANT:
+				return new LanguageStringConstantImpl(decodeString(), decodeString());
+			case NAMED_NULL:
+				return new NamedNullImpl(decodeString());
+			case RENAMED_NAMED_NULL:
+				try {
+					return new RenamedNamedNull(UUID.fromString(decodeString()));
+				} catch (final IllegalArgumentException e) {
+					throw new IOException("Invalid renamed named null in knowledge base snapshot.", e);
+				}
+			case UNIVERSAL_VARIABLE:
+				return new UniversalVariableImpl(decodeString());
+			case EXISTENTIAL_VARIABLE:
+				return new ExistentialVariableImpl(decodeString());
+			default:
+				throw new IOException("Invalid term type " + type + " in knowledge base snapshot.");
+			}
+		}
+
+		private List<Term> decodeArguments(final Predicate predicate) throws IOException {
+			final Term[] arguments = new Term[predicate.getArity()];
+			for (int i = 0; i < arguments.length; i++) {
+				arguments[i] = this.terms[decodeIndex(this.terms.length)];
+			}
+			return Arrays.asList(arguments);
+		}
+
+		private PositiveLiteral decodePositiveLiteral() throws IOException {
+			final Predicate predicate = decodePredicate();
+			return new PositiveLiteralImpl(predicate, decodeArguments(predicate));
+		}
+
+		@SuppressWarnings("unchecked")
+		private <T extends Literal> Conjunction<T> decodeConjunction() throws IOException {
+			final int count = this.input.readVarInt();
+			final List<T> literals = new ArrayList<>(count);
+			for (int i = 0; i < count; i++) {
+				final boolean negated = this.input.readByte() != 0;
+				final Predicate predicate = decodePredicate();
+				final List<Term> arguments = decodeArguments(predicate);
+				literals.add((T) (negated ? new NegativeLiteralImpl(predicate, arguments)
+						: new PositiveLiteralImpl(predicate, arguments)));
+			}
+			return new ConjunctionImpl<>(literals);
+		}
+
+		private DataSource decodeDataSource() throws IOException {
+			final byte type = this.input.readByte();
+			switch (type) {
+			case CSV_FILE_DATA_SOURCE:
+				return new CsvFileDataSource(decodeString());
+			case RDF_FILE_DATA_SOURCE:
+				return new RdfFileDataSource(decodeString());
+			case SPARQL_QUERY_RESULT_DATA_SOURCE:
+				return new SparqlQueryResultDataSource(new URL(decodeString()), decodeString(), decodeString());
+			case STREAMING_CSV_FILE_DATA_SOURCE:
+				final String path = decodeString();
+				final int[] columns = new int[this.input.readVarInt()];
+				final ColumnType[] columnTypes = new ColumnType[columns.length];
+				for (int i = 0; i < columns.length; i++) {
+					columns[i] = this.input.readVarInt();
+					columnTypes[i] = ColumnType.values()[this.input.readByte()];
+				}
+				return new StreamingCsvFileDataSource(path, columns, columnTypes, null);
+			default:
+				throw new IOException("Invalid data source type " + type + " in knowledge base snapshot.");
+			}
+		}
+
+		private Integer decodeBound() throws IOException {
+			return this.input.readByte() == 0 ? null : this.input.readInt();
+		}
+
+		/**
+		 * Reads the index of an ASP rule. Rules that are created later, e.g., by the
+		 * parser, must not reuse the index, which names the helper predicates of the
+		 * rule, so {@link Expressions#ruleCounter} is moved past it.
+		 */
+		private int decodeRuleIdx() throws IOException {
+			final int ruleIdx = this.input.readInt();
+			if (Expressions.ruleCounter <= ruleIdx) {
+				Expressions.ruleCounter = ruleIdx + 1;
+			}
+			return ruleIdx;
+		}
+
+		private Statement decodeStatement() throws IOException {
+			final byte type = this.input.readByte();
+			switch (type) {
+			case FACT:
+				final Predicate predicate = decodePredicate();
+				return new FactImpl(predicate, decodeArguments(predicate));
+			case RULE:
+				final Conjunction<PositiveLiteral> head = decodeConjunction();
+				return new RuleImpl(head, decodeConjunction());
+			case DATA_SOURCE_DECLARATION:
+				return new DataSourceDeclarationImpl(decodePredicate(), decodeDataSource());
+			case DISJUNCTIVE_RULE:
+				final Conjunction<PositiveLiteral> disjunctiveHead = decodeConjunction();
+				final Conjunction<Literal> disjunctiveBody = decodeConjunction();
+				return new DisjunctiveRuleImpl(disjunctiveHead, disjunctiveBody, decodeRuleIdx());
+			case CONSTRAINT:
+				final Conjunction<Literal> constraintBody = decodeConjunction();
+				return new ConstraintImpl(constraintBody, decodeRuleIdx());
+			case CHOICE_RULE:
+				final int elementCount = this.input.readVarInt();
+				final List<ChoiceElement> choiceElements = new ArrayList<>(elementCount);
+				for (int i = 0; i < elementCount; i++) {
+					final PositiveLiteral literal = decodePositiveLiteral();
+					choiceElements.add(new ChoiceElementImpl(literal, decodeConjunction()));
+				}
+				final Conjunction<Literal> choiceBody = decodeConjunction();
+				final Integer lowerBound = decodeBound();
+				final Integer upperBound = decodeBound();
+				return new ChoiceRuleImpl(choiceElements, choiceBody, lowerBound, upperBound, decodeRuleIdx());
+			case SHOW_STATEMENT:
+				return new ShowStatementImpl(decodePredicate());
+			default:
+				throw new IOException("Invalid statement type " + type + " in knowledge base snapshot.");
+			}
+		}
+	}
+
+	/**
+	 * Writes to a file through memory-mapped windows. The file is truncated to the
+	 * written size when closed.
+	 */
+	private static final class MappedOutput implements Closeable {
+
+		private final FileChannel channel;
+		private final int windowSize;
+		private MappedByteBuffer window;
+		private long windowStart;
+
+		MappedOutput(final Path path, final int windowSize) throws IOException {
+			this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+					StandardOpenOption.READ, StandardOpenOption.WRITE);
+			this.windowSize = windowSize;
+			try {
+				this.window = this.channel.map(MapMode.READ_WRITE, 0, windowSize);
+			} catch (final IOException e) {
+				this.channel.close();
+				throw e;
+			}
+		}
+
+		private void ensure(final int count) throws IOException {
+			if (this.window.remaining() < count) {
+				this.windowStart += this.window.position();
+				this.window = this.channel.map(MapMode.READ_WRITE, this.windowStart, Math.max(this.windowSize, count));
+			}
+		}
+
+		void writeByte(final int value) throws IOException {
+			ensure(1);
+			this.window.put((byte) value);
+		}
+
+		void writeInt(final int value) throws IOException {
+			ensure(4);
+			this.window.putInt(value);
+		}
+
+		void writeVarInt(int value) throws IOException {
+			ensure(5);
+			while ((value & ~0x7f) != 0) {
+				this.window.put((byte) ((value & 0x7f) | 0x80));
+				value >>>= 7;
+			}
+			this.window.put((byte) value);
+		}
+
+		void writeString(final String string) throws IOException {
+			final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+			writeVarInt(bytes.length);
+			ensure(bytes.length);
+			this.window.put(bytes);
+		}
+
+		@Override
+		public void close() throws IOException {
+			try {
+				final long size = this.windowStart + this.window.position();
+				this.window.force();
+				this.window = null;
+				this.channel.truncate(size);
+			} finally {
+				this.channel.close();
+			}
+		}
+	}
+
+	/**
+	 * Reads from a file through memory-mapped windows.
+	 */
+	private static final class MappedInput implements Closeable {
+
+		private final FileChannel channel;
+		private final int windowSize;
+		final long size;
+		private MappedByteBuffer window;
+		private long windowStart;
+
+		MappedInput(final Path path, final int windowSize) throws IOException {
+			this.channel = FileChannel.open(path, StandardOpenOption.READ);
+			this.windowSize = windowSize;
+			try {
+				this.size = this.channel.size();
+				this.window = this.channel.map(MapMode.READ_ONLY, 0, Math.min(windowSize, this.size));
+			} catch (final IOException e) {
+				this.channel.close();
+				throw e;
+			}
+		}
+
+		private void ensure(final int count) throws IOException {
+			if (this.window.remaining() < count) {
+				this.windowStart += this.window.position();
+				if (this.size - this.windowStart < count) {
+					throw new IOException("Knowledge base snapshot is truncated.");
+				}
+				this.window = this.channel.map(MapMode.READ_ONLY, this.windowStart,
+						Math.min(Math.max(this.windowSize, count), this.size - this.windowStart));
+			}
+		}
+
+		byte readByte() throws IOException {
+			ensure(1);
+			return this.window.get();
+		}
+
+		int readInt() throws IOException {
+			ensure(4);
+			return this.window.getInt();
+		}
+
+		int readVarInt() throws IOException {
+			int value = 0;
+			for (int shift = 0; shift < 32; shift += 7) {
+				final byte b = readByte();
+				value |= (b & 0x7f) << shift;
+				if (b >= 0) {
+					return value;
+				}
+			}
+			throw new IOException("Invalid variable-length integer in knowledge base snapshot.");
+		}
+
+		String readString() throws IOException {
+			final int length = readVarInt();
+			ensure(length);
+			final byte[] bytes = new byte[length];
+			this.window.get(bytes);
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+
+		@Override
+		public void close() throws IOException {
+			this.window = null;
+			this.channel.close();
+		}
+	}
+
+}
@@ -44,7 +44,7 @@ import org.semanticweb.rulewerk.core.model.api.Term;
 import org.semanticweb.rulewerk.core.model.api.TermType;
 import org.semanticweb.rulewerk.core.model.api.Variable;
 import org.semanticweb.rulewerk.core.model.implementation.Expressions;
-import org.semanticweb.rulewerk.core.model.implementation.Serializer;
+import org.semanticweb.rulewerk.core.model.implementation.StatementWriter;
 
 /**
  * Interface that exposes the (existential) rule reasoning capabilities of a
@@ -126,7 +126,8 @@ public interface Reasoner extends AutoCloseable, KnowledgeBaseListener {
 
 	/**
 	 * Exports all the (explicit and implicit) facts inferred during reasoning of
-	 * the knowledge base to an OutputStream.
+	 * the knowledge base to an OutputStream, encoded in UTF-8. Before version
+	 * 0.7.0, the facts were encoded in the platform's default charset.
 	 *
 	 * @param stream an OutputStream for the facts to be written to.
 	 * @return the correctness of the query answers, depending on the state of the
@@ -134,10 +135,27 @@ public interface Reasoner extends AutoCloseable, KnowledgeBaseListener {
 	 * @throws IOException
 	 */
 	default Correctness writeInferences(OutputStream stream) throws IOException {
+		return writeInferences(stream, false);
+	}
+
+	/**
+	 * Exports all the (explicit and implicit) facts inferred during reasoning of
+	 * the knowledge base to an OutputStream, encoded in UTF-8 and optionally
+	 * compressed with gzip. The stream is not closed.
+	 *
+	 * @param stream   an OutputStream for the facts to be written to.
+	 * @param compress whether to compress the output with gzip
+	 * @return the correctness of the query answers, depending on the state of the
+	 *         reasoning (materialisation) and its {@link KnowledgeBase}.
+	 * @throws IOException
+	 */
+	default Correctness writeInferences(OutputStream stream, boolean compress) throws IOException {
 		final KnowledgeBase knowledgeBase = getKnowledgeBase();
-		stream.write(Serializer.getBaseAndPrefixDeclarations(knowledgeBase).getBytes());
-		return forEachInference((predicate, termList) -> stream
-				.write(Serializer.getFactString(predicate, termList, knowledgeBase::unresolveAbsoluteIri).getBytes()));
+		final StatementWriter writer = new StatementWriter(stream, knowledgeBase::unresolveAbsoluteIri, compress);
+		writer.writeBaseAndPrefixDeclarations(knowledgeBase);
+		final Correctness correctness = forEachInference(writer::writeFact);
+		writer.finish();
+		return correctness;
 	}
 
 	/**
@@ -163,7 +181,8 @@ public interface Reasoner extends AutoCloseable, KnowledgeBaseListener {
 
 	/**
 	 * Exports all the (explicit and implicit) facts inferred during
-	 * reasoning of the knowledge base to a desired file.
+	 * reasoning of the knowledge base to a desired file. Files with the
+	 * extension {@code .gz} are compressed with gzip.
 	 *
 	 * @param filePath a String of the file path for the facts to be written to.
 	 * @return the correctness of the query answers, depending on the state of the
@@ -173,7 +192,7 @@ public interface Reasoner extends AutoCloseable, KnowledgeBaseListener {
 	 */
 	default Correctness writeInferences(String filePath) throws FileNotFoundException, IOException {
 		try (OutputStream stream = new FileOutputStream(filePath)) {
-			return writeInferences(stream);
+			return writeInferences(stream, filePath.endsWith(".gz"));
 		}
 	}
 
@@ -496,6 +515,28 @@ public interface Reasoner extends AutoCloseable, KnowledgeBaseListener {
 	 */
 	QueryAnswerCount countQueryAnswers(PositiveLiteral query, boolean includeNulls);
 
+	/**
+	 * Evaluates an atomic ({@code query}) like
+	 * {@link Reasoner#countQueryAnswers(PositiveLiteral, boolean)}, but counts the
+	 * distinct projections of its answers onto the given variables. For example,
+	 * projecting the answers to {@code p(?X, ?Y)} onto {@code ?X} counts the
+	 * distinct terms in the first position of {@code p} facts. Answers are
+	 * compared by the ids of their terms in the reasoner, without constructing
+	 * {@link Term} objects.
+	 *
+	 * @param query        a {@link PositiveLiteral} representing the query to be
+	 *                     answered.
+	 * @param projection   the variables to project the answers onto; each of them
+	 *                     must occur in {@code query}.
+	 * @param includeNulls if {@code true}, facts with {@link TermType#NAMED_NULL}
+	 *                     terms will be counted. Otherwise, facts with
+	 *                     {@link TermType#NAMED_NULL} terms will be ignored.
+	 *
+	 * @return a {@link QueryAnswerCount} object that contains the query answers
+	 *         Correctness and the number of distinct projections of query answers.
+	 */
+	QueryAnswerCount countQueryAnswers(PositiveLiteral query, List<Variable> projection, boolean includeNulls);
+
 	// TODO add examples to query javadoc
 	/**
 	 * Evaluates an atomic query ({@code query}) on the implicit facts loaded into
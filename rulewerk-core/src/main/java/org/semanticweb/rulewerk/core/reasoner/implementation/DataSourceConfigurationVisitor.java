@@ -37,6 +37,13 @@ public interface DataSourceConfigurationVisitor {
 	 */
 	public void visit(CsvFileDataSource dataSource) throws IOException;
 
+	/**
+	 * Configure the reasoner for a {@link StreamingCsvFileDataSource}.
+	 *
+	 * @param dataSource the data source to configure.
+	 */
+	public void visit(StreamingCsvFileDataSource dataSource);
+
 	/**
 	 * Configure the reasoner for a {@link RdfFileDataSource}.
 	 *
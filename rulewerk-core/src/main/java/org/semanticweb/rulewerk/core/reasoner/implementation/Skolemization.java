@@ -20,7 +20,6 @@ package org.semanticweb.rulewerk.core.reasoner.implementation;
  * #L%
  */
 
-import java.io.ByteArrayOutputStream;
 import java.util.UUID;
 
 import org.semanticweb.rulewerk.core.model.api.NamedNull;
@@ -32,13 +31,48 @@ import org.semanticweb.rulewerk.core.model.implementation.RenamedNamedNull;
  * same instance, but to two different instances of {@link NamedNull} when
  * skolemized using different instances of {@link Skolemization}.
  *
+ * Names are mapped to UUIDs by a 128-bit hash (following MurmurHash3) that is
+ * keyed with a random seed of the instance. The hash is not cryptographic, but
+ * with 122 bits of the hash in each UUID, collisions are as unlikely as for
+ * the name-based UUIDs used before. Since names of named nulls tend to be
+ * repeated in close succession, recently skolemized names are kept in a small
+ * table. Instances are thread-safe.
+ *
  * @author Maximilian Marx
  */
 public class Skolemization {
+
+	private static final long C1 = 0x87c37b91114253d5L;
+	private static final long C2 = 0x4cf5ad432745937fL;
+
 	/**
-	 * The namespace to use for skolemizing named null names.
+	 * Number of recently skolemized names that are remembered; a power of two.
 	 */
-	private final byte[] namedNullNamespace = UUID.randomUUID().toString().getBytes();
+	static final int CACHE_SIZE = 1 << 10;
+
+	/**
+	 * The seed to use for skolemizing named null names.
+	 */
+	private final long seed1;
+	private final long seed2;
+
+	private final CacheEntry[] cache = new CacheEntry[CACHE_SIZE];
+
+	private static final class CacheEntry {
+		final String name;
+		final RenamedNamedNull namedNull;
+
+		CacheEntry(final String name, final RenamedNamedNull namedNull) {
+			this.name = name;
+			this.namedNull = namedNull;
+		}
+	}
+
+	public Skolemization() {
+		final UUID namespace = UUID.randomUUID();
+		this.seed1 = namespace.getMostSignificantBits();
+		this.seed2 = namespace.getLeastSignificantBits();
+	}
 
 	/**
 	 * Skolemize a named null name. The same {@code name} will map to a
@@ -49,10 +83,81 @@ public class Skolemization {
 	 *         to this instance and {@code name}.
 	 */
 	public RenamedNamedNull skolemizeNamedNull(String name) {
-		byte[] nameBytes = name.getBytes();
-		ByteArrayOutputStream stream = new ByteArrayOutputStream();
-		stream.write(namedNullNamespace, 0, namedNullNamespace.length);
-		stream.write(nameBytes, 0, nameBytes.length);
-		return new RenamedNamedNull(UUID.nameUUIDFromBytes(stream.toByteArray()));
+		final int slot = name.hashCode() & (CACHE_SIZE - 1);
+		// entries are immutable, so racing threads at worst miss the cache
+		final CacheEntry entry = this.cache[slot];
+		if (entry != null && entry.name.equals(name)) {
+			return entry.namedNull;
+		}
+		final RenamedNamedNull namedNull = new RenamedNamedNull(skolemizeName(name));
+		this.cache[slot] = new CacheEntry(name, namedNull);
+		return namedNull;
+	}
+
+	/**
+	 * Computes the UUID for a named null name, hashing its characters directly.
+	 * The UUID is marked as a custom (version 8) UUID.
+	 */
+	UUID skolemizeName(final String name) {
+		long h1 = this.seed1;
+		long h2 = this.seed2;
+		final int length = name.length();
+
+		int i = 0;
+		for (; i + 8 <= length; i += 8) {
+			h1 ^= mixK1(pack(name, i, 4));
+			h1 = Long.rotateLeft(h1, 27) + h2;
+			h1 = h1 * 5 + 0x52dce729;
+			h2 ^= mixK2(pack(name, i + 4, 4));
+			h2 = Long.rotateLeft(h2, 31) + h1;
+			h2 = h2 * 5 + 0x38495ab5;
+		}
+		final int remaining = length - i;
+		if (remaining > 4) {
+			h2 ^= mixK2(pack(name, i + 4, remaining - 4));
+		}
+		if (remaining > 0) {
+			h1 ^= mixK1(pack(name, i, Math.min(remaining, 4)));
+		}
+
+		h1 ^= length;
+		h2 ^= length;
+		h1 += h2;
+		h2 += h1;
+		h1 = fmix(h1);
+		h2 = fmix(h2);
+		h1 += h2;
+		h2 += h1;
+
+		return new UUID((h1 & ~0xf000L) | 0x8000L, (h2 & 0x3fffffffffffffffL) | 0x8000000000000000L);
+	}
+
+	private static long pack(final String name, final int from, final int count) {
+		long result = 0;
+		for (int j = 0; j < count; j++) {
+			result |= (long) name.charAt(from + j) << (16 * j);
+		}
+		return result;
+	}
+
+	private static long mixK1(long k1) {
+		k1 *= C1;
+		k1 = Long.rotateLeft(k1, 31);
+		return k1 * C2;
+	}
+
+	private static long mixK2(long k2) {
+		k2 *= C2;
+		k2 = Long.rotateLeft(k2, 33);
+		return k2 * C1;
+	}
+
+	private static long fmix(long k) {
+		k ^= k >>> 33;
+		k *= 0xff51afd7ed558ccdL;
+		k ^= k >>> 33;
+		k *= 0xc4ceb93fe53a87ceL;
+		k ^= k >>> 33;
+		return k;
 	}
 }
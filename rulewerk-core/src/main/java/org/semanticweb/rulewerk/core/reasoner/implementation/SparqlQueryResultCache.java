@@ -0,0 +1,357 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.Validate;
+import org.semanticweb.rulewerk.core.model.api.PrefixDeclarationRegistry;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An on-disk cache for the results of {@link SparqlQueryResultDataSource}s.
+ * Results are fetched from the endpoint in the SPARQL 1.1 TSV results format
+ * and stored as TSV files, named after a hash of the endpoint, the query
+ * variables and the query body, which can be loaded as
+ * {@link StreamingCsvFileDataSource}s. Results that are older than the
+ * time-to-live are still used, but refreshed on a background thread. When the
+ * cached files exceed the maximal size, the least recently fetched ones are
+ * deleted.
+ * <p>
+ * Terms are stored in the form of constant names in CSV files: IRIs in angle
+ * brackets, and literals with their datatype or language tag. Blank nodes are
+ * skolemized, and rows with unbound variables are skipped.
+ *
+ * @author Philipp Hanisch
+ *
+ */
+public class SparqlQueryResultCache implements Closeable {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(SparqlQueryResultCache.class);
+
+	private static final String EXTENSION = ".tsv";
+	private static final String TSV_RESULTS_MEDIA_TYPE = "text/tab-separated-values";
+
+	private static final Pattern INTEGER = Pattern.compile("[+-]?[0-9]+");
+	private static final Pattern DECIMAL = Pattern.compile("[+-]?[0-9]*\\.[0-9]+");
+	private static final Pattern DOUBLE = Pattern.compile("[+-]?([0-9]+\\.?[0-9]*|\\.[0-9]+)[eE][+-]?[0-9]+");
+
+	private final File directory;
+	private final long timeToLiveMillis;
+	private final long maxSizeBytes;
+
+	private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+	private final ExecutorService refresher = Executors.newSingleThreadExecutor(runnable -> {
+		final Thread thread = new Thread(runnable, "SparqlQueryResultCache refresher");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	/**
+	 * Constructor.
+	 *
+	 * @param directory        the directory for cached results; created if it
+	 *                         does not exist
+	 * @param timeToLiveMillis time after which cached results are refreshed
+	 * @param maxSizeBytes     maximal total size of the cached results
+	 * @throws IOException if the directory cannot be created
+	 */
+	public SparqlQueryResultCache(final File directory, final long timeToLiveMillis, final long maxSizeBytes)
+			throws IOException {
+		Validate.notNull(directory, "Cache directory cannot be null.");
+		Validate.isTrue(timeToLiveMillis >= 0, "Time to live cannot be negative.");
+		Validate.isTrue(maxSizeBytes >= 0, "Maximal cache size cannot be negative.");
+		Files.createDirectories(directory.toPath());
+		this.directory = directory;
+		this.timeToLiveMillis = timeToLiveMillis;
+		this.maxSizeBytes = maxSizeBytes;
+	}
+
+	/**
+	 * Returns a data source for the cached results of the given query, fetching
+	 * them if they are not cached yet. Expired results are returned as well, and
+	 * refreshed in the background.
+	 *
+	 * @param dataSource the SPARQL query
+	 * @return a data source for a TSV file with the results
+	 * @throws IOException if the results cannot be fetched or stored
+	 */
+	public StreamingCsvFileDataSource getDataSource(final SparqlQueryResultDataSource dataSource) throws IOException {
+		final File file = getFile(dataSource);
+		if (!file.exists()) {
+			fetch(dataSource, file);
+		} else if (System.currentTimeMillis() - file.lastModified() > this.timeToLiveMillis) {
+			refreshInBackground(dataSource, file);
+		}
+		final int[] columns = new int[dataSource.getRequiredArity().get()];
+		for (int i = 0; i < columns.length; i++) {
+			columns[i] = i;
+		}
+		return new StreamingCsvFileDataSource(file.getPath(), columns);
+	}
+
+	/**
+	 * @param dataSource the SPARQL query
+	 * @return the file for the cached results of the query
+	 */
+	public File getFile(final SparqlQueryResultDataSource dataSource) {
+		return new File(this.directory, getKey(dataSource) + EXTENSION);
+	}
+
+	static String getKey(final SparqlQueryResultDataSource dataSource) {
+		try {
+			final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			final String key = dataSource.getEndpoint() + "\n" + dataSource.getQueryVariables() + "\n"
+					+ dataSource.getQueryBody();
+			final StringBuilder hex = new StringBuilder();
+			for (final byte b : digest.digest(key.getBytes(StandardCharsets.UTF_8))) {
+				hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+			}
+			return hex.toString();
+		} catch (final NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not supported.", e);
+		}
+	}
+
+	private void refreshInBackground(final SparqlQueryResultDataSource dataSource, final File file) {
+		if (!this.refreshing.add(file.getName())) {
+			return;
+		}
+		this.refresher.execute(() -> {
+			try {
+				fetch(dataSource, file);
+			} catch (final IOException e) {
+				LOGGER.warn("Could not refresh cached results of {}: {}", dataSource, e.getMessage());
+			} finally {
+				this.refreshing.remove(file.getName());
+			}
+		});
+	}
+
+	/**
+	 * Fetches the results into a temporary file, which then replaces the cached
+	 * file, so that readers never see partial results.
+	 */
+	void fetch(final SparqlQueryResultDataSource dataSource, final File file) throws IOException {
+		LOGGER.info("Fetching results of {} ...", dataSource);
+		final File temporaryFile = File.createTempFile(file.getName(), ".part", this.directory);
+		try {
+			try (InputStream input = openResults(dataSource);
+					BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+					Writer writer = Files.newBufferedWriter(temporaryFile.toPath(), StandardCharsets.UTF_8)) {
+				convertResults(reader, writer, new Skolemization());
+			}
+			Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(temporaryFile.toPath());
+		}
+		evict(file);
+	}
+
+	/**
+	 * Opens the results of the query at the endpoint in the SPARQL TSV results
+	 * format.
+	 *
+	 * @param dataSource the SPARQL query
+	 * @return the results
+	 * @throws IOException if the endpoint cannot be queried
+	 */
+	protected InputStream openResults(final SparqlQueryResultDataSource dataSource) throws IOException {
+		final StringBuilder query = new StringBuilder("SELECT");
+		for (final String variable : dataSource.getQueryVariables().split(",")) {
+			query.append(" ?").append(variable);
+		}
+		query.append(" WHERE { ").append(dataSource.getQueryBody()).append(" }");
+
+		final URL url = new URL(dataSource.getEndpoint() + (dataSource.getEndpoint().getQuery() == null ? "?" : "&")
+				+ "query=" + URLEncoder.encode(query.toString(), "UTF-8"));
+		final HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+		connection.setRequestProperty("Accept", TSV_RESULTS_MEDIA_TYPE);
+		if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+			connection.disconnect();
+			throw new IOException("SPARQL endpoint " + dataSource.getEndpoint() + " responded with "
+					+ connection.getResponseCode() + " " + connection.getResponseMessage());
+		}
+		return connection.getInputStream();
+	}
+
+	/**
+	 * Converts SPARQL TSV results to the cached format, skipping the header and
+	 * rows with unbound variables.
+	 */
+	static void convertResults(final BufferedReader reader, final Writer writer, final Skolemization skolemization)
+			throws IOException {
+		final BufferedWriter output = new BufferedWriter(writer);
+		reader.readLine(); // skip the header
+		int lineNumber = 1;
+		String line;
+		while ((line = reader.readLine()) != null) {
+			lineNumber++;
+			if (line.isEmpty()) {
+				continue;
+			}
+			final String[] cells = line.split("\t", -1);
+			if (Arrays.stream(cells).anyMatch(String::isEmpty)) {
+				continue;
+			}
+			for (int i = 0; i < cells.length; i++) {
+				if (i > 0) {
+					output.write('\t');
+				}
+				output.write(toConstantName(cells[i], skolemization, lineNumber));
+			}
+			output.write('\n');
+		}
+		output.flush();
+	}
+
+	/**
+	 * Converts an RDF term in the syntax of SPARQL TSV results to a constant name.
+	 */
+	static String toConstantName(final String term, final Skolemization skolemization, final int lineNumber)
+			throws IOException {
+		final char first = term.charAt(0);
+		if (first == '<' && term.endsWith(">")) {
+			return term;
+		} else if (term.startsWith("_:")) {
+			return skolemization.skolemizeNamedNull(term.substring(2)).getName();
+		} else if (first == '"' || first == '\'') {
+			return toLiteralName(term, lineNumber);
+		} else if ("true".equals(term) || "false".equals(term)) {
+			return Expressions.makeDatatypeConstant(term, PrefixDeclarationRegistry.XSD + "boolean").getName();
+		} else if (INTEGER.matcher(term).matches()) {
+			return Expressions.makeDatatypeConstant(term, PrefixDeclarationRegistry.XSD_INTEGER).getName();
+		} else if (DECIMAL.matcher(term).matches()) {
+			return Expressions.makeDatatypeConstant(term, PrefixDeclarationRegistry.XSD_DECIMAL).getName();
+		} else if (DOUBLE.matcher(term).matches()) {
+			return Expressions.makeDatatypeConstant(term, PrefixDeclarationRegistry.XSD_DOUBLE).getName();
+		}
+		throw new IOException("Unsupported term in line " + lineNumber + " of SPARQL results: " + term);
+	}
+
+	private static String toLiteralName(final String term, final int lineNumber) throws IOException {
+		final char quote = term.charAt(0);
+		final StringBuilder value = new StringBuilder();
+		int i = 1;
+		for (; i < term.length() && term.charAt(i) != quote; i++) {
+			char c = term.charAt(i);
+			if (c == '\\' && i + 1 < term.length()) {
+				c = term.charAt(++i);
+				switch (c) {
+				case 't':
+					value.append('\t');
+					break;
+				case 'b':
+					value.append('\b');
+					break;
+				case 'n':
+					value.append('\n');
+					break;
+				case 'r':
+					value.append('\r');
+					break;
+				case 'f':
+					value.append('\f');
+					break;
+				case 'u':
+				case 'U':
+					final int digits = c == 'u' ? 4 : 8;
+					if (i + digits >= term.length()) {
+						throw new IOException("Invalid escape in line " + lineNumber + " of SPARQL results: " + term);
+					}
+					value.appendCodePoint(Integer.parseInt(term.substring(i + 1, i + 1 + digits), 16));
+					i += digits;
+					break;
+				default:
+					value.append(c);
+				}
+			} else {
+				value.append(c);
+			}
+		}
+		if (i >= term.length()) {
+			throw new IOException("Unterminated literal in line " + lineNumber + " of SPARQL results: " + term);
+		}
+		final String suffix = term.substring(i + 1);
+		if (suffix.isEmpty()) {
+			return Expressions.makeDatatypeConstant(value.toString(), PrefixDeclarationRegistry.XSD_STRING).getName();
+		} else if (suffix.startsWith("@")) {
+			return Expressions.makeLanguageStringConstant(value.toString(), suffix.substring(1)).getName();
+		} else if (suffix.startsWith("^^<") && suffix.endsWith(">")) {
+			return Expressions.makeDatatypeConstant(value.toString(), suffix.substring(3, suffix.length() - 1))
+					.getName();
+		}
+		throw new IOException("Unsupported literal in line " + lineNumber + " of SPARQL results: " + term);
+	}
+
+	/**
+	 * Deletes the least recently fetched results until the cache fits into its
+	 * maximal size. The given file is kept.
+	 */
+	void evict(final File keep) {
+		final File[] files = this.directory.listFiles((directory, name) -> name.endsWith(EXTENSION));
+		if (files == null) {
+			return;
+		}
+		long size = Arrays.stream(files).mapToLong(File::length).sum();
+		Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+		for (final File file : files) {
+			if (size <= this.maxSizeBytes) {
+				break;
+			}
+			final long length = file.length();
+			if (!file.equals(keep) && file.delete()) {
+				LOGGER.info("Evicted cached SPARQL results {}.", file);
+				size -= length;
+			}
+		}
+	}
+
+	@Override
+	public void close() {
+		this.refresher.shutdownNow();
+	}
+}
@@ -0,0 +1,384 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.lang3.Validate;
+import org.semanticweb.rulewerk.core.model.api.PrefixDeclarationRegistry;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+
+/**
+ * A {@code StreamingCsvFileDataSource} provides selected columns of a CSV file
+ * (extension {@code .csv}) or TSV file (extension {@code .tsv}) as fact tuples.
+ * Unlike {@link CsvFileDataSource}, whose file is loaded by the reasoner as a
+ * whole, the file is read in Java: lines are read, decompressed if the file is
+ * gzipped ({@code .csv.gz}, {@code .tsv.gz}), filtered and projected to the
+ * selected columns on a background thread, and handed to the reasoner in
+ * batches of bounded size. Only the selected columns of accepted rows are kept
+ * in memory.
+ * <p>
+ * Lines are split at each comma (tab for TSV files), without any handling of
+ * quotes, and empty lines are skipped. Cells of columns of type
+ * {@link ColumnType#ABSTRACT} are used as they are, like the cells of a
+ * {@link CsvFileDataSource}. Cells of the other types are turned into literals
+ * of the corresponding XML Schema datatype; numbers are trimmed and validated.
+ *
+ * @author Philipp Hanisch
+ *
+ */
+public class StreamingCsvFileDataSource extends FileDataSource {
+
+	/**
+	 * Maximal number of tuples in a batch.
+	 */
+	static final int BATCH_SIZE = 1 << 12;
+
+	/**
+	 * Maximal number of batches that are read ahead of the reasoner.
+	 */
+	static final int QUEUE_CAPACITY = 4;
+
+	private static final Iterable<String> possibleExtensions = Arrays.asList(".csv", ".csv.gz", ".tsv", ".tsv.gz");
+
+	private static final Object END_OF_INPUT = new Object();
+
+	/**
+	 * The interpretation of the cells of a column.
+	 */
+	public enum ColumnType {
+		/**
+		 * The cell is the name of a constant, as in a {@link CsvFileDataSource}.
+		 */
+		ABSTRACT,
+		/**
+		 * The cell is the lexical value of an {@code xsd:string}.
+		 */
+		STRING,
+		/**
+		 * The cell is the lexical value of an {@code xsd:integer}.
+		 */
+		INTEGER,
+		/**
+		 * The cell is the lexical value of an {@code xsd:decimal}.
+		 */
+		DECIMAL,
+		/**
+		 * The cell is the lexical value of an {@code xsd:double}.
+		 */
+		DOUBLE
+	}
+
+	/**
+	 * A condition on the rows of the file.
+	 */
+	@FunctionalInterface
+	public interface RowFilter {
+		/**
+		 * @param row all cells of a row, before projection
+		 * @return true if the row is to be loaded
+		 */
+		boolean accept(String[] row);
+	}
+
+	private final int[] columns;
+	private final ColumnType[] columnTypes;
+	private final RowFilter rowFilter;
+	private final char delimiter;
+	private final int requiredCells;
+
+	/**
+	 * Constructor for a data source that loads the given columns as abstract
+	 * constants.
+	 *
+	 * @param csvFile path to a file of a {@code .csv}, {@code .csv.gz},
+	 *                {@code .tsv} or {@code .tsv.gz} extension
+	 * @param columns the zero-based indices of the columns to load, in the order
+	 *                of the tuple positions
+	 * @throws IOException              if the path of the given {@code csvFile} is
+	 *                                  invalid.
+	 * @throws IllegalArgumentException if the extension of the given
+	 *                                  {@code csvFile} is not supported, or no
+	 *                                  column or a negative column index is given.
+	 */
+	public StreamingCsvFileDataSource(final String csvFile, final int... columns) throws IOException {
+		this(csvFile, columns, null, null);
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param csvFile     path to a file of a {@code .csv}, {@code .csv.gz},
+	 *                    {@code .tsv} or {@code .tsv.gz} extension
+	 * @param columns     the zero-based indices of the columns to load, in the
+	 *                    order of the tuple positions
+	 * @param columnTypes the types of the loaded columns, or null if all are
+	 *                    {@link ColumnType#ABSTRACT}
+	 * @param rowFilter   condition on the rows to load, or null if all rows are
+	 *                    loaded
+	 * @throws IOException              if the path of the given {@code csvFile} is
+	 *                                  invalid.
+	 * @throws IllegalArgumentException if the extension of the given
+	 *                                  {@code csvFile} is not supported, no column
+	 *                                  or a negative column index is given, or
+	 *                                  the number of column types does not match.
+	 */
+	public StreamingCsvFileDataSource(final String csvFile, final int[] columns, final ColumnType[] columnTypes,
+			final RowFilter rowFilter) throws IOException {
+		super(csvFile, possibleExtensions);
+		Validate.isTrue(columns.length > 0, "At least one column must be loaded.");
+		int maxColumn = 0;
+		for (final int column : columns) {
+			Validate.isTrue(column >= 0, "Column indices cannot be negative.");
+			maxColumn = Math.max(maxColumn, column);
+		}
+		if (columnTypes != null) {
+			Validate.isTrue(columnTypes.length == columns.length, "Expected %d column types.", columns.length);
+			Validate.noNullElements(columnTypes, "Column types cannot be null.");
+			this.columnTypes = columnTypes.clone();
+		} else {
+			this.columnTypes = new ColumnType[columns.length];
+			Arrays.fill(this.columnTypes, ColumnType.ABSTRACT);
+		}
+		this.columns = columns.clone();
+		this.rowFilter = rowFilter;
+		this.delimiter = getExtension().startsWith(".tsv") ? '\t' : ',';
+		this.requiredCells = maxColumn + 1;
+	}
+
+	/**
+	 * @return the number of terms in the tuples of this data source
+	 */
+	public int getArity() {
+		return this.columns.length;
+	}
+
+	/**
+	 * @return the zero-based indices of the loaded columns
+	 */
+	public int[] getColumns() {
+		return this.columns.clone();
+	}
+
+	/**
+	 * @return the types of the loaded columns
+	 */
+	public ColumnType[] getColumnTypes() {
+		return this.columnTypes.clone();
+	}
+
+	/**
+	 * @return the condition on loaded rows, or null if all rows are loaded
+	 */
+	public RowFilter getRowFilter() {
+		return this.rowFilter;
+	}
+
+	/**
+	 * Reads the file and passes the tuples to the given consumer, in batches of at
+	 * most {@link #BATCH_SIZE} tuples. The file is read on a background thread
+	 * that stays at most {@link #QUEUE_CAPACITY} batches ahead of the consumer.
+	 * Each tuple contains the names of the constants in the selected columns.
+	 *
+	 * @param consumer receives the batches on the calling thread
+	 * @throws IOException if the file cannot be read, or a row is too short or
+	 *                     contains an invalid literal
+	 */
+	public void readBatches(final Consumer<String[][]> consumer) throws IOException {
+		final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+		final Thread reader = new Thread(() -> readInto(queue), "StreamingCsvFileDataSource reader");
+		reader.setDaemon(true);
+		reader.start();
+		try {
+			while (true) {
+				final Object next = queue.take();
+				if (next == END_OF_INPUT) {
+					return;
+				} else if (next instanceof IOException) {
+					throw new IOException("Error reading " + getPath(), (IOException) next);
+				}
+				consumer.accept((String[][]) next);
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while reading " + getPath(), e);
+		} finally {
+			reader.interrupt();
+		}
+	}
+
+	private void readInto(final BlockingQueue<Object> queue) {
+		try {
+			try (BufferedReader reader = openReader()) {
+				String[][] batch = new String[BATCH_SIZE][];
+				int size = 0;
+				int lineNumber = 0;
+				String line;
+				while ((line = reader.readLine()) != null) {
+					lineNumber++;
+					if (line.isEmpty()) {
+						continue;
+					}
+					final String[] tuple = readTuple(line, lineNumber);
+					if (tuple == null) {
+						continue;
+					}
+					batch[size++] = tuple;
+					if (size == BATCH_SIZE) {
+						queue.put(batch);
+						batch = new String[BATCH_SIZE][];
+						size = 0;
+					}
+				}
+				if (size > 0) {
+					queue.put(Arrays.copyOf(batch, size));
+				}
+			} catch (final IOException e) {
+				queue.put(e);
+				return;
+			}
+			queue.put(END_OF_INPUT);
+		} catch (final InterruptedException e) {
+			// the consumer has stopped reading
+		}
+	}
+
+	private BufferedReader openReader() throws IOException {
+		InputStream stream = new FileInputStream(getFile());
+		if (getExtension().endsWith(".gz")) {
+			stream = new GZIPInputStream(stream, 1 << 16);
+		}
+		return new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8), 1 << 16);
+	}
+
+	/**
+	 * Splits, filters and projects a line.
+	 *
+	 * @return the tuple, or null if the row is filtered out
+	 */
+	String[] readTuple(final String line, final int lineNumber) throws IOException {
+		final String[] cells = split(line, this.rowFilter == null ? this.requiredCells + 1 : Integer.MAX_VALUE);
+		if (cells.length < this.requiredCells) {
+			throw new IOException(
+					"Line " + lineNumber + " has " + cells.length + " columns, expected at least " + this.requiredCells);
+		}
+		if (this.rowFilter != null && !this.rowFilter.accept(cells)) {
+			return null;
+		}
+		final String[] tuple = new String[this.columns.length];
+		for (int i = 0; i < this.columns.length; i++) {
+			tuple[i] = toConstantName(cells[this.columns[i]], this.columnTypes[i], lineNumber);
+		}
+		return tuple;
+	}
+
+	/**
+	 * Splits a line at the delimiter into at most {@code limit} cells; the last
+	 * cell is not split further.
+	 */
+	private String[] split(final String line, final int limit) {
+		int count = 1;
+		for (int i = line.indexOf(this.delimiter); i >= 0 && count < limit; i = line.indexOf(this.delimiter, i + 1)) {
+			count++;
+		}
+		final String[] cells = new String[count];
+		int start = 0;
+		for (int i = 0; i < count - 1; i++) {
+			final int end = line.indexOf(this.delimiter, start);
+			cells[i] = line.substring(start, end);
+			start = end + 1;
+		}
+		cells[count - 1] = line.substring(start);
+		return cells;
+	}
+
+	private static String toConstantName(final String cell, final ColumnType type, final int lineNumber)
+			throws IOException {
+		try {
+			switch (type) {
+			case STRING:
+				return Expressions.makeDatatypeConstant(cell, PrefixDeclarationRegistry.XSD_STRING).getName();
+			case INTEGER:
+				return Expressions.makeDatatypeConstant(new BigInteger(cell.trim()).toString(),
+						PrefixDeclarationRegistry.XSD_INTEGER).getName();
+			case DECIMAL:
+				return Expressions.makeDatatypeConstant(new BigDecimal(cell.trim()).toPlainString(),
+						PrefixDeclarationRegistry.XSD_DECIMAL).getName();
+			case DOUBLE:
+				return Expressions.makeDatatypeConstant(Double.toString(Double.parseDouble(cell.trim())),
+						PrefixDeclarationRegistry.XSD_DOUBLE).getName();
+			default:
+				return cell;
+			}
+		} catch (final NumberFormatException e) {
+			throw new IOException("Line " + lineNumber + " contains an invalid " + type + " value: " + cell, e);
+		}
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = super.hashCode();
+		result = prime * result + Arrays.hashCode(this.columns);
+		result = prime * result + Arrays.hashCode(this.columnTypes);
+		result = prime * result + (this.rowFilter == null ? 0 : this.rowFilter.hashCode());
+		return result;
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (!super.equals(obj) || obj.getClass() != getClass()) {
+			return false;
+		}
+		final StreamingCsvFileDataSource other = (StreamingCsvFileDataSource) obj;
+		return Arrays.equals(this.columns, other.columns) && Arrays.equals(this.columnTypes, other.columnTypes)
+				&& (this.rowFilter == null ? other.rowFilter == null : this.rowFilter.equals(other.rowFilter));
+	}
+
+	@Override
+	public String toString() {
+		return "StreamingCsvFileDataSource [csvFile=" + getFile() + ", columns=" + Arrays.toString(this.columns)
+				+ ", columnTypes=" + Arrays.toString(this.columnTypes) + "]";
+	}
+
+	@Override
+	public String getSyntacticRepresentation() {
+		return "This StreamingCsvFileDataSource loads columns " + Arrays.toString(this.columns) + " of " + getPath()
+				+ ".";
+	}
+
+	@Override
+	public void accept(final DataSourceConfigurationVisitor visitor) {
+		visitor.visit(this);
+	}
+}
@@ -0,0 +1,215 @@
+package org.semanticweb.rulewerk.core.model;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.semanticweb.rulewerk.core.model.api.ChoiceElement;
+import org.semanticweb.rulewerk.core.model.api.Conjunction;
+import org.semanticweb.rulewerk.core.model.api.Constant;
+import org.semanticweb.rulewerk.core.model.api.Literal;
+import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.api.Variable;
+import org.semanticweb.rulewerk.core.model.implementation.ChoiceElementImpl;
+import org.semanticweb.rulewerk.core.model.implementation.ChoiceRuleImpl;
+import org.semanticweb.rulewerk.core.model.implementation.ConjunctionImpl;
+import org.semanticweb.rulewerk.core.model.implementation.ConstraintImpl;
+import org.semanticweb.rulewerk.core.model.implementation.DisjunctiveRuleImpl;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+
+public class AspRuleImplTest {
+
+	final Variable x = Expressions.makeUniversalVariable("X");
+	final Variable y = Expressions.makeUniversalVariable("Y");
+	final Constant c = Expressions.makeAbstractConstant("c");
+
+	final PositiveLiteral pxc = Expressions.makePositiveLiteral("p", this.x, this.c);
+	final PositiveLiteral qx = Expressions.makePositiveLiteral("q", this.x);
+	final PositiveLiteral rx = Expressions.makePositiveLiteral("r", this.x);
+	final PositiveLiteral sxy = Expressions.makePositiveLiteral("s", this.x, this.y);
+	final Literal notTy = Expressions.makeNegativeLiteral("t", this.y);
+
+	private Conjunction<Literal> makeBody(final Literal... literals) {
+		return new ConjunctionImpl<>(Arrays.asList(literals));
+	}
+
+	private Conjunction<PositiveLiteral> makeHead(final PositiveLiteral... literals) {
+		return new ConjunctionImpl<>(Arrays.asList(literals));
+	}
+
+	/**
+	 * { q(X) : s(X, Y), ~t(Y); r(X) } :- p(X, c)
+	 */
+	private ChoiceRuleImpl makeChoiceRule(final int lowerBound, final int upperBound, final int ruleIdx) {
+		final List<ChoiceElement> choiceElements = new ArrayList<>();
+		choiceElements.add(new ChoiceElementImpl(this.qx, makeBody(this.sxy, this.notTy)));
+		choiceElements.add(new ChoiceElementImpl(this.rx, makeBody()));
+		return new ChoiceRuleImpl(choiceElements, makeBody(this.pxc), lowerBound, upperBound, ruleIdx);
+	}
+
+	@Test
+	public void conjunction_equalsAndHashCode() {
+		final Conjunction<Literal> conjunction1 = makeBody(this.pxc, this.notTy);
+		final Conjunction<Literal> conjunction2 = makeBody(this.pxc, this.notTy);
+		final Conjunction<Literal> conjunction3 = makeBody(this.notTy, this.pxc);
+
+		final int hash = conjunction1.hashCode();
+		assertEquals(hash, conjunction1.hashCode());
+		assertEquals(conjunction1, conjunction2);
+		assertEquals(conjunction2, conjunction1);
+		assertEquals(hash, conjunction2.hashCode());
+		assertNotEquals(conjunction1, conjunction3);
+		assertNotEquals(conjunction3, conjunction1);
+
+		// other implementations are compared literal by literal
+		@SuppressWarnings("unchecked")
+		final Conjunction<Literal> other = mock(Conjunction.class);
+		when(other.getLiterals()).thenReturn(Arrays.asList(this.pxc, this.notTy));
+		assertEquals(conjunction1, other);
+	}
+
+	@Test
+	public void conjunction_cachedTerms_sameOnRepeatedCalls() {
+		final Conjunction<Literal> conjunction = makeBody(this.pxc, this.sxy, this.notTy);
+		final List<Term> terms = Arrays.asList(this.x, this.c, this.y);
+		final List<Term> variables = Arrays.asList(this.x, this.y);
+
+		for (int i = 0; i < 2; i++) {
+			assertEquals(terms, conjunction.getTerms().collect(Collectors.toList()));
+			assertEquals(variables, conjunction.getUniversalVariables().collect(Collectors.toList()));
+			assertEquals(Collections.singletonList(this.c),
+					conjunction.getAbstractConstants().collect(Collectors.toList()));
+		}
+	}
+
+	@Test
+	public void disjunctiveRule_equalsAndHashCode() {
+		final DisjunctiveRuleImpl rule1 = new DisjunctiveRuleImpl(makeHead(this.qx, this.rx),
+				makeBody(this.pxc, this.notTy), 0);
+		final DisjunctiveRuleImpl rule2 = new DisjunctiveRuleImpl(makeHead(this.qx, this.rx),
+				makeBody(this.pxc, this.notTy), 1);
+		final DisjunctiveRuleImpl rule3 = new DisjunctiveRuleImpl(makeHead(this.rx, this.qx),
+				makeBody(this.pxc, this.notTy), 0);
+
+		final int hash = rule1.hashCode();
+		assertEquals(hash, rule1.hashCode());
+		assertEquals(rule1, rule2);
+		assertEquals(rule2, rule1);
+		assertEquals(hash, rule2.hashCode());
+		assertNotEquals(rule1, rule3);
+		assertNotEquals(rule3, rule1);
+	}
+
+	@Test
+	public void disjunctiveRule_cachedTermsAndHelperLiteral() {
+		final DisjunctiveRuleImpl rule = new DisjunctiveRuleImpl(makeHead(this.qx, this.rx),
+				makeBody(this.pxc, this.notTy), 3);
+		final List<Term> terms = Arrays.asList(this.x, this.c, this.y);
+
+		assertEquals(terms, rule.getTerms().collect(Collectors.toList()));
+		assertEquals(terms, rule.getTerms().collect(Collectors.toList()));
+
+		final PositiveLiteral helperLiteral = rule.getHelperLiteral();
+		assertEquals(Expressions.makePositiveLiteral("rule3", this.x, this.y), helperLiteral);
+		assertSame(helperLiteral, rule.getHelperLiteral());
+	}
+
+	@Test
+	public void choiceRule_equalsAndHashCode() {
+		final ChoiceRuleImpl rule1 = makeChoiceRule(0, 1, 0);
+		final ChoiceRuleImpl rule2 = makeChoiceRule(0, 1, 1);
+
+		final int hash = rule1.hashCode();
+		assertEquals(hash, rule1.hashCode());
+		assertEquals(rule1, rule2);
+		assertEquals(rule2, rule1);
+		assertEquals(hash, rule2.hashCode());
+		assertNotEquals(rule1, makeChoiceRule(1, 1, 0));
+		assertNotEquals(rule1, makeChoiceRule(0, 2, 0));
+		assertNotEquals(makeChoiceRule(0, 2, 0), rule1);
+	}
+
+	@Test
+	public void choiceRule_cachedTermsAndHeadLiterals() {
+		final ChoiceRuleImpl rule = makeChoiceRule(0, 1, 0);
+		final List<Term> terms = Arrays.asList(this.x, this.c, this.y);
+
+		assertEquals(terms, rule.getTerms().collect(Collectors.toList()));
+		assertEquals(terms, rule.getTerms().collect(Collectors.toList()));
+
+		final Conjunction<PositiveLiteral> headLiterals = rule.getHeadLiterals();
+		assertEquals(makeHead(this.qx, this.rx), headLiterals);
+		assertSame(headLiterals, rule.getHeadLiterals());
+	}
+
+	@Test
+	public void choiceRule_getChoiceElementVariables() {
+		final ChoiceRuleImpl rule = makeChoiceRule(0, 1, 2);
+
+		// body variables first, then the remaining variables of the condition
+		assertEquals(Arrays.asList(this.x, this.y), rule.getChoiceElementVariables(0));
+		assertEquals(Arrays.asList(this.x), rule.getChoiceElementVariables(1));
+		assertSame(rule.getChoiceElementVariables(0), rule.getChoiceElementVariables(0));
+
+		assertEquals(Expressions.makePositiveLiteral("rule2A0", this.x, this.y),
+				rule.getHelperLiteral(rule.getChoiceElementVariables(0), 2, 0));
+		final PositiveLiteral helperLiteral = rule.getHelperLiteral();
+		assertEquals(Expressions.makePositiveLiteral("rule2", this.x), helperLiteral);
+		assertSame(helperLiteral, rule.getHelperLiteral());
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void choiceRule_getChoiceElementVariables_invalidIndex() {
+		makeChoiceRule(0, 1, 0).getChoiceElementVariables(2);
+	}
+
+	@Test
+	public void constraint_equalsHashCodeAndCachedValues() {
+		final ConstraintImpl constraint1 = new ConstraintImpl(makeBody(this.qx, this.notTy), 0);
+		final ConstraintImpl constraint2 = new ConstraintImpl(makeBody(this.qx, this.notTy), 1);
+		final ConstraintImpl constraint3 = new ConstraintImpl(makeBody(this.qx), 0);
+
+		assertEquals(constraint1, constraint2);
+		assertEquals(constraint1.hashCode(), constraint2.hashCode());
+		assertNotEquals(constraint1, constraint3);
+
+		assertTrue(constraint1.getHeadLiterals().getLiterals().isEmpty());
+		assertSame(constraint1.getHeadLiterals(), constraint3.getHeadLiterals());
+
+		final PositiveLiteral helperLiteral = constraint1.getHelperLiteral();
+		assertEquals(Expressions.makePositiveLiteral("rule0", this.x, this.y), helperLiteral);
+		assertSame(helperLiteral, constraint1.getHelperLiteral());
+	}
+
+}
@@ -0,0 +1,127 @@
+package org.semanticweb.rulewerk.core.model;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.semanticweb.rulewerk.core.model.api.ChoiceElement;
+import org.semanticweb.rulewerk.core.model.api.Literal;
+import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.Variable;
+import org.semanticweb.rulewerk.core.model.implementation.ChoiceElementImpl;
+import org.semanticweb.rulewerk.core.model.implementation.ChoiceRuleImpl;
+import org.semanticweb.rulewerk.core.model.implementation.ConjunctionImpl;
+import org.semanticweb.rulewerk.core.model.implementation.DisjunctiveRuleImpl;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.model.implementation.GroundingLayout;
+import org.semanticweb.rulewerk.core.model.implementation.PredicateSet;
+
+public class GroundingLayoutTest {
+
+	final Variable x = Expressions.makeUniversalVariable("X");
+	final Variable y = Expressions.makeUniversalVariable("Y");
+
+	final PositiveLiteral px = Expressions.makePositiveLiteral("p", this.x);
+	final PositiveLiteral qx = Expressions.makePositiveLiteral("q", this.x);
+	final PositiveLiteral rx = Expressions.makePositiveLiteral("r", this.x);
+	final PositiveLiteral sxy = Expressions.makePositiveLiteral("s", this.x, this.y);
+	final Literal notTx = Expressions.makeNegativeLiteral("t", this.x);
+
+	/**
+	 * Approximated predicates in this order: r, t, s, q; p is not approximated.
+	 */
+	final PredicateSet approximatedPredicates = new PredicateSet(Arrays.asList(this.rx.getPredicate(),
+			this.notTx.getPredicate(), this.sxy.getPredicate(), this.qx.getPredicate()));
+
+	@Test
+	public void disjunctiveRule_allHeadAndRelevantBodyLiterals() {
+		// q(X) | p(X) :- p(X), ~t(X), r(X)
+		final DisjunctiveRuleImpl rule = new DisjunctiveRuleImpl(new ConjunctionImpl<>(Arrays.asList(this.qx, this.px)),
+				new ConjunctionImpl<>(Arrays.asList(this.px, this.notTx, this.rx)), 0);
+		final GroundingLayout layout = new GroundingLayout(rule, this.approximatedPredicates);
+
+		final GroundingLayout.Literals head = layout.getHead();
+		assertEquals(2, head.size());
+		assertEquals(this.qx, head.getLiteral(0));
+		assertEquals(this.px, head.getLiteral(1));
+		assertEquals(3, head.getPredicateIndex(0));
+		assertEquals(-1, head.getPredicateIndex(1));
+		assertFalse(head.isNegated(0));
+
+		final GroundingLayout.Literals body = layout.getBody();
+		assertEquals(2, body.size());
+		assertEquals(this.notTx, body.getLiteral(0));
+		assertEquals(this.rx, body.getLiteral(1));
+		assertTrue(body.isNegated(0));
+		assertFalse(body.isNegated(1));
+		assertEquals(1, body.getPredicateIndex(0));
+		assertEquals(0, body.getPredicateIndex(1));
+	}
+
+	@Test
+	public void choiceRule_relevantConditionLiteralsPerElement() {
+		// { q(X) : p(X), s(X, Y); r(X) } :- p(X)
+		final List<ChoiceElement> choiceElements = new ArrayList<>();
+		choiceElements.add(new ChoiceElementImpl(this.qx, new ConjunctionImpl<>(Arrays.asList(this.px, this.sxy))));
+		choiceElements.add(new ChoiceElementImpl(this.rx, new ConjunctionImpl<>(new ArrayList<>())));
+		final ChoiceRuleImpl rule = new ChoiceRuleImpl(choiceElements,
+				new ConjunctionImpl<>(Arrays.asList(this.px)), null, null, 0);
+		final GroundingLayout layout = new GroundingLayout(rule, this.approximatedPredicates);
+
+		assertEquals(Arrays.asList(this.qx, this.rx),
+				Arrays.asList(layout.getHead().getLiteral(0), layout.getHead().getLiteral(1)));
+		assertEquals(0, layout.getBody().size());
+
+		final GroundingLayout.Literals condition = layout.getChoiceElementCondition(0);
+		assertEquals(1, condition.size());
+		assertEquals(this.sxy, condition.getLiteral(0));
+		assertEquals(2, condition.getPredicateIndex(0));
+		assertEquals(0, layout.getChoiceElementCondition(1).size());
+	}
+
+	@Test
+	public void getGroundingLayout_sameApproximation_reused() {
+		final DisjunctiveRuleImpl rule = new DisjunctiveRuleImpl(new ConjunctionImpl<>(Arrays.asList(this.qx)),
+				new ConjunctionImpl<>(Arrays.asList(this.px, this.rx)), 0);
+		final GroundingLayout layout = rule.getGroundingLayout(this.approximatedPredicates);
+
+		assertTrue(layout.isFor(this.approximatedPredicates));
+		assertSame(layout, rule.getGroundingLayout(this.approximatedPredicates));
+
+		final Set<Predicate> otherPredicates = new HashSet<>(Arrays.asList(this.px.getPredicate()));
+		final GroundingLayout otherLayout = rule.getGroundingLayout(otherPredicates);
+		assertFalse(otherLayout.isFor(this.approximatedPredicates));
+		assertEquals(1, otherLayout.getBody().size());
+		assertEquals(this.px, otherLayout.getBody().getLiteral(0));
+	}
+
+}
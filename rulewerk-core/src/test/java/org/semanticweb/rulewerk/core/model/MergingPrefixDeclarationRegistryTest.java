@@ -207,4 +207,40 @@ public class MergingPrefixDeclarationRegistryTest {
 		assertNotEquals(RELATIVE, resolvedIri);
 		assertEquals("rulewerk_generated_0:" + RELATIVE, resolvedIri);
 	}
+
+	@Test
+	public void unresolveAbsoluteIri_prefixChangedAfterUse_newPrefixUsed() {
+		prefixDeclarations.setPrefixIri("eg:", BASE);
+		assertEquals("eg:example/", prefixDeclarations.unresolveAbsoluteIri(MORE_SPECIFIC));
+		prefixDeclarations.setPrefixIri("ex:", BASE + "ex");
+		assertEquals("ex:ample/", prefixDeclarations.unresolveAbsoluteIri(MORE_SPECIFIC));
+		prefixDeclarations.setPrefixIri("er:", EVEN_MORE_SPECIFIC);
+		assertEquals("er:test", prefixDeclarations.unresolveAbsoluteIri(MORE_SPECIFIC + RELATIVE));
+	}
+
+	@Test
+	public void unresolveAbsoluteIri_regexCharactersInPrefix_succeeds() {
+		prefixDeclarations.setPrefixIri("q$1:", "http://example.org/?q=(a+b)*");
+		assertEquals("q$1:c", prefixDeclarations.unresolveAbsoluteIri("http://example.org/?q=(a+b)*c"));
+		assertEquals("http://example.org/?q=(aab)*c",
+				prefixDeclarations.unresolveAbsoluteIri("http://example.org/?q=(aab)*c"));
+	}
+
+	@Test
+	public void unresolveAbsoluteIri_samePrefixIriTwice_shortestNameWins() {
+		prefixDeclarations.setPrefixIri("example:", BASE);
+		prefixDeclarations.setPrefixIri("eg:", BASE);
+		assertEquals("eg:" + RELATIVE, prefixDeclarations.unresolveAbsoluteIri(BASE + RELATIVE));
+	}
+
+	@Test
+	public void unresolveAbsoluteIri_manyPrefixes_longestMatchWins() {
+		for (int i = 0; i < 500; i++) {
+			prefixDeclarations.setPrefixIri("p" + i + ":", BASE + i + "/");
+		}
+		for (int i = 0; i < 500; i++) {
+			assertEquals("p" + i + ":" + RELATIVE, prefixDeclarations.unresolveAbsoluteIri(BASE + i + "/" + RELATIVE));
+		}
+		assertEquals(UNRELATED + RELATIVE, prefixDeclarations.unresolveAbsoluteIri(UNRELATED + RELATIVE));
+	}
 }
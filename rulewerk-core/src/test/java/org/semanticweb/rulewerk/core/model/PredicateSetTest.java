@@ -0,0 +1,130 @@
+package org.semanticweb.rulewerk.core.model;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import org.junit.Test;
+import org.semanticweb.rulewerk.core.model.api.Literal;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.Variable;
+import org.semanticweb.rulewerk.core.model.implementation.ConjunctionImpl;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.model.implementation.PredicateImpl;
+import org.semanticweb.rulewerk.core.model.implementation.PredicateSet;
+
+public class PredicateSetTest {
+
+	final Predicate p = Expressions.makePredicate("p", 1);
+	final Predicate q = Expressions.makePredicate("q", 1);
+	final Predicate r = Expressions.makePredicate("r", 1);
+
+	@Test
+	public void testContainsAndOrder() {
+		final PredicateSet set = new PredicateSet(Arrays.asList(this.q, this.p, this.q));
+
+		assertEquals(2, set.size());
+		assertTrue(set.contains(this.p));
+		assertTrue(set.contains(new PredicateImpl("q", 1)));
+		assertFalse(set.contains(this.r));
+		assertFalse(set.contains((Object) "p"));
+		assertEquals(0, set.indexOf(this.q));
+		assertEquals(1, set.indexOf(this.p));
+		assertEquals(-1, set.indexOf(this.r));
+		assertEquals(Arrays.asList(this.q, this.p), Arrays.asList(set.toArray()));
+	}
+
+	@Test
+	public void testEquals() {
+		final Set<Predicate> hashSet = new HashSet<>(Arrays.asList(this.p, this.q));
+		final PredicateSet set = new PredicateSet(Arrays.asList(this.q, this.p));
+
+		assertEquals(hashSet, set);
+		assertEquals(set, hashSet);
+		assertEquals(hashSet.hashCode(), set.hashCode());
+		assertEquals(set, PredicateSet.of(hashSet));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testImmutable() {
+		new PredicateSet(Arrays.asList(this.p)).add(this.q);
+	}
+
+	@Test
+	public void testRelevantLiterals() {
+		final Variable x = Expressions.makeUniversalVariable("X");
+		final Literal pX = Expressions.makePositiveLiteral(this.p, x);
+		final Literal notQX = Expressions.makeNegativeLiteral(this.q, x);
+		final Literal rX = Expressions.makePositiveLiteral(this.r, x);
+		final ConjunctionImpl<Literal> conjunction = new ConjunctionImpl<>(Arrays.asList(pX, notQX, rX));
+		final PredicateSet set = new PredicateSet(Arrays.asList(this.p, this.q));
+
+		final BitSet expectedMask = new BitSet();
+		expectedMask.set(0, 2);
+		assertEquals(expectedMask, set.getRelevantLiteralMask(conjunction.getLiterals()));
+		assertEquals(2, conjunction.getRelevantLiteralCount(set));
+		assertEquals(2, conjunction.getRelevantLiteralCount(new HashSet<>(set)));
+		assertEquals(Arrays.asList(pX, rX), conjunction.getSimplifiedConjunction(set, true).getLiterals());
+		assertEquals(Arrays.asList(rX), conjunction.getSimplifiedConjunction(set, false).getLiterals());
+	}
+
+	@Test
+	public void testRelevantLiteralsOtherSet_notCopiedOrCached() {
+		final Variable x = Expressions.makeUniversalVariable("X");
+		final Literal pX = Expressions.makePositiveLiteral(this.p, x);
+		final Literal notQX = Expressions.makeNegativeLiteral(this.q, x);
+		final Literal rX = Expressions.makePositiveLiteral(this.r, x);
+		final ConjunctionImpl<Literal> conjunction = new ConjunctionImpl<>(Arrays.asList(pX, notQX, rX));
+		final int[] calls = new int[2];
+		final Set<Predicate> otherSet = new HashSet<Predicate>(Arrays.asList(this.r)) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public boolean contains(final Object o) {
+				calls[0]++;
+				return super.contains(o);
+			}
+
+			@Override
+			public Iterator<Predicate> iterator() {
+				calls[1]++;
+				return super.iterator();
+			}
+		};
+
+		assertEquals(2, conjunction.getRelevantLiteralCount(new PredicateSet(Arrays.asList(this.p, this.q))));
+		assertEquals(1, conjunction.getRelevantLiteralCount(otherSet));
+		otherSet.add(this.q);
+		assertEquals(2, conjunction.getRelevantLiteralCount(otherSet));
+		// the set is only queried for the predicates of the literals
+		assertEquals(6, calls[0]);
+		assertEquals(0, calls[1]);
+	}
+
+}
@@ -0,0 +1,138 @@
+package org.semanticweb.rulewerk.core.model;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.model.implementation.NamedNullImpl;
+import org.semanticweb.rulewerk.core.model.implementation.Serializer;
+import org.semanticweb.rulewerk.core.model.implementation.StatementWriter;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+
+public class StatementWriterTest {
+
+	private static final Function<String, String> transformer = iri -> iri.startsWith("http://example.org/")
+			? "ex:" + iri.substring("http://example.org/".length())
+			: iri;
+
+	private final Predicate p = Expressions.makePredicate("http://example.org/p", 4);
+	private final List<Term> terms = Arrays.asList(Expressions.makeAbstractConstant("http://example.org/a"),
+			Expressions.makeAbstractConstant("http://other.org/b"),
+			Expressions.makeDatatypeConstant("a\"ä\n", "http://www.w3.org/2001/XMLSchema#string"),
+			Expressions.makeLanguageStringConstant("😀", "en"));
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static String readAll(final InputStream input) throws IOException {
+		final ByteArrayOutputStream output = new ByteArrayOutputStream();
+		final byte[] buffer = new byte[4096];
+		int read;
+		while ((read = input.read(buffer)) != -1) {
+			output.write(buffer, 0, read);
+		}
+		return new String(output.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void writeFact_sameAsSerializer() throws IOException {
+		final List<Term> moreTerms = Arrays.asList(Expressions.makeDatatypeConstant("42", "http://example.org/t"),
+				Expressions.makeDatatypeConstant("1", "http://www.w3.org/2001/XMLSchema#integer"), new NamedNullImpl("n"),
+				Expressions.makeAbstractConstant("c"));
+		final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+		final StatementWriter writer = new StatementWriter(stream, transformer, false);
+		writer.writeFact(p, terms);
+		writer.writeFact(p, moreTerms);
+		writer.writeFact(p, terms);
+		writer.finish();
+
+		final String expected = Serializer.getFactString(p, terms, transformer)
+				+ Serializer.getFactString(p, moreTerms, transformer) + Serializer.getFactString(p, terms, transformer);
+		assertEquals(expected, new String(stream.toByteArray(), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void writeFact_moreThanBuffer_allWritten() throws IOException {
+		final StringBuilder expected = new StringBuilder();
+		final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+		final StatementWriter writer = new StatementWriter(stream, Function.identity(), false);
+		for (int i = 0; i < 10000; i++) {
+			final List<Term> tuple = Arrays.asList(Expressions.makeAbstractConstant("c" + i), terms.get(2),
+					terms.get(3), Expressions.makeAbstractConstant("c" + (i % 7)));
+			writer.writeFact(p, tuple);
+			expected.append(Serializer.getFactString(p, tuple));
+		}
+		writer.finish();
+		assertEquals(expected.toString(), new String(stream.toByteArray(), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void finish_compressed_gzipOutput() throws IOException {
+		final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+		final StatementWriter writer = new StatementWriter(stream, transformer, true);
+		for (int i = 0; i < 1000; i++) {
+			writer.writeFact(p, terms);
+		}
+		writer.finish();
+
+		final StringBuilder expected = new StringBuilder();
+		for (int i = 0; i < 1000; i++) {
+			expected.append(Serializer.getFactString(p, terms, transformer));
+		}
+		try (InputStream input = new GZIPInputStream(new ByteArrayInputStream(stream.toByteArray()))) {
+			assertEquals(expected.toString(), readAll(input));
+		}
+	}
+
+	@Test
+	public void writeKnowledgeBase_gzFile_compressed() throws IOException {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatement(Expressions.makeFact(p, terms));
+		kb.addStatement(Expressions.makeFact("q", Expressions.makeAbstractConstant("c")));
+
+		final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+		kb.writeKnowledgeBase(stream);
+		final File file = new File(this.folder.getRoot(), "kb.rls.gz");
+		kb.writeKnowledgeBase(file.getPath());
+		try (InputStream input = new GZIPInputStream(new FileInputStream(file))) {
+			assertEquals(new String(stream.toByteArray(), StandardCharsets.UTF_8), readAll(input));
+		}
+	}
+
+}
@@ -0,0 +1,75 @@
+package org.semanticweb.rulewerk.core.model;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.model.implementation.PredicateImpl;
+import org.semanticweb.rulewerk.core.model.implementation.SymbolTable;
+
+public class SymbolTableTest {
+
+	@Test
+	public void testSameInstance() {
+		final Predicate p1 = Expressions.makePredicate("p", 1);
+		final Predicate p1too = SymbolTable.getPredicate("p", 1);
+		final Predicate p1fresh = new PredicateImpl("p", 1);
+
+		assertSame(p1, p1too);
+		assertSame(p1, SymbolTable.getPredicate(p1fresh));
+		assertNotSame(p1, p1fresh);
+		assertEquals(p1, p1fresh);
+		assertEquals(p1fresh, p1);
+		assertEquals(p1.hashCode(), p1fresh.hashCode());
+	}
+
+	@Test
+	public void testDifferentArity() {
+		final Predicate p1 = Expressions.makePredicate("p", 1);
+		final Predicate p2 = Expressions.makePredicate("p", 2);
+
+		assertNotEquals(p1, p2);
+		assertNotEquals(SymbolTable.getPredicateId(p1), SymbolTable.getPredicateId(p2));
+	}
+
+	@Test
+	public void testPredicateIdRoundTrip() {
+		final Predicate q = Expressions.makePredicate("q", 3);
+		final int id = SymbolTable.getPredicateId(q);
+
+		assertSame(q, SymbolTable.getPredicate(id));
+		assertEquals(id, SymbolTable.getPredicateId(new PredicateImpl("q", 3)));
+		assertTrue(id < SymbolTable.getPredicateCount());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void predicateNameNotBlank() {
+		SymbolTable.getPredicate(" ", 1);
+	}
+
+}
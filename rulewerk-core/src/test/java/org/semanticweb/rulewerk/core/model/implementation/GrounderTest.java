@@ -0,0 +1,141 @@
+package org.semanticweb.rulewerk.core.model.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Test;
+import org.semanticweb.rulewerk.core.model.api.Literal;
+import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.Variable;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.core.reasoner.Reasoner;
+
+import karmaresearch.vlog.NotStartedException;
+import karmaresearch.vlog.QueryResultIterator;
+
+public class GrounderTest {
+
+	private static final long A = 1;
+	private static final long B = 2;
+
+	private final Variable x = Expressions.makeUniversalVariable("X");
+	private final Predicate q = Expressions.makePredicate("q", 1);
+	private final Predicate r = Expressions.makePredicate("r", 1);
+	private final Predicate s = Expressions.makePredicate("s", 1);
+
+	private static final List<String> EXPECTED_LINES = Arrays.asList("q(a) .", "q(a) | r(a) :- not s(a) .",
+			"q(b) | r(b) :- not s(b) .", ":- q(a), r(a) .", ":- q(b), r(b) .", "#show q(a) : q(a) .");
+
+	/**
+	 * Knowledge base with the facts {@code p(a), p(b), q(a)}, the rule
+	 * {@code q(X) | r(X) :- p(X), not s(X)}, the constraint {@code :- q(X), r(X)},
+	 * and a show statement for {@code q}.
+	 */
+	private KnowledgeBase makeKnowledgeBase() {
+		final KnowledgeBase kb = new KnowledgeBase();
+		final PositiveLiteral px = Expressions.makePositiveLiteral("p", this.x);
+		final PositiveLiteral qx = Expressions.makePositiveLiteral(this.q, this.x);
+		final PositiveLiteral rx = Expressions.makePositiveLiteral(this.r, this.x);
+		kb.addStatements(Expressions.makeFact("p", Expressions.makeAbstractConstant("a")),
+				Expressions.makeFact("p", Expressions.makeAbstractConstant("b")),
+				Expressions.makeFact(this.q, Expressions.makeAbstractConstant("a")),
+				new DisjunctiveRuleImpl(new ConjunctionImpl<>(Arrays.asList(qx, rx)),
+						new ConjunctionImpl<Literal>(
+								Arrays.asList(px, Expressions.makeNegativeLiteral(this.s, this.x))),
+						0),
+				new ConstraintImpl(new ConjunctionImpl<Literal>(Arrays.asList(qx, rx)), 1),
+				new ShowStatementImpl(this.q));
+		return kb;
+	}
+
+	/**
+	 * Reasoner whose helper literals are true for {@code a} and {@code b}, and
+	 * whose only true instance of {@code q} is {@code q(a)}.
+	 */
+	private Reasoner makeReasoner() throws NotStartedException {
+		final Reasoner reasoner = mock(Reasoner.class);
+		when(reasoner.answerQueryInNativeFormat(any(), eq(true))).thenAnswer(invocation -> {
+			final PositiveLiteral query = invocation.getArgument(0);
+			return makeIterator(query.getPredicate().equals(this.q) ? Arrays.asList(new long[] { A })
+					: Arrays.asList(new long[] { A }, new long[] { B }));
+		});
+		when(reasoner.getConstant(A)).thenReturn("a");
+		when(reasoner.getConstant(B)).thenReturn("b");
+		when(reasoner.getConstantId("a")).thenReturn(A);
+		when(reasoner.getConstantId("b")).thenReturn(B);
+		when(reasoner.toTerm(any())).thenAnswer(invocation -> Expressions
+				.makeAbstractConstant(invocation.<karmaresearch.vlog.Term>getArgument(0).getName()));
+		return reasoner;
+	}
+
+	private static QueryResultIterator makeIterator(final List<long[]> answers) {
+		final Iterator<long[]> iterator = answers.iterator();
+		final QueryResultIterator answerIterator = mock(QueryResultIterator.class);
+		when(answerIterator.hasNext()).thenAnswer(invocation -> iterator.hasNext());
+		when(answerIterator.next()).thenAnswer(invocation -> iterator.next());
+		return answerIterator;
+	}
+
+	private List<String> groundText(final Reasoner reasoner, final int termCacheCapacity) throws IOException {
+		final StringWriter output = new StringWriter();
+		final BufferedWriter writer = new BufferedWriter(output);
+		new Grounder(reasoner, makeKnowledgeBase(), writer,
+				new HashSet<>(Arrays.asList(this.q, this.r, this.s)), true, termCacheCapacity)
+						.groundKnowledgeBase();
+		writer.flush();
+		return Arrays.asList(output.toString().split(System.lineSeparator()));
+	}
+
+	@Test
+	public void groundKnowledgeBase_textFormat_expectedLines() throws NotStartedException, IOException {
+		final Reasoner reasoner = makeReasoner();
+		assertEquals(EXPECTED_LINES, groundText(reasoner, Grounder.TERM_CACHE_CAPACITY));
+		// every term is decoded only once
+		verify(reasoner, times(1)).getConstant(A);
+		verify(reasoner, times(1)).getConstant(B);
+	}
+
+	@Test
+	public void groundKnowledgeBase_termCacheFull_sameLines() throws NotStartedException, IOException {
+		final Reasoner reasoner = makeReasoner();
+		assertEquals(EXPECTED_LINES, groundText(reasoner, 1));
+		// only the first decoded term is cached, the other one is decoded for each of its five occurrences
+		verify(reasoner, times(1)).getConstant(A);
+		verify(reasoner, times(5)).getConstant(B);
+	}
+
+}
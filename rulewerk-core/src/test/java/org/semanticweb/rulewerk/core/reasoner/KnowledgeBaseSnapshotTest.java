@@ -0,0 +1,203 @@
+package org.semanticweb.rulewerk.core.reasoner;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+import org.semanticweb.rulewerk.core.exceptions.PrefixDeclarationException;
+import org.semanticweb.rulewerk.core.exceptions.RulewerkRuntimeException;
+import org.semanticweb.rulewerk.core.model.api.Conjunction;
+import org.semanticweb.rulewerk.core.model.api.Constant;
+import org.semanticweb.rulewerk.core.model.api.DataSource;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.Literal;
+import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.Statement;
+import org.semanticweb.rulewerk.core.model.api.Variable;
+import org.semanticweb.rulewerk.core.model.implementation.ChoiceElementImpl;
+import org.semanticweb.rulewerk.core.model.implementation.ChoiceRuleImpl;
+import org.semanticweb.rulewerk.core.model.implementation.ConstraintImpl;
+import org.semanticweb.rulewerk.core.model.implementation.DataSourceDeclarationImpl;
+import org.semanticweb.rulewerk.core.model.implementation.DisjunctiveRuleImpl;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.model.implementation.MergingPrefixDeclarationRegistry;
+import org.semanticweb.rulewerk.core.model.implementation.NamedNullImpl;
+import org.semanticweb.rulewerk.core.model.implementation.RenamedNamedNull;
+import org.semanticweb.rulewerk.core.model.implementation.ShowStatementImpl;
+import org.semanticweb.rulewerk.core.reasoner.implementation.CsvFileDataSource;
+import org.semanticweb.rulewerk.core.reasoner.implementation.RdfFileDataSource;
+import org.semanticweb.rulewerk.core.reasoner.implementation.SparqlQueryResultDataSource;
+import org.semanticweb.rulewerk.core.reasoner.implementation.StreamingCsvFileDataSource;
+import org.semanticweb.rulewerk.core.reasoner.implementation.StreamingCsvFileDataSource.ColumnType;
+
+public class KnowledgeBaseSnapshotTest {
+
+	private final Variable x = Expressions.makeUniversalVariable("X");
+	private final Variable y = Expressions.makeUniversalVariable("Y");
+	private final Variable z = Expressions.makeExistentialVariable("Z");
+	private final Constant c = Expressions.makeAbstractConstant("http://example.org/c");
+	private final Constant d = Expressions.makeDatatypeConstant("42", "http://www.w3.org/2001/XMLSchema#integer");
+	private final Constant e = Expressions.makeLanguageStringConstant("chat \"ä\" 😀", "fr");
+
+	private final PositiveLiteral px = Expressions.makePositiveLiteral("p", this.x);
+	private final PositiveLiteral qxy = Expressions.makePositiveLiteral("q", this.x, this.y);
+	private final Literal notRx = Expressions.makeNegativeLiteral("r", this.x);
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private KnowledgeBase saveAndLoad(final KnowledgeBase kb, final int windowSize) throws IOException {
+		final Path path = this.folder.newFile().toPath();
+		kb.save(path, windowSize);
+		return KnowledgeBase.load(path, windowSize);
+	}
+
+	@Test
+	public void load_factsAndRules_sameStatements() throws IOException {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatements(Expressions.makeFact("p", this.c), Expressions.makeFact("q", this.d, this.e),
+				Expressions.makeFact("q", new NamedNullImpl("n"), new RenamedNamedNull(UUID.randomUUID())),
+				Expressions.makeRule(Expressions.makePositiveConjunction(this.px), Expressions.makeConjunction(this.qxy)),
+				Expressions.makeRule(Expressions.makePositiveConjunction(Expressions.makePositiveLiteral("q", this.x, this.z)),
+						Expressions.makeConjunction(this.px, this.notRx)));
+
+		final KnowledgeBase loaded = saveAndLoad(kb, KnowledgeBaseSnapshot.WINDOW_SIZE);
+		assertEquals(new ArrayList<>(kb.getStatements()), new ArrayList<>(loaded.getStatements()));
+		assertEquals(RenamedNamedNull.class, loaded.getFacts().get(2).getArguments().get(1).getClass());
+	}
+
+	@Test
+	public void load_aspRulesAndShowStatements_sameStatements() throws IOException {
+		final Conjunction<Literal> body = Expressions.makeConjunction(this.px, this.notRx);
+		final Conjunction<Literal> emptyContext = Expressions.makeConjunction(Collections.emptyList());
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatements(
+				new DisjunctiveRuleImpl(Expressions.makePositiveConjunction(this.qxy, this.px),
+						Expressions.makeConjunction(this.px), 3),
+				new ConstraintImpl(body, 4),
+				new ChoiceRuleImpl(Arrays.asList(new ChoiceElementImpl(this.qxy, body),
+						new ChoiceElementImpl(this.px, emptyContext)), body, 1, 2, 5),
+				new ShowStatementImpl(Expressions.makePredicate("q", 2)));
+
+		final KnowledgeBase loaded = saveAndLoad(kb, KnowledgeBaseSnapshot.WINDOW_SIZE);
+		assertEquals(kb.getAspRules(), loaded.getAspRules());
+		assertEquals(kb.getAspRules().get(2).getRuleIdx(), loaded.getAspRules().get(2).getRuleIdx());
+		assertEquals(Expressions.makePredicate("q", 2),
+				loaded.getShowStatements().iterator().next().getPredicate());
+	}
+
+	@Test
+	public void load_dataSources_sameStatements() throws IOException {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatements(
+				new DataSourceDeclarationImpl(Expressions.makePredicate("a", 1), new CsvFileDataSource("a.csv")),
+				new DataSourceDeclarationImpl(Expressions.makePredicate("b", 3), new RdfFileDataSource("b.nt.gz")),
+				new DataSourceDeclarationImpl(Expressions.makePredicate("c", 1),
+						new SparqlQueryResultDataSource(new URL("https://query.wikidata.org/sparql"), "x",
+								"?x <http://example.org/p> ?y")),
+				new DataSourceDeclarationImpl(Expressions.makePredicate("d", 2), new StreamingCsvFileDataSource(
+						"d.csv", new int[] { 2, 0 }, new ColumnType[] { ColumnType.ABSTRACT, ColumnType.values()[1] },
+						null)));
+
+		final KnowledgeBase loaded = saveAndLoad(kb, KnowledgeBaseSnapshot.WINDOW_SIZE);
+		assertEquals(new ArrayList<>(kb.getStatements()), new ArrayList<>(loaded.getStatements()));
+	}
+
+	@Test
+	public void load_prefixesAndBase_restored() throws IOException, PrefixDeclarationException {
+		final MergingPrefixDeclarationRegistry prefixes = new MergingPrefixDeclarationRegistry();
+		prefixes.setBaseIri("http://example.org/base/");
+		prefixes.setPrefixIri("eg:", "http://example.org/");
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.mergePrefixDeclarations(prefixes);
+		kb.addStatement(Expressions.makeFact("p", this.c));
+
+		final KnowledgeBase loaded = saveAndLoad(kb, KnowledgeBaseSnapshot.WINDOW_SIZE);
+		assertEquals("http://example.org/base/", loaded.getBaseIri());
+		assertEquals("http://example.org/", loaded.getPrefixIri("eg:"));
+		assertEquals(new ArrayList<>(kb.getStatements()), new ArrayList<>(loaded.getStatements()));
+	}
+
+	@Test
+	public void load_manyFactsSmallWindows_sameStatementsSharedTerms() throws IOException {
+		final Predicate p = Expressions.makePredicate("p", 2);
+		final KnowledgeBase kb = new KnowledgeBase();
+		final List<Statement> facts = new ArrayList<>();
+		for (int i = 0; i < 5000; i++) {
+			facts.add(Expressions.makeFact(p, Expressions.makeAbstractConstant("http://example.org/" + i), this.e));
+		}
+		kb.addStatements(facts);
+
+		final KnowledgeBase loaded = saveAndLoad(kb, 64);
+		assertEquals(facts, new ArrayList<>(loaded.getStatements()));
+		final List<Fact> loadedFacts = loaded.getFacts();
+		assertSame(loadedFacts.get(0).getArguments().get(1), loadedFacts.get(4999).getArguments().get(1));
+	}
+
+	@Test
+	public void load_emptyKnowledgeBase_empty() throws IOException {
+		final KnowledgeBase loaded = saveAndLoad(new KnowledgeBase(), KnowledgeBaseSnapshot.WINDOW_SIZE);
+		assertEquals(0, loaded.getStatements().size());
+	}
+
+	@Test(expected = IOException.class)
+	public void load_notSnapshot_throwsIOException() throws IOException {
+		final Path path = this.folder.newFile().toPath();
+		Files.write(path, "p(c) .\n".getBytes());
+		KnowledgeBase.load(path);
+	}
+
+	@Test(expected = IOException.class)
+	public void load_truncatedSnapshot_throwsIOException() throws IOException {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatement(Expressions.makeFact("p", this.c));
+		final Path path = this.folder.newFile().toPath();
+		kb.save(path);
+		final byte[] bytes = Files.readAllBytes(path);
+		Files.write(path, Arrays.copyOf(bytes, bytes.length - 2));
+		KnowledgeBase.load(path);
+	}
+
+	@Test(expected = RulewerkRuntimeException.class)
+	public void save_unsupportedDataSource_throwsException() throws IOException {
+		final DataSource dataSource = Mockito.mock(DataSource.class);
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatement(new DataSourceDeclarationImpl(Expressions.makePredicate("p", 1), dataSource));
+		kb.save(this.folder.newFile().toPath());
+	}
+
+}
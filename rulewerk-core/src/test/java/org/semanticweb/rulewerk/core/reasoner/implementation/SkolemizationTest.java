@@ -23,6 +23,9 @@ package org.semanticweb.rulewerk.core.reasoner.implementation;
 import static org.junit.Assert.*;
 
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -73,4 +76,22 @@ public class SkolemizationTest {
 		assertEquals(null1.getName(), skolemization.skolemizeNamedNull(name1).getName());
 		assertEquals(null2.getName(), other.skolemizeNamedNull(name2).getName());
 	}
+
+	@Test
+	public void skolemizeNamedNull_manyNames_mapsToDistinctStableNamedNulls() {
+		final Map<String, String> skolemized = new HashMap<>();
+		for (int i = 0; i < 4 * Skolemization.CACHE_SIZE; i++) {
+			skolemized.put("_:b" + i, skolemization.skolemizeNamedNull("_:b" + i).getName());
+		}
+		assertEquals(skolemized.size(), skolemized.values().stream().distinct().count());
+		for (final Map.Entry<String, String> entry : skolemized.entrySet()) {
+			assertEquals(entry.getValue(), skolemization.skolemizeNamedNull(entry.getKey()).getName());
+		}
+	}
+
+	@Test
+	public void skolemizeNamedNull_mapsToUuid() {
+		final String name = skolemization.skolemizeNamedNull("a longer name that spans several blocks").getName();
+		assertEquals(name, UUID.fromString(name).toString());
+	}
 }
@@ -0,0 +1,157 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk VLog Reasoner Support
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.sun.net.httpserver.HttpServer;
+
+public class SparqlQueryResultCacheTest {
+
+	private static final String RESULTS = "?a\t?b\n<http://example.org/a>\t\"x\\ty\"@en\n<http://example.org/b>\t\n"
+			+ "_:n\t42\n";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private HttpServer server;
+	private final AtomicInteger requests = new AtomicInteger();
+	private URL endpoint;
+
+	@Before
+	public void startServer() throws IOException {
+		this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		this.server.createContext("/sparql", exchange -> {
+			this.requests.incrementAndGet();
+			final byte[] body = RESULTS.getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().set("Content-Type", "text/tab-separated-values");
+			exchange.sendResponseHeaders(200, body.length);
+			try (OutputStream output = exchange.getResponseBody()) {
+				output.write(body);
+			}
+		});
+		this.server.start();
+		this.endpoint = new URL("http://localhost:" + this.server.getAddress().getPort() + "/sparql");
+	}
+
+	@After
+	public void stopServer() {
+		this.server.stop(0);
+	}
+
+	private SparqlQueryResultDataSource makeQuery(final String body) {
+		return new SparqlQueryResultDataSource(this.endpoint, "a,b", body);
+	}
+
+	private List<String> readLines(final StreamingCsvFileDataSource dataSource) throws IOException {
+		return Files.readAllLines(dataSource.getFile().toPath(), StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void getDataSource_cachesResults() throws IOException {
+		try (SparqlQueryResultCache cache = new SparqlQueryResultCache(this.folder.getRoot(), 60000, 1 << 20)) {
+			final StreamingCsvFileDataSource dataSource = cache.getDataSource(makeQuery("?a ?p ?b"));
+			assertEquals(2, dataSource.getArity());
+			final List<String> lines = readLines(dataSource);
+			assertEquals(2, lines.size());
+			assertEquals("<http://example.org/a>\t\"x\\ty\"@en", lines.get(0));
+			assertTrue(lines.get(1).endsWith("\t\"42\"^^<http://www.w3.org/2001/XMLSchema#integer>"));
+
+			assertEquals(dataSource, cache.getDataSource(makeQuery("?a ?p ?b")));
+			assertEquals(1, this.requests.get());
+
+			cache.getDataSource(makeQuery("?b ?p ?a"));
+			assertEquals(2, this.requests.get());
+		}
+	}
+
+	@Test
+	public void getDataSource_expired_refreshesInBackground() throws IOException, InterruptedException {
+		try (SparqlQueryResultCache cache = new SparqlQueryResultCache(this.folder.getRoot(), 0, 1 << 20)) {
+			final File file = cache.getFile(makeQuery("?a ?p ?b"));
+			cache.getDataSource(makeQuery("?a ?p ?b"));
+			assertTrue(file.setLastModified(System.currentTimeMillis() - 1000));
+
+			assertTrue(cache.getDataSource(makeQuery("?a ?p ?b")).getFile().exists());
+			for (int i = 0; i < 100 && this.requests.get() < 2; i++) {
+				Thread.sleep(50);
+			}
+			assertEquals(2, this.requests.get());
+		}
+	}
+
+	@Test
+	public void getDataSource_exceedsMaxSize_evictsOldestResults() throws IOException {
+		try (SparqlQueryResultCache cache = new SparqlQueryResultCache(this.folder.getRoot(), 60000, 1)) {
+			final File first = cache.getDataSource(makeQuery("?a ?p ?b")).getFile();
+			final File second = cache.getDataSource(makeQuery("?b ?p ?a")).getFile();
+			assertFalse(first.exists());
+			assertTrue(second.exists());
+		}
+	}
+
+	@Test
+	public void getKey_differentQueries_differentKeys() {
+		assertNotEquals(SparqlQueryResultCache.getKey(makeQuery("?a ?p ?b")),
+				SparqlQueryResultCache.getKey(makeQuery("?b ?p ?a")));
+		assertEquals(SparqlQueryResultCache.getKey(makeQuery("?a ?p ?b")),
+				SparqlQueryResultCache.getKey(makeQuery("?a ?p ?b")));
+	}
+
+	@Test
+	public void convertResults_convertsTerms() throws IOException {
+		final StringWriter writer = new StringWriter();
+		SparqlQueryResultCache.convertResults(new BufferedReader(new StringReader(
+				"?a\n\"a\"\n'b'^^<http://example.org/t>\ntrue\n-1.5\n1e3\n\"\\u00e4\"\n")), writer,
+				new Skolemization());
+		assertEquals(Arrays.asList("\"a\"^^<http://www.w3.org/2001/XMLSchema#string>",
+				"\"b\"^^<http://example.org/t>", "\"true\"^^<http://www.w3.org/2001/XMLSchema#boolean>",
+				"\"-1.5\"^^<http://www.w3.org/2001/XMLSchema#decimal>",
+				"\"1e3\"^^<http://www.w3.org/2001/XMLSchema#double>",
+				"\"\u00e4\"^^<http://www.w3.org/2001/XMLSchema#string>"), Arrays.asList(writer.toString().split("\n")));
+	}
+
+	@Test(expected = IOException.class)
+	public void convertResults_unsupportedTerm_throws() throws IOException {
+		SparqlQueryResultCache.convertResults(new BufferedReader(new StringReader("?a\nabc\n")), new StringWriter(),
+				new Skolemization());
+	}
+}
@@ -0,0 +1,113 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk VLog Reasoner Support
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Test;
+import org.semanticweb.rulewerk.core.reasoner.implementation.StreamingCsvFileDataSource.ColumnType;
+
+public class StreamingCsvFileDataSourceTest {
+
+	private final String ntFile = FileDataSourceTestUtils.INPUT_FOLDER + "file.nt";
+	private final String csvFile = FileDataSourceTestUtils.INPUT_FOLDER + "file.csv";
+	private final String tsvFile = FileDataSourceTestUtils.INPUT_FOLDER + "file.tsv.gz";
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testConstructorFalseExtension() throws IOException {
+		new StreamingCsvFileDataSource(ntFile, 0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testConstructorNoColumns() throws IOException {
+		new StreamingCsvFileDataSource(csvFile);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testConstructorNegativeColumn() throws IOException {
+		new StreamingCsvFileDataSource(csvFile, 0, -1);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testConstructorWrongNumberOfColumnTypes() throws IOException {
+		new StreamingCsvFileDataSource(csvFile, new int[] { 0, 1 }, new ColumnType[] { ColumnType.STRING }, null);
+	}
+
+	@Test
+	public void testConstructor() throws IOException {
+		final StreamingCsvFileDataSource dataSource = new StreamingCsvFileDataSource(tsvFile, 3, 1);
+
+		FileDataSourceTestUtils.testConstructor(dataSource, new File(tsvFile).getName());
+		assertEquals(2, dataSource.getArity());
+		assertArrayEquals(new int[] { 3, 1 }, dataSource.getColumns());
+		assertArrayEquals(new ColumnType[] { ColumnType.ABSTRACT, ColumnType.ABSTRACT }, dataSource.getColumnTypes());
+	}
+
+	@Test
+	public void readTuple_projectsColumns() throws IOException {
+		final StreamingCsvFileDataSource dataSource = new StreamingCsvFileDataSource(csvFile, 3, 1);
+		assertArrayEquals(new String[] { "d", "b" }, dataSource.readTuple("a,b,c,d,e", 1));
+		assertArrayEquals(new String[] { "d", "b" },
+				new StreamingCsvFileDataSource(csvFile, new int[] { 3, 1 }, null, row -> true).readTuple("a,b,c,d,e", 1));
+	}
+
+	@Test
+	public void readTuple_tabSeparated() throws IOException {
+		final StreamingCsvFileDataSource dataSource = new StreamingCsvFileDataSource(tsvFile, 1);
+		assertArrayEquals(new String[] { "b,c" }, dataSource.readTuple("a\tb,c", 1));
+	}
+
+	@Test
+	public void readTuple_filtersRows() throws IOException {
+		final StreamingCsvFileDataSource dataSource = new StreamingCsvFileDataSource(csvFile, new int[] { 0 }, null,
+				row -> row.length == 3 && row[2].equals("yes"));
+		assertArrayEquals(new String[] { "a" }, dataSource.readTuple("a,b,yes", 1));
+		assertNull(dataSource.readTuple("a,b,no", 1));
+		assertNull(dataSource.readTuple("a,b,yes,d", 1));
+	}
+
+	@Test
+	public void readTuple_parsesTypes() throws IOException {
+		final StreamingCsvFileDataSource dataSource = new StreamingCsvFileDataSource(csvFile,
+				new int[] { 0, 1, 2, 3, 4 }, new ColumnType[] { ColumnType.ABSTRACT, ColumnType.STRING,
+						ColumnType.INTEGER, ColumnType.DECIMAL, ColumnType.DOUBLE },
+				null);
+		assertArrayEquals(new String[] { "<http://example.org/a>", "\"b \\\"c\\\"\"^^<http://www.w3.org/2001/XMLSchema#string>",
+				"\"-42\"^^<http://www.w3.org/2001/XMLSchema#integer>",
+				"\"1.50\"^^<http://www.w3.org/2001/XMLSchema#decimal>",
+				"\"1000.0\"^^<http://www.w3.org/2001/XMLSchema#double>" },
+				dataSource.readTuple("<http://example.org/a>,b \"c\", -42 ,1.50,1e3", 1));
+	}
+
+	@Test(expected = IOException.class)
+	public void readTuple_invalidInteger_throws() throws IOException {
+		new StreamingCsvFileDataSource(csvFile, new int[] { 0 }, new ColumnType[] { ColumnType.INTEGER }, null)
+				.readTuple("1.5", 1);
+	}
+
+	@Test(expected = IOException.class)
+	public void readTuple_missingColumn_throws() throws IOException {
+		new StreamingCsvFileDataSource(csvFile, 2).readTuple("a,b", 1);
+	}
+}
@@ -28,6 +28,7 @@ import org.apache.commons.cli.*;
 import org.semanticweb.rulewerk.core.model.api.ShowStatement;
 import org.semanticweb.rulewerk.core.model.implementation.Grounder;
 import org.semanticweb.rulewerk.core.model.implementation.ShowStatementImpl;
+import org.semanticweb.rulewerk.core.reasoner.Algorithm;
 import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
 import org.semanticweb.rulewerk.core.reasoner.LogLevel;
 import org.semanticweb.rulewerk.core.reasoner.Reasoner;
@@ -35,6 +36,7 @@ import org.semanticweb.rulewerk.parser.ParsingException;
 import org.semanticweb.rulewerk.parser.RuleParser;
 import org.semanticweb.rulewerk.core.model.api.AspRule;
 import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.reasoner.vlog.MaterializationCache;
 import org.semanticweb.rulewerk.reasoner.vlog.VLogReasoner;
 
 /**
@@ -50,7 +52,8 @@ public class AspExample {
 		long startTimeOverall, startTimeParsing, startTimeVLog, startTimeOutput, startTimeClasp;
 		long endTimeOverall, endTimeParsing, endTimeVLog, endTimeOutput, endTimeClasp;
 		String[] programs;
-		String inputPath, outputPath, instance, system;
+		String inputPath, outputPath, instance, system, cacheDirectory;
+		long cacheSize;
 		CommandLine line;
 		boolean textFormat;
 		BufferedWriter outputWriter;
@@ -67,6 +70,8 @@ public class AspExample {
 		options.addOption(Option.builder("P").longOpt("path").desc("Set the path to input and output files").hasArg().build());
 		options.addOption(Option.builder("i").longOpt("instance-name").desc("Set the instance name (matters only for identifying output later)").hasArg().build());
 		options.addOption(Option.builder("s").longOpt("system-name").desc("Set the system name (matters only for identifying output later)").hasArg().build());
+		options.addOption(Option.builder("c").longOpt("cache-directory").desc("Cache the inferences of VLog in the given directory and reuse them for the same program").hasArg().build());
+		options.addOption(Option.builder().longOpt("cache-size").desc("Set the maximal size of the cache directory in MB (default 1024)").hasArg().build());
 
 		// Parse command line arguments
 		CommandLineParser parser = new DefaultParser();
@@ -80,7 +85,9 @@ public class AspExample {
 			outputWriter = new BufferedWriter(new FileWriter(outputPath + line.getOptionValue("o")));
 			instance = line.getOptionValue("i", "unnamed_instance");
 			system = line.getOptionValue("s", "Grounding");
-		} catch (ParseException exp) {
+			cacheDirectory = line.getOptionValue("c");
+			cacheSize = Long.parseLong(line.getOptionValue("cache-size", "1024"));
+		} catch (ParseException | NumberFormatException exp) {
 			System.err.println("Parsing failed.  Reason: " + exp.getMessage());
 			return;
 		}
@@ -96,7 +103,7 @@ public class AspExample {
 				inputStreamList.add(new FileInputStream(inputPath + program));
 			}
 			SequenceInputStream inputStream = new SequenceInputStream(Collections.enumeration(inputStreamList));
-			kb = RuleParser.parseAsp(inputStream);
+			kb = RuleParser.parseAspInParallel(inputStream);
 		} catch (final ParsingException e) {
 			System.out.println("Failed to parse rules: " + e.getMessage());
 			return;
@@ -121,12 +128,24 @@ public class AspExample {
 		/* Execute reasoning */
 		System.out.println("Trigger reasoning...");
 		startTimeVLog = System.nanoTime();
-		try (Reasoner reasoner = new VLogReasoner(kb)) {
+		MaterializationCache cache = null;
+		String fingerprint = null;
+		KnowledgeBase cachedKb = null;
+		if (cacheDirectory != null) {
+			cache = new MaterializationCache(new File(cacheDirectory), cacheSize * 1024 * 1024);
+			fingerprint = MaterializationCache.getFingerprint(kb, Algorithm.RESTRICTED_CHASE);
+			cachedKb = cache.load(fingerprint);
+			System.out.println(cachedKb != null ? "Use cached inferences" : "No cached inferences");
+		}
+		try (Reasoner reasoner = new VLogReasoner(cachedKb != null ? cachedKb : kb)) {
 			reasoner.setLogFile(outputPath + "vlog.log");
 			reasoner.setLogLevel(LogLevel.DEBUG);
 
-			/* Initialise reasoner and compute inferences */
+			/* Initialise reasoner and compute inferences (or only load the cached ones) */
 			reasoner.reason();
+			if (cache != null && cachedKb == null) {
+				cache.store(fingerprint, reasoner);
+			}
 			endTimeVLog = System.nanoTime();
 
 			startTimeOutput = System.nanoTime();
@@ -0,0 +1,97 @@
+package org.semanticweb.rulewerk.examples;
+
+/*-
+ * #%L
+ * Rulewerk Examples
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.Variable;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.core.reasoner.QueryResultIterator;
+import org.semanticweb.rulewerk.core.reasoner.Reasoner;
+import org.semanticweb.rulewerk.reasoner.vlog.VLogReasoner;
+
+/**
+ * This benchmark compares ways of counting the million answers to a query:
+ * iterating over the answers as {@link org.semanticweb.rulewerk.core.model.api.Term}
+ * objects, iterating over the raw term ids, letting the reasoner count them
+ * with {@link Reasoner#countQueryAnswers(PositiveLiteral, boolean)}, and
+ * counting distinct projections with
+ * {@link Reasoner#countQueryAnswers(PositiveLiteral, List, boolean)}.
+ *
+ * @author Philipp Hanisch
+ *
+ */
+public class CountingBenchmark {
+
+	static final int ROUNDS = 3;
+
+	public static void main(final String[] args) throws IOException {
+		ExamplesUtils.configureLogging();
+		final KnowledgeBase kb = SerializationBenchmark.makeKnowledgeBase();
+		final Variable x = Expressions.makeUniversalVariable("X");
+		final Variable y = Expressions.makeUniversalVariable("Y");
+		final Variable z = Expressions.makeUniversalVariable("Z");
+		final PositiveLiteral query = Expressions.makePositiveLiteral("https://example.org/edge", x, y, z);
+
+		try (Reasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+			for (int i = 0; i < ROUNDS; i++) {
+				long start = System.nanoTime();
+				long count = 0;
+				try (QueryResultIterator answers = reasoner.answerQuery(query, true)) {
+					for (; answers.hasNext(); count++) {
+						answers.next();
+					}
+				}
+				report("iterate terms", start, count);
+
+				start = System.nanoTime();
+				count = 0;
+				try (karmaresearch.vlog.QueryResultIterator answers = reasoner.answerQueryInNativeFormat(query, true)) {
+					for (; answers.hasNext(); count++) {
+						answers.next();
+					}
+				}
+				report("iterate ids", start, count);
+
+				start = System.nanoTime();
+				report("count", start, reasoner.countQueryAnswers(query, true).getCount());
+
+				start = System.nanoTime();
+				report("count distinct ?X", start,
+						reasoner.countQueryAnswers(query, Arrays.asList(x), true).getCount());
+
+				start = System.nanoTime();
+				report("count distinct ?X, ?Z", start,
+						reasoner.countQueryAnswers(query, Arrays.asList(x, z), true).getCount());
+			}
+		}
+	}
+
+	static void report(final String name, final long start, final long count) {
+		System.out.println(name + ": " + (System.nanoTime() - start) / 1000000 + " ms, " + count + " answers");
+	}
+
+}
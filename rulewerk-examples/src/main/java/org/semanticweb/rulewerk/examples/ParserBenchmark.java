@@ -0,0 +1,168 @@
+package org.semanticweb.rulewerk.examples;
+
+/*-
+ * #%L
+ * Rulewerk Examples
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.parser.ParsingException;
+import org.semanticweb.rulewerk.parser.RuleParser;
+
+/**
+ * This benchmark compares ways of parsing large fact files. The facts are
+ * generated from the DOID triples and the bicycle CSV data used in other
+ * examples, and are parsed from memory, so that only parsing time is measured.
+ *
+ * @author Philipp Hanisch
+ *
+ */
+public class ParserBenchmark {
+
+	static final int WARMUP_ROUNDS = 2;
+	static final int ROUNDS = 5;
+
+	@FunctionalInterface
+	interface ParsingTask {
+		long run(byte[] input) throws ParsingException;
+	}
+
+	public static void main(final String[] args) throws IOException, ParsingException {
+		ExamplesUtils.configureLogging();
+
+		final ForkJoinPool singleThreadPool = new ForkJoinPool(1);
+		try {
+			benchmarkAll("doid", makeDoidFacts(), singleThreadPool);
+			benchmarkAll("bicycle", makeBicycleFacts(), singleThreadPool);
+		} finally {
+			singleThreadPool.shutdown();
+		}
+	}
+
+	static void benchmarkAll(final String dataset, final byte[] input, final ForkJoinPool singleThreadPool)
+			throws ParsingException {
+		System.out.println("Generated " + input.length + " bytes of " + dataset + " facts.");
+
+		benchmark("parse into knowledge base", input, ParserBenchmark::parseIntoKnowledgeBase);
+		benchmark("parse statements to sink", input, ParserBenchmark::parseStatementsToSink);
+		benchmark("parse statements to sink with ground fact parser", input,
+				in -> parseStatementsToSinkInParallel(in, singleThreadPool));
+		benchmark("parse into knowledge base in parallel", input, ParserBenchmark::parseIntoKnowledgeBaseInParallel);
+		benchmark("parse statements to sink in parallel", input,
+				in -> parseStatementsToSinkInParallel(in, ForkJoinPool.commonPool()));
+	}
+
+	static long parseIntoKnowledgeBase(final byte[] input) throws ParsingException {
+		final KnowledgeBase knowledgeBase = new KnowledgeBase();
+		RuleParser.parseInto(knowledgeBase, new ByteArrayInputStream(input));
+		return knowledgeBase.getStatements().size();
+	}
+
+	static long parseStatementsToSink(final byte[] input) throws ParsingException {
+		final AtomicLong count = new AtomicLong();
+		RuleParser.parseStatements(statement -> count.incrementAndGet(), new ByteArrayInputStream(input));
+		return count.get();
+	}
+
+	static long parseIntoKnowledgeBaseInParallel(final byte[] input) throws ParsingException {
+		final KnowledgeBase knowledgeBase = new KnowledgeBase();
+		RuleParser.parseIntoInParallel(knowledgeBase, new ByteArrayInputStream(input));
+		return knowledgeBase.getStatements().size();
+	}
+
+	static long parseStatementsToSinkInParallel(final byte[] input, final ForkJoinPool pool) throws ParsingException {
+		final AtomicLong count = new AtomicLong();
+		RuleParser.parseStatementsInParallel(statement -> count.incrementAndGet(), new ByteArrayInputStream(input),
+				null, pool);
+		return count.get();
+	}
+
+	static void benchmark(final String name, final byte[] input, final ParsingTask task) throws ParsingException {
+		long statements = 0;
+		for (int i = 0; i < WARMUP_ROUNDS; i++) {
+			task.run(input);
+		}
+		final long start = System.nanoTime();
+		for (int i = 0; i < ROUNDS; i++) {
+			statements = task.run(input);
+		}
+		final long millis = (System.nanoTime() - start) / 1000000 / ROUNDS;
+		System.out.println(name + ": " + statements + " statements, " + millis + " ms per round");
+	}
+
+	/**
+	 * Generate ground facts from the DOID triples. Triples with unicode escapes
+	 * are skipped, since the rule syntax does not support them.
+	 *
+	 * @return the facts, UTF-8 encoded
+	 * @throws IOException if reading the input data fails
+	 */
+	static byte[] makeDoidFacts() throws IOException {
+		final StringBuilder facts = new StringBuilder();
+		try (BufferedReader reader = openGzip("doid.nt.gz")) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				line = line.trim();
+				if (line.isEmpty() || line.contains("\\u") || !line.endsWith(".")) {
+					continue;
+				}
+				final String triple = line.substring(0, line.length() - 1).trim();
+				final int first = triple.indexOf(' ');
+				final int second = triple.indexOf(' ', first + 1);
+				facts.append("doidTriple(").append(triple, 0, first).append(", ").append(triple, first + 1, second)
+						.append(", ").append(triple.substring(second + 1).trim()).append(") .\n");
+			}
+		}
+		return facts.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Generate ground facts with string constants from the bicycle CSV files.
+	 *
+	 * @return the facts, UTF-8 encoded
+	 * @throws IOException if reading the input data fails
+	 */
+	static byte[] makeBicycleFacts() throws IOException {
+		final StringBuilder facts = new StringBuilder();
+		for (final String predicate : new String[] { "bicycleEDB", "wheelEDB", "hasPartEDB" }) {
+			try (BufferedReader reader = openGzip(predicate + ".csv.gz")) {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					facts.append(predicate).append("(\"").append(line.replace(",", "\", \"")).append("\") .\n");
+				}
+			}
+		}
+		return facts.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static BufferedReader openGzip(final String fileName) throws IOException {
+		return new BufferedReader(new InputStreamReader(
+				new GZIPInputStream(new FileInputStream(ExamplesUtils.INPUT_FOLDER + fileName)), StandardCharsets.UTF_8));
+	}
+
+}
@@ -0,0 +1,102 @@
+package org.semanticweb.rulewerk.examples;
+
+/*-
+ * #%L
+ * Rulewerk Examples
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.semanticweb.rulewerk.core.model.api.Constant;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.model.implementation.Serializer;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+
+/**
+ * This benchmark measures the throughput of writing a knowledge base with a
+ * million facts to a file, with and without compression. As a baseline, it
+ * also measures writing the facts one string at a time, as
+ * {@link KnowledgeBase#writeKnowledgeBase(OutputStream)} did before.
+ *
+ * @author Philipp Hanisch
+ *
+ */
+public class SerializationBenchmark {
+
+	static final int FACTS = 1000000;
+	static final int ROUNDS = 3;
+
+	public static void main(final String[] args) throws IOException {
+		final KnowledgeBase kb = makeKnowledgeBase();
+		final File file = File.createTempFile("rulewerk-benchmark", ".rls");
+		final File gzFile = new File(file.getPath() + ".gz");
+		try {
+			for (int i = 0; i < ROUNDS; i++) {
+				long start = System.nanoTime();
+				try (OutputStream stream = new FileOutputStream(file)) {
+					for (final Fact fact : kb.getFacts()) {
+						stream.write(Serializer.getFactString(fact).getBytes());
+						stream.write('\n');
+					}
+				}
+				report("strings per fact", start, file);
+
+				start = System.nanoTime();
+				kb.writeKnowledgeBase(file.getPath());
+				report("statement writer", start, file);
+
+				start = System.nanoTime();
+				kb.writeKnowledgeBase(gzFile.getPath());
+				report("statement writer, gzip", start, gzFile);
+			}
+		} finally {
+			file.delete();
+			gzFile.delete();
+		}
+	}
+
+	static KnowledgeBase makeKnowledgeBase() {
+		final Predicate predicate = Expressions.makePredicate("https://example.org/edge", 3);
+		final Constant[] nodes = new Constant[FACTS / 10];
+		for (int i = 0; i < nodes.length; i++) {
+			nodes[i] = Expressions.makeAbstractConstant("https://example.org/node" + i);
+		}
+		final Constant[] labels = new Constant[100];
+		for (int i = 0; i < labels.length; i++) {
+			labels[i] = Expressions.makeLanguageStringConstant("label " + i, "en");
+		}
+		final KnowledgeBase kb = new KnowledgeBase();
+		for (int i = 0; i < FACTS; i++) {
+			kb.addStatement(Expressions.makeFact(predicate, nodes[i % nodes.length],
+					nodes[(i + i / nodes.length) % nodes.length], labels[i % labels.length]));
+		}
+		return kb;
+	}
+
+	static void report(final String name, final long start, final File file) {
+		final long millis = (System.nanoTime() - start) / 1000000;
+		System.out.println(name + ": " + millis + " ms (" + FACTS / Math.max(millis, 1) + " facts per ms), "
+				+ file.length() / (1024 * 1024) + " MB");
+	}
+
+}
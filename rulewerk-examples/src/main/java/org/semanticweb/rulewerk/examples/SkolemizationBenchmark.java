@@ -0,0 +1,112 @@
+package org.semanticweb.rulewerk.examples;
+
+/*-
+ * #%L
+ * Rulewerk Examples
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+import org.semanticweb.rulewerk.core.reasoner.implementation.Skolemization;
+
+/**
+ * This benchmark measures the skolemization of named nulls, using the blank
+ * nodes of all N-Triples files in the input folder in the order in which they
+ * occur. As a baseline, it also measures name-based (MD5) UUIDs over the
+ * namespace and the name, which {@link Skolemization} used before.
+ *
+ * @author Philipp Hanisch
+ *
+ */
+public class SkolemizationBenchmark {
+
+	static final int WARMUP_ROUNDS = 2;
+	static final int ROUNDS = 5;
+
+	private static final Pattern BLANK_NODE = Pattern.compile("_:[^\\s]+");
+
+	public static void main(final String[] args) throws IOException {
+		ExamplesUtils.configureLogging();
+
+		final List<String> names = collectBlankNodes();
+		System.out.println("Collected " + names.size() + " blank node occurrences.");
+
+		final byte[] namespace = UUID.randomUUID().toString().getBytes();
+		benchmark("name-based UUID", names, name -> {
+			final byte[] nameBytes = name.getBytes();
+			final byte[] bytes = new byte[namespace.length + nameBytes.length];
+			System.arraycopy(namespace, 0, bytes, 0, namespace.length);
+			System.arraycopy(nameBytes, 0, bytes, namespace.length, nameBytes.length);
+			return UUID.nameUUIDFromBytes(bytes).toString();
+		});
+		final Skolemization skolemization = new Skolemization();
+		benchmark("skolemization", names, name -> skolemization.skolemizeNamedNull(name).getName());
+	}
+
+	static void benchmark(final String name, final List<String> names, final Function<String, String> task) {
+		for (int i = 0; i < WARMUP_ROUNDS; i++) {
+			for (final String blankNode : names) {
+				task.apply(blankNode);
+			}
+		}
+		long length = 0;
+		final long start = System.nanoTime();
+		for (int i = 0; i < ROUNDS; i++) {
+			for (final String blankNode : names) {
+				length += task.apply(blankNode).length();
+			}
+		}
+		final long millis = (System.nanoTime() - start) / 1000000 / ROUNDS;
+		System.out.println(name + ": " + length + " characters, " + millis + " ms per round");
+	}
+
+	static List<String> collectBlankNodes() throws IOException {
+		final List<String> names = new ArrayList<>();
+		final File[] files = new File(ExamplesUtils.INPUT_FOLDER)
+				.listFiles((directory, fileName) -> fileName.endsWith(".nt.gz"));
+		if (files == null) {
+			return names;
+		}
+		for (final File file : files) {
+			try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+					new GZIPInputStream(new FileInputStream(file)), StandardCharsets.UTF_8))) {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					final Matcher matcher = BLANK_NODE.matcher(line);
+					while (matcher.find()) {
+						names.add(matcher.group());
+					}
+				}
+			}
+		}
+		return names;
+	}
+
+}
@@ -0,0 +1,80 @@
+package org.semanticweb.rulewerk.examples;
+
+/*-
+ * #%L
+ * Rulewerk Examples
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.parser.ParsingException;
+import org.semanticweb.rulewerk.parser.RuleParser;
+
+/**
+ * This benchmark compares the time needed to restore a knowledge base with a
+ * million facts from a file: by parsing the serialised knowledge base with
+ * {@link RuleParser}, and by loading a binary snapshot created with
+ * {@link KnowledgeBase#save(Path)}.
+ *
+ * @author Philipp Hanisch
+ *
+ */
+public class SnapshotBenchmark {
+
+	static final int ROUNDS = 3;
+
+	public static void main(final String[] args) throws IOException, ParsingException {
+		final KnowledgeBase kb = SerializationBenchmark.makeKnowledgeBase();
+		final File rlsFile = File.createTempFile("rulewerk-benchmark", ".rls");
+		final File snapshotFile = File.createTempFile("rulewerk-benchmark", ".rwks");
+		try {
+			kb.writeKnowledgeBase(rlsFile.getPath());
+			long start = System.nanoTime();
+			kb.save(snapshotFile.toPath());
+			report("save snapshot", start, kb, snapshotFile);
+
+			for (int i = 0; i < ROUNDS; i++) {
+				start = System.nanoTime();
+				final KnowledgeBase parsed = new KnowledgeBase();
+				try (InputStream stream = new FileInputStream(rlsFile)) {
+					RuleParser.parseInto(parsed, stream);
+				}
+				report("parse", start, parsed, rlsFile);
+
+				start = System.nanoTime();
+				final KnowledgeBase loaded = KnowledgeBase.load(snapshotFile.toPath());
+				report("load snapshot", start, loaded, snapshotFile);
+			}
+		} finally {
+			rlsFile.delete();
+			snapshotFile.delete();
+		}
+	}
+
+	static void report(final String name, final long start, final KnowledgeBase kb, final File file) {
+		final long millis = (System.nanoTime() - start) / 1000000;
+		System.out.println(name + ": " + millis + " ms, " + kb.getStatements().size() + " statements, "
+				+ file.length() / (1024 * 1024) + " MB");
+	}
+
+}
@@ -0,0 +1,132 @@
+package org.semanticweb.rulewerk.examples.owlapi;
+
+/*-
+ * #%L
+ * Rulewerk Examples
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLNamedIndividual;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.core.reasoner.Reasoner;
+import org.semanticweb.rulewerk.examples.ExamplesUtils;
+import org.semanticweb.rulewerk.owlapi.AssertionDataSources;
+import org.semanticweb.rulewerk.owlapi.OwlToRulesConverter;
+import org.semanticweb.rulewerk.reasoner.vlog.VLogDictionaryDataSource;
+import org.semanticweb.rulewerk.reasoner.vlog.VLogReasoner;
+
+/**
+ * This benchmark compares ways of loading the assertions of an ontology with a
+ * large ABox into the reasoner: as {@link org.semanticweb.rulewerk.core.model.api.Fact}
+ * objects, in dictionary-encoded in-memory data sources, and in csv files, see
+ * {@link AssertionDataSources}. Each round converts the ontology, reasons, and
+ * counts the answers to a query, which are the same in all cases.
+ *
+ * @author Philipp Hanisch
+ *
+ */
+public class OwlAssertionsBenchmark {
+
+	static final int INDIVIDUALS = 200000;
+	static final int ROUNDS = 3;
+
+	static final String PREFIX = "https://example.org/";
+
+	public static void main(final String[] args) throws OWLOntologyCreationException, IOException {
+		ExamplesUtils.configureLogging();
+		final OWLOntology ontology = makeOntology();
+		final PositiveLiteral query = Expressions.makePositiveLiteral(PREFIX + "Person",
+				Expressions.makeUniversalVariable("X"));
+		final File directory = Files.createTempDirectory("rulewerk-benchmark").toFile();
+		try {
+			for (int i = 0; i < ROUNDS; i++) {
+				long start = System.nanoTime();
+				OwlToRulesConverter converter = new OwlToRulesConverter();
+				converter.addOntology(ontology);
+				KnowledgeBase kb = new KnowledgeBase();
+				kb.addStatements(new ArrayList<>(converter.getRules()));
+				kb.addStatements(converter.getFacts());
+				report("facts", start, kb, query);
+
+				start = System.nanoTime();
+				converter = new OwlToRulesConverter(
+						AssertionDataSources.inMemory(arity -> new VLogDictionaryDataSource(arity, INDIVIDUALS)));
+				converter.addOntology(ontology);
+				kb = new KnowledgeBase();
+				kb.addStatements(new ArrayList<>(converter.getRules()));
+				kb.addStatements(converter.getDataSourceDeclarations());
+				report("in-memory data sources", start, kb, query);
+
+				start = System.nanoTime();
+				converter = new OwlToRulesConverter(AssertionDataSources.csvFiles(directory));
+				converter.addOntology(ontology);
+				kb = new KnowledgeBase();
+				kb.addStatements(new ArrayList<>(converter.getRules()));
+				kb.addStatements(converter.getDataSourceDeclarations());
+				report("csv data sources", start, kb, query);
+				for (final File file : directory.listFiles()) {
+					file.delete();
+				}
+			}
+		} finally {
+			directory.delete();
+		}
+	}
+
+	static OWLOntology makeOntology() throws OWLOntologyCreationException {
+		final OWLDataFactory df = OWLManager.getOWLDataFactory();
+		final OWLClass student = df.getOWLClass(IRI.create(PREFIX + "Student"));
+		final OWLClass person = df.getOWLClass(IRI.create(PREFIX + "Person"));
+		final OWLObjectProperty knows = df.getOWLObjectProperty(IRI.create(PREFIX + "knows"));
+		final List<OWLAxiom> axioms = new ArrayList<>();
+		axioms.add(df.getOWLSubClassOfAxiom(student, person));
+		axioms.add(df.getOWLObjectPropertyRangeAxiom(knows, person));
+		for (int i = 0; i < INDIVIDUALS; i++) {
+			final OWLNamedIndividual individual = df.getOWLNamedIndividual(IRI.create(PREFIX + "i" + i));
+			axioms.add(df.getOWLClassAssertionAxiom(student, individual));
+			axioms.add(df.getOWLObjectPropertyAssertionAxiom(knows, individual,
+					df.getOWLNamedIndividual(IRI.create(PREFIX + "j" + i))));
+		}
+		return OWLManager.createOWLOntologyManager().createOntology(axioms);
+	}
+
+	static void report(final String name, final long start, final KnowledgeBase kb, final PositiveLiteral query)
+			throws IOException {
+		try (Reasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+			final long count = reasoner.countQueryAnswers(query, true).getCount();
+			System.out.println(name + ": " + (System.nanoTime() - start) / 1000000 + " ms, " + count + " answers");
+		}
+	}
+
+}
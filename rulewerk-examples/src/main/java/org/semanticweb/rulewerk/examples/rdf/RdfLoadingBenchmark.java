@@ -0,0 +1,130 @@
+package org.semanticweb.rulewerk.examples.rdf;
+
+/*-
+ * #%L
+ * Rulewerk Examples
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+import org.openrdf.model.Model;
+import org.openrdf.model.impl.LinkedHashModel;
+import org.openrdf.rio.RDFFormat;
+import org.openrdf.rio.RDFHandlerException;
+import org.openrdf.rio.RDFParseException;
+import org.openrdf.rio.RDFParser;
+import org.openrdf.rio.Rio;
+import org.openrdf.rio.helpers.StatementCollector;
+import org.semanticweb.rulewerk.core.model.implementation.DataSourceDeclarationImpl;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.examples.ExamplesUtils;
+import org.semanticweb.rulewerk.rdf.RdfModelConverter;
+import org.semanticweb.rulewerk.rdf.RdfTriplesToDataSourceHandler;
+import org.semanticweb.rulewerk.reasoner.vlog.VLogDictionaryDataSource;
+import org.semanticweb.rulewerk.reasoner.vlog.VLogReasoner;
+
+/**
+ * This benchmark compares two ways of loading the triples of an RDF file into
+ * the reasoner: converting a parsed {@link Model} to facts with
+ * {@link RdfModelConverter#rdfModelToFacts(Model)}, and streaming the triples
+ * into a {@link VLogDictionaryDataSource} with
+ * {@link RdfTriplesToDataSourceHandler}. For each, it reports the time needed
+ * to read the file and reason over the triples (without rules), and the heap
+ * that is retained by the knowledge base before reasoning.
+ *
+ * @author Philipp Hanisch
+ *
+ */
+public class RdfLoadingBenchmark {
+
+	static final int ROUNDS = 3;
+
+	static final String RDF_FILE = ExamplesUtils.INPUT_FOLDER + "doid.nt.gz";
+
+	public static void main(final String[] args) throws IOException, RDFParseException, RDFHandlerException {
+		ExamplesUtils.configureLogging();
+
+		final File file = new File(args.length > 0 ? args[0] : RDF_FILE);
+		for (int i = 0; i < ROUNDS; i++) {
+			benchmarkFacts(file);
+			benchmarkDictionaryDataSource(file);
+		}
+	}
+
+	static void benchmarkFacts(final File file) throws IOException, RDFParseException, RDFHandlerException {
+		final long start = System.nanoTime();
+		final Model model = new LinkedHashModel();
+		try (InputStream inputStream = openFile(file)) {
+			final RDFParser rdfParser = Rio.createParser(RDFFormat.NTRIPLES);
+			rdfParser.setRDFHandler(new StatementCollector(model));
+			rdfParser.parse(inputStream, file.toURI().toString());
+		}
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatements(RdfModelConverter.rdfModelToFacts(model));
+		model.clear();
+		final long heap = usedHeap();
+		load(kb);
+		report("facts", start, heap, kb);
+	}
+
+	static void benchmarkDictionaryDataSource(final File file) throws IOException, RDFParseException {
+		final long start = System.nanoTime();
+		final VLogDictionaryDataSource dataSource = new VLogDictionaryDataSource(3, 1024);
+		try (InputStream inputStream = openFile(file)) {
+			RdfTriplesToDataSourceHandler.loadTriples(inputStream, RDFFormat.NTRIPLES, file.toURI().toString(),
+					dataSource);
+		}
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatement(new DataSourceDeclarationImpl(RdfModelConverter.RDF_TRIPLE_PREDICATE, dataSource));
+		final long heap = usedHeap();
+		load(kb);
+		report("dictionary data source (" + dataSource.getDictionarySize() + " distinct terms)", start, heap, kb);
+	}
+
+	static InputStream openFile(final File file) throws IOException {
+		final InputStream inputStream = new FileInputStream(file);
+		return file.getName().endsWith(".gz") ? new GZIPInputStream(inputStream) : inputStream;
+	}
+
+	static void load(final KnowledgeBase kb) throws IOException {
+		try (VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+		}
+	}
+
+	/**
+	 * Measures the heap in use after garbage collection. The time spent on garbage
+	 * collection is part of the reported loading time of both variants.
+	 */
+	static long usedHeap() {
+		final Runtime runtime = Runtime.getRuntime();
+		System.gc();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	static void report(final String name, final long start, final long heap, final KnowledgeBase kb) {
+		final long millis = (System.nanoTime() - start) / 1000000;
+		System.out.println(name + ": " + millis + " ms, " + heap / (1024 * 1024) + " MB heap before reasoning, "
+				+ kb.getStatements().size() + " statements");
+	}
+
+}
@@ -0,0 +1,225 @@
+package org.semanticweb.rulewerk.owlapi;
+
+/*-
+ * #%L
+ * Rulewerk OWL API Support
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.apache.commons.lang3.Validate;
+import org.semanticweb.rulewerk.core.exceptions.RulewerkRuntimeException;
+import org.semanticweb.rulewerk.core.model.api.DataSourceDeclaration;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.api.TermType;
+import org.semanticweb.rulewerk.core.model.implementation.DataSourceDeclarationImpl;
+import org.semanticweb.rulewerk.core.reasoner.implementation.CsvFileDataSource;
+import org.semanticweb.rulewerk.core.reasoner.implementation.InMemoryDataSource;
+
+/**
+ * Collects the facts obtained from OWL assertion axioms in one data source per
+ * predicate, instead of {@link Fact} objects. The data sources are either
+ * {@link InMemoryDataSource}s created by a given factory, such as the
+ * dictionary-encoded in-memory data source of the VLog backend, or csv files in
+ * a given directory. Named nulls, which represent anonymous individuals, are
+ * stored under their name, which the VLog backend also uses for named nulls
+ * in facts. Facts that occur more than once are stored more than once; the
+ * reasoner ignores such duplicates. Facts may be added concurrently, as done by
+ * {@link OwlToRulesConverter#addOntology(org.semanticweb.owlapi.model.OWLOntology, int)}.
+ *
+ * @see OwlToRulesConverter#OwlToRulesConverter(AssertionDataSources)
+ *
+ * @author Philipp Hanisch
+ *
+ */
+public abstract class AssertionDataSources {
+
+	private long factCount = 0;
+
+	/**
+	 * Returns data sources that add the facts to {@link InMemoryDataSource}s.
+	 *
+	 * @param dataSourceFactory function that creates an empty in-memory data source
+	 *                          of the given arity
+	 * @return new data sources
+	 */
+	public static AssertionDataSources inMemory(final IntFunction<InMemoryDataSource> dataSourceFactory) {
+		Validate.notNull(dataSourceFactory, "Data source factory cannot be null!");
+		return new InMemoryAssertionDataSources(dataSourceFactory);
+	}
+
+	/**
+	 * Returns data sources that write the facts to one csv file per predicate in
+	 * the given directory. The files are complete once
+	 * {@link #getDataSourceDeclarations()} has been called.
+	 *
+	 * @param directory an existing directory
+	 * @return new data sources
+	 */
+	public static AssertionDataSources csvFiles(final File directory) {
+		Validate.isTrue(directory.isDirectory(), "Not a directory: %s", directory);
+		return new CsvAssertionDataSources(directory);
+	}
+
+	/**
+	 * Adds the given fact to the data source of its predicate.
+	 *
+	 * @param fact a fact
+	 */
+	synchronized void addFact(final Fact fact) {
+		final List<Term> arguments = fact.getArguments();
+		final String[] tuple = new String[arguments.size()];
+		for (int i = 0; i < tuple.length; i++) {
+			tuple[i] = this.getConstantName(arguments.get(i));
+		}
+		this.addTuple(fact.getPredicate(), tuple);
+		this.factCount++;
+	}
+
+	/**
+	 * @return the number of facts added so far
+	 */
+	public synchronized long getFactCount() {
+		return this.factCount;
+	}
+
+	/**
+	 * Returns declarations of the data sources of all predicates that facts have
+	 * been added for, to be added to a knowledge base.
+	 *
+	 * @return list of data source declarations
+	 * @throws IOException if a csv file could not be written
+	 */
+	public abstract List<DataSourceDeclaration> getDataSourceDeclarations() throws IOException;
+
+	abstract void addTuple(Predicate predicate, String[] tuple);
+
+	String getConstantName(final Term term) {
+		return term.getName();
+	}
+
+	private static final class InMemoryAssertionDataSources extends AssertionDataSources {
+
+		private final IntFunction<InMemoryDataSource> dataSourceFactory;
+		private final Map<Predicate, InMemoryDataSource> dataSources = new LinkedHashMap<>();
+
+		InMemoryAssertionDataSources(final IntFunction<InMemoryDataSource> dataSourceFactory) {
+			this.dataSourceFactory = dataSourceFactory;
+		}
+
+		@Override
+		void addTuple(final Predicate predicate, final String[] tuple) {
+			this.dataSources.computeIfAbsent(predicate, p -> this.dataSourceFactory.apply(p.getArity()))
+					.addTuple(tuple);
+		}
+
+		@Override
+		public List<DataSourceDeclaration> getDataSourceDeclarations() {
+			final List<DataSourceDeclaration> declarations = new ArrayList<>();
+			for (final Entry<Predicate, InMemoryDataSource> entry : this.dataSources.entrySet()) {
+				declarations.add(new DataSourceDeclarationImpl(entry.getKey(), entry.getValue()));
+			}
+			return declarations;
+		}
+	}
+
+	private static final class CsvAssertionDataSources extends AssertionDataSources {
+
+		private final File directory;
+		private final Map<Predicate, File> files = new LinkedHashMap<>();
+		private final Map<Predicate, CSVPrinter> printers = new LinkedHashMap<>();
+		private final Set<String> fileNames = new HashSet<>();
+
+		CsvAssertionDataSources(final File directory) {
+			this.directory = directory;
+		}
+
+		@Override
+		void addTuple(final Predicate predicate, final String[] tuple) {
+			try {
+				CSVPrinter printer = this.printers.get(predicate);
+				if (printer == null) {
+					final File file = this.newFile(predicate);
+					printer = new CSVPrinter(Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8),
+							CSVFormat.DEFAULT);
+					this.files.put(predicate, file);
+					this.printers.put(predicate, printer);
+				}
+				printer.printRecord((Object[]) tuple);
+			} catch (final IOException e) {
+				throw new RulewerkRuntimeException("Failed to write facts of predicate " + predicate + ".", e);
+			}
+		}
+
+		private File newFile(final Predicate predicate) {
+			String name = predicate.getName().replaceAll("[^A-Za-z0-9_.]", "_");
+			if (name.length() > 100) {
+				name = name.substring(name.length() - 100);
+			}
+			final String base = name + "-" + predicate.getArity();
+			String fileName = base + ".csv";
+			for (int i = 2; !this.fileNames.add(fileName); i++) {
+				fileName = base + "_" + i + ".csv";
+			}
+			return new File(this.directory, fileName);
+		}
+
+		/**
+		 * In csv files, absolute IRIs are enclosed in angle brackets to tell them
+		 * apart from other constants, as in the files that the VLog backend writes.
+		 */
+		@Override
+		String getConstantName(final Term term) {
+			final String name = term.getName();
+			if (term.getType() == TermType.ABSTRACT_CONSTANT && name.contains(":")) {
+				return "<" + name + ">";
+			}
+			return name;
+		}
+
+		@Override
+		public List<DataSourceDeclaration> getDataSourceDeclarations() throws IOException {
+			for (final CSVPrinter printer : this.printers.values()) {
+				printer.close();
+			}
+			this.printers.clear();
+			final List<DataSourceDeclaration> declarations = new ArrayList<>();
+			for (final Entry<Predicate, File> entry : this.files.entrySet()) {
+				declarations.add(new DataSourceDeclarationImpl(entry.getKey(),
+						new CsvFileDataSource(entry.getValue().getPath())));
+			}
+			return declarations;
+		}
+	}
+
+}
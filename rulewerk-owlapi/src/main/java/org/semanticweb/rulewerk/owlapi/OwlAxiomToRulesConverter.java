@@ -98,6 +98,7 @@ public class OwlAxiomToRulesConverter implements OWLAxiomVisitor {
 
 	final Set<Rule> rules = new HashSet<>();
 	final Set<Fact> facts = new HashSet<>();
+	AssertionDataSources assertionDataSources = null;
 	final Variable frontierVariable = new UniversalVariableImpl("X");
 	int freshVariableCounter = 0;
 
@@ -110,6 +111,20 @@ public class OwlAxiomToRulesConverter implements OWLAxiomVisitor {
 		skolemization = new Skolemization();
 	}
 
+	/**
+	 * Adds the given fact to the {@link #assertionDataSources} if they are set,
+	 * and to the set of {@link #facts} otherwise.
+	 *
+	 * @param fact a fact
+	 */
+	void addFact(final Fact fact) {
+		if (this.assertionDataSources == null) {
+			this.facts.add(fact);
+		} else {
+			this.assertionDataSources.addFact(fact);
+		}
+	}
+
 	/**
 	 * Returns a fresh universal variable, which can be used as auxiliary variable
 	 * in the current axiom's translation.
@@ -147,7 +162,7 @@ public class OwlAxiomToRulesConverter implements OWLAxiomVisitor {
 
 			if (converter.body.isTrueOrEmpty() && (headConjunction.getVariables().count() == 0)) {
 				for (final PositiveLiteral conjunct : headConjunction.getLiterals()) {
-					this.facts.add(new FactImpl(conjunct.getPredicate(), conjunct.getArguments()));
+					this.addFact(new FactImpl(conjunct.getPredicate(), conjunct.getArguments()));
 				}
 			} else {
 				final Conjunction<PositiveLiteral> bodyConjunction = this.constructBodyConjunction(converter);
@@ -361,7 +376,7 @@ public class OwlAxiomToRulesConverter implements OWLAxiomVisitor {
 	public void visit(final OWLObjectPropertyAssertionAxiom axiom) {
 		final Term subject = OwlToRulesConversionHelper.getIndividualTerm(axiom.getSubject(), skolemization);
 		final Term object = OwlToRulesConversionHelper.getIndividualTerm(axiom.getObject(), skolemization);
-		this.facts.add(OwlToRulesConversionHelper.getObjectPropertyFact(axiom.getProperty(), subject, object));
+		this.addFact(OwlToRulesConversionHelper.getObjectPropertyFact(axiom.getProperty(), subject, object));
 	}
 
 	@Override
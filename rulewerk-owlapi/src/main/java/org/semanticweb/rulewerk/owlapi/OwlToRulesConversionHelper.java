@@ -39,9 +39,9 @@ import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
 import org.semanticweb.rulewerk.core.model.api.Predicate;
 import org.semanticweb.rulewerk.core.model.api.Term;
 import org.semanticweb.rulewerk.core.model.implementation.AbstractConstantImpl;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
 import org.semanticweb.rulewerk.core.model.implementation.FactImpl;
 import org.semanticweb.rulewerk.core.model.implementation.PositiveLiteralImpl;
-import org.semanticweb.rulewerk.core.model.implementation.PredicateImpl;
 import org.semanticweb.rulewerk.core.reasoner.implementation.Skolemization;
 import org.semanticweb.rulewerk.owlapi.AbstractClassToRuleConverter.SimpleConjunction;
 
@@ -78,7 +78,7 @@ public class OwlToRulesConversionHelper {
 	 * @return a suitable unary predicate
 	 */
 	public static Predicate getClassPredicate(final OWLClass owlClass) {
-		return new PredicateImpl(owlClass.getIRI().toString(), 1);
+		return Expressions.makePredicate(owlClass.getIRI().toString(), 1);
 	}
 
 	/**
@@ -89,7 +89,7 @@ public class OwlToRulesConversionHelper {
 	 * @return a suitable binary predicate
 	 */
 	public static Predicate getObjectPropertyPredicate(final OWLObjectProperty owlObjectProperty) {
-		return new PredicateImpl(owlObjectProperty.getIRI().toString(), 2);
+		return Expressions.makePredicate(owlObjectProperty.getIRI().toString(), 2);
 	}
 
 	public static Predicate getAuxiliaryClassPredicate(final Collection<OWLClassExpression> owlClassExpressions) {
@@ -101,7 +101,7 @@ public class OwlToRulesConversionHelper {
 			final byte[] digest = messageDigest.digest();
 			final BigInteger bigInt = new BigInteger(1, digest);
 			final String hashtext = bigInt.toString(16);
-			return new PredicateImpl("aux-" + hashtext, 1);
+			return Expressions.makePredicate("aux-" + hashtext, 1);
 		} catch (NoSuchAlgorithmException | UnsupportedEncodingException e) {
 			throw new RulewerkRuntimeException("We are missing some core functionality of Java here", e);
 		}
@@ -158,12 +158,12 @@ public class OwlToRulesConversionHelper {
 	}
 
 	public static PositiveLiteral getBottom(final Term term) {
-		final Predicate predicate = new PredicateImpl("http://www.w3.org/2002/07/owl#Nothing", 1);
+		final Predicate predicate = Expressions.makePredicate("http://www.w3.org/2002/07/owl#Nothing", 1);
 		return new PositiveLiteralImpl(predicate, Arrays.asList(term));
 	}
 
 	public static PositiveLiteral getTop(final Term term) {
-		final Predicate predicate = new PredicateImpl("http://www.w3.org/2002/07/owl#Thing", 1);
+		final Predicate predicate = Expressions.makePredicate("http://www.w3.org/2002/07/owl#Thing", 1);
 		return new PositiveLiteralImpl(predicate, Arrays.asList(term));
 	}
 
@@ -20,11 +20,22 @@ package org.semanticweb.rulewerk.owlapi;
  * #L%
  */
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Collectors;
 
+import org.apache.commons.lang3.Validate;
+import org.semanticweb.owlapi.model.OWLAxiom;
 import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.rulewerk.core.model.api.DataSourceDeclaration;
 import org.semanticweb.rulewerk.core.model.api.Fact;
 import org.semanticweb.rulewerk.core.model.api.Rule;
+import org.semanticweb.rulewerk.core.reasoner.implementation.Skolemization;
 
 /**
  * Class for converting OWL ontologies to rules.
@@ -36,6 +47,26 @@ public class OwlToRulesConverter {
 
 	final OwlAxiomToRulesConverter owlAxiomToRulesConverter = new OwlAxiomToRulesConverter();
 
+	/**
+	 * Creates a converter that collects the facts obtained from OWL assertions in
+	 * the set returned by {@link #getFacts()}.
+	 */
+	public OwlToRulesConverter() {
+	}
+
+	/**
+	 * Creates a converter that adds the facts obtained from OWL assertions to the
+	 * given data sources instead of the set returned by {@link #getFacts()}, which
+	 * remains empty. This avoids keeping a {@link Fact} object for each assertion
+	 * of large ABoxes; TBox axioms are still converted to rules.
+	 *
+	 * @param assertionDataSources the data sources for facts
+	 */
+	public OwlToRulesConverter(final AssertionDataSources assertionDataSources) {
+		Validate.notNull(assertionDataSources, "Assertion data sources cannot be null!");
+		this.owlAxiomToRulesConverter.assertionDataSources = assertionDataSources;
+	}
+
 	/**
 	 * Converts the given OWL ontology to rules and facts, and adds the result to
 	 * the internal buffer of rules and facts for later retrieval.
@@ -47,6 +78,55 @@ public class OwlToRulesConverter {
 		owlOntology.axioms().forEach(owlAxiom -> owlAxiom.accept(this.owlAxiomToRulesConverter));
 	}
 
+	/**
+	 * Converts the given OWL ontology to rules and facts on the given number of
+	 * threads, and adds the result to the internal buffer of rules and facts for
+	 * later retrieval. The axioms are split into chunks that are converted by
+	 * separate {@link OwlAxiomToRulesConverter}s. They share the renaming of
+	 * blank nodes, so the result is the same as that of
+	 * {@link #addOntology(OWLOntology)}. If this converter was created with
+	 * {@link AssertionDataSources}, facts are added to them directly by the
+	 * threads, without collecting them first; otherwise, the facts of each chunk
+	 * are merged into the set returned by {@link #getFacts()}.
+	 *
+	 * @param owlOntology the ontology
+	 * @param threads     the number of threads to convert axioms on
+	 */
+	public void addOntology(final OWLOntology owlOntology, final int threads) {
+		Validate.isTrue(threads > 0, "Number of threads must be positive!");
+		if (threads == 1) {
+			this.addOntology(owlOntology);
+			return;
+		}
+		this.owlAxiomToRulesConverter.startNewBlankNodeContext();
+		final Skolemization skolemization = this.owlAxiomToRulesConverter.skolemization;
+		final AssertionDataSources assertionDataSources = this.owlAxiomToRulesConverter.assertionDataSources;
+		final List<OWLAxiom> axioms = owlOntology.axioms().collect(Collectors.toList());
+		final int chunkSize = Math.max(1, (axioms.size() + 4 * threads - 1) / (4 * threads));
+
+		final ForkJoinPool pool = new ForkJoinPool(threads);
+		try {
+			final List<ForkJoinTask<OwlAxiomToRulesConverter>> tasks = new ArrayList<>();
+			for (int from = 0; from < axioms.size(); from += chunkSize) {
+				final List<OWLAxiom> chunk = axioms.subList(from, Math.min(from + chunkSize, axioms.size()));
+				tasks.add(pool.submit(() -> {
+					final OwlAxiomToRulesConverter converter = new OwlAxiomToRulesConverter();
+					converter.skolemization = skolemization;
+					converter.assertionDataSources = assertionDataSources;
+					chunk.forEach(owlAxiom -> owlAxiom.accept(converter));
+					return converter;
+				}));
+			}
+			for (final ForkJoinTask<OwlAxiomToRulesConverter> task : tasks) {
+				final OwlAxiomToRulesConverter converter = task.join();
+				this.owlAxiomToRulesConverter.rules.addAll(converter.rules);
+				this.owlAxiomToRulesConverter.facts.addAll(converter.facts);
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
 	/**
 	 * Returns the set of facts generated by transforming the given OWL ontology. No
 	 * copy is created, so the set should not be modified if its owner is still to
@@ -58,6 +138,21 @@ public class OwlToRulesConverter {
 		return this.owlAxiomToRulesConverter.facts;
 	}
 
+	/**
+	 * Returns declarations of the data sources that the facts generated by
+	 * transforming the given OWL ontology have been added to, if this converter
+	 * was created with {@link AssertionDataSources}, and an empty list otherwise.
+	 *
+	 * @return list of data source declarations
+	 * @throws IOException if the data sources could not be written
+	 */
+	public List<DataSourceDeclaration> getDataSourceDeclarations() throws IOException {
+		if (this.owlAxiomToRulesConverter.assertionDataSources == null) {
+			return Collections.emptyList();
+		}
+		return this.owlAxiomToRulesConverter.assertionDataSources.getDataSourceDeclarations();
+	}
+
 	/**
 	 * Returns the set of rules generated by transforming the given OWL ontology. No
 	 * copy is created, so the set should not be modified if its owner is still to
@@ -22,9 +22,21 @@ package org.semanticweb.rulewerk.owlapi;
 
 import static org.junit.Assert.*;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.semanticweb.owlapi.apibinding.OWLManager;
 import org.semanticweb.owlapi.model.IRI;
 import org.semanticweb.owlapi.model.OWLAnonymousIndividual;
@@ -33,7 +45,15 @@ import org.semanticweb.owlapi.model.OWLClass;
 import org.semanticweb.owlapi.model.OWLDataFactory;
 import org.semanticweb.owlapi.model.OWLIndividual;
 import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
 import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.rulewerk.core.model.api.DataSourceDeclaration;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.api.TermType;
+import org.semanticweb.rulewerk.core.reasoner.implementation.CsvFileDataSource;
+import org.semanticweb.rulewerk.core.reasoner.implementation.DataSourceConfigurationVisitor;
+import org.semanticweb.rulewerk.core.reasoner.implementation.InMemoryDataSource;
 
 public class OwlToRulesConverterTest {
 	
@@ -50,6 +70,9 @@ public class OwlToRulesConverterTest {
 	static final OWLClass cC = getOwlClass("C");
 	static final OWLIndividual inda = df.getOWLNamedIndividual(getIri("a"));
 
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
 	@Test
 	public void testLoadOntologies() throws OWLOntologyCreationException {
 		final OWLAnonymousIndividual bnode = df.getOWLAnonymousIndividual("abc");
@@ -65,4 +88,138 @@ public class OwlToRulesConverterTest {
 		assertEquals(3, converter.getFacts().size());
 	}
 
+	@Test
+	public void addOntology_parallel_sameResultAsSequential() throws OWLOntologyCreationException {
+		final OWLObjectProperty r = df.getOWLObjectProperty(getIri("r"));
+		final OWLAnonymousIndividual bnode = df.getOWLAnonymousIndividual("abc");
+		final List<OWLAxiom> axioms = new ArrayList<>();
+		axioms.add(df.getOWLClassAssertionAxiom(cC, bnode));
+		for (int i = 0; i < 200; i++) {
+			final OWLClass cI = getOwlClass("C" + i);
+			final OWLIndividual indI = df.getOWLNamedIndividual(getIri("a" + i));
+			axioms.add(df.getOWLSubClassOfAxiom(cI, df.getOWLObjectSomeValuesFrom(r, cC)));
+			axioms.add(df.getOWLSubClassOfAxiom(df.getOWLObjectIntersectionOf(cI, cC), getOwlClass("D" + i)));
+			axioms.add(df.getOWLClassAssertionAxiom(cI, indI));
+			axioms.add(df.getOWLObjectPropertyAssertionAxiom(r, indI, inda));
+		}
+		axioms.add(df.getOWLObjectPropertyAssertionAxiom(r, inda, bnode));
+		final OWLOntology ontology = OWLManager.createOWLOntologyManager().createOntology(axioms);
+
+		final OwlToRulesConverter sequential = new OwlToRulesConverter();
+		sequential.addOntology(ontology);
+		final OwlToRulesConverter parallel = new OwlToRulesConverter();
+		parallel.addOntology(ontology, 4);
+
+		assertEquals(sequential.getRules(), parallel.getRules());
+		assertEquals(withoutNamedNulls(sequential.getFacts()), withoutNamedNulls(parallel.getFacts()));
+		assertEquals(sequential.getFacts().size(), parallel.getFacts().size());
+		final Set<Term> namedNulls = parallel.getFacts().stream().flatMap(fact -> fact.getArguments().stream())
+				.filter(term -> term.getType() == TermType.NAMED_NULL).collect(Collectors.toSet());
+		assertEquals(1, namedNulls.size());
+	}
+
+	private static Set<Fact> withoutNamedNulls(final Set<Fact> facts) {
+		return facts.stream().filter(fact -> fact.getArguments().stream()
+				.noneMatch(term -> term.getType() == TermType.NAMED_NULL)).collect(Collectors.toSet());
+	}
+
+	private static OWLOntology makeAssertionOntology() throws OWLOntologyCreationException {
+		final OWLObjectProperty r = df.getOWLObjectProperty(getIri("r"));
+		final OWLClass cD = getOwlClass("D");
+		final OWLIndividual indb = df.getOWLNamedIndividual(getIri("b"));
+		return OWLManager.createOWLOntologyManager()
+				.createOntology(Arrays.asList(df.getOWLSubClassOfAxiom(cC, cD), df.getOWLClassAssertionAxiom(cC, inda),
+						df.getOWLClassAssertionAxiom(cC, indb), df.getOWLObjectPropertyAssertionAxiom(r, inda, indb)));
+	}
+
+	static class ListDataSource extends InMemoryDataSource {
+		final List<List<String>> tuples = new ArrayList<>();
+		final Set<Thread> threads = new HashSet<>();
+
+		ListDataSource(final int arity) {
+			super(arity, 0);
+		}
+
+		@Override
+		public void addTuple(final String... constantNames) {
+			this.validateArity(constantNames);
+			this.tuples.add(Arrays.asList(constantNames));
+			this.threads.add(Thread.currentThread());
+		}
+
+		@Override
+		public void accept(final DataSourceConfigurationVisitor visitor) {
+		}
+
+		@Override
+		public String getSyntacticRepresentation() {
+			return "";
+		}
+	}
+
+	@Test
+	public void addOntology_inMemoryAssertionDataSources_factsInDataSources()
+			throws OWLOntologyCreationException, IOException {
+		final OwlToRulesConverter converter = new OwlToRulesConverter(
+				AssertionDataSources.inMemory(ListDataSource::new));
+		converter.addOntology(makeAssertionOntology(), 2);
+
+		assertEquals(1, converter.getRules().size());
+		assertTrue(converter.getFacts().isEmpty());
+		final Map<String, List<List<String>>> tuples = new HashMap<>();
+		for (final DataSourceDeclaration declaration : converter.getDataSourceDeclarations()) {
+			tuples.put(declaration.getPredicate().getName(), ((ListDataSource) declaration.getDataSource()).tuples);
+		}
+		assertEquals(2, tuples.size());
+		assertEquals(new HashSet<>(Arrays.asList(Arrays.asList("http://example.org/a"),
+				Arrays.asList("http://example.org/b"))), new HashSet<>(tuples.get("http://example.org/C")));
+		assertEquals(Arrays.asList(Arrays.asList("http://example.org/a", "http://example.org/b")),
+				tuples.get("http://example.org/r"));
+	}
+
+	@Test
+	public void addOntology_parallelAssertionDataSources_factsAddedByThreads()
+			throws OWLOntologyCreationException, IOException {
+		final List<OWLAxiom> axioms = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			axioms.add(df.getOWLClassAssertionAxiom(cC, df.getOWLNamedIndividual(getIri("a" + i))));
+		}
+		final OWLOntology ontology = OWLManager.createOWLOntologyManager().createOntology(axioms);
+		final AssertionDataSources dataSources = AssertionDataSources.inMemory(ListDataSource::new);
+		final OwlToRulesConverter converter = new OwlToRulesConverter(dataSources);
+		converter.addOntology(ontology, 4);
+
+		assertTrue(converter.getFacts().isEmpty());
+		assertEquals(1000, dataSources.getFactCount());
+		final List<DataSourceDeclaration> declarations = converter.getDataSourceDeclarations();
+		assertEquals(1, declarations.size());
+		final ListDataSource dataSource = (ListDataSource) declarations.get(0).getDataSource();
+		assertEquals(1000, new HashSet<>(dataSource.tuples).size());
+		assertTrue(dataSource.threads.stream().anyMatch(thread -> thread != Thread.currentThread()));
+	}
+
+	@Test
+	public void addOntology_csvAssertionDataSources_factsInFiles() throws OWLOntologyCreationException, IOException {
+		final File directory = this.folder.newFolder("assertions");
+		final AssertionDataSources dataSources = AssertionDataSources.csvFiles(directory);
+		final OwlToRulesConverter converter = new OwlToRulesConverter(dataSources);
+		converter.addOntology(makeAssertionOntology());
+
+		assertEquals(1, converter.getRules().size());
+		assertTrue(converter.getFacts().isEmpty());
+		assertEquals(3, dataSources.getFactCount());
+		final List<DataSourceDeclaration> declarations = converter.getDataSourceDeclarations();
+		assertEquals(2, declarations.size());
+		for (final DataSourceDeclaration declaration : declarations) {
+			final File file = ((CsvFileDataSource) declaration.getDataSource()).getFile();
+			if (declaration.getPredicate().getName().equals("http://example.org/r")) {
+				assertEquals("http___example.org_r-2.csv", file.getName());
+				assertEquals(Arrays.asList("<http://example.org/a>,<http://example.org/b>"),
+						Files.readAllLines(file.toPath()));
+			} else {
+				assertEquals(2, Files.readAllLines(file.toPath()).size());
+			}
+		}
+	}
+
 }
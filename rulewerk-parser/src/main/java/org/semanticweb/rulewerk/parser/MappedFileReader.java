@@ -0,0 +1,152 @@
+package org.semanticweb.rulewerk.parser;
+
+/*-
+ * #%L
+ * Rulewerk Parser
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * {@link Reader} for UTF-8 encoded files that maps the file into memory, one
+ * window at a time, and decodes the bytes directly into the buffer of the
+ * caller. Compared to an {@link java.io.InputStreamReader} over a
+ * {@link java.io.FileInputStream}, this avoids copying the input into
+ * intermediate byte buffers. Malformed input is replaced, as by
+ * {@link java.io.InputStreamReader}.
+ *
+ * Instances are not thread-safe. Mapped windows are released by the garbage
+ * collector, not when the reader is closed.
+ *
+ * @author Philipp Hanisch
+ *
+ */
+public class MappedFileReader extends Reader {
+
+	/**
+	 * Maximal number of bytes mapped at once.
+	 */
+	static final int WINDOW_SIZE = 1 << 26;
+
+	private final FileChannel channel;
+	private final long size;
+	private final int windowSize;
+	private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+			.onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+	private MappedByteBuffer window;
+	private long windowStart;
+	private boolean flushed;
+	private int leftover = -1;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param file a UTF-8 encoded file
+	 * @throws IOException if the file cannot be opened or mapped
+	 */
+	public MappedFileReader(final File file) throws IOException {
+		this(file, WINDOW_SIZE);
+	}
+
+	MappedFileReader(final File file, final int windowSize) throws IOException {
+		Validate.isTrue(windowSize >= 4, "windows must hold at least one code point");
+		this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		this.windowSize = windowSize;
+		try {
+			this.size = this.channel.size();
+			this.window = map(0);
+		} catch (final IOException e) {
+			this.channel.close();
+			throw e;
+		}
+	}
+
+	@Override
+	public int read(final char[] cbuf, final int off, final int len) throws IOException {
+		if (this.window == null) {
+			throw new IOException("Stream closed");
+		}
+		if (len == 0) {
+			return 0;
+		}
+		if (this.leftover >= 0) {
+			cbuf[off] = (char) this.leftover;
+			this.leftover = -1;
+			return 1;
+		}
+		if (len == 1) {
+			// a single code point may need two chars
+			final char[] pair = new char[2];
+			final int read = read(pair, 0, 2);
+			if (read > 0) {
+				cbuf[off] = pair[0];
+				if (read == 2) {
+					this.leftover = pair[1];
+				}
+				return 1;
+			}
+			return read;
+		}
+
+		final CharBuffer out = CharBuffer.wrap(cbuf, off, len);
+		while (out.position() == off) {
+			if (this.flushed) {
+				return -1;
+			}
+			final boolean endOfInput = this.windowStart + this.window.limit() == this.size;
+			final CoderResult result = this.decoder.decode(this.window, out, endOfInput);
+			if (out.position() > off || result.isOverflow()) {
+				break;
+			}
+			if (endOfInput) {
+				this.decoder.flush(out);
+				this.flushed = true;
+			} else {
+				// continue with the first byte that has not been decoded yet
+				this.window = map(this.windowStart + this.window.position());
+			}
+		}
+		return out.position() - off;
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.window = null;
+		this.channel.close();
+	}
+
+	private MappedByteBuffer map(final long start) throws IOException {
+		this.windowStart = start;
+		return this.channel.map(MapMode.READ_ONLY, start, Math.min(this.windowSize, this.size - start));
+	}
+
+}
@@ -21,8 +21,17 @@ package org.semanticweb.rulewerk.parser;
  */
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.Reader;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
 
 import org.semanticweb.rulewerk.core.exceptions.PrefixDeclarationException;
 import org.semanticweb.rulewerk.core.model.api.DataSourceDeclaration;
@@ -32,8 +41,10 @@ import org.semanticweb.rulewerk.core.model.api.Literal;
 import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
 import org.semanticweb.rulewerk.core.model.api.PrefixDeclarationRegistry;
 import org.semanticweb.rulewerk.core.model.api.Rule;
+import org.semanticweb.rulewerk.core.model.api.Statement;
 import org.semanticweb.rulewerk.core.model.api.Term;
 import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.parser.javacc.GroundFactParser;
 import org.semanticweb.rulewerk.parser.javacc.JavaCCParser;
 import org.semanticweb.rulewerk.parser.javacc.JavaCCParserBase.FormulaContext;
 import org.semanticweb.rulewerk.parser.javacc.ParseException;
@@ -53,6 +64,16 @@ public class RuleParser {
 
 	private static Logger LOGGER = LoggerFactory.getLogger(RuleParser.class);
 
+	/**
+	 * Minimal size (in bytes) of the chunks of input that are parsed in parallel.
+	 */
+	static final int MIN_CHUNK_SIZE = 1 << 16;
+
+	/**
+	 * Number of chunks per thread of the pool, to balance the load.
+	 */
+	static final int CHUNKS_PER_THREAD = 4;
+
 	private RuleParser() {
 	}
 
@@ -113,6 +134,52 @@ public class RuleParser {
 		parseInto(knowledgeBase, inputStream);
 	}
 
+	/**
+	 * Parse the given UTF-8 encoded file into the knowledge base. The file is
+	 * read through a {@link MappedFileReader}, which is considerably faster for
+	 * large files than reading it through a {@link java.io.FileInputStream}.
+	 *
+	 * @param knowledgeBase       the knowledge base to add the statements to
+	 * @param file                the input file
+	 * @param parserConfiguration {@link ParserConfiguration} instance, or null.
+	 * @param baseIri             base IRI for relative IRIs, or null.
+	 *
+	 * @throws ParsingException when an error during parsing occurs.
+	 * @throws IOException      when the file cannot be read.
+	 */
+	public static void parseInto(final KnowledgeBase knowledgeBase, final File file,
+			final ParserConfiguration parserConfiguration, final String baseIri) throws ParsingException, IOException {
+		try (Reader reader = new MappedFileReader(file)) {
+			final JavaCCParser parser = new JavaCCParser(reader);
+
+			if (baseIri != null) {
+				parser.setPrefixDeclarationRegistry(new LocalPrefixDeclarationRegistry(baseIri));
+			}
+			if (parserConfiguration != null) {
+				parser.setParserConfiguration(parserConfiguration);
+			}
+
+			parser.setKnowledgeBase(knowledgeBase);
+			doParse(parser);
+		}
+	}
+
+	public static void parseInto(final KnowledgeBase knowledgeBase, final File file,
+			final ParserConfiguration parserConfiguration) throws ParsingException, IOException {
+		parseInto(knowledgeBase, file, parserConfiguration, null);
+	}
+
+	public static void parseInto(final KnowledgeBase knowledgeBase, final File file)
+			throws ParsingException, IOException {
+		parseInto(knowledgeBase, file, null, null);
+	}
+
+	public static KnowledgeBase parse(final File file) throws ParsingException, IOException {
+		final KnowledgeBase knowledgeBase = new KnowledgeBase();
+		parseInto(knowledgeBase, file);
+		return knowledgeBase;
+	}
+
 	public static KnowledgeBase parse(final InputStream stream, final String encoding,
 			final ParserConfiguration parserConfiguration) throws ParsingException {
 		JavaCCParser parser = new JavaCCParser(stream, encoding);
@@ -153,6 +220,402 @@ public class RuleParser {
 		return doParseAsp(new JavaCCParser(stream, encoding));
 	}
 
+	/**
+	 * Parse the input and forward each parsed {@link Statement} to the given sink,
+	 * instead of collecting the statements in a {@link KnowledgeBase}. Memory
+	 * consumption therefore does not grow with the number of statements. Statements
+	 * that are added by directives (such as {@code @import}) are forwarded as soon
+	 * as the directive has been handled.
+	 *
+	 * Statements are forwarded while the input is being parsed. If parsing fails,
+	 * the statements before the error have already been forwarded to the sink.
+	 * Runtime exceptions thrown by the sink are not caught and abort parsing.
+	 *
+	 * @param statementSink       consumer for the parsed statements
+	 * @param stream              the input
+	 * @param encoding            encoding of the input
+	 * @param parserConfiguration {@link ParserConfiguration} instance, or null.
+	 * @param baseIri             base IRI for relative IRIs, or null.
+	 *
+	 * @throws ParsingException when an error during parsing occurs.
+	 * @return the prefix declarations of the input
+	 */
+	public static PrefixDeclarationRegistry parseStatements(final Consumer<? super Statement> statementSink,
+			final InputStream stream, final String encoding, final ParserConfiguration parserConfiguration,
+			final String baseIri) throws ParsingException {
+		final JavaCCParser parser = new JavaCCParser(stream, encoding);
+
+		if (baseIri != null) {
+			parser.setPrefixDeclarationRegistry(new LocalPrefixDeclarationRegistry(baseIri));
+		}
+		if (parserConfiguration != null) {
+			parser.setParserConfiguration(parserConfiguration);
+		}
+
+		parser.setStatementSink(statementSink);
+		doParse(parser);
+		return parser.getPrefixDeclarationRegistry();
+	}
+
+	/**
+	 * Parse the UTF-8 encoded input without a base IRI and forward each parsed
+	 * {@link Statement} to the given sink, as in
+	 * {@link #parseStatements(Consumer, InputStream, String, ParserConfiguration, String)}.
+	 *
+	 * @param statementSink       consumer for the parsed statements
+	 * @param stream              the input
+	 * @param parserConfiguration {@link ParserConfiguration} instance, or null.
+	 *
+	 * @throws ParsingException when an error during parsing occurs.
+	 * @return the prefix declarations of the input
+	 */
+	public static PrefixDeclarationRegistry parseStatements(final Consumer<? super Statement> statementSink,
+			final InputStream stream, final ParserConfiguration parserConfiguration) throws ParsingException {
+		return parseStatements(statementSink, stream, DEFAULT_STRING_ENCODING, parserConfiguration, null);
+	}
+
+	/**
+	 * Parse the UTF-8 encoded input with the default configuration and without a
+	 * base IRI and forward each parsed {@link Statement} to the given sink, as in
+	 * {@link #parseStatements(Consumer, InputStream, String, ParserConfiguration, String)}.
+	 *
+	 * @param statementSink consumer for the parsed statements
+	 * @param stream        the input
+	 *
+	 * @throws ParsingException when an error during parsing occurs.
+	 * @return the prefix declarations of the input
+	 */
+	public static PrefixDeclarationRegistry parseStatements(final Consumer<? super Statement> statementSink,
+			final InputStream stream) throws ParsingException {
+		return parseStatements(statementSink, stream, DEFAULT_STRING_ENCODING, null, null);
+	}
+
+	/**
+	 * Parse the given string with the default configuration and without a base IRI
+	 * and forward each parsed {@link Statement} to the given sink, as in
+	 * {@link #parseStatements(Consumer, InputStream, String, ParserConfiguration, String)}.
+	 *
+	 * @param statementSink consumer for the parsed statements
+	 * @param input         the input
+	 *
+	 * @throws ParsingException when an error during parsing occurs.
+	 * @return the prefix declarations of the input
+	 */
+	public static PrefixDeclarationRegistry parseStatements(final Consumer<? super Statement> statementSink,
+			final String input) throws ParsingException {
+		final InputStream inputStream = new ByteArrayInputStream(input.getBytes());
+		return parseStatements(statementSink, inputStream);
+	}
+
+	/**
+	 * Parse the (asp) input and forward each parsed {@link Statement} to the given
+	 * sink, as in
+	 * {@link #parseStatements(Consumer, InputStream, String, ParserConfiguration, String)}.
+	 * The statements are forwarded while the input is being parsed, so the
+	 * statements before an error have already been forwarded if parsing fails.
+	 *
+	 * @param statementSink consumer for the parsed statements
+	 * @param stream        the input
+	 * @param encoding      encoding of the input
+	 *
+	 * @throws ParsingException when an error during parsing occurs.
+	 * @return the prefix declarations of the input
+	 */
+	public static PrefixDeclarationRegistry parseAspStatements(final Consumer<? super Statement> statementSink,
+			final InputStream stream, final String encoding) throws ParsingException {
+		final JavaCCParser parser = new JavaCCParser(stream, encoding);
+		parser.setStatementSink(statementSink);
+		doParseAsp(parser);
+		return parser.getPrefixDeclarationRegistry();
+	}
+
+	/**
+	 * Parse the UTF-8 encoded (asp) input and forward each parsed
+	 * {@link Statement} to the given sink, as in
+	 * {@link #parseAspStatements(Consumer, InputStream, String)}.
+	 *
+	 * @param statementSink consumer for the parsed statements
+	 * @param stream        the input
+	 *
+	 * @throws ParsingException when an error during parsing occurs.
+	 * @return the prefix declarations of the input
+	 */
+	public static PrefixDeclarationRegistry parseAspStatements(final Consumer<? super Statement> statementSink,
+			final InputStream stream) throws ParsingException {
+		return parseAspStatements(statementSink, stream, DEFAULT_STRING_ENCODING);
+	}
+
+	/**
+	 * Parse the (UTF-8 encoded) input in parallel and forward each parsed
+	 * {@link Statement} to the given sink, in the order of the input. The leading
+	 * {@code @base}, {@code @prefix} and {@code @source} declarations are parsed
+	 * first. The remaining input is split into chunks of complete statements,
+	 * which are parsed as tasks of the given pool with the (then read-only) prefix
+	 * declarations. Plain ground facts are read by a {@link GroundFactParser}
+	 * instead of the grammar. The sink is only called from the calling thread.
+	 *
+	 * Inputs that contain further directives (such as {@code @import}) are parsed
+	 * sequentially. If a chunk cannot be parsed, e.g., since a configurable
+	 * literal contains a statement delimiter, the input is parsed sequentially
+	 * from the start of this chunk on. In this case, positions in error messages
+	 * are relative to the start of the chunk.
+	 *
+	 * @param statementSink       consumer for the parsed statements
+	 * @param stream              the input
+	 * @param parserConfiguration {@link ParserConfiguration} instance, or null.
+	 * @param pool                the pool to parse the chunks with
+	 *
+	 * @throws ParsingException when reading the input fails, or an error during
+	 *                          parsing occurs.
+	 * @return the prefix declarations of the input
+	 */
+	public static PrefixDeclarationRegistry parseStatementsInParallel(final Consumer<? super Statement> statementSink,
+			final InputStream stream, final ParserConfiguration parserConfiguration, final ForkJoinPool pool)
+			throws ParsingException {
+		return doParseInParallel(statementSink, readInput(stream), parserConfiguration, pool, false);
+	}
+
+	public static PrefixDeclarationRegistry parseStatementsInParallel(final Consumer<? super Statement> statementSink,
+			final InputStream stream, final ParserConfiguration parserConfiguration) throws ParsingException {
+		return parseStatementsInParallel(statementSink, stream, parserConfiguration, ForkJoinPool.commonPool());
+	}
+
+	public static PrefixDeclarationRegistry parseStatementsInParallel(final Consumer<? super Statement> statementSink,
+			final InputStream stream) throws ParsingException {
+		return parseStatementsInParallel(statementSink, stream, null);
+	}
+
+	/**
+	 * Parse the (UTF-8 encoded) input in parallel into the given
+	 * {@link KnowledgeBase}, as in
+	 * {@link #parseStatementsInParallel(Consumer, InputStream, ParserConfiguration, ForkJoinPool)}.
+	 * The statements are only added once the whole input has been parsed, so the
+	 * knowledge base is not modified if parsing fails.
+	 *
+	 * @param knowledgeBase       the knowledge base to add the statements to
+	 * @param stream              the input
+	 * @param parserConfiguration {@link ParserConfiguration} instance, or null.
+	 * @param pool                the pool to parse the chunks with
+	 *
+	 * @throws ParsingException when reading the input fails, or an error during
+	 *                          parsing occurs.
+	 */
+	public static void parseIntoInParallel(final KnowledgeBase knowledgeBase, final InputStream stream,
+			final ParserConfiguration parserConfiguration, final ForkJoinPool pool) throws ParsingException {
+		final List<Statement> statements = new ArrayList<>();
+		final PrefixDeclarationRegistry prefixDeclarationRegistry = parseStatementsInParallel(statements::add, stream,
+				parserConfiguration, pool);
+		knowledgeBase.addStatements(statements);
+		knowledgeBase.mergePrefixDeclarations(prefixDeclarationRegistry);
+	}
+
+	public static void parseIntoInParallel(final KnowledgeBase knowledgeBase, final InputStream stream,
+			final ParserConfiguration parserConfiguration) throws ParsingException {
+		parseIntoInParallel(knowledgeBase, stream, parserConfiguration, ForkJoinPool.commonPool());
+	}
+
+	public static void parseIntoInParallel(final KnowledgeBase knowledgeBase, final InputStream stream)
+			throws ParsingException {
+		parseIntoInParallel(knowledgeBase, stream, null);
+	}
+
+	/**
+	 * Parse the (UTF-8 encoded asp) input in parallel, as in
+	 * {@link #parseStatementsInParallel(Consumer, InputStream, ParserConfiguration, ForkJoinPool)}.
+	 *
+	 * @param statementSink consumer for the parsed statements
+	 * @param stream        the input
+	 * @param pool          the pool to parse the chunks with
+	 *
+	 * @throws ParsingException when reading the input fails, or an error during
+	 *                          parsing occurs.
+	 * @return the prefix declarations of the input
+	 */
+	public static PrefixDeclarationRegistry parseAspStatementsInParallel(
+			final Consumer<? super Statement> statementSink, final InputStream stream, final ForkJoinPool pool)
+			throws ParsingException {
+		return doParseInParallel(statementSink, readInput(stream), null, pool, true);
+	}
+
+	public static KnowledgeBase parseAspInParallel(final InputStream stream) throws ParsingException {
+		final List<Statement> statements = new ArrayList<>();
+		final PrefixDeclarationRegistry prefixDeclarationRegistry = parseAspStatementsInParallel(statements::add,
+				stream, ForkJoinPool.commonPool());
+		final KnowledgeBase knowledgeBase = new KnowledgeBase();
+		knowledgeBase.addStatements(statements);
+		knowledgeBase.mergePrefixDeclarations(prefixDeclarationRegistry);
+		return knowledgeBase;
+	}
+
+	static PrefixDeclarationRegistry doParseInParallel(final Consumer<? super Statement> statementSink,
+			final byte[] input, final ParserConfiguration parserConfiguration, final ForkJoinPool pool,
+			final boolean asp) throws ParsingException {
+		final StatementBoundaryScanner scanner = new StatementBoundaryScanner(input, 0, input.length);
+		int headerEnd = 0;
+		boolean hasNext;
+		while ((hasNext = scanner.nextStatement()) && (scanner.statementStartsWith("@base")
+				|| scanner.statementStartsWith("@prefix") || scanner.statementStartsWith("@source"))) {
+			headerEnd = scanner.getStatementEnd();
+		}
+
+		final int chunkSize = Math.max(MIN_CHUNK_SIZE, input.length / (CHUNKS_PER_THREAD * pool.getParallelism()));
+		final List<Integer> chunkStarts = new ArrayList<>();
+		int chunkStart = headerEnd;
+		while (hasNext) {
+			if (input[scanner.getStatementStart()] == '@') {
+				// directives may modify the knowledge base, so they are handled sequentially
+				final JavaCCParser parser = new JavaCCParser(new ByteArrayInputStream(input), DEFAULT_STRING_ENCODING);
+				if (parserConfiguration != null) {
+					parser.setParserConfiguration(parserConfiguration);
+				}
+				parser.setStatementSink(statementSink);
+				parseStatements(parser, asp);
+				return parser.getPrefixDeclarationRegistry();
+			}
+			if (scanner.getStatementEnd() - chunkStart >= chunkSize) {
+				chunkStarts.add(chunkStart);
+				chunkStart = scanner.getStatementEnd();
+			}
+			hasNext = scanner.nextStatement();
+		}
+		if (chunkStart < input.length) {
+			chunkStarts.add(chunkStart);
+		}
+		chunkStarts.add(input.length);
+
+		final JavaCCParser headerParser = new JavaCCParser(new ByteArrayInputStream(input, 0, headerEnd),
+				DEFAULT_STRING_ENCODING);
+		if (parserConfiguration != null) {
+			headerParser.setParserConfiguration(parserConfiguration);
+		}
+		headerParser.setStatementSink(statementSink);
+		parseStatements(headerParser, asp);
+		// fix the base IRI before the prefix declarations are shared
+		headerParser.getPrefixDeclarationRegistry().getBaseIri();
+
+		final List<ForkJoinTask<List<Statement>>> tasks = new ArrayList<>();
+		for (int i = 0; i + 1 < chunkStarts.size(); i++) {
+			final int from = chunkStarts.get(i);
+			final int to = chunkStarts.get(i + 1);
+			tasks.add(pool.submit(() -> {
+				final List<Statement> statements = new ArrayList<>();
+				parseChunk(headerParser, input, from, to, asp, statements::add);
+				return statements;
+			}));
+		}
+
+		for (int i = 0; i < tasks.size(); i++) {
+			try {
+				tasks.get(i).get().forEach(statementSink);
+			} catch (final ExecutionException e) {
+				tasks.forEach(task -> task.cancel(false));
+				LOGGER.debug("Failed to parse chunk in parallel, continuing sequentially.", e.getCause());
+				final int from = chunkStarts.get(i);
+				final JavaCCParser parser = headerParser.makeSubParser(
+						new ByteArrayInputStream(input, from, input.length - from), DEFAULT_STRING_ENCODING);
+				parser.setStatementSink(statementSink);
+				try {
+					if (asp) {
+						parser.aspStatements();
+					} else {
+						parser.statements();
+					}
+				} catch (ParseException | PrefixDeclarationException | TokenMgrError e2) {
+					LOGGER.error("Exception while parsing Knowledge Base!", e2);
+					throw new ParsingException("Exception while parsing Knowledge Base.", e2);
+				}
+				break;
+			} catch (final InterruptedException e) {
+				tasks.forEach(task -> task.cancel(false));
+				Thread.currentThread().interrupt();
+				throw new ParsingException("Interrupted while parsing Knowledge Base.", e);
+			}
+		}
+
+		return headerParser.getPrefixDeclarationRegistry();
+	}
+
+	/**
+	 * Parse a chunk of complete statements. Ground facts are parsed by a
+	 * {@link GroundFactParser}, all other statements by the grammar, in runs of
+	 * consecutive statements.
+	 */
+	static void parseChunk(final JavaCCParser headerParser, final byte[] input, final int from, final int to,
+			final boolean asp, final Consumer<? super Statement> statementSink)
+			throws ParseException, PrefixDeclarationException {
+		final GroundFactParser factParser = new GroundFactParser(headerParser);
+		final StatementBoundaryScanner scanner = new StatementBoundaryScanner(input, from, to - from);
+		int runStart = from;
+		boolean pendingRun = false;
+		while (scanner.nextStatement()) {
+			final Fact fact = factParser.parse(input, scanner.getStatementStart(), scanner.getStatementEnd());
+			if (fact == null) {
+				pendingRun = true;
+			} else {
+				if (pendingRun) {
+					parseRun(headerParser, input, runStart, scanner.getStatementStart(), asp, statementSink);
+					pendingRun = false;
+				}
+				statementSink.accept(fact);
+				runStart = scanner.getStatementEnd();
+			}
+		}
+		// trailing comments are checked by the grammar, too
+		if (pendingRun || containsNonWhitespace(input, runStart, to)) {
+			parseRun(headerParser, input, runStart, to, asp, statementSink);
+		}
+	}
+
+	private static void parseRun(final JavaCCParser headerParser, final byte[] input, final int from, final int to,
+			final boolean asp, final Consumer<? super Statement> statementSink)
+			throws ParseException, PrefixDeclarationException {
+		final JavaCCParser parser = headerParser.makeSubParser(new ByteArrayInputStream(input, from, to - from),
+				DEFAULT_STRING_ENCODING);
+		parser.setStatementSink(statementSink);
+		if (asp) {
+			parser.aspStatements();
+		} else {
+			parser.statements();
+		}
+	}
+
+	private static boolean containsNonWhitespace(final byte[] input, final int from, final int to) {
+		for (int i = from; i < to; i++) {
+			final byte b = input[i];
+			if (b != ' ' && b != '\t' && b != '\n' && b != '\r' && b != '\f') {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static void parseStatements(final JavaCCParser parser, final boolean asp) throws ParsingException {
+		try {
+			if (asp) {
+				parser.parseAsp();
+			} else {
+				parser.parse();
+			}
+		} catch (ParseException | PrefixDeclarationException | TokenMgrError e) {
+			LOGGER.error("Exception while parsing Knowledge Base!", e);
+			throw new ParsingException("Exception while parsing Knowledge Base.", e);
+		}
+	}
+
+	private static byte[] readInput(final InputStream stream) throws ParsingException {
+		final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		final byte[] buffer = new byte[1 << 16];
+		try {
+			int read;
+			while ((read = stream.read(buffer)) != -1) {
+				outputStream.write(buffer, 0, read);
+			}
+		} catch (final IOException e) {
+			throw new ParsingException("Failed to read input.", e);
+		}
+		return outputStream.toByteArray();
+	}
+
 	/**
 	 * Interface for a method parsing a fragment of the supported syntax.
 	 *
@@ -0,0 +1,224 @@
+package org.semanticweb.rulewerk.parser;
+
+/*-
+ * #%L
+ * Rulewerk Parser
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * Scanner that finds the boundaries of statements in UTF-8 encoded input
+ * without parsing it. A statement ends with a dot that is followed by
+ * whitespace, a comment, or the end of the input, and that does not occur
+ * within a string, an IRI, a comment, or parentheses, braces and brackets.
+ *
+ * The scanner is only a heuristic: dots inside configurable literals that are
+ * delimited by pipes or hashes are not recognised. Callers must therefore be
+ * prepared for statements that have been split wrongly, which the parser will
+ * reject.
+ *
+ * @author Philipp Hanisch
+ *
+ */
+final class StatementBoundaryScanner {
+
+	private final byte[] input;
+	private final int end;
+	private int position;
+	private int statementStart;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param input  the input bytes
+	 * @param offset the position to start scanning from
+	 * @param length the number of bytes to scan
+	 */
+	StatementBoundaryScanner(final byte[] input, final int offset, final int length) {
+		this.input = input;
+		this.position = offset;
+		this.end = offset + length;
+		this.statementStart = offset;
+	}
+
+	/**
+	 * Advances to the next statement.
+	 *
+	 * @return false if only whitespace and comments remain
+	 */
+	boolean nextStatement() {
+		this.statementStart = skipWhitespaceAndComments(this.position);
+		if (this.statementStart == this.end) {
+			this.position = this.end;
+			return false;
+		}
+		this.position = findStatementEnd(this.statementStart);
+		return true;
+	}
+
+	/**
+	 * @return the position of the first byte of the current statement
+	 */
+	int getStatementStart() {
+		return this.statementStart;
+	}
+
+	/**
+	 * @return the position after the terminating dot of the current statement, or
+	 *         the end of the input if the statement is not terminated
+	 */
+	int getStatementEnd() {
+		return this.position;
+	}
+
+	/**
+	 * Returns whether the current statement starts with the given keyword (such as
+	 * {@code @prefix}), followed by a character that cannot continue the keyword.
+	 *
+	 * @param keyword an ASCII keyword
+	 * @return true if the statement starts with the keyword
+	 */
+	boolean statementStartsWith(final String keyword) {
+		final int keywordEnd = this.statementStart + keyword.length();
+		if (keywordEnd > this.end) {
+			return false;
+		}
+		for (int i = 0; i < keyword.length(); i++) {
+			if (this.input[this.statementStart + i] != keyword.charAt(i)) {
+				return false;
+			}
+		}
+		return keywordEnd == this.end || !Character.isLetterOrDigit(this.input[keywordEnd]);
+	}
+
+	private int skipWhitespaceAndComments(int i) {
+		while (i < this.end) {
+			final byte b = this.input[i];
+			if (b == '%') {
+				i = skipComment(i);
+			} else if (isWhitespace(b)) {
+				i++;
+			} else {
+				break;
+			}
+		}
+		return i;
+	}
+
+	private int findStatementEnd(int i) {
+		int depth = 0;
+		while (i < this.end) {
+			final byte b = this.input[i];
+			switch (b) {
+			case '%':
+				i = skipComment(i);
+				break;
+			case '<':
+				i = skipIri(i);
+				break;
+			case '"':
+			case '\'':
+				i = skipString(i, b);
+				break;
+			case '(':
+			case '[':
+			case '{':
+				depth++;
+				i++;
+				break;
+			case ')':
+			case ']':
+			case '}':
+				if (depth > 0) {
+					depth--;
+				}
+				i++;
+				break;
+			case '.':
+				i++;
+				if (depth == 0 && (i == this.end || isWhitespace(this.input[i]) || this.input[i] == '%')) {
+					return i;
+				}
+				break;
+			default:
+				i++;
+			}
+		}
+		return this.end;
+	}
+
+	private int skipComment(int i) {
+		while (i < this.end && this.input[i] != '\n') {
+			i++;
+		}
+		return i;
+	}
+
+	private int skipIri(int i) {
+		i++;
+		while (i < this.end) {
+			final byte b = this.input[i];
+			if (b == '>') {
+				return i + 1;
+			}
+			if (isWhitespace(b)) {
+				return i;
+			}
+			i++;
+		}
+		return i;
+	}
+
+	private int skipString(int i, final byte quote) {
+		if (i + 2 < this.end && this.input[i + 1] == quote && this.input[i + 2] == quote) {
+			return skipLongString(i + 3, quote);
+		}
+		i++;
+		while (i < this.end) {
+			final byte b = this.input[i];
+			if (b == quote) {
+				return i + 1;
+			} else if (b == '\\') {
+				i += 2;
+			} else if (b == '\n' || b == '\r') {
+				return i;
+			} else {
+				i++;
+			}
+		}
+		return this.end;
+	}
+
+	private int skipLongString(int i, final byte quote) {
+		while (i < this.end) {
+			final byte b = this.input[i];
+			if (b == '\\') {
+				i += 2;
+			} else if (b == quote && i + 2 < this.end && this.input[i + 1] == quote && this.input[i + 2] == quote) {
+				return i + 3;
+			} else {
+				i++;
+			}
+		}
+		return this.end;
+	}
+
+	private static boolean isWhitespace(final byte b) {
+		return b == ' ' || b == '\t' || b == '\n' || b == '\r' || b == '\f';
+	}
+
+}
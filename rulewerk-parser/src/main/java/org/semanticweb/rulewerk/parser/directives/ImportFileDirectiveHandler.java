@@ -22,7 +22,6 @@ package org.semanticweb.rulewerk.parser.directives;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.List;
 
 import org.semanticweb.rulewerk.core.exceptions.RulewerkException;
@@ -50,8 +49,8 @@ public class ImportFileDirectiveHandler implements DirectiveHandler<KnowledgeBas
 		ParserConfiguration parserConfiguration = getParserConfiguration(subParserFactory);
 
 		try {
-			knowledgeBase.importRulesFile(file, (InputStream stream, KnowledgeBase kb) -> {
-				RuleParser.parseInto(kb, stream, parserConfiguration);
+			knowledgeBase.importRulesFile(file, (File importedFile, KnowledgeBase kb) -> {
+				RuleParser.parseInto(kb, importedFile, parserConfiguration);
 			});
 		} catch (RulewerkException | IOException | IllegalArgumentException e) {
 			throw new ParsingException("Failed while trying to import rules file \"" + file.getName() + "\"", e);
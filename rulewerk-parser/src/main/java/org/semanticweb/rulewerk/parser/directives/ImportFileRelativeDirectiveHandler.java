@@ -22,7 +22,6 @@ package org.semanticweb.rulewerk.parser.directives;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.List;
 
 import org.semanticweb.rulewerk.core.exceptions.RulewerkException;
@@ -51,8 +50,8 @@ public class ImportFileRelativeDirectiveHandler implements DirectiveHandler<Know
 		ParserConfiguration parserConfiguration = getParserConfiguration(subParserFactory);
 
 		try {
-			knowledgeBase.importRulesFile(file, (InputStream stream, KnowledgeBase kb) -> {
-				RuleParser.parseInto(kb, stream, parserConfiguration, prefixDeclarationRegistry.getBaseIri());
+			knowledgeBase.importRulesFile(file, (File importedFile, KnowledgeBase kb) -> {
+				RuleParser.parseInto(kb, importedFile, parserConfiguration, prefixDeclarationRegistry.getBaseIri());
 			});
 		} catch (RulewerkException | IOException | IllegalArgumentException e) {
 			throw new ParsingException("Failed while trying to import rules file \"" + file.getName() + "\"", e);
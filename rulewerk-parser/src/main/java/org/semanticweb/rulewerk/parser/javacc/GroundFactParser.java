@@ -0,0 +1,485 @@
+package org.semanticweb.rulewerk.parser.javacc;
+
+/*-
+ * #%L
+ * Rulewerk Parser
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.semanticweb.rulewerk.core.exceptions.PrefixDeclarationException;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.PrefixDeclarationRegistry;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.reasoner.implementation.Skolemization;
+import org.semanticweb.rulewerk.parser.ParserConfiguration;
+import org.semanticweb.rulewerk.parser.ParsingException;
+
+/**
+ * Hand-written parser for the most common kind of statement, namely ground
+ * facts such as {@code p(a, "x"^^<http://example.org/t>) .}, in UTF-8 encoded
+ * input. It covers abstract constants (IRIs, prefixed names and plain names),
+ * named nulls, numbers, and quoted strings with language tags or datatypes, and
+ * produces the same facts as {@link JavaCCParser#statement()}. For all other
+ * input, including facts with comments, long strings, unicode escapes or
+ * configurable literals, {@link #parse(byte[], int, int)} returns null, and the
+ * statement must be parsed by the grammar, which also reports any errors.
+ *
+ * Instances are not thread-safe, since they cache the results of resolving
+ * IRIs and the last predicate.
+ *
+ * @author Philipp Hanisch
+ *
+ */
+public final class GroundFactParser {
+
+	static final int MAX_CACHED_IRIS = 1 << 16;
+
+	private final PrefixDeclarationRegistry prefixDeclarationRegistry;
+	private final ParserConfiguration parserConfiguration;
+	private final Skolemization skolemization;
+
+	private final Map<String, String> absoluteIris = new HashMap<>();
+	private byte[] lastPredicateName = new byte[0];
+	private Predicate lastPredicate;
+
+	private byte[] input;
+	private int position;
+	private int end;
+
+	/**
+	 * Constructor. The prefix declarations, parser configuration and
+	 * skolemization are taken from the given parser. The prefix declarations must
+	 * not change while this instance is used.
+	 *
+	 * @param parser the parser whose context to use
+	 */
+	public GroundFactParser(final JavaCCParserBase parser) {
+		this.prefixDeclarationRegistry = parser.getPrefixDeclarationRegistry();
+		this.parserConfiguration = parser.getParserConfiguration();
+		this.skolemization = parser.getSkolemization();
+	}
+
+	/**
+	 * Parse a single statement, which must span the given range of the input
+	 * (including the terminating dot), if it is a ground fact of the supported
+	 * form.
+	 *
+	 * @param input the input bytes
+	 * @param from  start of the statement (inclusive)
+	 * @param to    end of the statement (exclusive)
+	 * @return the fact, or null if the statement must be parsed by the grammar
+	 */
+	public Fact parse(final byte[] input, final int from, final int to) {
+		this.input = input;
+		this.position = from;
+		this.end = to;
+		try {
+			return parseFact();
+		} catch (PrefixDeclarationException | ParsingException | ParseException | IllegalArgumentException e) {
+			// let the grammar report the error
+			return null;
+		} finally {
+			this.input = null;
+		}
+	}
+
+	private Fact parseFact() throws PrefixDeclarationException, ParsingException, ParseException {
+		skipWhitespace();
+		final int predicateStart = this.position;
+		final String predicateName;
+		if (peek() == '<') {
+			final String iri = readIri();
+			if (iri == null) {
+				return null;
+			}
+			predicateName = absolutizeIri(iri);
+		} else {
+			final int nameEnd = scanName();
+			if (nameEnd < 0 || (nameEnd - predicateStart == 3 && startsWith(predicateStart, "not"))) {
+				return null;
+			}
+			predicateName = resolveName(predicateStart, nameEnd);
+		}
+		final int predicateEnd = this.position;
+
+		skipWhitespace();
+		if (!consume('(')) {
+			return null;
+		}
+		final List<Term> terms = new ArrayList<>();
+		do {
+			skipWhitespace();
+			final Term term = parseTerm();
+			if (term == null) {
+				return null;
+			}
+			terms.add(term);
+			skipWhitespace();
+		} while (consume(','));
+		if (!consume(')')) {
+			return null;
+		}
+		skipWhitespace();
+		if (!consume('.') || this.position != this.end) {
+			return null;
+		}
+
+		return Expressions.makeFact(getPredicate(predicateStart, predicateEnd, predicateName, terms.size()), terms);
+	}
+
+	private Term parseTerm() throws PrefixDeclarationException, ParsingException, ParseException {
+		final int start = this.position;
+		final byte b = peek();
+		if (b == '<') {
+			final String iri = readIri();
+			if (iri == null) {
+				return null;
+			}
+			return Expressions.makeAbstractConstant(absolutizeIri(absolutizeIri(iri)));
+		} else if (b == '"' || b == '\'') {
+			return parseRdfLiteral();
+		} else if (b == '_' && peek(1) == ':') {
+			if (!this.parserConfiguration.isParsingOfNamedNullsAllowed()) {
+				return null;
+			}
+			this.position += 2;
+			final int nameStart = this.position;
+			if (!isNameStartChar(peek()) && !isDigit(peek())) {
+				return null;
+			}
+			while (isNameChar(peek())) {
+				this.position++;
+			}
+			if (!isDelimiter(peek())) {
+				return null;
+			}
+			return this.skolemization.skolemizeNamedNull(decode(nameStart, this.position));
+		} else if (isDigit(b) || b == '+' || b == '-') {
+			return parseNumber();
+		} else {
+			final int nameEnd = scanName();
+			if (nameEnd < 0) {
+				return null;
+			}
+			if (indexOf(start, nameEnd, ':') >= 0) {
+				return Expressions.makeAbstractConstant(absolutizeIri(resolveName(start, nameEnd)));
+			}
+			return Expressions.makeAbstractConstant(resolveName(start, nameEnd));
+		}
+	}
+
+	private Term parseNumber() throws ParsingException {
+		final int start = this.position;
+		if (peek() == '+' || peek() == '-') {
+			this.position++;
+		}
+		if (!isDigit(peek())) {
+			return null;
+		}
+		while (isDigit(peek())) {
+			this.position++;
+		}
+		String datatype = PrefixDeclarationRegistry.XSD_INTEGER;
+		if (peek() == '.') {
+			this.position++;
+			while (isDigit(peek())) {
+				this.position++;
+			}
+			datatype = PrefixDeclarationRegistry.XSD_DECIMAL;
+		}
+		if (peek() == 'e' || peek() == 'E') {
+			this.position++;
+			if (peek() == '+' || peek() == '-') {
+				this.position++;
+			}
+			if (!isDigit(peek())) {
+				return null;
+			}
+			while (isDigit(peek())) {
+				this.position++;
+			}
+			datatype = PrefixDeclarationRegistry.XSD_DOUBLE;
+		}
+		if (!isDelimiter(peek())) {
+			return null;
+		}
+		return this.parserConfiguration.parseDatatypeConstant(decode(start, this.position), datatype);
+	}
+
+	private Term parseRdfLiteral() throws PrefixDeclarationException, ParsingException, ParseException {
+		final byte quote = peek();
+		if (peek(1) == quote && peek(2) == quote) {
+			return null;
+		}
+		this.position++;
+		final int start = this.position;
+		boolean escaped = false;
+		while (true) {
+			final byte b = peek();
+			if (b == quote) {
+				break;
+			} else if (b == '\\') {
+				switch (peek(1)) {
+				case 't':
+				case 'b':
+				case 'n':
+				case 'r':
+				case 'f':
+				case '\\':
+				case '"':
+				case '\'':
+					escaped = true;
+					this.position += 2;
+					break;
+				default:
+					return null;
+				}
+			} else if (b == '\n' || b == '\r' || this.position >= this.end) {
+				return null;
+			} else {
+				this.position++;
+			}
+		}
+		final String raw = decode(start, this.position);
+		final String lexicalForm = escaped ? JavaCCParserBase.unescapeStr(raw, 0, 0) : raw;
+		this.position++;
+
+		skipWhitespace();
+		if (peek() == '@') {
+			this.position++;
+			final int tagStart = this.position;
+			if (!isLetter(peek())) {
+				return null;
+			}
+			while (isLetter(peek())) {
+				this.position++;
+			}
+			if (peek() == '-') {
+				this.position++;
+				if (!isLetterOrDigit(peek())) {
+					return null;
+				}
+				while (isLetterOrDigit(peek())) {
+					this.position++;
+				}
+			}
+			if (!isDelimiter(peek())) {
+				return null;
+			}
+			return Expressions.makeLanguageStringConstant(lexicalForm, decode(tagStart, this.position));
+		} else if (peek() == '^' && peek(1) == '^') {
+			this.position += 2;
+			skipWhitespace();
+			final String datatype;
+			final int datatypeStart = this.position;
+			if (peek() == '<') {
+				final String iri = readIri();
+				if (iri == null) {
+					return null;
+				}
+				datatype = absolutizeIri(iri);
+			} else {
+				final int nameEnd = scanName();
+				if (nameEnd < 0 || this.input[nameEnd - 1] == ':' || indexOf(datatypeStart, nameEnd, ':') < 0) {
+					return null;
+				}
+				datatype = this.prefixDeclarationRegistry.resolvePrefixedName(decode(datatypeStart, nameEnd));
+			}
+			return this.parserConfiguration.parseDatatypeConstant(lexicalForm, datatype);
+		}
+		return this.parserConfiguration.parseDatatypeConstant(lexicalForm, null);
+	}
+
+	/**
+	 * Reads an IRI in angle brackets.
+	 *
+	 * @return the IRI without brackets, or null if it contains characters the
+	 *         grammar does not allow
+	 */
+	private String readIri() {
+		this.position++;
+		final int start = this.position;
+		while (this.position < this.end) {
+			final byte b = this.input[this.position];
+			if (b == '>') {
+				final String iri = decode(start, this.position);
+				this.position++;
+				return iri;
+			}
+			if ((b >= 0 && b <= ' ') || b == '<' || b == '"' || b == '{' || b == '}' || b == '^' || b == '\\'
+					|| b == '|' || b == '`') {
+				return null;
+			}
+			this.position++;
+		}
+		return null;
+	}
+
+	/**
+	 * Scans a plain name (such as {@code abc}) or a prefixed name (such as
+	 * {@code ex:abc}), which must be followed by a delimiter.
+	 *
+	 * @return the end of the name, or -1 if the input is not a name of the
+	 *         supported form
+	 */
+	private int scanName() {
+		final int start = this.position;
+		boolean plain = true;
+		if (isLetter(peek())) {
+			while (isNameChar(peek())) {
+				plain &= isLetterOrDigit(peek());
+				this.position++;
+			}
+		}
+		if (peek() == ':') {
+			this.position++;
+			if (!isNameStartChar(peek()) && !isDigit(peek())) {
+				return -1;
+			}
+			while (isNameChar(peek())) {
+				this.position++;
+			}
+		} else if (!plain || this.position == start) {
+			return -1;
+		}
+		return isDelimiter(peek()) ? this.position : -1;
+	}
+
+	private String resolveName(final int start, final int end) throws PrefixDeclarationException {
+		final String name = decode(start, end);
+		if (indexOf(start, end, ':') >= 0) {
+			return this.prefixDeclarationRegistry.resolvePrefixedName(name);
+		}
+		return absolutizeIri(name);
+	}
+
+	private String absolutizeIri(final String iri) throws PrefixDeclarationException {
+		String absoluteIri = this.absoluteIris.get(iri);
+		if (absoluteIri == null) {
+			absoluteIri = this.prefixDeclarationRegistry.absolutizeIri(iri);
+			if (this.absoluteIris.size() >= MAX_CACHED_IRIS) {
+				this.absoluteIris.clear();
+			}
+			this.absoluteIris.put(iri, absoluteIri);
+		}
+		return absoluteIri;
+	}
+
+	private Predicate getPredicate(final int start, final int end, final String name, final int arity) {
+		if (this.lastPredicate == null || this.lastPredicate.getArity() != arity
+				|| !isLastPredicateName(start, end)) {
+			this.lastPredicate = Expressions.makePredicate(name, arity);
+			this.lastPredicateName = Arrays.copyOfRange(this.input, start, end);
+		}
+		return this.lastPredicate;
+	}
+
+	private boolean isLastPredicateName(final int start, final int end) {
+		if (end - start != this.lastPredicateName.length) {
+			return false;
+		}
+		for (int i = 0; i < this.lastPredicateName.length; i++) {
+			if (this.lastPredicateName[i] != this.input[start + i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private String decode(final int start, final int end) {
+		return new String(this.input, start, end - start, StandardCharsets.UTF_8);
+	}
+
+	private boolean startsWith(final int start, final String prefix) {
+		for (int i = 0; i < prefix.length(); i++) {
+			if (this.input[start + i] != prefix.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private int indexOf(final int start, final int end, final char c) {
+		for (int i = start; i < end; i++) {
+			if (this.input[i] == c) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private byte peek() {
+		return peek(0);
+	}
+
+	private byte peek(final int offset) {
+		final int i = this.position + offset;
+		return i < this.end ? this.input[i] : 0;
+	}
+
+	private boolean consume(final char c) {
+		if (peek() == c) {
+			this.position++;
+			return true;
+		}
+		return false;
+	}
+
+	private void skipWhitespace() {
+		while (this.position < this.end && isWhitespace(this.input[this.position])) {
+			this.position++;
+		}
+	}
+
+	private boolean isDelimiter(final byte b) {
+		return b == ',' || b == '(' || b == ')' || isWhitespace(b);
+	}
+
+	private static boolean isWhitespace(final byte b) {
+		return b == ' ' || b == '\t' || b == '\n' || b == '\r' || b == '\f';
+	}
+
+	private static boolean isLetter(final byte b) {
+		return (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z');
+	}
+
+	private static boolean isDigit(final byte b) {
+		return b >= '0' && b <= '9';
+	}
+
+	private static boolean isLetterOrDigit(final byte b) {
+		return isLetter(b) || isDigit(b);
+	}
+
+	private static boolean isNameStartChar(final byte b) {
+		return isLetter(b) || b == '_';
+	}
+
+	private static boolean isNameChar(final byte b) {
+		return isLetterOrDigit(b) || b == '_' || b == '-';
+	}
+
+}
@@ -20,8 +20,10 @@ package org.semanticweb.rulewerk.parser.javacc;
  * #L%
  */
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.semanticweb.rulewerk.core.exceptions.PrefixDeclarationException;
 import org.semanticweb.rulewerk.core.model.api.AbstractConstant;
@@ -61,6 +63,7 @@ public class JavaCCParserBase {
 	private PrefixDeclarationRegistry prefixDeclarationRegistry;
 
 	private KnowledgeBase knowledgeBase;
+	private Consumer<? super Statement> statementSink;
 	private ParserConfiguration parserConfiguration;
 	private Skolemization skolemization = new Skolemization();
 
@@ -165,7 +168,28 @@ public class JavaCCParserBase {
 	}
 
 	void addStatement(Statement statement) {
-		knowledgeBase.addStatement(statement);
+		if (this.statementSink != null) {
+			this.statementSink.accept(statement);
+		} else {
+			knowledgeBase.addStatement(statement);
+		}
+	}
+
+	/**
+	 * Continue with the {@link KnowledgeBase} returned by a directive handler. If
+	 * statements are forwarded to a sink, the statements that the directive added
+	 * to the knowledge base are forwarded as well and removed from the knowledge
+	 * base.
+	 *
+	 * @param knowledgeBase the knowledge base returned by the directive handler
+	 */
+	void updateKnowledgeBase(KnowledgeBase knowledgeBase) {
+		setKnowledgeBase(knowledgeBase);
+		if (this.statementSink != null) {
+			final List<Statement> statements = new ArrayList<>(knowledgeBase.getStatements());
+			statements.forEach(this.statementSink);
+			knowledgeBase.removeStatements(statements);
+		}
 	}
 
 	void addDataSource(String predicateName, int arity, DataSource dataSource) throws ParseException {
@@ -306,6 +330,21 @@ public class JavaCCParserBase {
 		return knowledgeBase;
 	}
 
+	/**
+	 * Forward parsed statements to the given sink instead of adding them to the
+	 * {@link KnowledgeBase}.
+	 *
+	 * @param statementSink consumer for parsed statements, or null to add
+	 *                      statements to the knowledge base
+	 */
+	public void setStatementSink(Consumer<? super Statement> statementSink) {
+		this.statementSink = statementSink;
+	}
+
+	public Consumer<? super Statement> getStatementSink() {
+		return statementSink;
+	}
+
 	public void setParserConfiguration(ParserConfiguration parserConfiguration) {
 		this.parserConfiguration = parserConfiguration;
 	}
@@ -0,0 +1,91 @@
+package org.semanticweb.rulewerk.parser;
+
+/*-
+ * #%L
+ * Rulewerk Parser
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MappedFileReaderTest {
+
+	private static final String CONTENT = "p(\"äß€😀\") . q(a) .\n";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File write(final byte[] bytes) throws IOException {
+		final File file = this.folder.newFile();
+		Files.write(file.toPath(), bytes);
+		return file;
+	}
+
+	private String readAll(final Reader reader, final int bufferSize) throws IOException {
+		final StringBuilder builder = new StringBuilder();
+		final char[] buffer = new char[bufferSize];
+		int read;
+		while ((read = reader.read(buffer, 0, bufferSize)) != -1) {
+			builder.append(buffer, 0, read);
+		}
+		return builder.toString();
+	}
+
+	@Test
+	public void read_multiByteCharactersAcrossWindows_decoded() throws IOException {
+		final File file = write(CONTENT.getBytes(StandardCharsets.UTF_8));
+		for (int windowSize = 4; windowSize < 12; windowSize++) {
+			for (final int bufferSize : new int[] { 1, 2, 3, 4096 }) {
+				try (Reader reader = new MappedFileReader(file, windowSize)) {
+					assertEquals(CONTENT, readAll(reader, bufferSize));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void read_emptyFile_endOfInput() throws IOException {
+		try (Reader reader = new MappedFileReader(write(new byte[0]))) {
+			assertEquals(-1, reader.read());
+		}
+	}
+
+	@Test
+	public void read_malformedInput_replaced() throws IOException {
+		try (Reader reader = new MappedFileReader(write(new byte[] { 'a', (byte) 0xff, 'b' }))) {
+			assertEquals("a�b", readAll(reader, 16));
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void read_closed_throws() throws IOException {
+		final Reader reader = new MappedFileReader(write(CONTENT.getBytes(StandardCharsets.UTF_8)));
+		reader.close();
+		reader.read();
+	}
+
+}
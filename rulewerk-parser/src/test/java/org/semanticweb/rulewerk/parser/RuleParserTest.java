@@ -22,12 +22,19 @@ package org.semanticweb.rulewerk.parser;
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.ArgumentMatchers;
+import org.semanticweb.rulewerk.core.exceptions.PrefixDeclarationException;
+import org.semanticweb.rulewerk.core.model.api.AspRule;
 import org.semanticweb.rulewerk.core.model.api.Conjunction;
 import org.semanticweb.rulewerk.core.model.api.Constant;
 import org.semanticweb.rulewerk.core.model.api.DatatypeConstant;
@@ -46,6 +53,9 @@ import org.semanticweb.rulewerk.parser.javacc.JavaCCParserBase.FormulaContext;
 
 public class RuleParserTest implements ParserTestUtils {
 
+	@org.junit.Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
 	private final Variable x = Expressions.makeUniversalVariable("X");
 	private final Variable y = Expressions.makeExistentialVariable("Y");
 	private final Variable z = Expressions.makeUniversalVariable("Z");
@@ -478,6 +488,12 @@ public class RuleParserTest implements ParserTestUtils {
 		assertEquals(constant, result);
 	}
 
+	@Test
+	public void parse_file_succeeds() throws ParsingException, IOException {
+		KnowledgeBase knowledgeBase = RuleParser.parse(new File("src/test/resources/facts.rls"));
+		assertEquals(Arrays.asList(fact1, fact2), knowledgeBase.getFacts());
+	}
+
 	@Test
 	public void parse_importStatement_succeeds() throws ParsingException {
 		String input = "@import \"src/test/resources/facts.rls\" .";
@@ -550,4 +566,92 @@ public class RuleParserTest implements ParserTestUtils {
 		List<Fact> result = knowledgeBase.getFacts();
 		assertEquals(expected, result);
 	}
+
+	@Test
+	public void parseStatements_forwardsStatementsInOrder() throws ParsingException, PrefixDeclarationException {
+		String input = "@prefix ex: <http://example.org/> . ex:s(ex:c) . p(\"abc\") . ex:q(?X, !Y), ex:r(?X, ex:d) :- ex:p(?X, ex:c), ex:p(?X, ?Z) .";
+		List<Statement> statements = new ArrayList<>();
+		PrefixDeclarationRegistry prefixes = RuleParser.parseStatements(statements::add, input);
+		assertEquals(Arrays.asList(fact1, fact2, rule1), statements);
+		assertEquals("http://example.org/", prefixes.getPrefixIri("ex:"));
+	}
+
+	@Test
+	public void parseStatements_importStatement_forwardsImportedStatements() throws ParsingException {
+		String input = "p(\"abc\") . @import \"src/test/resources/facts.rls\" . <http://example.org/s>(<http://example.org/c>) .";
+		List<Statement> statements = new ArrayList<>();
+		RuleParser.parseStatements(statements::add, input);
+		assertEquals(Arrays.asList(fact2, fact1, fact2, fact1), statements);
+	}
+
+	private String makeLargeInput(final int facts) {
+		final StringBuilder builder = new StringBuilder("@prefix ex: <http://example.org/> .\n");
+		for (int i = 0; i < facts; i++) {
+			builder.append("ex:p(_:n, \"string. with ' delimiters. \", <http://example.org/").append(i)
+					.append(">) . % comment. \n");
+		}
+		return builder.toString();
+	}
+
+	@Test
+	public void parseStatementsInParallel_largeInput_equalsSequentialParse() throws ParsingException {
+		String input = makeLargeInput(5000);
+		List<Statement> statements = new ArrayList<>();
+		RuleParser.parseStatementsInParallel(statements::add, new ByteArrayInputStream(input.getBytes()));
+		List<Statement> expected = new ArrayList<>(RuleParser.parse(input).getStatements());
+		assertEquals(expected.size(), statements.size());
+		for (int i = 0; i < expected.size(); i++) {
+			Fact fact = (Fact) statements.get(i);
+			Fact expectedFact = (Fact) expected.get(i);
+			assertEquals(expectedFact.getArguments().subList(1, 3), fact.getArguments().subList(1, 3));
+			assertEquals(((Fact) statements.get(0)).getArguments().get(0), fact.getArguments().get(0));
+		}
+	}
+
+	@Test
+	public void parseIntoInParallel_mergesPrefixesAndStatements() throws ParsingException, PrefixDeclarationException {
+		String input = "@prefix ex: <http://example.org/> . ex:s(ex:c) . p(\"abc\") . ex:q(?X, !Y), ex:r(?X, ex:d) :- ex:p(?X, ex:c), ex:p(?X, ?Z) .";
+		KnowledgeBase knowledgeBase = new KnowledgeBase();
+		RuleParser.parseIntoInParallel(knowledgeBase, new ByteArrayInputStream(input.getBytes()));
+		assertEquals(Arrays.asList(fact1, fact2, rule1), new ArrayList<>(knowledgeBase.getStatements()));
+		assertEquals("http://example.org/", knowledgeBase.getPrefixIri("ex:"));
+	}
+
+	@Test
+	public void parseStatementsInParallel_importStatement_forwardsImportedStatements() throws ParsingException {
+		String input = "p(\"abc\") . @import \"src/test/resources/facts.rls\" . <http://example.org/s>(<http://example.org/c>) .";
+		List<Statement> statements = new ArrayList<>();
+		RuleParser.parseStatementsInParallel(statements::add, new ByteArrayInputStream(input.getBytes()));
+		assertEquals(Arrays.asList(fact2, fact1, fact2, fact1), statements);
+	}
+
+	@Test(expected = ParsingException.class)
+	public void parseIntoInParallel_invalidStatementInLaterChunk_throws() throws ParsingException {
+		String input = makeLargeInput(5000) + "ex:p(?X) .";
+		KnowledgeBase knowledgeBase = new KnowledgeBase();
+		try {
+			RuleParser.parseIntoInParallel(knowledgeBase, new ByteArrayInputStream(input.getBytes()));
+		} finally {
+			assertTrue(knowledgeBase.getStatements().isEmpty());
+		}
+	}
+
+	@Test
+	public void parseAsp_afterLoadingSnapshot_distinctHelperPredicates() throws ParsingException, IOException {
+		final KnowledgeBase knowledgeBase = RuleParser
+				.parseAsp(new ByteArrayInputStream("q(?X) | r(?X) :- p(?X) . :- q(?X), r(?X) .".getBytes()));
+		final Path path = folder.newFile().toPath();
+		knowledgeBase.save(path);
+		// as in a new JVM, in which no ASP rules have been created yet
+		Expressions.ruleCounter = 0;
+		final KnowledgeBase loaded = KnowledgeBase.load(path);
+
+		final AspRule parsed = RuleParser
+				.parseAsp(new ByteArrayInputStream("s(?X) | t(?X) :- p(?X) .".getBytes())).getAspRules().get(0);
+		assertEquals(2, loaded.getAspRules().size());
+		for (final AspRule rule : loaded.getAspRules()) {
+			assertNotEquals(rule.getRuleIdx(), parsed.getRuleIdx());
+			assertNotEquals(rule.getHelperLiteral().getPredicate(), parsed.getHelperLiteral().getPredicate());
+		}
+	}
 }
@@ -0,0 +1,81 @@
+package org.semanticweb.rulewerk.parser;
+
+/*-
+ * #%L
+ * Rulewerk Parser
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class StatementBoundaryScannerTest {
+
+	private List<String> split(final String input) {
+		final byte[] bytes = input.getBytes();
+		final StatementBoundaryScanner scanner = new StatementBoundaryScanner(bytes, 0, bytes.length);
+		final List<String> statements = new ArrayList<>();
+		while (scanner.nextStatement()) {
+			statements.add(new String(bytes, scanner.getStatementStart(),
+					scanner.getStatementEnd() - scanner.getStatementStart()));
+		}
+		return statements;
+	}
+
+	@Test
+	public void nextStatement_simpleFacts_splits() {
+		assertEquals(Arrays.asList("p(a) .", "q(1.5).", "r(_:x.y)."), split(" p(a) .\nq(1.5).\tr(_:x.y)."));
+	}
+
+	@Test
+	public void nextStatement_delimitersInStringsAndIris_ignored() {
+		assertEquals(Arrays.asList("p(\"a. b\", 'c. \\' d') .", "q(<http://example.org/a.%20b>, \"\"\"x. \n\"y\". \"\"\")."),
+				split("p(\"a. b\", 'c. \\' d') . q(<http://example.org/a.%20b>, \"\"\"x. \n\"y\". \"\"\")."));
+	}
+
+	@Test
+	public void nextStatement_comments_skipped() {
+		assertEquals(Arrays.asList("p(a).", "q(b) ."), split("% a. b\np(a).% c. d\n  q(b) . % e."));
+	}
+
+	@Test
+	public void nextStatement_delimitersInBrackets_ignored() {
+		assertEquals(Arrays.asList("p([a. b], {c. d}) ."), split("p([a. b], {c. d}) ."));
+	}
+
+	@Test
+	public void nextStatement_unterminatedStatement_endsAtEndOfInput() {
+		assertEquals(Arrays.asList("p(a).", "q(b)"), split("p(a). q(b)"));
+	}
+
+	@Test
+	public void statementStartsWith_keyword_recognised() {
+		final byte[] bytes = "@prefix ex: <http://example.org/> . @prefixes .".getBytes();
+		final StatementBoundaryScanner scanner = new StatementBoundaryScanner(bytes, 0, bytes.length);
+		assertTrue(scanner.nextStatement());
+		assertTrue(scanner.statementStartsWith("@prefix"));
+		assertTrue(scanner.nextStatement());
+		assertFalse(scanner.statementStartsWith("@prefix"));
+		assertFalse(scanner.nextStatement());
+	}
+
+}
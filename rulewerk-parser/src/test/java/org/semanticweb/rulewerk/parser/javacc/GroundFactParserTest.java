@@ -0,0 +1,103 @@
+package org.semanticweb.rulewerk.parser.javacc;
+
+/*-
+ * #%L
+ * Rulewerk Parser
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.semanticweb.rulewerk.core.exceptions.PrefixDeclarationException;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.Statement;
+import org.semanticweb.rulewerk.parser.RuleParser;
+
+public class GroundFactParserTest {
+
+	private static final String HEADER = "@base <http://example.org/base/> . @prefix ex: <http://example.org/> . @prefix xsd: <http://www.w3.org/2001/XMLSchema#> .";
+
+	private JavaCCParser headerParser;
+	private GroundFactParser factParser;
+
+	@Before
+	public void init() throws ParseException, PrefixDeclarationException {
+		this.headerParser = new JavaCCParser(new ByteArrayInputStream(HEADER.getBytes()),
+				RuleParser.DEFAULT_STRING_ENCODING);
+		this.headerParser.parse();
+		this.factParser = new GroundFactParser(this.headerParser);
+	}
+
+	private Fact parseFast(final String input) {
+		final byte[] bytes = input.getBytes(StandardCharsets.UTF_8);
+		return this.factParser.parse(bytes, 0, bytes.length);
+	}
+
+	private Statement parseWithGrammar(final String input) throws ParseException, PrefixDeclarationException {
+		final List<Statement> statements = new ArrayList<>();
+		final JavaCCParser parser = this.headerParser.makeSubParser(
+				new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), RuleParser.DEFAULT_STRING_ENCODING);
+		parser.setStatementSink(statements::add);
+		parser.statements();
+		assertEquals(1, statements.size());
+		return statements.get(0);
+	}
+
+	@Test
+	public void parse_supportedFacts_equalsGrammar() throws ParseException, PrefixDeclarationException {
+		for (final String input : Arrays.asList("ex:p(ex:a, <b>, <http://example.org/c>, abc) .",
+				"<http://example.org/q>(a) .", "p ( a ,\n b )\t.",
+				"p(\"b\", 'c', \"d\"@en, \"e\"@en-GB, \"f\"^^xsd:integer, \"g\" ^^ <http://example.org/t>) .",
+				"p(\"a\\tb\\\"c\\\\\", 'it\\'s', \"\", \"\u00e4\u00df\") .", "p(42, -1, +2, 1.5, 1., 2e3, -1.5E-3) .",
+				"p(_:n, _:m1-2) .", "p(ex:a_b-c, ex:_1) .")) {
+			final Fact fact = parseFast(input);
+			assertNotNull(input, fact);
+			assertEquals(input, parseWithGrammar(input), fact);
+		}
+	}
+
+	@Test
+	public void parse_namedNull_sameSkolemizationAsGrammar() throws ParseException, PrefixDeclarationException {
+		assertEquals(parseWithGrammar("p(_:a) ."), parseFast("p(_:a) ."));
+	}
+
+	@Test
+	public void parse_unsupportedStatements_returnsNull() {
+		for (final String input : Arrays.asList("p(?X) .", "q(?X) :- p(?X) .", "p(\"\"\"a\"\"\") .",
+				"p(\"\\u0041\") .", "p(a) % comment\n.", "not (a) .", "p(ex:a.b) .", "p(\u00e4) .", "p(.5) .",
+				"p(|a|) .", "p(a)", "p() .", "p(a) . q(b) .", "ex:(a) .", "_:a(b) .")) {
+			assertNull(input, parseFast(input));
+		}
+	}
+
+	@Test
+	public void parse_invalidFacts_returnsNull() {
+		for (final String input : Arrays.asList("p(undeclared:a) .", "p(:a) .", "p(\"a\"^^undeclared:t) .", "p(\"a) .",
+				"p(a b) .", "p(1a) .", "p(<a b>) .", "p(\"a\\x\") .")) {
+			assertNull(input, parseFast(input));
+		}
+	}
+
+}
@@ -57,6 +57,9 @@ import org.semanticweb.rulewerk.core.model.implementation.Expressions;
  * {@link Model}s. Blanks with the same name loaded from different models will
  * have different ids.</li>
  * </ul>
+ * For large RDF documents, {@link RdfTriplesToDataSourceHandler} streams the
+ * triples into an in-memory data source instead, without creating a
+ * {@link Model} or facts.
  *
  * @author Irina Dragoste
  *
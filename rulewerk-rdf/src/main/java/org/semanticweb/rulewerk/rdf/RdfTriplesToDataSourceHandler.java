@@ -0,0 +1,137 @@
+package org.semanticweb.rulewerk.rdf;
+
+/*-
+ * #%L
+ * Rulewerk RDF Support
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.apache.commons.lang3.Validate;
+import org.openrdf.model.BNode;
+import org.openrdf.model.Literal;
+import org.openrdf.model.Statement;
+import org.openrdf.model.URI;
+import org.openrdf.model.Value;
+import org.openrdf.rio.RDFFormat;
+import org.openrdf.rio.RDFHandlerException;
+import org.openrdf.rio.RDFParseException;
+import org.openrdf.rio.RDFParser;
+import org.openrdf.rio.Rio;
+import org.openrdf.rio.helpers.RDFHandlerBase;
+import org.openrdf.rio.ntriples.NTriplesUtil;
+import org.semanticweb.rulewerk.core.exceptions.RulewerkRuntimeException;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.reasoner.implementation.InMemoryDataSource;
+import org.semanticweb.rulewerk.core.reasoner.implementation.Skolemization;
+
+/**
+ * Rio {@link org.openrdf.rio.RDFHandler} that streams the triples of an RDF
+ * document into an {@link InMemoryDataSource} of arity 3, without collecting
+ * them in a {@link org.openrdf.model.Model} or converting them to
+ * {@link Fact}s first. A data source that stores each distinct constant only
+ * once, such as the dictionary-encoded in-memory data source of the VLog
+ * backend, keeps the memory needed per triple small. Declared for the predicate
+ * {@link RdfModelConverter#RDF_TRIPLE_PREDICATE}, the data source yields the
+ * same facts as {@link RdfModelConverter#rdfModelToFacts}, except for blank
+ * nodes:
+ * <ul>
+ * <li>{@link URI}s and {@link Literal}s are converted to the names of the
+ * constants that {@link RdfModelConverter} would create.</li>
+ * <li>{@link BNode}s are converted to constants with a fresh name, since
+ * in-memory data sources cannot hold named nulls. Blank nodes with the same id
+ * that are handled by the same handler get the same name.</li>
+ * </ul>
+ *
+ * @author Philipp Hanisch
+ *
+ */
+public class RdfTriplesToDataSourceHandler extends RDFHandlerBase {
+
+	private final InMemoryDataSource dataSource;
+	private final Skolemization skolemization = new Skolemization();
+	private long tripleCount = 0;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param dataSource the data source to add the triples to, of arity 3
+	 */
+	public RdfTriplesToDataSourceHandler(final InMemoryDataSource dataSource) {
+		Validate.notNull(dataSource, "Data source cannot be null!");
+		this.dataSource = dataSource;
+	}
+
+	/**
+	 * Parses the given RDF document and adds its triples to the given data source.
+	 *
+	 * @param inputStream the RDF document
+	 * @param rdfFormat   the format of the document
+	 * @param baseUri     the URI against which relative URIs in the document are
+	 *                    resolved
+	 * @param dataSource  the data source to add the triples to, of arity 3
+	 * @return the number of triples that were added
+	 * @throws IOException       if the document could not be read
+	 * @throws RDFParseException if the document is not valid in the given format
+	 */
+	public static long loadTriples(final InputStream inputStream, final RDFFormat rdfFormat, final String baseUri,
+			final InMemoryDataSource dataSource) throws IOException, RDFParseException {
+		final RDFParser rdfParser = Rio.createParser(rdfFormat);
+		final RdfTriplesToDataSourceHandler handler = new RdfTriplesToDataSourceHandler(dataSource);
+		rdfParser.setRDFHandler(handler);
+		try {
+			rdfParser.parse(inputStream, baseUri);
+		} catch (final RDFHandlerException e) {
+			// only thrown for tuples that do not fit the data source
+			throw new RulewerkRuntimeException(e.getMessage(), e);
+		}
+		return handler.getTripleCount();
+	}
+
+	@Override
+	public void handleStatement(final Statement statement) throws RDFHandlerException {
+		try {
+			this.dataSource.addTuple(getConstantName(statement.getSubject()),
+					getConstantName(statement.getPredicate()), getConstantName(statement.getObject()));
+		} catch (final IllegalArgumentException e) {
+			throw new RDFHandlerException(e.getMessage(), e);
+		}
+		this.tripleCount++;
+	}
+
+	/**
+	 * @return the number of triples added to the data source so far
+	 */
+	public long getTripleCount() {
+		return this.tripleCount;
+	}
+
+	String getConstantName(final Value value) {
+		if (value instanceof URI) {
+			return NTriplesUtil.escapeString(value.toString());
+		} else if (value instanceof Literal) {
+			return RdfValueToTermConverter.rdfLiteralToConstant((Literal) value).getName();
+		} else if (value instanceof BNode) {
+			return this.skolemization.skolemizeNamedNull(((BNode) value).getID()).getName();
+		} else {
+			throw new RulewerkRuntimeException("Unknown value type: " + value.getClass());
+		}
+	}
+
+}
@@ -0,0 +1,169 @@
+package org.semanticweb.rulewerk.rdf;
+
+/*-
+ * #%L
+ * Rulewerk RDF Support
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.openrdf.model.Model;
+import org.openrdf.rio.RDFFormat;
+import org.openrdf.rio.RDFHandlerException;
+import org.openrdf.rio.RDFParseException;
+import org.semanticweb.rulewerk.core.exceptions.RulewerkRuntimeException;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.api.Variable;
+import org.semanticweb.rulewerk.core.model.implementation.DataSourceDeclarationImpl;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.core.reasoner.QueryResultIterator;
+import org.semanticweb.rulewerk.core.reasoner.Reasoner;
+import org.semanticweb.rulewerk.core.reasoner.implementation.InMemoryDataSource;
+import org.semanticweb.rulewerk.reasoner.vlog.VLogDictionaryDataSource;
+import org.semanticweb.rulewerk.reasoner.vlog.VLogInMemoryDataSource;
+import org.semanticweb.rulewerk.reasoner.vlog.VLogReasoner;
+
+public class TestStreamRdfTriplesToDataSource {
+
+	private static final Variable subject = Expressions.makeUniversalVariable("s");
+	private static final Variable predicate = Expressions.makeUniversalVariable("p");
+	private static final Variable object = Expressions.makeUniversalVariable("o");
+	private static final PositiveLiteral universalQuery = Expressions.makePositiveLiteral(
+			RdfModelConverter.RDF_TRIPLE_PREDICATE, subject, predicate, object);
+
+	@Test
+	public void loadTriples_constantsOnly_sameAnswersAsFacts()
+			throws RDFParseException, RDFHandlerException, IOException {
+		for (final String fileName : Arrays.asList("exampleFacts.ttl", "escapedCharacters.ttl", "languageTags.ttl",
+				"literalValues.ttl", "relativeURIs.ttl", "unnormalizedLiteralValues.ttl")) {
+			final File file = new File(RdfTestUtils.INPUT_FOLDER + fileName);
+			final Set<Fact> facts = RdfModelConverter.rdfModelToFacts(RdfTestUtils.parseFile(file, RDFFormat.TURTLE));
+			final KnowledgeBase factsKb = new KnowledgeBase();
+			factsKb.addStatements(facts);
+
+			final VLogDictionaryDataSource dataSource = new VLogDictionaryDataSource(3, 1);
+			assertEquals(facts.size(), loadTriples(file, dataSource));
+
+			assertEquals(fileName, getAllTriples(factsKb), getAllTriples(makeKnowledgeBase(dataSource)));
+		}
+	}
+
+	@Test
+	public void loadTriples_repeatedTerms_storedOnce() throws RDFParseException, RDFHandlerException, IOException {
+		final File file = new File(RdfTestUtils.INPUT_FOLDER + "exampleFacts.ttl");
+		final Model model = RdfTestUtils.parseFile(file, RDFFormat.TURTLE);
+		final Set<Term> terms = RdfModelConverter.rdfModelToFacts(model).stream()
+				.flatMap(fact -> fact.getArguments().stream()).collect(Collectors.toSet());
+
+		final VLogDictionaryDataSource dataSource = new VLogDictionaryDataSource(3, 1);
+		loadTriples(file, dataSource);
+		assertEquals(model.size(), dataSource.getSize());
+		assertEquals(terms.size(), dataSource.getDictionarySize());
+	}
+
+	@Test
+	public void loadTriples_blankNodes_sameNameWithinDocument() throws RDFParseException, IOException {
+		final VLogDictionaryDataSource dataSource = new VLogDictionaryDataSource(3, 4);
+		loadTriples(new File(RdfTestUtils.INPUT_FOLDER + "labelledBNodes.ttl"), dataSource);
+
+		final Set<List<Term>> triples = getAllTriples(makeKnowledgeBase(dataSource));
+		final Set<Term> firstSubjects = new HashSet<>();
+		final Set<Term> restSubjects = new HashSet<>();
+		final Set<Term> restObjects = new HashSet<>();
+		for (final List<Term> triple : triples) {
+			if (triple.get(1).equals(RdfTestUtils.RDF_FIRST)) {
+				firstSubjects.add(triple.get(0));
+			} else {
+				restSubjects.add(triple.get(0));
+				restObjects.add(triple.get(2));
+			}
+		}
+		assertEquals(firstSubjects, restSubjects);
+		assertEquals(2, firstSubjects.size());
+		assertTrue(restObjects.contains(RdfTestUtils.RDF_NIL));
+		restObjects.retainAll(firstSubjects);
+		assertEquals(1, restObjects.size());
+	}
+
+	@Test
+	public void loadTriples_twice_freshBlankNodes() throws RDFParseException, IOException {
+		final File file = new File(RdfTestUtils.INPUT_FOLDER + "labelledBNodes.ttl");
+		final VLogDictionaryDataSource dataSource = new VLogDictionaryDataSource(3, 4);
+		loadTriples(file, dataSource);
+		final int dictionarySize = dataSource.getDictionarySize();
+		loadTriples(file, dataSource);
+		assertEquals(dictionarySize + 2, dataSource.getDictionarySize());
+	}
+
+	@Test
+	public void loadTriples_plainInMemoryDataSource_succeeds() throws RDFParseException, IOException {
+		final File file = new File(RdfTestUtils.INPUT_FOLDER + "exampleFacts.ttl");
+		final VLogDictionaryDataSource dictionaryDataSource = new VLogDictionaryDataSource(3, 1);
+		final VLogInMemoryDataSource inMemoryDataSource = new VLogInMemoryDataSource(3, 1);
+		loadTriples(file, dictionaryDataSource);
+		loadTriples(file, inMemoryDataSource);
+		assertEquals(getAllTriples(makeKnowledgeBase(dictionaryDataSource)),
+				getAllTriples(makeKnowledgeBase(inMemoryDataSource)));
+	}
+
+	@Test(expected = RulewerkRuntimeException.class)
+	public void loadTriples_wrongArity_throws() throws RDFParseException, IOException {
+		loadTriples(new File(RdfTestUtils.INPUT_FOLDER + "exampleFacts.ttl"), new VLogDictionaryDataSource(2, 1));
+	}
+
+	private static long loadTriples(final File file, final InMemoryDataSource dataSource)
+			throws RDFParseException, IOException {
+		try (InputStream inputStream = new FileInputStream(file)) {
+			return RdfTriplesToDataSourceHandler.loadTriples(inputStream, RDFFormat.TURTLE, file.toURI().toString(),
+					dataSource);
+		}
+	}
+
+	private static KnowledgeBase makeKnowledgeBase(final InMemoryDataSource dataSource) {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatement(new DataSourceDeclarationImpl(RdfModelConverter.RDF_TRIPLE_PREDICATE, dataSource));
+		return kb;
+	}
+
+	private static Set<List<Term>> getAllTriples(final KnowledgeBase kb) throws IOException {
+		try (final Reasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+			final Set<List<Term>> queryResults = new HashSet<>();
+			try (final QueryResultIterator queryResultIterator = reasoner.answerQuery(universalQuery, true)) {
+				queryResultIterator.forEachRemaining(queryResult -> queryResults.add(queryResult.getTerms()));
+			}
+			return queryResults;
+		}
+	}
+
+}
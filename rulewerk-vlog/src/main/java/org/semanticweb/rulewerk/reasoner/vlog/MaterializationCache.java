@@ -0,0 +1,490 @@
+package org.semanticweb.rulewerk.reasoner.vlog;
+
+/*-
+ * #%L
+ * Rulewerk VLog Reasoner Support
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.function.Function;
+
+import org.apache.commons.lang3.Validate;
+import org.semanticweb.rulewerk.core.model.api.DataSourceDeclaration;
+import org.semanticweb.rulewerk.core.model.api.DatatypeConstant;
+import org.semanticweb.rulewerk.core.model.api.Entity;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.LanguageStringConstant;
+import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.PrefixDeclarationRegistry;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.ShowStatement;
+import org.semanticweb.rulewerk.core.model.api.Statement;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.api.TermType;
+import org.semanticweb.rulewerk.core.model.implementation.DataSourceDeclarationImpl;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.model.implementation.FactImpl;
+import org.semanticweb.rulewerk.core.model.implementation.MergingPrefixDeclarationRegistry;
+import org.semanticweb.rulewerk.core.model.implementation.StatementWriter;
+import org.semanticweb.rulewerk.core.reasoner.Algorithm;
+import org.semanticweb.rulewerk.core.reasoner.Correctness;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.core.reasoner.Reasoner;
+import org.semanticweb.rulewerk.core.reasoner.implementation.FileDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+
+/**
+ * An on-disk cache for the results of materialisation. The inferences of a
+ * reasoner are stored in a file that is named after a fingerprint of the
+ * knowledge base, which covers its statements, the contents of the files of
+ * its data sources, and the chase algorithm. A later run with the same
+ * fingerprint can load the stored inferences as data, so that reasoning only
+ * has to load them. When the cached files exceed the maximal size, the least recently
+ * used ones are deleted.
+ * <p>
+ * Inferences are stored dictionary-encoded: every distinct term is stored
+ * once, and every inferred fact as a sequence of integer ids. When loaded, the
+ * facts are put into {@link VLogDictionaryDataSource}s, and the prefix
+ * declarations of the knowledge base are restored. Inferences with named nulls
+ * are not cached, since VLog would load the nulls as constants, which changes
+ * the answers to queries that exclude nulls. The fingerprint of SPARQL query
+ * data sources only covers the query, not the results.
+ *
+ * @author Philipp Hanisch
+ *
+ */
+public class MaterializationCache {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(MaterializationCache.class);
+
+	private static final String EXTENSION = ".materialization";
+
+	static final int MAGIC = 0x52574d43; // "RWMC"
+	static final int VERSION = 2;
+
+	private static final byte ABSTRACT_CONSTANT = 0;
+	private static final byte DATATYPE_CONSTANT = 1;
+	private static final byte LANGUAGE_STRING_CONSTANT = 2;
+
+	private final File directory;
+	private final long maxSizeBytes;
+
+	private static final class Relation {
+		final IntArrayList ids = new IntArrayList();
+		int size;
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param directory    the directory for cached inferences; created if it does
+	 *                     not exist
+	 * @param maxSizeBytes maximal total size of the cached inferences
+	 * @throws IOException if the directory cannot be created
+	 */
+	public MaterializationCache(final File directory, final long maxSizeBytes) throws IOException {
+		Validate.notNull(directory, "Cache directory cannot be null.");
+		Validate.isTrue(maxSizeBytes >= 0, "Maximal cache size cannot be negative.");
+		Files.createDirectories(directory.toPath());
+		this.directory = directory;
+		this.maxSizeBytes = maxSizeBytes;
+	}
+
+	/**
+	 * Computes the fingerprint of a knowledge base, which identifies the result
+	 * of its materialisation with the given algorithm. Files of data sources are
+	 * read completely.
+	 *
+	 * @param knowledgeBase the knowledge base
+	 * @param algorithm     the chase algorithm
+	 * @return a hexadecimal SHA-256 hash
+	 * @throws IOException if a file of a data source cannot be read
+	 */
+	public static String getFingerprint(final KnowledgeBase knowledgeBase, final Algorithm algorithm)
+			throws IOException {
+		final MessageDigest digest = newDigest();
+		digest.update(algorithm.name().getBytes(StandardCharsets.UTF_8));
+
+		final StatementWriter writer = new StatementWriter(new DigestChannel(digest), Function.identity(), false);
+		for (final Statement statement : knowledgeBase.getStatements()) {
+			if (statement instanceof Fact) {
+				writer.writeFact((Fact) statement);
+			} else {
+				writer.flush();
+				// in-memory data sources include their data in this representation
+				final String representation = statement instanceof ShowStatement
+						? "#show " + ((ShowStatement) statement).getPredicate()
+						: ((Entity) statement).getSyntacticRepresentation();
+				digest.update(representation.getBytes(StandardCharsets.UTF_8));
+				if (statement instanceof DataSourceDeclaration
+						&& ((DataSourceDeclaration) statement).getDataSource() instanceof FileDataSource) {
+					updateDigest(digest, (FileDataSource) ((DataSourceDeclaration) statement).getDataSource());
+				}
+			}
+		}
+		writer.finish();
+
+		final StringBuilder hex = new StringBuilder();
+		for (final byte b : digest.digest()) {
+			hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+		}
+		return hex.toString();
+	}
+
+	private static void updateDigest(final MessageDigest digest, final FileDataSource dataSource) throws IOException {
+		final byte[] buffer = new byte[1 << 16];
+		try (InputStream input = new DigestInputStream(Files.newInputStream(dataSource.getFile().toPath()), digest)) {
+			while (input.read(buffer) != -1) {
+				// the digest is updated while reading
+			}
+		}
+	}
+
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (final NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not supported.", e);
+		}
+	}
+
+	/**
+	 * Channel that only updates a digest with the written bytes.
+	 */
+	private static final class DigestChannel implements WritableByteChannel {
+		private final MessageDigest digest;
+
+		DigestChannel(final MessageDigest digest) {
+			this.digest = digest;
+		}
+
+		@Override
+		public int write(final ByteBuffer source) {
+			final int count = source.remaining();
+			this.digest.update(source);
+			return count;
+		}
+
+		@Override
+		public boolean isOpen() {
+			return true;
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+
+	/**
+	 * @param fingerprint as returned by {@link #getFingerprint}
+	 * @return the file for the cached inferences with the given fingerprint
+	 */
+	public File getFile(final String fingerprint) {
+		return new File(this.directory, fingerprint + EXTENSION);
+	}
+
+	/**
+	 * Loads cached inferences as a knowledge base, with the prefix declarations
+	 * of the knowledge base they have been inferred from. Its only rules cannot
+	 * infer anything, but make the reasoner aware of empty relations. Inferences
+	 * cached by an earlier version are deleted.
+	 *
+	 * @param fingerprint as returned by {@link #getFingerprint}
+	 * @return a knowledge base with the cached inferences, or {@code null} if no
+	 *         inferences of this version are cached for the fingerprint
+	 * @throws IOException if the cached inferences cannot be read
+	 */
+	public KnowledgeBase load(final String fingerprint) throws IOException {
+		final File file = getFile(fingerprint);
+		if (!file.exists()) {
+			return null;
+		}
+		LOGGER.info("Loading cached inferences {} ...", file);
+		final KnowledgeBase knowledgeBase = new KnowledgeBase();
+		try (DataInputStream input = new DataInputStream(
+				new BufferedInputStream(Files.newInputStream(file.toPath()), 1 << 16))) {
+			if (input.readInt() != MAGIC) {
+				throw new IOException("File " + file + " does not contain cached inferences.");
+			}
+			if (input.readInt() != VERSION) {
+				input.close();
+				LOGGER.info("Deleting cached inferences {} of an earlier version.", file);
+				Files.deleteIfExists(file.toPath());
+				return null;
+			}
+
+			knowledgeBase.mergePrefixDeclarations(readPrefixDeclarations(input));
+
+			final Term[] terms = new Term[input.readInt()];
+			final String[] names = new String[terms.length];
+			for (int i = 0; i < terms.length; i++) {
+				terms[i] = readTerm(input);
+				names[i] = terms[i].getName();
+			}
+
+			final List<Statement> statements = new ArrayList<>();
+			final int predicateCount = input.readInt();
+			for (int p = 0; p < predicateCount; p++) {
+				final Predicate predicate = Expressions.makePredicate(readString(input), input.readInt());
+				final int arity = predicate.getArity();
+				final int size = input.readInt();
+				final VLogDictionaryDataSource dataSource = new VLogDictionaryDataSource(arity, size);
+				final int[] ids = new int[arity];
+				final String[] tuple = new String[arity];
+				for (int t = 0; t < size; t++) {
+					for (int i = 0; i < arity; i++) {
+						ids[i] = input.readInt();
+						tuple[i] = names[ids[i]];
+					}
+					if (arity == 0) {
+						final List<Term> arguments = new ArrayList<>(arity);
+						for (final int id : ids) {
+							arguments.add(terms[id]);
+						}
+						statements.add(new FactImpl(predicate, arguments));
+					} else {
+						dataSource.addTuple(tuple);
+					}
+				}
+				if (dataSource.getSize() > 0) {
+					statements.add(new DataSourceDeclarationImpl(predicate, dataSource));
+				} else if (size == 0) {
+					// VLog only knows predicates with data or in rules, so a rule that cannot
+					// infer anything keeps empty relations queryable
+					final List<Term> variables = new ArrayList<>(arity);
+					for (int i = 0; i < arity; i++) {
+						variables.add(Expressions.makeUniversalVariable("X" + i));
+					}
+					final PositiveLiteral literal = Expressions.makePositiveLiteral(predicate, variables);
+					statements.add(Expressions.makeRule(literal, literal));
+				}
+			}
+			knowledgeBase.addStatements(statements);
+		}
+		if (!file.setLastModified(System.currentTimeMillis())) {
+			LOGGER.warn("Could not mark cached inferences {} as recently used.", file);
+		}
+		return knowledgeBase;
+	}
+
+	/**
+	 * Stores the inferences of a reasoner, if they are complete and do not
+	 * contain named nulls. The cached file is replaced atomically, so that readers
+	 * never see partial inferences. Inferences that cannot be stored also
+	 * invalidate those cached for the fingerprint before.
+	 *
+	 * @param fingerprint as returned by {@link #getFingerprint} for the knowledge
+	 *                    base of the reasoner
+	 * @param reasoner    a reasoner after materialisation
+	 * @return true if the inferences have been stored, false if they are not
+	 *         complete or contain named nulls
+	 * @throws IOException if the inferences cannot be stored
+	 */
+	public boolean store(final String fingerprint, final Reasoner reasoner) throws IOException {
+		final File file = getFile(fingerprint);
+		if (reasoner.getCorrectness() != Correctness.SOUND_AND_COMPLETE) {
+			LOGGER.info("Inferences are not cached, since they are {}.", reasoner.getCorrectness());
+			Files.deleteIfExists(file.toPath());
+			return false;
+		}
+		final Object2IntOpenHashMap<Term> ids = new Object2IntOpenHashMap<>();
+		ids.defaultReturnValue(-1);
+		final List<Term> terms = new ArrayList<>();
+		final Map<Predicate, Relation> relations = new LinkedHashMap<>();
+		for (final Predicate predicate : reasoner.getKnowledgeBase().getPredicates()) {
+			relations.put(predicate, new Relation());
+		}
+		final Correctness correctness = reasoner.forEachInference((predicate, termList) -> {
+			final Relation relation = relations.computeIfAbsent(predicate, p -> new Relation());
+			relation.size++;
+			for (final Term term : termList) {
+				int id = ids.getInt(term);
+				if (id < 0) {
+					id = terms.size();
+					terms.add(term);
+					ids.put(term, id);
+				}
+				relation.ids.add(id);
+			}
+		});
+		if (correctness != Correctness.SOUND_AND_COMPLETE) {
+			LOGGER.info("Inferences are not cached, since they are {}.", correctness);
+			Files.deleteIfExists(file.toPath());
+			return false;
+		}
+		if (terms.stream().anyMatch(term -> term.getType() == TermType.NAMED_NULL)) {
+			LOGGER.info("Inferences are not cached, since they contain named nulls.");
+			Files.deleteIfExists(file.toPath());
+			return false;
+		}
+
+		final File temporaryFile = File.createTempFile(file.getName(), ".part", this.directory);
+		try {
+			try (DataOutputStream output = new DataOutputStream(
+					new BufferedOutputStream(Files.newOutputStream(temporaryFile.toPath()), 1 << 16))) {
+				output.writeInt(MAGIC);
+				output.writeInt(VERSION);
+				writePrefixDeclarations(output, reasoner.getKnowledgeBase());
+				output.writeInt(terms.size());
+				for (final Term term : terms) {
+					writeTerm(output, term);
+				}
+				output.writeInt(relations.size());
+				for (final Entry<Predicate, Relation> entry : relations.entrySet()) {
+					final Predicate predicate = entry.getKey();
+					final Relation relation = entry.getValue();
+					writeString(output, predicate.getName());
+					output.writeInt(predicate.getArity());
+					output.writeInt(relation.size);
+					for (int i = 0; i < relation.ids.size(); i++) {
+						output.writeInt(relation.ids.getInt(i));
+					}
+				}
+			}
+			Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(temporaryFile.toPath());
+		}
+		LOGGER.info("Cached inferences in {}.", file);
+		evict(file);
+		return true;
+	}
+
+	private static void writeTerm(final DataOutputStream output, final Term term) throws IOException {
+		switch (term.getType()) {
+		case ABSTRACT_CONSTANT:
+			output.writeByte(ABSTRACT_CONSTANT);
+			writeString(output, term.getName());
+			break;
+		case DATATYPE_CONSTANT:
+			output.writeByte(DATATYPE_CONSTANT);
+			writeString(output, ((DatatypeConstant) term).getLexicalValue());
+			writeString(output, ((DatatypeConstant) term).getDatatype());
+			break;
+		case LANGSTRING_CONSTANT:
+			output.writeByte(LANGUAGE_STRING_CONSTANT);
+			writeString(output, ((LanguageStringConstant) term).getString());
+			writeString(output, ((LanguageStringConstant) term).getLanguageTag());
+			break;
+		default:
+			throw new IOException("Inferences cannot contain the term " + term + ".");
+		}
+	}
+
+	private static Term readTerm(final DataInputStream input) throws IOException {
+		final byte type = input.readByte();
+		switch (type) {
+		case ABSTRACT_CONSTANT:
+			return Expressions.makeAbstractConstant(readString(input));
+		case DATATYPE_CONSTANT:
+			return Expressions.makeDatatypeConstant(readString(input), readString(input));
+		case LANGUAGE_STRING_CONSTANT:
+			return Expressions.makeLanguageStringConstant(readString(input), readString(input));
+		default:
+			throw new IOException("Invalid term type " + type + " in cached inferences.");
+		}
+	}
+
+	private static void writePrefixDeclarations(final DataOutputStream output, final KnowledgeBase knowledgeBase)
+			throws IOException {
+		writeString(output, knowledgeBase.getBaseIri());
+		final List<Entry<String, String>> prefixes = new ArrayList<>();
+		knowledgeBase.getPrefixes().forEachRemaining(prefixes::add);
+		output.writeInt(prefixes.size());
+		for (final Entry<String, String> prefix : prefixes) {
+			writeString(output, prefix.getKey());
+			writeString(output, prefix.getValue());
+		}
+	}
+
+	private static PrefixDeclarationRegistry readPrefixDeclarations(final DataInputStream input)
+			throws IOException {
+		final MergingPrefixDeclarationRegistry prefixDeclarations = new MergingPrefixDeclarationRegistry();
+		final String baseIri = readString(input);
+		if (!baseIri.isEmpty()) {
+			prefixDeclarations.setBaseIri(baseIri);
+		}
+		final int prefixCount = input.readInt();
+		for (int i = 0; i < prefixCount; i++) {
+			prefixDeclarations.setPrefixIri(readString(input), readString(input));
+		}
+		return prefixDeclarations;
+	}
+
+	private static void writeString(final DataOutputStream output, final String string) throws IOException {
+		final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+		output.writeInt(bytes.length);
+		output.write(bytes);
+	}
+
+	private static String readString(final DataInputStream input) throws IOException {
+		final byte[] bytes = new byte[input.readInt()];
+		input.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Deletes the least recently used inferences until the cache fits into its
+	 * maximal size. The given file is kept.
+	 */
+	void evict(final File keep) {
+		final File[] files = this.directory.listFiles((directory, name) -> name.endsWith(EXTENSION));
+		if (files == null) {
+			return;
+		}
+		long size = Arrays.stream(files).mapToLong(File::length).sum();
+		Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+		for (final File file : files) {
+			if (size <= this.maxSizeBytes) {
+				break;
+			}
+			final long length = file.length();
+			if (!file.equals(keep) && file.delete()) {
+				LOGGER.info("Evicted cached inferences {}.", file);
+				size -= length;
+			}
+		}
+	}
+
+}
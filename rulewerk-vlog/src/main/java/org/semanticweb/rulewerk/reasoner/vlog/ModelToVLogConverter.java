@@ -20,6 +20,7 @@ package org.semanticweb.rulewerk.reasoner.vlog;
  * #L%
  */
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 
@@ -32,6 +33,7 @@ import org.semanticweb.rulewerk.core.model.api.NamedNull;
 import org.semanticweb.rulewerk.core.model.api.Predicate;
 import org.semanticweb.rulewerk.core.model.api.Rule;
 import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.implementation.SymbolTable;
 import org.semanticweb.rulewerk.core.reasoner.LogLevel;
 import org.semanticweb.rulewerk.core.reasoner.RuleRewriteStrategy;
 
@@ -47,6 +49,13 @@ final class ModelToVLogConverter {
 
 	public static final String PREDICATE_ARITY_SUFFIX_SEPARATOR = "-";
 
+	/**
+	 * VLog predicate names, indexed by {@link SymbolTable} id. Entries are
+	 * immutable strings, so unsynchronised reads of a stale array only lead to
+	 * recomputing a name.
+	 */
+	private static volatile String[] vLogPredicateNames = new String[64];
+
 	private ModelToVLogConverter() {
 	}
 
@@ -103,7 +112,20 @@ final class ModelToVLogConverter {
 	 *         arity.
 	 */
 	static String toVLogPredicate(Predicate predicate) {
+		final int id = SymbolTable.getPredicateId(predicate);
+		String[] names = vLogPredicateNames;
+		if (id < names.length && names[id] != null) {
+			return names[id];
+		}
 		final String vLogPredicate = predicate.getName() + PREDICATE_ARITY_SUFFIX_SEPARATOR + predicate.getArity();
+		synchronized (ModelToVLogConverter.class) {
+			names = vLogPredicateNames;
+			if (id >= names.length) {
+				names = Arrays.copyOf(names, Math.max(id + 1, 2 * names.length));
+			}
+			names[id] = vLogPredicate;
+			vLogPredicateNames = names;
+		}
 		return vLogPredicate;
 	}
 
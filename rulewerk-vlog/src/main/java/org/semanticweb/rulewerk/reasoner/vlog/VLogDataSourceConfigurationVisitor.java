@@ -29,16 +29,32 @@ import org.semanticweb.rulewerk.core.reasoner.implementation.FileDataSource;
 import org.semanticweb.rulewerk.core.reasoner.implementation.CsvFileDataSource;
 import org.semanticweb.rulewerk.core.reasoner.implementation.RdfFileDataSource;
 import org.semanticweb.rulewerk.core.reasoner.implementation.SparqlQueryResultDataSource;
+import org.semanticweb.rulewerk.core.reasoner.implementation.StreamingCsvFileDataSource;
 import org.semanticweb.rulewerk.core.reasoner.implementation.InMemoryDataSource;
 
 public class VLogDataSourceConfigurationVisitor implements DataSourceConfigurationVisitor {
 	private String configString = null;
+	private final boolean sparqlResultsCached;
 
 	private static final String PREDICATE_NAME_CONFIG_LINE = "EDB%1$d_predname=%2$s\n";
 	private static final String DATASOURCE_TYPE_CONFIG_PARAM = "EDB%1$d_type";
 	private final static String FILE_DATASOURCE_TYPE_CONFIG_VALUE = "INMEMORY";
 	private static final String SPARQL_DATASOURCE_TYPE_CONFIG_VALUE = "SPARQL";
 
+	public VLogDataSourceConfigurationVisitor() {
+		this(false);
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param sparqlResultsCached true if the results of SPARQL queries are loaded
+	 *                            from a cache by the reasoner instead of VLog
+	 */
+	public VLogDataSourceConfigurationVisitor(final boolean sparqlResultsCached) {
+		this.sparqlResultsCached = sparqlResultsCached;
+	}
+
 	public String getConfigString() {
 		return configString;
 	}
@@ -65,6 +81,12 @@ public class VLogDataSourceConfigurationVisitor implements DataSourceConfigurati
 		setFileConfigString(dataSource);
 	}
 
+	@Override
+	public void visit(StreamingCsvFileDataSource dataSource) {
+		// loaded by the reasoner, like in-memory data
+		this.configString = null;
+	}
+
 	@Override
 	public void visit(RdfFileDataSource dataSource) throws IOException {
 		setFileConfigString(dataSource);
@@ -72,6 +94,10 @@ public class VLogDataSourceConfigurationVisitor implements DataSourceConfigurati
 
 	@Override
 	public void visit(SparqlQueryResultDataSource dataSource) {
+		if (this.sparqlResultsCached) {
+			this.configString = null;
+			return;
+		}
 		this.configString =
 			PREDICATE_NAME_CONFIG_LINE +
 			DATASOURCE_TYPE_CONFIG_PARAM + "=" + SPARQL_DATASOURCE_TYPE_CONFIG_VALUE + "\n" +
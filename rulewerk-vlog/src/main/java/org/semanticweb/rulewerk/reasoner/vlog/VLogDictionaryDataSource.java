@@ -0,0 +1,145 @@
+package org.semanticweb.rulewerk.reasoner.vlog;
+
+/*-
+ * #%L
+ * Rulewerk VLog Reasoner Support
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Arrays;
+
+import org.semanticweb.rulewerk.core.reasoner.implementation.DataSourceConfigurationVisitor;
+import org.semanticweb.rulewerk.core.reasoner.implementation.InMemoryDataSource;
+
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+
+/**
+ * Implementation of {@link InMemoryDataSource} for the VLog backend that stores
+ * every distinct constant name only once. Tuples are kept as integer ids into
+ * this dictionary, so that data with many repeated constants (such as the
+ * predicates and classes of RDF triples) needs only a few bytes per tuple.
+ * Tuples are expanded into the format expected by VLog only when the data is
+ * loaded.
+ *
+ * @author Philipp Hanisch
+ *
+ */
+public class VLogDictionaryDataSource extends InMemoryDataSource {
+
+	private final Object2IntOpenHashMap<String> ids = new Object2IntOpenHashMap<>();
+	private String[] dictionary = new String[16];
+	private int[] data;
+	private int size = 0;
+
+	public VLogDictionaryDataSource(final int arity, final int initialCapacity) {
+		super(arity, initialCapacity);
+		this.ids.defaultReturnValue(-1);
+		this.data = new int[initialCapacity * arity];
+	}
+
+	/**
+	 * Adds a fact to this data source. The number of constant names must agree with
+	 * the arity of this data source.
+	 *
+	 * @param constantNames the string names of the constants in this fact
+	 */
+	@Override
+	public void addTuple(final String... constantNames) {
+		validateArity(constantNames);
+
+		if (this.size == this.capacity) {
+			this.capacity = Math.max(1, this.capacity * 2);
+			this.data = Arrays.copyOf(this.data, this.capacity * this.arity);
+		}
+		final int offset = this.size * this.arity;
+		for (int i = 0; i < this.arity; i++) {
+			this.data[offset + i] = encode(constantNames[i]);
+		}
+		this.size++;
+	}
+
+	private int encode(final String constantName) {
+		int id = this.ids.getInt(constantName);
+		if (id < 0) {
+			id = this.ids.size();
+			if (id == this.dictionary.length) {
+				this.dictionary = Arrays.copyOf(this.dictionary, id * 2);
+			}
+			this.dictionary[id] = constantName;
+			this.ids.put(constantName, id);
+		}
+		return id;
+	}
+
+	/**
+	 * @return the number of tuples in this data source
+	 */
+	public int getSize() {
+		return this.size;
+	}
+
+	/**
+	 * @return the number of distinct constant names in this data source
+	 */
+	public int getDictionarySize() {
+		return this.ids.size();
+	}
+
+	/**
+	 * Returns the data stored in this data source, in the format expected by the
+	 * VLog reasoner backend. Tuples share the strings of the constants they have
+	 * in common.
+	 *
+	 * @return the data
+	 */
+	public String[][] getData() {
+		final int dictionarySize = this.ids.size();
+		final String[] vLogNames = new String[dictionarySize];
+		for (int id = 0; id < dictionarySize; id++) {
+			vLogNames[id] = TermToVLogConverter.getVLogNameForConstantName(this.dictionary[id]);
+		}
+
+		final String[][] tuples = new String[this.size][];
+		for (int i = 0; i < this.size; i++) {
+			final String[] tuple = new String[this.arity];
+			final int offset = i * this.arity;
+			for (int j = 0; j < this.arity; j++) {
+				tuple[j] = vLogNames[this.data[offset + j]];
+			}
+			tuples[i] = tuple;
+		}
+		return tuples;
+	}
+
+	@Override
+	public String getSyntacticRepresentation() {
+		final StringBuilder sb = new StringBuilder(
+				"This InMemoryDataSource holds the following tuples of constant names, one tuple per line:");
+		for (final String[] tuple : getData()) {
+			for (final String name : tuple) {
+				sb.append(name + " ");
+			}
+			sb.append("\n");
+		}
+		return sb.toString();
+	}
+
+	@Override
+	public void accept(final DataSourceConfigurationVisitor visitor) {
+		visitor.visit(this);
+	}
+}
@@ -22,7 +22,11 @@ package org.semanticweb.rulewerk.reasoner.vlog;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.ArrayDeque;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.Formatter;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -45,8 +49,8 @@ import org.semanticweb.rulewerk.core.model.api.Statement;
 import org.semanticweb.rulewerk.core.model.api.StatementVisitor;
 import org.semanticweb.rulewerk.core.model.api.Term;
 import org.semanticweb.rulewerk.core.model.implementation.ConjunctionImpl;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
 import org.semanticweb.rulewerk.core.model.implementation.PositiveLiteralImpl;
-import org.semanticweb.rulewerk.core.model.implementation.PredicateImpl;
 import org.semanticweb.rulewerk.core.model.implementation.RuleImpl;
 import org.semanticweb.rulewerk.core.model.implementation.UniversalVariableImpl;
 import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
@@ -102,18 +106,27 @@ public class VLogKnowledgeBase {
 	}
 
 	String getVLogDataSourcesConfigurationString() {
+		return getVLogDataSourcesConfigurationString(false);
+	}
+
+	/**
+	 * @param sparqlResultsCached true if the results of SPARQL queries are not
+	 *                            loaded by VLog, but from a cache
+	 * @return the VLog configuration for the data sources that VLog loads
+	 */
+	String getVLogDataSourcesConfigurationString(final boolean sparqlResultsCached) {
 		final StringBuilder configStringBuilder = new StringBuilder();
 		final Formatter formatter = new Formatter(configStringBuilder);
 		int dataSourceIndex = 0;
 
 		for (final Entry<Predicate, DataSourceDeclaration> e : this.edbPredicates.entrySet()) {
 			dataSourceIndex = addDataSourceConfigurationString(e.getValue().getDataSource(), e.getKey(),
-					dataSourceIndex, formatter);
+					dataSourceIndex, formatter, sparqlResultsCached);
 		}
 
 		for (final Entry<DataSourceDeclaration, Predicate> e : this.aliasesForEdbPredicates.entrySet()) {
 			dataSourceIndex = addDataSourceConfigurationString(e.getKey().getDataSource(), e.getValue(),
-					dataSourceIndex, formatter);
+					dataSourceIndex, formatter, sparqlResultsCached);
 		}
 
 		formatter.close();
@@ -121,13 +134,13 @@ public class VLogKnowledgeBase {
 	}
 
 	int addDataSourceConfigurationString(final DataSource dataSource, final Predicate predicate,
-			final int dataSourceIndex, final Formatter formatter) {
+			final int dataSourceIndex, final Formatter formatter, final boolean sparqlResultsCached) {
 		int newDataSourceIndex = dataSourceIndex;
 
 		if (dataSource != null) {
 			if (dataSource instanceof ReasonerDataSource) {
 				final ReasonerDataSource reasonerDataSource = (ReasonerDataSource) dataSource;
-				final VLogDataSourceConfigurationVisitor visitor = new VLogDataSourceConfigurationVisitor();
+				final VLogDataSourceConfigurationVisitor visitor = new VLogDataSourceConfigurationVisitor(sparqlResultsCached);
 				try {
 					reasonerDataSource.accept(visitor);
 				} catch (IOException e) {
@@ -160,6 +173,70 @@ public class VLogKnowledgeBase {
 		return this.rules;
 	}
 
+	Set<Predicate> getIdbPredicates() {
+		return this.idbPredicates;
+	}
+
+	/**
+	 * Maps each predicate that occurs in a rule head to the predicates in the
+	 * bodies of the rules with that head predicate. This includes the rules that
+	 * import the data of aliased EDB predicates.
+	 *
+	 * @return the dependencies between predicates
+	 */
+	Map<Predicate, Set<Predicate>> getPredicateDependencies() {
+		final Map<Predicate, Set<Predicate>> dependencies = new HashMap<>();
+		for (final Rule rule : this.rules) {
+			for (final PositiveLiteral head : rule.getHead()) {
+				final Set<Predicate> bodyPredicates = dependencies.computeIfAbsent(head.getPredicate(),
+						predicate -> new HashSet<>());
+				for (final Literal literal : rule.getBody()) {
+					bodyPredicates.add(literal.getPredicate());
+				}
+			}
+		}
+		return dependencies;
+	}
+
+	/**
+	 * Computes the predicates whose data can contribute to the facts over the
+	 * given predicates.
+	 *
+	 * @param dependencies as returned by {@link #getPredicateDependencies()}
+	 * @param predicates   the predicates of interest
+	 * @return the given predicates and all predicates they depend on, transitively
+	 */
+	static Set<Predicate> getRelevantPredicates(final Map<Predicate, Set<Predicate>> dependencies,
+			final Collection<Predicate> predicates) {
+		final Set<Predicate> relevantPredicates = new HashSet<>(predicates);
+		final Deque<Predicate> toVisit = new ArrayDeque<>(relevantPredicates);
+		while (!toVisit.isEmpty()) {
+			for (final Predicate bodyPredicate : dependencies.getOrDefault(toVisit.pop(), Collections.emptySet())) {
+				if (relevantPredicates.add(bodyPredicate)) {
+					toVisit.push(bodyPredicate);
+				}
+			}
+		}
+		return relevantPredicates;
+	}
+
+	/**
+	 * Discards the data sources and facts of EDB predicates that are not relevant,
+	 * so that they are not loaded into VLog.
+	 *
+	 * @param relevantPredicates as returned by {@link #getRelevantPredicates}
+	 * @return the predicates (or aliases) whose data has been discarded
+	 */
+	Set<Predicate> discardIrrelevantData(final Set<Predicate> relevantPredicates) {
+		final Set<Predicate> discardedPredicates = new HashSet<>();
+		this.directEdbFacts.keySet().removeIf(predicate -> !relevantPredicates.contains(getAlias(predicate)));
+		this.edbPredicates.keySet().removeIf(predicate -> !relevantPredicates.contains(predicate)
+				&& discardedPredicates.add(predicate));
+		this.aliasesForEdbPredicates.values().removeIf(alias -> !relevantPredicates.contains(alias)
+				&& discardedPredicates.add(alias));
+		return discardedPredicates;
+	}
+
 	/**
 	 * Local visitor implementation for processing statements upon loading. Internal
 	 * index structures are updated based on the statements that are detected.
@@ -248,9 +325,9 @@ public class VLogKnowledgeBase {
 			final Predicate predicate = dataSourceDeclaration.getPredicate();
 			Predicate aliasPredicate;
 			if (dataSourceDeclaration instanceof LocalFactsDataSourceDeclaration) {
-				aliasPredicate = new PredicateImpl(predicate.getName() + "##FACT", predicate.getArity());
+				aliasPredicate = Expressions.makePredicate(predicate.getName() + "##FACT", predicate.getArity());
 			} else {
-				aliasPredicate = new PredicateImpl(predicate.getName() + "##" + dataSourceDeclaration.hashCode(),
+				aliasPredicate = Expressions.makePredicate(predicate.getName() + "##" + dataSourceDeclaration.hashCode(),
 						predicate.getArity());
 			}
 			VLogKnowledgeBase.this.aliasesForEdbPredicates.put(dataSourceDeclaration, aliasPredicate);
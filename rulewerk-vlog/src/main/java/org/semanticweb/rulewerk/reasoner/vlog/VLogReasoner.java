@@ -21,15 +21,26 @@ package org.semanticweb.rulewerk.reasoner.vlog;
  */
 
 import java.io.IOException;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.Validate;
-import org.graalvm.compiler.core.common.type.ArithmeticOpTable;
 import org.semanticweb.rulewerk.core.exceptions.IncompatiblePredicateArityException;
 import org.semanticweb.rulewerk.core.exceptions.ReasonerStateException;
 import org.semanticweb.rulewerk.core.exceptions.RulewerkRuntimeException;
@@ -42,6 +53,7 @@ import org.semanticweb.rulewerk.core.model.api.Predicate;
 import org.semanticweb.rulewerk.core.model.api.Rule;
 import org.semanticweb.rulewerk.core.model.api.Statement;
 import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.api.Variable;
 import org.semanticweb.rulewerk.core.model.implementation.Expressions;
 import org.semanticweb.rulewerk.core.reasoner.AcyclicityNotion;
 import org.semanticweb.rulewerk.core.reasoner.Algorithm;
@@ -56,9 +68,15 @@ import org.semanticweb.rulewerk.core.reasoner.ReasonerState;
 import org.semanticweb.rulewerk.core.reasoner.RuleRewriteStrategy;
 import org.semanticweb.rulewerk.core.reasoner.implementation.EmptyQueryResultIterator;
 import org.semanticweb.rulewerk.core.reasoner.implementation.QueryAnswerCountImpl;
+import org.semanticweb.rulewerk.core.reasoner.implementation.SparqlQueryResultCache;
+import org.semanticweb.rulewerk.core.reasoner.implementation.SparqlQueryResultDataSource;
+import org.semanticweb.rulewerk.core.reasoner.implementation.StreamingCsvFileDataSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import it.unimi.dsi.fastutil.longs.LongArrays;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ObjectOpenCustomHashSet;
 import karmaresearch.vlog.AlreadyStartedException;
 import karmaresearch.vlog.EDBConfigurationException;
 import karmaresearch.vlog.MaterializationException;
@@ -96,6 +114,26 @@ public class VLogReasoner implements Reasoner {
 	 */
 	private boolean reasoningCompleted;
 
+	private boolean lazyEdbLoading = false;
+
+	/**
+	 * Predicates of registered queries, and predicates that have been queried
+	 * while their data was not loaded.
+	 */
+	private final Set<Predicate> registeredQueryPredicates = new HashSet<>();
+	private final Set<Predicate> onDemandPredicates = new HashSet<>();
+
+	/**
+	 * With lazy EDB loading, the dependencies between the loaded predicates, the
+	 * predicates whose data has been loaded, and the EDB predicates (or aliases)
+	 * whose data has been skipped. Otherwise null.
+	 */
+	private Map<Predicate, Set<Predicate>> predicateDependencies;
+	private Set<Predicate> relevantPredicates;
+	private Set<Predicate> skippedEdbPredicates;
+
+	private SparqlQueryResultCache sparqlQueryResultCache;
+
 	public VLogReasoner(KnowledgeBase knowledgeBase) {
 		super();
 		this.knowledgeBase = knowledgeBase;
@@ -147,6 +185,56 @@ public class VLogReasoner implements Reasoner {
 		return this.ruleRewriteStrategy;
 	}
 
+	/**
+	 * Enables or disables lazy loading of EDB predicates. When enabled, data
+	 * sources and facts are only loaded for predicates that are relevant: those
+	 * that the predicates of registered queries (see {@link #registerQuery}), or
+	 * of all rule heads if no query is registered, depend on via rules. Queries
+	 * over other predicates load the missing data on demand, which requires
+	 * reloading the knowledge base and, if it had been materialised, reasoning
+	 * again. The setting takes effect when the knowledge base is next loaded.
+	 *
+	 * @param lazyEdbLoading true to load only relevant EDB predicates
+	 */
+	public void setLazyEdbLoading(final boolean lazyEdbLoading) {
+		validateNotClosed();
+		this.lazyEdbLoading = lazyEdbLoading;
+	}
+
+	public boolean isLazyEdbLoading() {
+		return this.lazyEdbLoading;
+	}
+
+	/**
+	 * Sets a cache for the results of {@link SparqlQueryResultDataSource}s. If a
+	 * cache is set, the results are loaded from the cache instead of being
+	 * queried by VLog whenever the knowledge base is loaded. The setting takes
+	 * effect when the knowledge base is next loaded.
+	 *
+	 * @param sparqlQueryResultCache the cache, or null to let VLog query the
+	 *                               endpoints
+	 */
+	public void setSparqlQueryResultCache(final SparqlQueryResultCache sparqlQueryResultCache) {
+		validateNotClosed();
+		this.sparqlQueryResultCache = sparqlQueryResultCache;
+	}
+
+	public SparqlQueryResultCache getSparqlQueryResultCache() {
+		return this.sparqlQueryResultCache;
+	}
+
+	/**
+	 * Registers a query that is going to be asked, so that the data relevant to
+	 * it is loaded with the knowledge base when lazy EDB loading is enabled.
+	 *
+	 * @param query the query atom
+	 */
+	public void registerQuery(final PositiveLiteral query) {
+		validateNotClosed();
+		Validate.notNull(query, "Query atom must not be null!");
+		this.registeredQueryPredicates.add(query.getPredicate());
+	}
+
 	/*
 	 * TODO Due to automatic predicate renaming, it can happen that an EDB predicate
 	 * cannot be queried after loading unless reasoning has already been invoked
@@ -183,14 +271,32 @@ public class VLogReasoner implements Reasoner {
 			LOGGER.warn("No data statements (facts or datasource declarations) have been provided.");
 		}
 
-		// 1. vLog is initialized by loading VLog data sources
-		loadVLogDataSources(vLogKB);
-
-		// 2. in-memory data is loaded
-		loadInMemoryDataSources(vLogKB);
-		validateDataSourcePredicateArities(vLogKB);
+		if (this.lazyEdbLoading) {
+			discardIrrelevantData(vLogKB);
+		} else {
+			this.predicateDependencies = null;
+			this.relevantPredicates = null;
+			this.skippedEdbPredicates = null;
+		}
 
-		loadFacts(vLogKB);
+		// 1. the first tuples of in-memory data and facts are prepared in
+		// parallel, while vLog is initialized by loading VLog data sources
+		final List<PreparedData> prepared = prepareInMemoryDataSources(vLogKB);
+		final int inMemoryDataCount = prepared.size();
+		prepared.addAll(prepareFacts(vLogKB));
+		try (DataPreparation preparation = new DataPreparation(prepared)) {
+			loadVLogDataSources(vLogKB);
+
+			// 2. in-memory data is loaded
+			loadPreparedData(preparation, inMemoryDataCount);
+			validateDataSourcePredicateArities(vLogKB);
+
+			loadPreparedData(preparation, prepared.size() - inMemoryDataCount);
+		} catch (final IOException | RuntimeException e) {
+			// vLog has been started, stop it so that loading can be retried
+			this.vLog.stop();
+			throw e;
+		}
 
 		// 3. rules are loaded
 		loadRules(vLogKB);
@@ -203,9 +309,56 @@ public class VLogReasoner implements Reasoner {
 		LOGGER.info("Finished loading knowledge base.");
 	}
 
+	void discardIrrelevantData(final VLogKnowledgeBase vLogKB) {
+		final Set<Predicate> startPredicates = new HashSet<>(
+				this.registeredQueryPredicates.isEmpty() ? vLogKB.getIdbPredicates() : this.registeredQueryPredicates);
+		startPredicates.addAll(this.onDemandPredicates);
+
+		this.predicateDependencies = vLogKB.getPredicateDependencies();
+		this.relevantPredicates = VLogKnowledgeBase.getRelevantPredicates(this.predicateDependencies,
+				startPredicates);
+		this.skippedEdbPredicates = vLogKB.discardIrrelevantData(this.relevantPredicates);
+		if (!this.skippedEdbPredicates.isEmpty()) {
+			LOGGER.info("Skipped loading data of {} irrelevant EDB predicates.", this.skippedEdbPredicates.size());
+		}
+	}
+
+	/**
+	 * Makes sure that the data relevant to the given predicates has been loaded,
+	 * reloading the knowledge base (and reasoning again, if it had been
+	 * materialised) if data has been skipped by lazy EDB loading.
+	 *
+	 * @param predicates the predicates to be queried
+	 */
+	void loadOnDemand(final Collection<Predicate> predicates) {
+		if (this.relevantPredicates == null || this.relevantPredicates.containsAll(predicates)) {
+			return;
+		}
+		final Set<Predicate> required = VLogKnowledgeBase.getRelevantPredicates(this.predicateDependencies,
+				predicates);
+		this.onDemandPredicates.addAll(predicates);
+		if (Collections.disjoint(required, this.skippedEdbPredicates)) {
+			this.relevantPredicates.addAll(required);
+			return;
+		}
+
+		LOGGER.info("Loading data of {} on demand ...", predicates);
+		final boolean materialised = this.reasonerState == ReasonerState.MATERIALISED;
+		resetReasoner();
+		try {
+			loadKnowledgeBase();
+		} catch (final IOException e) {
+			throw new RulewerkRuntimeException("Error while loading data on demand.", e);
+		}
+		if (materialised) {
+			runChase();
+		}
+	}
+
 	void loadVLogDataSources(final VLogKnowledgeBase vLogKB) throws IOException {
 		try {
-			this.vLog.start(vLogKB.getVLogDataSourcesConfigurationString(), false);
+			this.vLog.start(vLogKB.getVLogDataSourcesConfigurationString(this.sparqlQueryResultCache != null),
+					false);
 		} catch (final AlreadyStartedException e) {
 			throw new RulewerkRuntimeException("Inconsistent reasoner state.", e);
 		} catch (final EDBConfigurationException e) {
@@ -213,35 +366,179 @@ public class VLogReasoner implements Reasoner {
 		}
 	}
 
-	void loadInMemoryDataSources(final VLogKnowledgeBase vLogKB) {
-		vLogKB.getEdbPredicates().forEach((k, v) -> loadInMemoryDataSource(v.getDataSource(), k));
+	/**
+	 * Tuples for a VLog predicate that are prepared by a {@link DataPreparation}.
+	 */
+	static final class PreparedData {
+		final String vLogPredicateName;
+		final Callable<String[][]> preparation;
+		Future<String[][]> tuples;
+
+		PreparedData(final Predicate predicate, final Callable<String[][]> preparation) {
+			this.vLogPredicateName = ModelToVLogConverter.toVLogPredicate(predicate);
+			this.preparation = preparation;
+		}
+	}
 
-		vLogKB.getAliasesForEdbPredicates().forEach((k, v) -> loadInMemoryDataSource(k.getDataSource(), v));
+	/**
+	 * Prepares the tuples of VLog predicates in the given order on a dedicated
+	 * executor, since reading a data source may block. At most
+	 * {@link #WINDOW} predicates are prepared or waiting to be loaded at any time,
+	 * so that the tuples of all predicates are never in memory at once. Closing
+	 * interrupts the preparations that are still running.
+	 */
+	static final class DataPreparation implements AutoCloseable {
+
+		static final int WINDOW = 3;
+
+		private final Deque<PreparedData> pending;
+		private final Deque<PreparedData> started = new ArrayDeque<>();
+		private final ExecutorService executor;
+
+		DataPreparation(final List<PreparedData> prepared) {
+			this.pending = new ArrayDeque<>(prepared);
+			this.executor = prepared.isEmpty() ? null
+					: Executors.newFixedThreadPool(Math.min(WINDOW, prepared.size()), runnable -> {
+						final Thread thread = new Thread(runnable, "VLogReasoner data preparation");
+						thread.setDaemon(true);
+						return thread;
+					});
+			startPending();
+		}
+
+		private void startPending() {
+			while (this.started.size() < WINDOW && !this.pending.isEmpty()) {
+				final PreparedData data = this.pending.poll();
+				data.tuples = this.executor.submit(data.preparation);
+				this.started.add(data);
+			}
+		}
+
+		/**
+		 * Waits for the tuples of the next predicate. The tuples are released by this
+		 * preparation, and the preparation of a further predicate is started.
+		 *
+		 * @return the next prepared data, with its tuples
+		 * @throws IOException if reading the tuples of a data source failed
+		 */
+		Entry<String, String[][]> next() throws IOException {
+			final PreparedData data = this.started.poll();
+			final Future<String[][]> tuples = data.tuples;
+			data.tuples = null;
+			final String[][] result;
+			try {
+				result = tuples.get();
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RulewerkRuntimeException("Interrupted while loading data.", e);
+			} catch (final ExecutionException e) {
+				// checked exceptions of the tasks are wrapped by the executor
+				for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+					if (cause instanceof IOException) {
+						throw (IOException) cause;
+					}
+				}
+				if (e.getCause() instanceof RuntimeException) {
+					throw (RuntimeException) e.getCause();
+				}
+				throw new RulewerkRuntimeException("Error while preparing data.", e.getCause());
+			}
+			startPending();
+			return new SimpleImmutableEntry<>(data.vLogPredicateName, result);
+		}
+
+		@Override
+		public void close() {
+			for (final PreparedData data : this.started) {
+				data.tuples.cancel(true);
+				data.tuples = null;
+			}
+			this.started.clear();
+			this.pending.clear();
+			if (this.executor != null) {
+				this.executor.shutdownNow();
+			}
+		}
+	}
+
+	List<PreparedData> prepareInMemoryDataSources(final VLogKnowledgeBase vLogKB) {
+		final List<PreparedData> prepared = new ArrayList<>();
+		for (final Entry<Predicate, DataSourceDeclaration> entry : vLogKB.getEdbPredicates().entrySet()) {
+			prepareInMemoryDataSource(entry.getValue().getDataSource(), entry.getKey(), prepared);
+		}
+
+		for (final Entry<DataSourceDeclaration, Predicate> entry : vLogKB.getAliasesForEdbPredicates().entrySet()) {
+			prepareInMemoryDataSource(entry.getKey().getDataSource(), entry.getValue(), prepared);
+		}
+		return prepared;
 	}
 
-	void loadInMemoryDataSource(final DataSource dataSource, final Predicate predicate) {
+	void prepareInMemoryDataSource(final DataSource dataSource, final Predicate predicate,
+			final List<PreparedData> prepared) {
 		if (dataSource instanceof VLogInMemoryDataSource) {
+			prepared.add(new PreparedData(predicate, ((VLogInMemoryDataSource) dataSource)::getData));
+		} else if (dataSource instanceof VLogDictionaryDataSource) {
+			prepared.add(new PreparedData(predicate, ((VLogDictionaryDataSource) dataSource)::getData));
+		} else if (dataSource instanceof StreamingCsvFileDataSource) {
+			prepared.add(new PreparedData(predicate, () -> readTuples((StreamingCsvFileDataSource) dataSource)));
+		} else if (dataSource instanceof SparqlQueryResultDataSource && this.sparqlQueryResultCache != null) {
+			final SparqlQueryResultCache cache = this.sparqlQueryResultCache;
+			prepared.add(new PreparedData(predicate,
+					() -> readTuples(cache.getDataSource((SparqlQueryResultDataSource) dataSource))));
+		}
+	}
 
-			final VLogInMemoryDataSource inMemoryDataSource = (VLogInMemoryDataSource) dataSource;
+	List<PreparedData> prepareFacts(final VLogKnowledgeBase vLogKB) {
+		final List<PreparedData> prepared = new ArrayList<>();
+		vLogKB.getDirectEdbFacts().forEach((k, v) -> prepared
+				.add(new PreparedData(vLogKB.getAlias(k), () -> ModelToVLogConverter.toVLogFactTuples(v))));
+		return prepared;
+	}
+
+	/**
+	 * Adds the next prepared tuples to VLog, one predicate after the other. The
+	 * tuples of a predicate are no longer referenced once they have been added.
+	 *
+	 * @param preparation the preparation of the tuples
+	 * @param count       the number of predicates to load
+	 * @throws IOException if reading the tuples of a data source failed
+	 */
+	void loadPreparedData(final DataPreparation preparation, final int count) throws IOException {
+		for (int i = 0; i < count; i++) {
+			final Entry<String, String[][]> data = preparation.next();
 			try {
-				load(predicate, inMemoryDataSource);
+				this.vLog.addData(data.getKey(), data.getValue());
 			} catch (final EDBConfigurationException e) {
 				throw new RulewerkRuntimeException("Invalid data sources configuration!", e);
 			}
+
+			if (LOGGER.isDebugEnabled()) {
+				for (final String[] tuple : data.getValue()) {
+					LOGGER.debug("Loaded direct fact {}{}.", data.getKey(), Arrays.toString(tuple));
+				}
+			}
 		}
 	}
 
-	void load(final Predicate predicate, final VLogInMemoryDataSource inMemoryDataSource)
-			throws EDBConfigurationException {
-		final String vLogPredicateName = ModelToVLogConverter.toVLogPredicate(predicate);
-
-		this.vLog.addData(vLogPredicateName, inMemoryDataSource.getData());
-
-		if (LOGGER.isDebugEnabled()) {
-			for (final String[] tuple : inMemoryDataSource.getData()) {
-				LOGGER.debug("Loaded direct fact {}{}.", vLogPredicateName, Arrays.toString(tuple));
-			}
+	/**
+	 * Reads the tuples of a {@link StreamingCsvFileDataSource}. VLog replaces the
+	 * data of a predicate on each call of {@link VLog#addData}, so the batches are
+	 * collected first, keeping only the projected columns in memory.
+	 */
+	static String[][] readTuples(final StreamingCsvFileDataSource streamingDataSource) throws IOException {
+		final List<String[][]> batches = new ArrayList<>();
+		final int[] size = new int[1];
+		streamingDataSource.readBatches(batch -> {
+			batches.add(batch);
+			size[0] += batch.length;
+		});
+		final String[][] data = new String[size[0]][];
+		int position = 0;
+		for (final String[][] batch : batches) {
+			System.arraycopy(batch, 0, data, position, batch.length);
+			position += batch.length;
 		}
+		return data;
 	}
 
 	/**
@@ -286,28 +583,6 @@ public class VLogReasoner implements Reasoner {
 		}
 	}
 
-	void loadFacts(final VLogKnowledgeBase vLogKB) {
-		final Map<Predicate, List<Fact>> directEdbFacts = vLogKB.getDirectEdbFacts();
-
-		directEdbFacts.forEach((k, v) -> {
-			try {
-				final String vLogPredicateName = ModelToVLogConverter.toVLogPredicate(vLogKB.getAlias(k));
-				final String[][] vLogPredicateTuples = ModelToVLogConverter.toVLogFactTuples(v);
-
-				this.vLog.addData(vLogPredicateName, vLogPredicateTuples);
-
-				if (LOGGER.isDebugEnabled()) {
-					for (final String[] tuple : vLogPredicateTuples) {
-						LOGGER.debug("Loaded direct fact {}{}.", vLogPredicateName, Arrays.toString(tuple));
-					}
-				}
-			} catch (final EDBConfigurationException e) {
-				throw new RulewerkRuntimeException("Invalid data sources configuration!", e);
-			}
-
-		});
-	}
-
 	void loadRules(final VLogKnowledgeBase vLogKB) {
 		final karmaresearch.vlog.Rule[] vLogRuleArray = ModelToVLogConverter.toVLogRuleArray(vLogKB.getRules());
 		final karmaresearch.vlog.VLog.RuleRewriteStrategy vLogRuleRewriteStrategy = ModelToVLogConverter
@@ -385,6 +660,7 @@ public class VLogReasoner implements Reasoner {
 	@Override
 	public QueryResultIterator answerQuery(PositiveLiteral query, boolean includeNulls) {
 		validateBeforeQuerying(query);
+		loadOnDemand(Collections.singleton(query.getPredicate()));
 
 		final boolean filterBlanks = !includeNulls;
 		final karmaresearch.vlog.Atom vLogAtom = ModelToVLogConverter.toVLogAtom(query);
@@ -443,6 +719,7 @@ public class VLogReasoner implements Reasoner {
 	@Override
 	public karmaresearch.vlog.QueryResultIterator answerQueryInNativeFormat(PositiveLiteral query, boolean includeNulls) {
 		validateBeforeQuerying(query);
+		loadOnDemand(Collections.singleton(query.getPredicate()));
 
 		final boolean filterBlanks = !includeNulls;
 		final karmaresearch.vlog.Atom vLogAtom = ModelToVLogConverter.toVLogAtom(query);
@@ -488,6 +765,7 @@ public class VLogReasoner implements Reasoner {
 	@Override
 	public QueryAnswerCount countQueryAnswers(PositiveLiteral query, boolean includeNulls) {
 		validateBeforeQuerying(query);
+		loadOnDemand(Collections.singleton(query.getPredicate()));
 
 		final boolean filterBlanks = !includeNulls;
 		final karmaresearch.vlog.Atom vLogAtom = ModelToVLogConverter.toVLogAtom(query);
@@ -506,10 +784,76 @@ public class VLogReasoner implements Reasoner {
 		return new QueryAnswerCountImpl(this.correctness, result);
 	}
 
+	@Override
+	public QueryAnswerCount countQueryAnswers(final PositiveLiteral query, final List<Variable> projection,
+			final boolean includeNulls) {
+		validateBeforeQuerying(query);
+		Validate.notNull(projection, "Projection variables must not be null!");
+		final List<Term> arguments = query.getArguments();
+		final int[] positions = new int[projection.size()];
+		for (int i = 0; i < positions.length; i++) {
+			positions[i] = arguments.indexOf(projection.get(i));
+			Validate.isTrue(positions[i] >= 0, "Projection variable %s does not occur in query %s!",
+					projection.get(i), query);
+		}
+		if (new HashSet<>(projection).containsAll(query.getUniversalVariables().collect(Collectors.toSet()))) {
+			return countQueryAnswers(query, includeNulls);
+		}
+		loadOnDemand(Collections.singleton(query.getPredicate()));
+
+		final boolean filterBlanks = !includeNulls;
+		final karmaresearch.vlog.Atom vLogAtom = ModelToVLogConverter.toVLogAtom(query);
+
+		long result;
+		try {
+			final int predicateId = this.vLog.getPredicateId(vLogAtom.getPredicate());
+			final long[] terms = extractTerms(vLogAtom.getTerms());
+			try (final karmaresearch.vlog.QueryResultIterator answers = this.vLog.query(predicateId, terms, true,
+					filterBlanks)) {
+				result = countDistinctProjections(answers, positions);
+			}
+		} catch (final NotStartedException e) {
+			throw new RulewerkRuntimeException("Inconsistent reasoner state.", e);
+		} catch (final NonExistingPredicateException e) {
+			LOGGER.warn("Query uses predicate " + query.getPredicate()
+					+ " that does not occur in the knowledge base. Answer must be empty!");
+			result = 0;
+		}
+		logWarningOnCorrectness();
+		return new QueryAnswerCountImpl(this.correctness, result);
+	}
+
+	private static long countDistinctProjections(final karmaresearch.vlog.QueryResultIterator answers,
+			final int[] positions) {
+		if (positions.length == 0) {
+			return answers.hasNext() ? 1 : 0;
+		} else if (positions.length == 1) {
+			final LongOpenHashSet projections = new LongOpenHashSet();
+			while (answers.hasNext()) {
+				projections.add(answers.next()[positions[0]]);
+			}
+			return projections.size();
+		} else {
+			final ObjectOpenCustomHashSet<long[]> projections = new ObjectOpenCustomHashSet<>(LongArrays.HASH_STRATEGY);
+			long[] projection = new long[positions.length];
+			while (answers.hasNext()) {
+				final long[] ids = answers.next();
+				for (int i = 0; i < positions.length; i++) {
+					projection[i] = ids[positions[i]];
+				}
+				if (projections.add(projection)) {
+					projection = new long[positions.length];
+				}
+			}
+			return projections.size();
+		}
+	}
+
 	@Override
 	public Correctness exportQueryAnswersToCsv(final PositiveLiteral query, final String csvFilePath,
 			final boolean includeBlanks) throws IOException {
 		validateBeforeQuerying(query);
+		loadOnDemand(Collections.singleton(query.getPredicate()));
 
 		Validate.notNull(csvFilePath, "File to export query answer to must not be null!");
 		Validate.isTrue(csvFilePath.endsWith(".csv"), "Expected .csv extension for file [%s]!", csvFilePath);
@@ -545,6 +889,7 @@ public class VLogReasoner implements Reasoner {
 					"Obtaining inferences is not alowed before reasoner is loaded!");
 		}
 		final Set<Predicate> toBeQueriedHeadPredicates = getKnowledgeBasePredicates();
+		loadOnDemand(toBeQueriedHeadPredicates);
 
 		for (final Predicate predicate : toBeQueriedHeadPredicates) {
 			final PositiveLiteral queryAtom = getQueryAtom(predicate);
@@ -0,0 +1,90 @@
+package org.semanticweb.rulewerk.reasoner.vlog;
+
+/*-
+ * #%L
+ * Rulewerk VLog Reasoner Support
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.reasoner.vlog.VLogReasoner.DataPreparation;
+import org.semanticweb.rulewerk.reasoner.vlog.VLogReasoner.PreparedData;
+
+public class DataPreparationTest {
+
+	@Test
+	public void next_boundedWindow_tuplesReleased() throws IOException, InterruptedException {
+		final AtomicInteger startedCount = new AtomicInteger();
+		final List<PreparedData> prepared = new ArrayList<>();
+		for (int i = 0; i < 2 * DataPreparation.WINDOW; i++) {
+			final String name = "c" + i;
+			prepared.add(new PreparedData(Expressions.makePredicate("p" + i, 1), () -> {
+				startedCount.incrementAndGet();
+				return new String[][] { { name } };
+			}));
+		}
+
+		try (DataPreparation preparation = new DataPreparation(prepared)) {
+			for (int i = 0; i < prepared.size(); i++) {
+				final int loaded = i;
+				assertTrue(prepared.stream().skip(loaded + DataPreparation.WINDOW).allMatch(data -> data.tuples == null));
+
+				final Entry<String, String[][]> data = preparation.next();
+				assertEquals(prepared.get(i).vLogPredicateName, data.getKey());
+				assertArrayEquals(new String[][] { { "c" + i } }, data.getValue());
+				assertNull(prepared.get(i).tuples);
+			}
+		}
+		assertEquals(prepared.size(), startedCount.get());
+	}
+
+	@Test
+	public void close_blockedPreparation_interrupted() throws InterruptedException {
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch interrupted = new CountDownLatch(1);
+		final List<PreparedData> prepared = new ArrayList<>();
+		prepared.add(new PreparedData(Expressions.makePredicate("p", 1), () -> {
+			started.countDown();
+			try {
+				new CountDownLatch(1).await();
+			} catch (final InterruptedException e) {
+				interrupted.countDown();
+			}
+			return new String[0][];
+		}));
+
+		final DataPreparation preparation = new DataPreparation(prepared);
+		assertTrue(started.await(10, TimeUnit.SECONDS));
+		preparation.close();
+		assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+	}
+
+}
@@ -0,0 +1,210 @@
+package org.semanticweb.rulewerk.reasoner.vlog;
+
+/*-
+ * #%L
+ * Rulewerk VLog Reasoner Support
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.semanticweb.rulewerk.core.exceptions.PrefixDeclarationException;
+import org.semanticweb.rulewerk.core.model.api.Constant;
+import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.api.Variable;
+import org.semanticweb.rulewerk.core.model.implementation.DataSourceDeclarationImpl;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.model.implementation.MergingPrefixDeclarationRegistry;
+import org.semanticweb.rulewerk.core.reasoner.Algorithm;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.core.reasoner.QueryResultIterator;
+import org.semanticweb.rulewerk.core.reasoner.implementation.CsvFileDataSource;
+
+public class MaterializationCacheTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final Variable x = Expressions.makeUniversalVariable("X");
+	private final Variable y = Expressions.makeUniversalVariable("Y");
+	private final Variable z = Expressions.makeExistentialVariable("Z");
+	private final Constant c = Expressions.makeAbstractConstant("http://example.org/c");
+	private final Constant d = Expressions.makeDatatypeConstant("42", "http://www.w3.org/2001/XMLSchema#integer");
+	private final Constant e = Expressions.makeLanguageStringConstant("chat", "fr");
+
+	private final PositiveLiteral px = Expressions.makePositiveLiteral("p", this.x);
+	private final PositiveLiteral qxy = Expressions.makePositiveLiteral("q", this.x, this.y);
+	private final PositiveLiteral rxy = Expressions.makePositiveLiteral("r", this.x, this.y);
+
+	private KnowledgeBase makeKnowledgeBase() {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatements(Expressions.makeFact("p", this.c), Expressions.makeFact("p", this.d),
+				Expressions.makeFact("p", this.e),
+				Expressions.makeRule(Expressions.makePositiveLiteral("q", this.x, this.x), this.px),
+				Expressions.makeRule(Expressions.makePositiveLiteral("r", this.x, this.c), this.px),
+				Expressions.makeRule(this.px, Expressions.makePositiveLiteral("s", this.x)));
+		return kb;
+	}
+
+	private Set<List<Term>> query(final KnowledgeBase kb, final PositiveLiteral query) throws IOException {
+		try (VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+			try (final QueryResultIterator iterator = reasoner.answerQuery(query, true)) {
+				return QueryResultsUtils.collectQueryResults(iterator);
+			}
+		}
+	}
+
+	private String storeInferences(final MaterializationCache cache, final KnowledgeBase kb) throws IOException {
+		final String fingerprint = MaterializationCache.getFingerprint(kb, Algorithm.RESTRICTED_CHASE);
+		try (VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+			assertTrue(cache.store(fingerprint, reasoner));
+		}
+		return fingerprint;
+	}
+
+	@Test
+	public void getFingerprint_sameKnowledgeBase_equal() throws IOException {
+		assertEquals(MaterializationCache.getFingerprint(makeKnowledgeBase(), Algorithm.RESTRICTED_CHASE),
+				MaterializationCache.getFingerprint(makeKnowledgeBase(), Algorithm.RESTRICTED_CHASE));
+	}
+
+	@Test
+	public void getFingerprint_differentRulesOrAlgorithm_different() throws IOException {
+		final KnowledgeBase kb = makeKnowledgeBase();
+		final String fingerprint = MaterializationCache.getFingerprint(kb, Algorithm.RESTRICTED_CHASE);
+		assertNotEquals(fingerprint, MaterializationCache.getFingerprint(kb, Algorithm.SKOLEM_CHASE));
+
+		kb.addStatement(Expressions.makeRule(this.px, Expressions.makePositiveLiteral("t", this.x)));
+		assertNotEquals(fingerprint, MaterializationCache.getFingerprint(kb, Algorithm.RESTRICTED_CHASE));
+	}
+
+	@Test
+	public void getFingerprint_changedDataSourceFile_different() throws IOException {
+		final File csvFile = this.folder.newFile("data.csv");
+		Files.write(csvFile.toPath(), "a\n".getBytes(StandardCharsets.UTF_8));
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatement(new DataSourceDeclarationImpl(Expressions.makePredicate("p", 1),
+				new CsvFileDataSource(csvFile.getPath())));
+		final String fingerprint = MaterializationCache.getFingerprint(kb, Algorithm.RESTRICTED_CHASE);
+
+		Files.write(csvFile.toPath(), "b\n".getBytes(StandardCharsets.UTF_8));
+		assertNotEquals(fingerprint, MaterializationCache.getFingerprint(kb, Algorithm.RESTRICTED_CHASE));
+	}
+
+	@Test
+	public void load_notCached_null() throws IOException {
+		final MaterializationCache cache = new MaterializationCache(this.folder.newFolder(), Long.MAX_VALUE);
+		assertNull(cache.load(MaterializationCache.getFingerprint(makeKnowledgeBase(), Algorithm.RESTRICTED_CHASE)));
+	}
+
+	@Test
+	public void load_stored_sameAnswersWithoutRules() throws IOException {
+		final MaterializationCache cache = new MaterializationCache(this.folder.newFolder(), Long.MAX_VALUE);
+		final KnowledgeBase kb = makeKnowledgeBase();
+		final String fingerprint = storeInferences(cache, kb);
+
+		final KnowledgeBase cachedKb = cache.load(fingerprint);
+		assertEquals(query(kb, this.px), query(cachedKb, this.px));
+		assertEquals(query(kb, this.qxy), query(cachedKb, this.qxy));
+
+		assertEquals(3, query(cachedKb, this.rxy).size());
+		assertEquals(0, query(cachedKb, Expressions.makePositiveLiteral("s", this.x)).size());
+		try (VLogReasoner reasoner = new VLogReasoner(cachedKb)) {
+			reasoner.reason();
+			try (karmaresearch.vlog.QueryResultIterator iterator = reasoner
+					.answerQueryInNativeFormat(Expressions.makePositiveLiteral("s", this.x), true)) {
+				assertFalse(iterator.hasNext());
+			}
+		}
+	}
+
+	@Test
+	public void store_exceedsMaxSize_leastRecentlyUsedEvicted() throws IOException {
+		final MaterializationCache cache = new MaterializationCache(this.folder.newFolder(), 0);
+		final KnowledgeBase kb = makeKnowledgeBase();
+		final String fingerprint = storeInferences(cache, kb);
+		assertTrue(cache.getFile(fingerprint).exists());
+
+		kb.addStatement(Expressions.makeFact("p", Expressions.makeAbstractConstant("http://example.org/other")));
+		final String otherFingerprint = storeInferences(cache, kb);
+		assertFalse(cache.getFile(fingerprint).exists());
+		assertTrue(cache.getFile(otherFingerprint).exists());
+		assertEquals(Arrays.asList(cache.getFile(otherFingerprint)),
+				Arrays.asList(cache.getFile(otherFingerprint).getParentFile().listFiles()));
+	}
+
+	@Test
+	public void store_namedNulls_notStoredAndInvalidated() throws IOException {
+		final MaterializationCache cache = new MaterializationCache(this.folder.newFolder(), Long.MAX_VALUE);
+		final KnowledgeBase kb = makeKnowledgeBase();
+		kb.addStatement(Expressions.makeRule(Expressions.makePositiveLiteral("t", this.x, this.z), this.px));
+		final PositiveLiteral txy = Expressions.makePositiveLiteral("t", this.x, this.y);
+		final String fingerprint = MaterializationCache.getFingerprint(kb, Algorithm.RESTRICTED_CHASE);
+		// inferences cached before for the same fingerprint
+		Files.copy(cache.getFile(storeInferences(cache, makeKnowledgeBase())).toPath(),
+				cache.getFile(fingerprint).toPath());
+
+		try (VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+			assertEquals(3, reasoner.countQueryAnswers(txy, true).getCount());
+			assertEquals(0, reasoner.countQueryAnswers(txy, false).getCount());
+			assertFalse(cache.store(fingerprint, reasoner));
+		}
+		assertFalse(cache.getFile(fingerprint).exists());
+		assertNull(cache.load(fingerprint));
+
+		try (VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+			assertEquals(3, reasoner.countQueryAnswers(txy, true).getCount());
+			assertEquals(0, reasoner.countQueryAnswers(txy, false).getCount());
+		}
+	}
+
+	@Test
+	public void load_stored_samePrefixDeclarations() throws IOException, PrefixDeclarationException {
+		final MaterializationCache cache = new MaterializationCache(this.folder.newFolder(), Long.MAX_VALUE);
+		final KnowledgeBase kb = makeKnowledgeBase();
+		final MergingPrefixDeclarationRegistry prefixDeclarations = new MergingPrefixDeclarationRegistry();
+		prefixDeclarations.setBaseIri("http://example.org/base/");
+		prefixDeclarations.setPrefixIri("ex:", "http://example.org/");
+		kb.mergePrefixDeclarations(prefixDeclarations);
+
+		final KnowledgeBase cachedKb = cache.load(storeInferences(cache, kb));
+		assertEquals("http://example.org/base/", cachedKb.getBaseIri());
+		assertEquals("http://example.org/", cachedKb.getPrefixIri("ex:"));
+		assertEquals("ex:c", cachedKb.unresolveAbsoluteIri("http://example.org/c"));
+	}
+
+}
@@ -23,6 +23,8 @@ package org.semanticweb.rulewerk.reasoner.vlog;
 import static org.junit.Assert.assertEquals;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
 
 import org.junit.Test;
 import org.semanticweb.rulewerk.core.model.api.Conjunction;
@@ -311,4 +313,45 @@ public class QueryAnswerCountTest {
 
 		}
 	}
+	@Test
+	public void projection_distinctCounts() throws IOException {
+		final Variable z = Expressions.makeUniversalVariable("z");
+		final Variable w = Expressions.makeUniversalVariable("w");
+		final Predicate predS = Expressions.makePredicate("S", 3);
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatements(Expressions.makeFact(predS, c, d, e), Expressions.makeFact(predS, c, d, f),
+				Expressions.makeFact(predS, c, e, e), Expressions.makeFact(predS, d, d, d), RxyQyPx, factPc, factPd);
+		final PositiveLiteral Sxzw = Expressions.makePositiveLiteral(predS, x, z, w);
+		try (VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+			assertEquals(4, reasoner.countQueryAnswers(Sxzw, Arrays.asList(x, z, w), true).getCount());
+			assertEquals(2, reasoner.countQueryAnswers(Sxzw, Arrays.asList(x), true).getCount());
+			assertEquals(2, reasoner.countQueryAnswers(Sxzw, Arrays.asList(z), true).getCount());
+			assertEquals(3, reasoner.countQueryAnswers(Sxzw, Arrays.asList(x, z), true).getCount());
+			assertEquals(3, reasoner.countQueryAnswers(Sxzw, Arrays.asList(z, x), true).getCount());
+			assertEquals(1, reasoner.countQueryAnswers(Sxzw, Collections.emptyList(), true).getCount());
+			assertEquals(1, reasoner.countQueryAnswers(Expressions.makePositiveLiteral(predS, x, d, x),
+					Collections.emptyList(), true).getCount());
+			assertEquals(2, reasoner.countQueryAnswers(Expressions.makePositiveLiteral(predS, c, z, w),
+					Arrays.asList(w), true).getCount());
+
+			final PositiveLiteral Rxz = Expressions.makePositiveLiteral(predR, x, z);
+			assertEquals(2, reasoner.countQueryAnswers(Rxz, Arrays.asList(x), true).getCount());
+			assertEquals(2, reasoner.countQueryAnswers(Rxz, Arrays.asList(z), true).getCount());
+			assertEquals(0, reasoner.countQueryAnswers(Rxz, Arrays.asList(z), false).getCount());
+			assertEquals(0, reasoner.countQueryAnswers(Expressions.makePositiveLiteral("T", x, z), Arrays.asList(x),
+					true).getCount());
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void projection_variableNotInQuery_throwsException() throws IOException {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatement(factPc);
+		try (VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+			reasoner.countQueryAnswers(Px, Arrays.asList(Expressions.makeUniversalVariable("z")), true);
+		}
+	}
+
 }
@@ -38,6 +38,7 @@ import org.semanticweb.rulewerk.core.reasoner.implementation.InMemoryDataSource;
 import org.semanticweb.rulewerk.core.reasoner.implementation.RdfFileDataSource;
 import org.semanticweb.rulewerk.core.reasoner.implementation.ReasonerDataSource;
 import org.semanticweb.rulewerk.core.reasoner.implementation.SparqlQueryResultDataSource;
+import org.semanticweb.rulewerk.core.reasoner.implementation.StreamingCsvFileDataSource;
 
 public class VLogDataSourceConfigurationVisitorTest {
 	private final String csvFile = FileDataSourceTestUtils.INPUT_FOLDER + "file.csv";
@@ -90,12 +91,33 @@ public class VLogDataSourceConfigurationVisitorTest {
 		assertEquals(expectedConfigString, toConfigString(listDataSource));
 	}
 
+	@Test
+	public void visit_cachedSparqlQueryResultDataSource_returnsNull() throws IOException {
+		final SparqlQueryResultDataSource dataSource = new SparqlQueryResultDataSource(endpoint, "b,a",
+				"?a wdt:P22 ?b");
+		final VLogDataSourceConfigurationVisitor visitor = new VLogDataSourceConfigurationVisitor(true);
+		dataSource.accept(visitor);
+		assertEquals(null, visitor.getConfigString());
+	}
+
 	@Test
 	public void visit_InMemoryDataSource_returnsNull() throws IOException {
 		final InMemoryDataSource inMemoryDataSource = new VLogInMemoryDataSource(1, 1);
 		assertEquals(null, toConfigString(inMemoryDataSource));
 	}
 
+	@Test
+	public void visit_VLogDictionaryDataSource_returnsNull() throws IOException {
+		final InMemoryDataSource dictionaryDataSource = new VLogDictionaryDataSource(1, 1);
+		assertEquals(null, toConfigString(dictionaryDataSource));
+	}
+
+	@Test
+	public void visit_StreamingCsvFileDataSource_returnsNull() throws IOException {
+		final StreamingCsvFileDataSource streamingDataSource = new StreamingCsvFileDataSource(csvFile, 0);
+		assertEquals(null, toConfigString(streamingDataSource));
+	}
+
 	@Test
 	public void getDirCanonicalPath_relativePath_succeeds() throws IOException {
 		final VLogDataSourceConfigurationVisitor visitor = new VLogDataSourceConfigurationVisitor();
@@ -20,9 +20,15 @@ package org.semanticweb.rulewerk.reasoner.vlog;
  * #L%
  */
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
 import org.junit.Test;
 import org.semanticweb.rulewerk.core.model.api.AbstractConstant;
 import org.semanticweb.rulewerk.core.model.api.Fact;
@@ -72,4 +78,27 @@ public class VLogKnowledgeBaseTest {
 		VLogKnowledgeBase vKB = new VLogKnowledgeBase(knowledgeBase);
 		assertTrue(vKB.hasData());
 	}
+
+	@Test
+	public void getRelevantPredicates_followsRuleBodies() {
+		final Predicate r = Expressions.makePredicate("R", 1);
+		knowledgeBase.addStatement(Expressions.makeRule(Expressions.makePositiveLiteral(q, x), literal));
+		knowledgeBase.addStatement(Expressions.makeFact(r, c));
+		VLogKnowledgeBase vKB = new VLogKnowledgeBase(knowledgeBase);
+
+		final Set<Predicate> relevant = VLogKnowledgeBase.getRelevantPredicates(vKB.getPredicateDependencies(),
+				Collections.singleton(q));
+		assertEquals(new HashSet<>(Arrays.asList(p, q)), relevant);
+	}
+
+	@Test
+	public void discardIrrelevantData_keepsRelevantData() {
+		knowledgeBase.addStatement(fact);
+		knowledgeBase.addStatement(Expressions.makeFact(q, c));
+		VLogKnowledgeBase vKB = new VLogKnowledgeBase(knowledgeBase);
+
+		assertEquals(Collections.singleton(q), vKB.discardIrrelevantData(Collections.singleton(p)));
+		assertEquals(Collections.singleton(p), vKB.getEdbPredicates().keySet());
+		assertEquals(Collections.singleton(p), vKB.getDirectEdbFacts().keySet());
+	}
 }
@@ -0,0 +1,132 @@
+package org.semanticweb.rulewerk.reasoner.vlog;
+
+/*-
+ * #%L
+ * Rulewerk VLog Reasoner Support
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.semanticweb.rulewerk.core.exceptions.IncompatiblePredicateArityException;
+import org.semanticweb.rulewerk.core.model.api.AbstractConstant;
+import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.api.UniversalVariable;
+import org.semanticweb.rulewerk.core.model.implementation.DataSourceDeclarationImpl;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.core.reasoner.QueryResultIterator;
+import org.semanticweb.rulewerk.core.reasoner.implementation.CsvFileDataSource;
+
+public class VLogReasonerLazyEdbLoadingTest {
+
+	private final Predicate p = Expressions.makePredicate("p", 1);
+	private final Predicate q = Expressions.makePredicate("q", 1);
+	private final Predicate r = Expressions.makePredicate("r", 1);
+	private final Predicate t = Expressions.makePredicate("t", 1);
+	private final Predicate wrongArity = Expressions.makePredicate("s", 1);
+	private final UniversalVariable x = Expressions.makeUniversalVariable("x");
+	private final AbstractConstant a = Expressions.makeAbstractConstant("a");
+	private final AbstractConstant b = Expressions.makeAbstractConstant("b");
+
+	private KnowledgeBase makeKnowledgeBase() throws IOException {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatement(Expressions.makeFact(this.p, this.a));
+		kb.addStatement(Expressions.makeFact(this.q, this.b));
+		kb.addStatement(Expressions.makeRule(Expressions.makePositiveLiteral(this.r, this.x),
+				Expressions.makePositiveLiteral(this.p, this.x)));
+		kb.addStatement(Expressions.makeRule(Expressions.makePositiveLiteral(this.t, this.x),
+				Expressions.makePositiveLiteral(this.q, this.x)));
+		// loading this binary data source for a unary predicate fails
+		kb.addStatement(new DataSourceDeclarationImpl(this.wrongArity, new CsvFileDataSource(
+				FileDataSourceTestUtils.INPUT_FOLDER + FileDataSourceTestUtils.binaryCsvFileNameRoot + ".csv")));
+		return kb;
+	}
+
+	private Set<List<Term>> query(final VLogReasoner reasoner, final Predicate predicate) {
+		final PositiveLiteral query = Expressions.makePositiveLiteral(predicate, this.x);
+		try (final QueryResultIterator iterator = reasoner.answerQuery(query, true)) {
+			return QueryResultsUtils.collectQueryResults(iterator);
+		}
+	}
+
+	@Test
+	public void reason_lazyEdbLoading_skipsUnusedPredicates() throws IOException {
+		try (final VLogReasoner reasoner = new VLogReasoner(makeKnowledgeBase())) {
+			reasoner.setLazyEdbLoading(true);
+			reasoner.reason();
+
+			assertEquals(Collections.singleton(Arrays.asList(this.a)), query(reasoner, this.r));
+			assertEquals(Collections.singleton(Arrays.asList(this.b)), query(reasoner, this.t));
+		}
+	}
+
+	@Test
+	public void reason_registeredQuery_loadsOtherPredicatesOnDemand() throws IOException {
+		try (final VLogReasoner reasoner = new VLogReasoner(makeKnowledgeBase())) {
+			reasoner.setLazyEdbLoading(true);
+			reasoner.registerQuery(Expressions.makePositiveLiteral(this.r, this.x));
+			reasoner.reason();
+
+			assertEquals(Collections.singleton(Arrays.asList(this.a)), query(reasoner, this.r));
+			assertEquals(Collections.singleton(Arrays.asList(this.b)), query(reasoner, this.t));
+			assertEquals(Collections.singleton(Arrays.asList(this.b)), query(reasoner, this.q));
+			assertEquals(Collections.singleton(Arrays.asList(this.a)), query(reasoner, this.r));
+		}
+	}
+
+	@Test(expected = IncompatiblePredicateArityException.class)
+	public void answerQuery_lazyEdbLoading_loadsQueriedPredicate() throws IOException {
+		try (final VLogReasoner reasoner = new VLogReasoner(makeKnowledgeBase())) {
+			reasoner.setLazyEdbLoading(true);
+			reasoner.reason();
+			query(reasoner, this.wrongArity);
+		}
+	}
+
+	@Test(expected = IncompatiblePredicateArityException.class)
+	public void reason_eagerLoading_loadsAllPredicates() throws IOException {
+		try (final VLogReasoner reasoner = new VLogReasoner(makeKnowledgeBase())) {
+			reasoner.reason();
+		}
+	}
+
+	@Test
+	public void forEachInference_lazyEdbLoading_includesAllPredicates() throws IOException {
+		final KnowledgeBase kb = makeKnowledgeBase();
+		kb.removeStatement(kb.getDataSourceDeclarations().get(0));
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.setLazyEdbLoading(true);
+			reasoner.registerQuery(Expressions.makePositiveLiteral(this.r, this.x));
+			reasoner.reason();
+
+			final Set<Predicate> predicates = new HashSet<>();
+			reasoner.forEachInference((predicate, terms) -> predicates.add(predicate));
+			assertEquals(new HashSet<>(Arrays.asList(this.p, this.q, this.r, this.t)), predicates);
+		}
+	}
+}
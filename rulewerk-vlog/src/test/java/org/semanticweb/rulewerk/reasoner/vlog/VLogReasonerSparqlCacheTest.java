@@ -0,0 +1,114 @@
+package org.semanticweb.rulewerk.reasoner.vlog;
+
+/*-
+ * #%L
+ * Rulewerk VLog Reasoner Support
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.internal.util.collections.Sets;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.api.Variable;
+import org.semanticweb.rulewerk.core.model.implementation.DataSourceDeclarationImpl;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.core.reasoner.QueryResultIterator;
+import org.semanticweb.rulewerk.core.reasoner.implementation.SparqlQueryResultCache;
+import org.semanticweb.rulewerk.core.reasoner.implementation.SparqlQueryResultDataSource;
+
+import com.sun.net.httpserver.HttpServer;
+
+public class VLogReasonerSparqlCacheTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private HttpServer server;
+	private final AtomicInteger requests = new AtomicInteger();
+	private URL endpoint;
+
+	private final Predicate predicate = Expressions.makePredicate("p", 2);
+	private final Variable x = Expressions.makeUniversalVariable("x");
+	private final Variable y = Expressions.makeUniversalVariable("y");
+
+	@Before
+	public void startServer() throws IOException {
+		this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		this.server.createContext("/sparql", exchange -> {
+			this.requests.incrementAndGet();
+			final byte[] body = "?a\t?b\n<http://example.org/a>\t\"b\"@en\n".getBytes(StandardCharsets.UTF_8);
+			exchange.sendResponseHeaders(200, body.length);
+			try (OutputStream output = exchange.getResponseBody()) {
+				output.write(body);
+			}
+		});
+		this.server.start();
+		this.endpoint = new URL("http://localhost:" + this.server.getAddress().getPort() + "/sparql");
+	}
+
+	@After
+	public void stopServer() {
+		this.server.stop(0);
+	}
+
+	private Set<List<Term>> query(final VLogReasoner reasoner) {
+		try (final QueryResultIterator iterator = reasoner
+				.answerQuery(Expressions.makePositiveLiteral(this.predicate, this.x, this.y), true)) {
+			return QueryResultsUtils.collectQueryResults(iterator);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void reason_cachedSparqlResults_queriedOnce() throws IOException {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatement(new DataSourceDeclarationImpl(this.predicate,
+				new SparqlQueryResultDataSource(this.endpoint, "a,b", "?a <http://example.org/p> ?b")));
+		final Set<List<Term>> expected = Sets.newSet(Arrays.asList(Expressions.makeAbstractConstant("http://example.org/a"),
+				Expressions.makeLanguageStringConstant("b", "en")));
+
+		try (final SparqlQueryResultCache cache = new SparqlQueryResultCache(this.folder.getRoot(), 60000, 1 << 20);
+				final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.setSparqlQueryResultCache(cache);
+			reasoner.reason();
+			assertEquals(expected, query(reasoner));
+
+			reasoner.resetReasoner();
+			reasoner.reason();
+			assertEquals(expected, query(reasoner));
+			assertEquals(1, this.requests.get());
+		}
+	}
+}
@@ -0,0 +1,104 @@
+package org.semanticweb.rulewerk.reasoner.vlog;
+
+/*-
+ * #%L
+ * Rulewerk VLog Reasoner Support
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.mockito.internal.util.collections.Sets;
+import org.semanticweb.rulewerk.core.exceptions.IncompatiblePredicateArityException;
+import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.api.Variable;
+import org.semanticweb.rulewerk.core.model.implementation.DataSourceDeclarationImpl;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.core.reasoner.QueryResultIterator;
+import org.semanticweb.rulewerk.core.reasoner.implementation.StreamingCsvFileDataSource;
+import org.semanticweb.rulewerk.core.reasoner.implementation.StreamingCsvFileDataSource.ColumnType;
+
+public class VLogReasonerStreamingCsvInputTest {
+
+	private static final Predicate binaryPredicate = Expressions.makePredicate("p", 2);
+	private static final Predicate unaryPredicate = Expressions.makePredicate("q", 1);
+
+	private static final String csvFile = FileDataSourceTestUtils.INPUT_FOLDER + "wideFacts.csv";
+	private static final String zippedTsvFile = FileDataSourceTestUtils.INPUT_FOLDER + "wideFactsZipped.tsv.gz";
+
+	private final Variable x = Expressions.makeUniversalVariable("x");
+	private final Variable y = Expressions.makeUniversalVariable("y");
+
+	private Set<List<Term>> load(final Predicate predicate, final StreamingCsvFileDataSource dataSource)
+			throws IOException {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatement(new DataSourceDeclarationImpl(predicate, dataSource));
+
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.load();
+			final PositiveLiteral query = predicate.getArity() == 2
+					? Expressions.makePositiveLiteral(predicate, this.x, this.y)
+					: Expressions.makePositiveLiteral(predicate, this.x);
+			try (final QueryResultIterator iterator = reasoner.answerQuery(query, true)) {
+				return QueryResultsUtils.collectQueryResults(iterator);
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testLoadProjectedColumns() throws IOException {
+		final Set<List<Term>> expected = Sets.newSet(
+				Arrays.asList(Expressions.makeAbstractConstant("x"), Expressions.makeAbstractConstant("c1")),
+				Arrays.asList(Expressions.makeAbstractConstant("y"), Expressions.makeAbstractConstant("c2")),
+				Arrays.asList(Expressions.makeAbstractConstant("z"), Expressions.makeAbstractConstant("c3")));
+
+		assertEquals(expected, load(binaryPredicate, new StreamingCsvFileDataSource(csvFile, 1, 0)));
+		assertEquals(expected, load(binaryPredicate, new StreamingCsvFileDataSource(zippedTsvFile, 1, 0)));
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testLoadFilteredTypedColumn() throws IOException {
+		final Set<List<Term>> expected = Sets.newSet(
+				Arrays.asList(Expressions.makeDatatypeConstant("1", "http://www.w3.org/2001/XMLSchema#integer")),
+				Arrays.asList(Expressions.makeDatatypeConstant("3", "http://www.w3.org/2001/XMLSchema#integer")));
+
+		assertEquals(expected, load(unaryPredicate, new StreamingCsvFileDataSource(zippedTsvFile, new int[] { 2 },
+				new ColumnType[] { ColumnType.INTEGER }, row -> row[3].equals("yes"))));
+	}
+
+	@Test(expected = IncompatiblePredicateArityException.class)
+	public void testLoadWrongArity() throws IOException {
+		load(unaryPredicate, new StreamingCsvFileDataSource(csvFile, 1, 0));
+	}
+
+	@Test(expected = IOException.class)
+	public void testLoadMissingColumn() throws IOException {
+		load(unaryPredicate, new StreamingCsvFileDataSource(csvFile, 4));
+	}
+
+}
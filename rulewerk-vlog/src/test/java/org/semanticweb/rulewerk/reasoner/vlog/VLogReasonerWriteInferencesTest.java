@@ -25,6 +25,7 @@ import static org.mockito.Mockito.*;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -187,7 +188,7 @@ public class VLogReasonerWriteInferencesTest {
 			reasoner.writeInferences(stream);
 			stream.flush();
 
-			Stream<String> inferences = Arrays.stream(stream.toString().split("(?<=[>)]\\s?)\\.\\s*"));
+			Stream<String> inferences = Arrays.stream(stream.toString(StandardCharsets.UTF_8.name()).split("(?<=[>)]\\s?)\\.\\s*"));
 
 			return inferences.map((String inference) -> inference + ".").collect(Collectors.toList());
 		}